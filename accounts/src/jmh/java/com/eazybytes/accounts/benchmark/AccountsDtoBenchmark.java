@@ -0,0 +1,144 @@
+package com.eazybytes.accounts.benchmark;
+
+import com.eazybytes.accounts.dto.AccountsDto;
+import com.eazybytes.accounts.dto.CardsDto;
+import com.eazybytes.accounts.dto.CustomerDetailsDto;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.dto.LoansDto;
+import com.eazybytes.accounts.entity.Accounts;
+import com.eazybytes.accounts.entity.Customer;
+import com.eazybytes.accounts.mapper.AccountsMapper;
+import com.eazybytes.accounts.mapper.CustomerMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Per request work outside the database : entity <-> DTO mapping, Bean Validation of the @RequestBody CustomerDto
+    (including the @Email and mobile number @Pattern regexes, valid and invalid input) and Jackson reading of the
+    request body and writing of the response DTOs, with an ObjectMapper built the way Spring Boot builds its own.
+
+    Throughput mode, the gc profiler (-prof gc, on by default in the jmh profile) reports the allocation per
+    operation as gc.alloc.rate.norm.
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="AccountsDtoBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountsDtoBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ObjectMapper objectMapper;
+
+    private Customer customer;
+    private Accounts accounts;
+    private CustomerDto customerDto;
+    private CustomerDto invalidCustomerDto;
+    private CustomerDetailsDto customerDetailsDto;
+    private String customerJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setName("Madan Reddy");
+        customer.setEmail("tutor@eazybytes.com");
+        customer.setMobileNumber("9345432123");
+        accounts = new Accounts();
+        accounts.setCustomerId(1L);
+        accounts.setAccountNumber(1234567890L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("123 Main Street, New York");
+
+        customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        invalidCustomerDto = new CustomerDto();
+        invalidCustomerDto.setName("Mad");
+        invalidCustomerDto.setEmail("tutor@@eazybytes");
+        invalidCustomerDto.setMobileNumber("93454321");
+
+        customerDetailsDto = CustomerMapper.mapToCustomerDetailsDto(customerDto, new CustomerDetailsDto());
+        CardsDto cardsDto = new CardsDto();
+        cardsDto.setMobileNumber("9345432123");
+        cardsDto.setCardNumber("100646930341");
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100000);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(99000);
+        customerDetailsDto.setCardsDto(cardsDto);
+        LoansDto loansDto = new LoansDto();
+        loansDto.setMobileNumber("9345432123");
+        loansDto.setLoanNumber("548732457654");
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100000);
+        loansDto.setAmountPaid(1000);
+        loansDto.setOutstandingAmount(99000);
+        customerDetailsDto.setLoansDto(loansDto);
+
+        customerJson = objectMapper.writeValueAsString(customerDto);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public CustomerDto mapToCustomerDto() {
+        CustomerDto mappedCustomerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        mappedCustomerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        return mappedCustomerDto;
+    }
+
+    @Benchmark
+    public Customer mapToCustomer() {
+        return CustomerMapper.mapToCustomer(customerDto, new Customer());
+    }
+
+    @Benchmark
+    public Accounts mapToAccounts() {
+        return AccountsMapper.mapToAccounts(customerDto.getAccountsDto(), new Accounts());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> validateCustomer() {
+        return validator.validate(customerDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> validateInvalidCustomer() {
+        return validator.validate(invalidCustomerDto);
+    }
+
+    @Benchmark
+    public CustomerDto readCustomer() throws JsonProcessingException {
+        return objectMapper.readValue(customerJson, CustomerDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeCustomer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public byte[] writeCustomerDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerDetailsDto);
+    }
+}
@@ -0,0 +1,94 @@
+package com.eazybytes.accounts.benchmark;
+
+import com.eazybytes.accounts.AccountsApplication;
+import com.eazybytes.accounts.dto.AccountsDto;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.entity.Accounts;
+import com.eazybytes.accounts.entity.Customer;
+import com.eazybytes.accounts.mapper.AccountsMapper;
+import com.eazybytes.accounts.mapper.CustomerMapper;
+import com.eazybytes.accounts.repository.AccountsRepository;
+import com.eazybytes.accounts.repository.CustomerRepository;
+import com.eazybytes.accounts.service.IAccountsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Compares the original two-query fetch path (customer, then account, both as managed entities) with the
+    single joined DTO projection used by AccountsServiceImpl.fetchAccount. Both run against the embedded H2 database
+    without the fetchAccount cache, so only the repository path is measured.
+
+    SampleTime mode reports p50/p99 latency, the gc profiler (-prof gc, on by default in the jmh profile) reports
+    the allocation per request as gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountsFetchBenchmark {
+
+    @Param({"1000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private AccountsRepository accountsRepository;
+    private String[] mobileNumbers;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextMobileNumber(String[] mobileNumbers) {
+            return mobileNumbers[(next++ & Integer.MAX_VALUE) % mobileNumbers.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN"); // arguments, application.yml would override builder properties
+        customerRepository = context.getBean(CustomerRepository.class);
+        accountsRepository = context.getBean(AccountsRepository.class);
+        IAccountsService accountsService = context.getBean(IAccountsService.class);
+
+        mobileNumbers = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            mobileNumbers[i] = Long.toString(9000000000L + i);
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Bench Customer " + i);
+            customerDto.setEmail("bench" + i + "@eazybytes.com");
+            customerDto.setMobileNumber(mobileNumbers[i]);
+            accountsService.createAccount(customerDto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto twoQueryEntities(Cursor cursor) {
+        String mobileNumber = cursor.nextMobileNumber(mobileNumbers);
+        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow();
+        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow();
+        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        return customerDto;
+    }
+
+    @Benchmark
+    public CustomerDto joinedProjection(Cursor cursor) {
+        String mobileNumber = cursor.nextMobileNumber(mobileNumbers);
+        return CustomerMapper.mapToCustomerDto(
+                customerRepository.findCustomerAccountsByMobileNumber(mobileNumber).orElseThrow(), new CustomerDto());
+    }
+}
@@ -0,0 +1,73 @@
+package com.eazybytes.accounts.benchmark;
+
+import com.eazybytes.accounts.AccountsApplication;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.service.IAccountsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    AccountsServiceImpl.fetchAccount through the Spring proxy against the embedded H2 database, once with the
+    Caffeine accounts cache (cache=caffeine) and once going to the database on every call (cache=none).
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="AccountsServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountsServiceBenchmark {
+
+    @Param({"caffeine", "none"})
+    private String cache;
+
+    @Param({"1000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+    private IAccountsService accountsService;
+    private String[] mobileNumbers;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextMobileNumber(String[] mobileNumbers) {
+            return mobileNumbers[(next++ & Integer.MAX_VALUE) % mobileNumbers.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.cache.type=" + cache, "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        accountsService = context.getBean(IAccountsService.class);
+
+        mobileNumbers = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            mobileNumbers[i] = Long.toString(9000000000L + i);
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Bench Customer " + i);
+            customerDto.setEmail("bench" + i + "@eazybytes.com");
+            customerDto.setMobileNumber(mobileNumbers[i]);
+            accountsService.createAccount(customerDto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto fetchAccount(Cursor cursor) {
+        return accountsService.fetchAccount(cursor.nextMobileNumber(mobileNumbers));
+    }
+}
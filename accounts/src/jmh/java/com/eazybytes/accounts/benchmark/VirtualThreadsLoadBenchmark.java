@@ -0,0 +1,154 @@
+package com.eazybytes.accounts.benchmark;
+
+import com.eazybytes.accounts.AccountsApplication;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.service.IAccountsService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Load test of the running accounts service with Tomcat's platform thread pool (virtualThreads=false, the default
+    server.tomcat.threads.max of 200 and the applicationTaskExecutor pool from application.yml) against
+    spring.threads.virtual.enabled=true. 400 client threads keep requests in flight over HTTP:
+
+    - fetch : GET /api/fetch with the accounts cache disabled, so every request blocks on H2 through the JPA repository
+    - fetchCustomerDetails : GET /api/fetchCustomerDetails against stub Cards and Loans servers that answer after
+      downstreamLatencyMillis, so every request blocks on two downstream calls besides the repository call
+
+    Throughput mode reports requests per millisecond, SampleTime mode reports p50/p99/p99.9 latency.
+    The forked JVM runs with -Djdk.tracePinnedThreads=short, any virtual thread that blocks while pinned to its
+    carrier (inside a synchronized block or a native frame) prints its stack to the benchmark output.
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="VirtualThreadsLoadBenchmark"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(400)
+@State(Scope.Benchmark)
+public class VirtualThreadsLoadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20"})
+    private int downstreamLatencyMillis;
+
+    @Param({"1000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+    private HttpServer downstream;
+    private ExecutorService downstreamExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String[] mobileNumbers;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextMobileNumber(String[] mobileNumbers) {
+            return mobileNumbers[(next++ & Integer.MAX_VALUE) % mobileNumbers.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // One stub server answers for both Cards and Loans, on virtual threads so it never limits the load
+        downstreamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        downstream.createContext("/cards/api/fetch", exchange -> respond(exchange,
+                "{\"mobileNumber\":\"%s\",\"cardNumber\":\"100646930341\",\"cardType\":\"Credit Card\",\"totalLimit\":100000,\"amountUsed\":0,\"availableAmount\":100000}"));
+        downstream.createContext("/loans/api/fetch", exchange -> respond(exchange,
+                "{\"mobileNumber\":\"%s\",\"loanNumber\":\"548732457654\",\"loanType\":\"Home Loan\",\"totalLoan\":100000,\"amountPaid\":0,\"outstandingAmount\":100000}"));
+        downstream.setExecutor(downstreamExecutor);
+        downstream.start();
+        String downstreamUrl = "http://localhost:" + downstream.getAddress().getPort();
+
+        context = new SpringApplicationBuilder(AccountsApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.cache.type=none",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--accounts.downstream.cards.base-url=" + downstreamUrl + "/cards",
+                        "--accounts.downstream.loans.base-url=" + downstreamUrl + "/loans",
+                        // queueing under overload must show up as latency, not as degraded responses
+                        "--accounts.downstream.cards.timeout=60s",
+                        "--accounts.downstream.loans.timeout=60s");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        IAccountsService accountsService = context.getBean(IAccountsService.class);
+        mobileNumbers = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            mobileNumbers[i] = Long.toString(9000000000L + i);
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Bench Customer " + i);
+            customerDto.setEmail("bench" + i + "@eazybytes.com");
+            customerDto.setMobileNumber(mobileNumbers[i]);
+            accountsService.createAccount(customerDto);
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+        downstream.stop(0);
+        downstreamExecutor.close();
+    }
+
+    @Benchmark
+    public int fetch(Cursor cursor) throws Exception {
+        return get("/api/fetch?mobileNumber=" + cursor.nextMobileNumber(mobileNumbers));
+    }
+
+    @Benchmark
+    public int fetchCustomerDetails(Cursor cursor) throws Exception {
+        return get("/api/fetchCustomerDetails?mobileNumber=" + cursor.nextMobileNumber(mobileNumbers));
+    }
+
+    private int get(String path) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private void respond(HttpExchange exchange, String bodyTemplate) throws IOException {
+        try {
+            Thread.sleep(downstreamLatencyMillis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        String mobileNumber = exchange.getRequestURI().getQuery().replace("mobileNumber=", "");
+        byte[] body = String.format(bodyTemplate, mobileNumber).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
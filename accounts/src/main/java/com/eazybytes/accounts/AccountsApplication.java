@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication //spring boot application annotation. It indicates that this is a Spring Boot application and triggers auto-configuration, component scanning, and other features of Spring Boot.
@@ -16,6 +17,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @EntityScan("com.eazybytes.accounts.model")*/ //entity scan annotation. It specifies the base package to scan for JPA entity classes. In this case, it scans the "com.eazybytes.accounts.model" package for entity components.
 
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl") //enables JPA Auditing in the application. It allows automatic population of auditing-related fields (like createdBy, createdDate, lastModifiedBy, lastModifiedDate) in JPA entities. The auditorAwareRef attribute specifies the bean name of the AuditorAware implementation that provides the current auditor information.
+@EnableCaching // enables Spring's annotation driven cache management (@Cacheable, @CacheEvict). The cache provider (Caffeine) and its size/TTL limits are configured under spring.cache in application.yml.
 @OpenAPIDefinition( //swagger documentation annotation. It marks the application as a OpenAPI definition
 		info = @Info( //swagger info annotation. It defines the metadata for the API documentation. It includes details such as title, version, description, contact information, and license information
 				title = "Accounts Microservice API", //title of the API
@@ -0,0 +1,53 @@
+package com.eazybytes.accounts.config;
+
+import com.eazybytes.accounts.service.client.CardsClient;
+import com.eazybytes.accounts.service.client.LoansClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.support.RestClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+import java.net.http.HttpClient;
+
+@Configuration
+@EnableConfigurationProperties(DownstreamServicesProperties.class)
+public class DownstreamClientsConfig {
+
+    // One JDK HttpClient shared by all downstream clients: it keeps HTTP/1.1 connections alive and reuses them per host,
+    // so calls to Cards and Loans do not pay a TCP handshake each time.
+    @Bean
+    public HttpClient downstreamHttpClient(DownstreamServicesProperties properties) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+    }
+
+    @Bean
+    public CardsClient cardsClient(RestClient.Builder restClientBuilder, HttpClient downstreamHttpClient,
+                                   DownstreamServicesProperties properties) {
+        return createClient(restClientBuilder, downstreamHttpClient, properties.getCards(), CardsClient.class);
+    }
+
+    @Bean
+    public LoansClient loansClient(RestClient.Builder restClientBuilder, HttpClient downstreamHttpClient,
+                                   DownstreamServicesProperties properties) {
+        return createClient(restClientBuilder, downstreamHttpClient, properties.getLoans(), LoansClient.class);
+    }
+
+    private static <T> T createClient(RestClient.Builder restClientBuilder, HttpClient httpClient,
+                                      DownstreamServicesProperties.Service service, Class<T> clientType) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(service.getTimeout());
+        RestClient restClient = restClientBuilder
+                .baseUrl(service.getBaseUrl())
+                .requestFactory(requestFactory)
+                .build();
+        return HttpServiceProxyFactory.builderFor(RestClientAdapter.create(restClient))
+                .build()
+                .createClient(clientType);
+    }
+}
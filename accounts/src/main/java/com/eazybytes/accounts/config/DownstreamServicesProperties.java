@@ -0,0 +1,26 @@
+package com.eazybytes.accounts.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Binds the accounts.downstream.* properties: where the Cards and Loans microservices live and how long to wait for them.
+@Data
+@ConfigurationProperties(prefix = "accounts.downstream")
+public class DownstreamServicesProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Service cards = new Service();
+
+    private Service loans = new Service();
+
+    @Data
+    public static class Service {
+
+        private String baseUrl;
+
+        private Duration timeout = Duration.ofSeconds(2); // whole call, from sending the request to having the response body
+    }
+}
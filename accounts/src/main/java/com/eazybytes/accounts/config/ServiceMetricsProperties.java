@@ -0,0 +1,25 @@
+package com.eazybytes.accounts.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binds the accounts.metrics.* properties: the SLO buckets published with the service.operation timers.
+@Data
+@ConfigurationProperties(prefix = "accounts.metrics")
+public class ServiceMetricsProperties {
+
+    private List<Duration> slo = List.of(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1));
+
+    private Map<String, List<Duration>> operationSlo = new HashMap<>(); // per operation (service method name) overrides of slo
+
+    public List<Duration> sloFor(String operation) {
+        return operationSlo.getOrDefault(operation, slo);
+    }
+}
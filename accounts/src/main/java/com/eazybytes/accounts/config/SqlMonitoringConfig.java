@@ -0,0 +1,49 @@
+package com.eazybytes.accounts.config;
+
+import com.eazybytes.accounts.metrics.SqlStatementBudgetInterceptor;
+import com.eazybytes.accounts.metrics.SqlStatementRecorder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlMonitoringProperties.class)
+public class SqlMonitoringConfig implements WebMvcConfigurer {
+
+    private final SqlStatementRecorder sqlStatementRecorder;
+
+    public SqlMonitoringConfig(SqlStatementRecorder sqlStatementRecorder) {
+        this.sqlStatementRecorder = sqlStatementRecorder;
+    }
+
+    // Wraps the "dataSource" bean (built by Spring Boot, or the replica routing one), so every statement run through it
+    // reaches SqlStatementRecorder. The primary and replica pools behind the routing one are left alone, wrapping them
+    // too would count each statement twice. Static, post processors are created before the other beans of this configuration.
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(ObjectProvider<SqlStatementRecorder> sqlStatementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(sqlStatementRecorder.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementBudgetInterceptor(sqlStatementRecorder));
+    }
+}
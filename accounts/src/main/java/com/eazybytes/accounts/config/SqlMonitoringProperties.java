@@ -0,0 +1,26 @@
+package com.eazybytes.accounts.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Binds the accounts.sql.* properties: how many SQL statements a request may run and which statements count as slow.
+@Data
+@ConfigurationProperties(prefix = "accounts.sql")
+public class SqlMonitoringProperties {
+
+    private int statementBudget = 10; // statements per request before it is flagged as a likely N+1
+
+    private Map<String, Integer> endpointBudgets = new HashMap<>(); // per endpoint ("GET /api/fetch") overrides, 0 turns the check off
+
+    private Duration slowQueryThreshold = Duration.ofMillis(100);
+
+    private int logQueueCapacity = 1000; // pending log lines, further ones are dropped (and counted) instead of blocking requests
+
+    public int budgetFor(String endpoint) {
+        return endpointBudgets.getOrDefault(endpoint, statementBudget);
+    }
+}
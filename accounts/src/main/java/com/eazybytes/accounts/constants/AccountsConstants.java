@@ -12,10 +12,15 @@ public final class AccountsConstants {
     public static final String  MESSAGE_201 = "Account created successfully";
     public static final String  STATUS_200 = "200";
     public static final String  MESSAGE_200 = "Request processed successfully";
+    public static final String  STATUS_400 = "400";
+    public static final String  MESSAGE_400_NULL_RECORD = "Record cannot be null";
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
-    // public static final String  STATUS_500 = "500";
-    // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
+    public static final String  STATUS_500 = "500";
+    public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
+    public static final String  DEFAULT_BULK_CHUNK_SIZE = "500"; // records persisted per transaction by the bulk create API
+    public static final String  DEFAULT_PAGE_SIZE = "50"; // customers per page of the customers listing API
+    public static final String  ACCOUNTS_CACHE = "accounts"; // must match spring.cache.cache-names in application.yml
 
 }
\ No newline at end of file
@@ -2,25 +2,47 @@ package com.eazybytes.accounts.controller;
 
 import com.eazybytes.accounts.constants.AccountsConstants;
 import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.dto.CustomerPageDto;
 import com.eazybytes.accounts.dto.ErrorResponseDto;
 import com.eazybytes.accounts.dto.ResponseDto;
 import com.eazybytes.accounts.service.IAccountsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPOutputStream;
+
 @Tag( //swagger tag annotation. It is used to group and describe a set of related API endpoints in the generated OpenAPI documentation.
         name = "CRUD REST APIs for Accounts in EazyBank", // Name of the tag that categorizes the API endpoints, providing a clear and concise label for the group of endpoints related to account management in EazyBank.
         description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE account details" // Description of the tag that provides additional context about the purpose and functionality of the grouped API endpoints, highlighting that they enable Create, Read, Update, and Delete operations for account details in EazyBank.
@@ -32,6 +54,7 @@ import org.springframework.web.bind.annotation.*;
 public class AccountsController {
 
     private final IAccountsService iAccountsService;
+    private final ObjectMapper objectMapper;
 
 
     @Operation( //swagger operation annotation. It is used to describe a single API operation or endpoint in the generated OpenAPI documentation.
@@ -63,6 +86,141 @@ public class AccountsController {
     }
 
 
+    @Operation(
+            summary = "Bulk Create Accounts REST API",
+            description = "REST API to create many Customers & Accounts from a newline delimited JSON (NDJSON) stream of Customer records. " +
+                    "The stream is read incrementally and persisted in chunks; the response is an NDJSON stream with one result per record"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, per record results are in the body"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping(path = "/bulk-create", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkCreateAccounts(InputStream requestBody, // raw request body, so the payload is parsed record by record instead of being buffered
+                                   @RequestParam(defaultValue = AccountsConstants.DEFAULT_BULK_CHUNK_SIZE)
+                                   @Min(value = 1, message = "Chunk size must be at least 1")
+                                   @Max(value = 5000, message = "Chunk size must be at most 5000")
+                                   int chunkSize,
+                                   HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (BufferedReader records = new BufferedReader(new InputStreamReader(requestBody, StandardCharsets.UTF_8));
+             SequenceWriter resultWriter = objectMapper.writer()
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE) // let the servlet buffer decide when to send, not every record
+                     .withRootValueSeparator("\n")
+                     .writeValues(response.getOutputStream())) {
+            iAccountsService.createAccounts(new CustomerRecords(records, objectMapper.readerFor(CustomerDto.class)),
+                    chunkSize, result -> writeValue(resultWriter, result));
+        }
+    }
+
+    /*
+        The NDJSON records of a bulk create request, parsed one line at a time. The 200 status is already sent when a
+        record turns out to be malformed, so a bad line must not end the stream: next() throws RuntimeJsonMappingException
+        for it (like MappingIterator does for a record it cannot bind) and the following line is read as usual. Blank
+        lines are skipped, a literal null line is returned as null.
+     */
+    private static final class CustomerRecords implements Iterator<CustomerDto> {
+
+        private final BufferedReader records;
+        private final ObjectReader customerReader;
+        private String nextRecord;
+
+        CustomerRecords(BufferedReader records, ObjectReader customerReader) {
+            this.records = records;
+            this.customerReader = customerReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextRecord == null) {
+                    String line = records.readLine();
+                    if(line == null) {
+                        return false;
+                    }
+                    if(!line.isBlank()) {
+                        nextRecord = line;
+                    }
+                }
+                return true;
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        @Override
+        public CustomerDto next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String record = nextRecord;
+            nextRecord = null;
+            try {
+                return customerReader.readValue(record);
+            } catch (JsonProcessingException exception) {
+                throw new RuntimeJsonMappingException("Malformed record: " + exception.getOriginalMessage());
+            }
+        }
+    }
+
+
+    @Operation(
+            summary = "Export Accounts REST API",
+            description = "REST API to export all Customer &  Account details as a newline delimited JSON (NDJSON) stream, optionally gzip encoded. " +
+                    "Rows are written as they are read from the database, so memory use does not depend on the number of rows"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportAccounts(@RequestParam(defaultValue = "false") boolean gzip,
+                               HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"accounts.ndjson\"");
+        if(gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream outputStream = gzip ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024) : response.getOutputStream();
+        try (SequenceWriter rowWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            iAccountsService.exportAccounts(row -> writeValue(rowWriter, row));
+        }
+    }
+
+    private static void writeValue(SequenceWriter sequenceWriter, Object value) {
+        try {
+            sequenceWriter.write(value);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+
 
     @Operation(
             summary = "Fetch Account Details REST API",
@@ -91,6 +249,43 @@ public class AccountsController {
     }
 
 
+    @Operation(
+            summary = "Fetch Customers REST API",
+            description = "REST API to list Customer &  Account details page by page, ordered by customer. " +
+                    "Pass the nextCursor of a page as cursor to get the following page"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request, the cursor is invalid",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/customers")
+    public ResponseEntity<CustomerPageDto> fetchCustomers(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = AccountsConstants.DEFAULT_PAGE_SIZE)
+                                                          @Min(value = 1, message = "Page size must be at least 1")
+                                                          @Max(value = 500, message = "Page size must be at most 500")
+                                                          int pageSize) {
+        CustomerPageDto customerPageDto = iAccountsService.fetchCustomers(cursor, pageSize);
+        return ResponseEntity.status(HttpStatus.OK).body(customerPageDto);
+    }
+
+
     @Operation(
             summary = "Update Account Details REST API",
             description = "REST API to update Customer &  Account details based on a account number"
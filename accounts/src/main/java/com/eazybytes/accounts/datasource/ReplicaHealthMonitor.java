@@ -0,0 +1,109 @@
+package com.eazybytes.accounts.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Measures how far each replica is behind the primary and tells ReplicaRoutingDataSource which replicas may serve
+    reads.
+
+    Every healthCheckInterval the current time is written to the single replication_heartbeat row of the primary and
+    read back from every replica. The replica's lag is the age of the heartbeat it has received so far, a replica
+    lagging more than maxReplicaLag, or failing the query, serves no reads until a later check finds it caught up.
+    The checks run on their own daemon thread, against the primary and replica pools directly, so they neither count
+    against a request's SQL statements nor show up in /actuator/sqlstats.
+ */
+public class ReplicaHealthMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private static final String WRITE_HEARTBEAT = "UPDATE replication_heartbeat SET beat_at = ? WHERE heartbeat_id = 1";
+    private static final String READ_HEARTBEAT = "SELECT beat_at FROM replication_heartbeat WHERE heartbeat_id = 1";
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final Map<String, JdbcTemplate> replicaJdbcTemplates = new LinkedHashMap<>();
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Duration maxReplicaLag;
+    private final Duration healthCheckInterval;
+    private final Map<String, Boolean> lastHealth = new HashMap<>(); // only touched by the health check thread
+    private volatile ScheduledExecutorService scheduler;
+
+    public ReplicaHealthMonitor(DataSource primary, ReplicaRoutingDataSource routingDataSource,
+                                Duration maxReplicaLag, Duration healthCheckInterval) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        routingDataSource.getReplicas().forEach((name, replica) -> replicaJdbcTemplates.put(name, new JdbcTemplate(replica)));
+        this.routingDataSource = routingDataSource;
+        this.maxReplicaLag = maxReplicaLag;
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try {
+            primaryJdbcTemplate.update(WRITE_HEARTBEAT, now);
+        } catch (DataAccessException exception) {
+            // The replicas' heartbeats age until the primary takes writes again, they drop out once too old
+            logger.warn("Could not write the replication heartbeat to the primary: {}", exception.getMessage());
+        }
+        List<String> healthy = new ArrayList<>();
+        replicaJdbcTemplates.forEach((name, jdbcTemplate) -> {
+            String problem;
+            try {
+                Long beatAt = jdbcTemplate.queryForObject(READ_HEARTBEAT, Long.class);
+                long lagMillis = beatAt != null ? now - beatAt : Long.MAX_VALUE;
+                problem = lagMillis <= maxReplicaLag.toMillis() ? null : "lagging " + lagMillis + " ms behind the primary";
+            } catch (DataAccessException exception) {
+                problem = exception.getMessage();
+            }
+            if (problem == null) {
+                healthy.add(name);
+            }
+            reportTransition(name, problem);
+        });
+        routingDataSource.setHealthyReplicas(healthy);
+    }
+
+    private void reportTransition(String name, String problem) {
+        Boolean wasHealthy = lastHealth.put(name, problem == null);
+        if (problem != null && !Boolean.FALSE.equals(wasHealthy)) {
+            logger.warn("Replica {} is unhealthy, its reads go to the primary: {}", name, problem);
+        } else if (problem == null && !Boolean.TRUE.equals(wasHealthy)) {
+            logger.info("Replica {} is healthy and serves read-only transactions", name);
+        }
+    }
+}
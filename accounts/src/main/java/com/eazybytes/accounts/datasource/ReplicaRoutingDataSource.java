@@ -0,0 +1,95 @@
+package com.eazybytes.accounts.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+    Hands out connections of read-only transactions (@Transactional(readOnly = true), e.g. fetchAccount) from the
+    healthy replicas, round robin, and every other connection from the primary. ReplicaHealthMonitor decides which
+    replicas are healthy; with none of them healthy, reads fall back to the primary too. A replica that fails to hand
+    out a connection is taken out of the rotation right away and the primary serves the read instead.
+
+    The transaction is only known to be read-only once it has started, so this must sit behind a
+    LazyConnectionDataSourceProxy, which asks for the real connection on the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final AtomicReference<List<String>> healthyReplicas = new AtomicReference<>(List.of());
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        Map<Object, Object> targetDataSources = new HashMap<>(replicas);
+        targetDataSources.put(PRIMARY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas.get();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object lookupKey = determineCurrentLookupKey();
+        if (PRIMARY.equals(lookupKey)) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(lookupKey).getConnection();
+        } catch (SQLException exception) {
+            markUnhealthy((String) lookupKey);
+            logger.warn("Replica {} did not hand out a connection, reading from the primary: {}", lookupKey, exception.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    public Map<String, HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas.get();
+    }
+
+    void setHealthyReplicas(List<String> replicaNames) {
+        healthyReplicas.set(List.copyOf(replicaNames));
+    }
+
+    private void markUnhealthy(String replicaName) {
+        healthyReplicas.updateAndGet(healthy -> healthy.stream().filter(name -> !name.equals(replicaName)).toList());
+    }
+
+    // Inferred as the destroy method of the bean, the primary pool is a bean of its own
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
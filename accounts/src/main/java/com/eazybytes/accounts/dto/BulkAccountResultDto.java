@@ -0,0 +1,34 @@
+package com.eazybytes.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Schema(
+        name = "BulkAccountResult",
+        description = "Schema to hold the outcome of one record of a bulk account creation request"
+)
+@Data
+@AllArgsConstructor
+public class BulkAccountResultDto {
+
+    @Schema(
+            description = "1-based position of the record in the request stream", example = "1"
+    )
+    private long recordNumber;
+
+    @Schema(
+            description = "Mobile Number of the record", example = "9345432123"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Status code of this record", example = "201"
+    )
+    private String statusCode;
+
+    @Schema(
+            description = "Status message of this record", example = "Account created successfully"
+    )
+    private String statusMsg;
+}
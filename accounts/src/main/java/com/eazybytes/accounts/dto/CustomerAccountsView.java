@@ -0,0 +1,30 @@
+package com.eazybytes.accounts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+    Flat, read-only row of a customer joined with its account.
+    It is built by a JPQL constructor expression in CustomerRepository, so Hibernate never creates managed
+    Customer/Accounts entities (and no dirty-checking snapshots) for it. The field order must match the constructor call in the query.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomerAccountsView {
+
+    private Long customerId;
+
+    private String name;
+
+    private String email;
+
+    private String mobileNumber;
+
+    private Long accountNumber;
+
+    private String accountType;
+
+    private String branchAddress;
+}
@@ -0,0 +1,50 @@
+package com.eazybytes.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(
+        name = "CustomerDetails",
+        description = "Schema to hold Customer, Account, Cards and Loans information"
+)
+public class CustomerDetailsDto {
+
+    @Schema(
+            description = "Name of the customer", example = "Eazy Bytes"
+    )
+    private String name;
+
+    @Schema(
+            description = "Email address of the customer", example = "tutor@eazybytes.com"
+    )
+    private String email;
+
+    @Schema(
+            description = "Mobile Number of the customer", example = "9345432123"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Account details of the Customer"
+    )
+    private AccountsDto accountsDto;
+
+    @Schema(
+            description = "Card details of the Customer, null if the customer has no card or the Cards service did not answer in time"
+    )
+    private CardsDto cardsDto;
+
+    @Schema(
+            description = "Loan details of the Customer, null if the customer has no loan or the Loans service did not answer in time"
+    )
+    private LoansDto loansDto;
+
+    @Schema(
+            description = "Parts of the response that could not be fetched (e.g. cards, loans), empty when the response is complete", example = "[\"loans\"]"
+    )
+    private List<String> unavailableDetails = new ArrayList<>();
+}
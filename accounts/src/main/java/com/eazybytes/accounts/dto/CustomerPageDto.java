@@ -0,0 +1,26 @@
+package com.eazybytes.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(
+        name = "CustomerPage",
+        description = "Schema to hold one page of Customer and Account information"
+)
+@Data
+@AllArgsConstructor
+public class CustomerPageDto {
+
+    @Schema(
+            description = "Customers of this page ordered by their internal id"
+    )
+    private List<CustomerDto> customers;
+
+    @Schema(
+            description = "Opaque cursor to pass as 'cursor' to fetch the next page, null when this is the last page", example = "djE6NTA"
+    )
+    private String nextCursor;
+}
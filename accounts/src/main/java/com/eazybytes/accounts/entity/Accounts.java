@@ -2,6 +2,7 @@ package com.eazybytes.accounts.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity//This Annotation is used to define a class as a table in the database.Means this class is a table in the database.
 @Table(name = "accounts")
@@ -10,7 +11,7 @@ import lombok.*;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class Accounts extends BaseEntity {
+public class Accounts extends BaseEntity implements Persistable<Long> { // Persistable lets Spring Data know a new account is new even though its id is assigned, so save() does persist (one INSERT) instead of merge (SELECT + INSERT)
 
     @Id
     @Column(name = "account_number")
@@ -25,4 +26,25 @@ public class Accounts extends BaseEntity {
     @Column(name = "branch_address")
     private String branchAddress;
 
+    @Transient // not a column, just tracks whether this instance has been stored yet
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newAccount = true;
+
+    @Override
+    public Long getId() {
+        return accountNumber;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newAccount;
+    }
+
+    @PostLoad // loaded from the database, so any later save() must be an update
+    @PostPersist
+    void markNotNew() {
+        this.newAccount = false;
+    }
+
 }
@@ -9,7 +9,8 @@ import lombok.*;
 public class Customer extends BaseEntity{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq") // ids come from a pooled sequence (not IDENTITY), so Hibernate knows the id before the INSERT and can batch inserts
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50) // allocationSize must match INCREMENT BY of customer_seq in schema.sql
     @Column(name = "customer_id")
     private Long customerId;
 
@@ -131,4 +131,17 @@ public class GlobalExceptionHandler  extends ResponseEntityExceptionHandler { //
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST); // returning the response entity with the error response dto and the http status
     }
 
+    // This method handles the InvalidCursorException thrown when a client sends a page cursor that was not issued by the customers listing API.
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidCursorException(InvalidCursorException exception,
+                                                                         WebRequest webRequest){
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
+    }
+
 }
\ No newline at end of file
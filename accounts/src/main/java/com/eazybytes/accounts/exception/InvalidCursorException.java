@@ -0,0 +1,13 @@
+package com.eazybytes.accounts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid page cursor : '%s'", cursor));
+    }
+
+}
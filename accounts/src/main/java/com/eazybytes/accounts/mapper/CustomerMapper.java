@@ -1,5 +1,8 @@
 package com.eazybytes.accounts.mapper;
 
+import com.eazybytes.accounts.dto.AccountsDto;
+import com.eazybytes.accounts.dto.CustomerAccountsView;
+import com.eazybytes.accounts.dto.CustomerDetailsDto;
 import com.eazybytes.accounts.dto.CustomerDto;
 import com.eazybytes.accounts.entity.Customer;
 
@@ -12,6 +15,26 @@ public class CustomerMapper {
         return customerDto;
     }
 
+    public static CustomerDto mapToCustomerDto(CustomerAccountsView customerAccountsView, CustomerDto customerDto) {
+        customerDto.setName(customerAccountsView.getName());
+        customerDto.setEmail(customerAccountsView.getEmail());
+        customerDto.setMobileNumber(customerAccountsView.getMobileNumber());
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(customerAccountsView.getAccountNumber());
+        accountsDto.setAccountType(customerAccountsView.getAccountType());
+        accountsDto.setBranchAddress(customerAccountsView.getBranchAddress());
+        customerDto.setAccountsDto(accountsDto);
+        return customerDto;
+    }
+
+    public static CustomerDetailsDto mapToCustomerDetailsDto(CustomerDto customerDto, CustomerDetailsDto customerDetailsDto) {
+        customerDetailsDto.setName(customerDto.getName());
+        customerDetailsDto.setEmail(customerDto.getEmail());
+        customerDetailsDto.setMobileNumber(customerDto.getMobileNumber());
+        customerDetailsDto.setAccountsDto(customerDto.getAccountsDto());
+        return customerDetailsDto;
+    }
+
     public static Customer mapToCustomer(CustomerDto customerDto, Customer customer) {
         customer.setName(customerDto.getName());
         customer.setEmail(customerDto.getEmail());
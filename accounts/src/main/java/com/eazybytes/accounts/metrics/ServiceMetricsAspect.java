@@ -0,0 +1,146 @@
+package com.eazybytes.accounts.metrics;
+
+import com.eazybytes.accounts.config.ServiceMetricsProperties;
+import com.eazybytes.accounts.exception.CustomerAlreadyExistsException;
+import com.eazybytes.accounts.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Times every call through a service interface (IAccountsService, ICustomersService) and every Spring Data
+    repository call made while one is running on the same thread:
+
+    - service.operation{service, operation, outcome} : outcome is success, not-found, duplicate or error
+    - service.operation.repository{service, operation, repository, method} : the repository calls of that operation,
+      comparing the two shows whether a slow percentile is spent in the database or in our code
+
+    Both are published as percentile histograms with the SLO buckets of accounts.metrics (per operation overrides in
+    accounts.metrics.operation-slo) and exported through /actuator/metrics and /actuator/prometheus.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // outside the cache and transaction advice, so cache hits and commits are timed too
+@EnableConfigurationProperties(ServiceMetricsProperties.class)
+public class ServiceMetricsAspect {
+
+    public static final String OPERATION_TIMER = "service.operation";
+    public static final String REPOSITORY_TIMER = "service.operation.repository";
+
+    private static final ThreadLocal<OperationMeters> currentOperation = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ServiceMetricsProperties properties;
+    private final Map<Method, OperationMeters> operations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry, ServiceMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Around("execution(* com.eazybytes.accounts.service.I*Service.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        OperationMeters operation = operations.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                this::createOperationMeters);
+        OperationMeters parent = currentOperation.get();
+        currentOperation.set(operation);
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            outcome = outcome(throwable);
+            throw throwable;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (parent == null) {
+                currentOperation.remove();
+            } else {
+                currentOperation.set(parent);
+            }
+            operation.timer.withTags("outcome", outcome).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        OperationMeters operation = currentOperation.get();
+        if (operation == null) {
+            return joinPoint.proceed(); // not part of a service operation, e.g. startup or a benchmark calling it directly
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            operation.repositoryTimer
+                    .withTags("repository", repositoryName(joinPoint.getThis()), "method", joinPoint.getSignature().getName())
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private OperationMeters createOperationMeters(Method method) {
+        String service = serviceName(method);
+        String operation = method.getName();
+        Duration[] slo = properties.sloFor(operation).toArray(Duration[]::new);
+        return new OperationMeters(
+                Timer.builder(OPERATION_TIMER)
+                        .description("Calls of a service interface method")
+                        .tags("service", service, "operation", operation)
+                        .publishPercentileHistogram()
+                        .serviceLevelObjectives(slo)
+                        .withRegistry(meterRegistry),
+                Timer.builder(REPOSITORY_TIMER)
+                        .description("Repository calls made by a service operation")
+                        .tags("service", service, "operation", operation)
+                        .publishPercentileHistogram()
+                        .serviceLevelObjectives(slo)
+                        .withRegistry(meterRegistry));
+    }
+
+    // The advised method is the implementation's, tag it with the service interface that declares it
+    private static String serviceName(Method method) {
+        for (Class<?> serviceInterface : method.getDeclaringClass().getInterfaces()) {
+            if (ReflectionUtils.findMethod(serviceInterface, method.getName(), method.getParameterTypes()) != null) {
+                return serviceInterface.getSimpleName();
+            }
+        }
+        return method.getDeclaringClass().getSimpleName();
+    }
+
+    // Spring Data repositories are proxies, the first user interface is the repository declared in our code
+    private String repositoryName(Object repository) {
+        return repositoryNames.computeIfAbsent(repository.getClass(),
+                repositoryClass -> AopProxyUtils.proxiedUserInterfaces(repository)[0].getSimpleName());
+    }
+
+    private static String outcome(Throwable throwable) {
+        if (throwable instanceof ResourceNotFoundException) {
+            return "not-found";
+        }
+        if (throwable instanceof CustomerAlreadyExistsException) {
+            return "duplicate";
+        }
+        return "error";
+    }
+
+    private record OperationMeters(Meter.MeterProvider<Timer> timer, Meter.MeterProvider<Timer> repositoryTimer) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.eazybytes.accounts.metrics;
+
+import com.eazybytes.accounts.config.SqlMonitoringProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/*
+    datasource-proxy listener that sees every statement run through the DataSource (Hibernate, JdbcTemplate and the
+    schema initializer alike), replacing spring.jpa.show-sql:
+
+    - statements are counted per HTTP request (SqlStatementBudgetInterceptor marks where a request starts and ends),
+      requests running more statements than their endpoint's budget are flagged as a likely N+1
+    - statements taking at least accounts.sql.slow-query-threshold are logged
+
+    Logging goes through a single background thread with a bounded queue, a request never waits for the log and
+    lines that do not fit in the queue are dropped and counted. Aggregates are served by SqlStatsEndpoint.
+ */
+@Component
+public class SqlStatementRecorder implements QueryExecutionListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementRecorder.class);
+
+    private static final int MAX_TRACKED_SLOW_STATEMENTS = 200; // distinct SQL strings kept in the slow statement stats
+
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, SlowStatementStats> slowStatements = new ConcurrentHashMap<>();
+    private final LongAdder untrackedSlowStatements = new LongAdder();
+    private final LongAdder droppedLogLines = new LongAdder();
+    private final SqlMonitoringProperties properties;
+    private final ThreadPoolExecutor logExecutor;
+
+    public SqlStatementRecorder(SqlMonitoringProperties properties) {
+        this.properties = properties;
+        this.logExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getLogQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sql-monitor-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedLogLines.increment());
+    }
+
+    public void startRequest(String endpoint) {
+        currentRequest.set(new RequestStatements(endpoint));
+    }
+
+    public void finishRequest() {
+        RequestStatements request = currentRequest.get();
+        if (request == null) {
+            return;
+        }
+        currentRequest.remove();
+        int budget = properties.budgetFor(request.endpoint);
+        boolean overBudget = budget > 0 && request.statements > budget;
+        endpoints.computeIfAbsent(request.endpoint, endpoint -> new EndpointStats()).record(request.statements, overBudget);
+        if (overBudget) {
+            logExecutor.execute(() -> logger.warn("{} ran {} SQL statements, over its budget of {} (possible N+1)",
+                    request.endpoint, request.statements, budget));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements request = currentRequest.get();
+        if (request != null) {
+            request.statements++;
+        }
+        long elapsedMillis = executionInfo.getElapsedTime();
+        if (elapsedMillis < properties.getSlowQueryThreshold().toMillis() || queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        SlowStatementStats stats = slowStatements.get(sql);
+        if (stats == null && slowStatements.size() < MAX_TRACKED_SLOW_STATEMENTS) {
+            stats = slowStatements.computeIfAbsent(sql, key -> new SlowStatementStats());
+        }
+        if (stats != null) {
+            stats.record(elapsedMillis);
+        } else {
+            untrackedSlowStatements.increment();
+        }
+        String endpoint = request != null ? request.endpoint : "-";
+        int batchSize = executionInfo.isBatch() ? executionInfo.getBatchSize() : 1;
+        logExecutor.execute(() -> logger.warn("Slow SQL statement, {} ms, batch of {}, {} : {}",
+                elapsedMillis, batchSize, endpoint, sql));
+    }
+
+    public SqlStats snapshot() {
+        Map<String, EndpointSnapshot> endpointSnapshots = endpoints.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().snapshot(properties.budgetFor(entry.getKey()))));
+        List<SlowStatementSnapshot> slowStatementSnapshots = slowStatements.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(SlowStatementSnapshot::totalMillis).reversed())
+                .toList();
+        return new SqlStats(properties.getSlowQueryThreshold().toMillis(), endpointSnapshots, slowStatementSnapshots,
+                untrackedSlowStatements.sum(), droppedLogLines.sum());
+    }
+
+    @Override
+    public void destroy() {
+        logExecutor.shutdown();
+    }
+
+    // Only touched by the thread serving the request
+    private static final class RequestStatements {
+
+        private final String endpoint;
+        private int statements;
+
+        private RequestStatements(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private static final class EndpointStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        void record(int requestStatements, boolean requestOverBudget) {
+            requests.increment();
+            statements.add(requestStatements);
+            maxStatements.accumulate(requestStatements);
+            if (requestOverBudget) {
+                overBudget.increment();
+            }
+        }
+
+        EndpointSnapshot snapshot(int budget) {
+            return new EndpointSnapshot(requests.sum(), statements.sum(), maxStatements.get(), budget, overBudget.sum());
+        }
+    }
+
+    private static final class SlowStatementStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+        void record(long elapsedMillis) {
+            count.increment();
+            totalMillis.add(elapsedMillis);
+            maxMillis.accumulate(elapsedMillis);
+        }
+
+        SlowStatementSnapshot snapshot(String sql) {
+            return new SlowStatementSnapshot(sql, count.sum(), totalMillis.sum(), maxMillis.get());
+        }
+    }
+
+    public record SqlStats(long slowQueryThresholdMillis, Map<String, EndpointSnapshot> endpoints,
+                           List<SlowStatementSnapshot> slowStatements, long untrackedSlowStatements, long droppedLogLines) {
+    }
+
+    public record EndpointSnapshot(long requests, long statements, long maxStatementsPerRequest, int statementBudget,
+                                   long requestsOverBudget) {
+    }
+
+    public record SlowStatementSnapshot(String sql, long count, long totalMillis, long maxMillis) {
+    }
+}
@@ -1,12 +1,53 @@
 package com.eazybytes.accounts.repository;
 
+import com.eazybytes.accounts.dto.CustomerAccountsView;
 import com.eazybytes.accounts.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByMobileNumber(String mobileNumber);
+
+    // One SQL statement joining customer and accounts on customer_id, projected straight into a DTO (no managed entities)
+    @Query("SELECT new com.eazybytes.accounts.dto.CustomerAccountsView(c.customerId, c.name, c.email, c.mobileNumber, " +
+            "a.accountNumber, a.accountType, a.branchAddress) " +
+            "FROM Customer c JOIN Accounts a ON a.customerId = c.customerId " +
+            "WHERE c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccountsView> findCustomerAccountsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    // Keyset (seek) pagination: the primary key index is entered right after the last customer of the previous page,
+    // so every page costs the same no matter how deep the client has paged (unlike OFFSET, which reads and discards all earlier rows)
+    @Query("SELECT new com.eazybytes.accounts.dto.CustomerAccountsView(c.customerId, c.name, c.email, c.mobileNumber, " +
+            "a.accountNumber, a.accountType, a.branchAddress) " +
+            "FROM Customer c JOIN Accounts a ON a.customerId = c.customerId " +
+            "WHERE c.customerId > :lastSeenCustomerId ORDER BY c.customerId")
+    List<CustomerAccountsView> findCustomerAccountsAfter(@Param("lastSeenCustomerId") Long lastSeenCustomerId, Limit limit);
+
+    // Full customer + account dump for the export API. Rows are pulled from the JDBC cursor in fetch size batches while the
+    // Stream is consumed; they are DTOs, so nothing accumulates in the persistence context. Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.eazybytes.accounts.dto.CustomerAccountsView(c.customerId, c.name, c.email, c.mobileNumber, " +
+            "a.accountNumber, a.accountType, a.branchAddress) " +
+            "FROM Customer c JOIN Accounts a ON a.customerId = c.customerId ORDER BY c.customerId")
+    Stream<CustomerAccountsView> streamAllCustomerAccounts();
+
+    // Set based duplicate check for a whole chunk of the bulk create API, instead of one findByMobileNumber per record
+    @Query("SELECT c.mobileNumber FROM Customer c WHERE c.mobileNumber IN :mobileNumbers")
+    Set<String> findExistingMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
 }
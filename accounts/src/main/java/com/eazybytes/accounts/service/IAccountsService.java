@@ -1,6 +1,12 @@
 package com.eazybytes.accounts.service;
 
+import com.eazybytes.accounts.dto.BulkAccountResultDto;
+import com.eazybytes.accounts.dto.CustomerAccountsView;
 import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.dto.CustomerPageDto;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
 
 public interface IAccountsService {
 
@@ -10,6 +16,14 @@ public interface IAccountsService {
      */
     void createAccount(CustomerDto customerDto);
 
+    /**
+     *
+     * @param customerDtos - CustomerDto Objects, consumed lazily one at a time; a malformed record (next() throws RuntimeJsonMappingException) or a null one fails only itself
+     * @param chunkSize - number of records persisted per transaction and JDBC batch
+     * @param resultConsumer - receives the outcome of every record as soon as its chunk is done
+     */
+    void createAccounts(Iterator<CustomerDto> customerDtos, int chunkSize, Consumer<BulkAccountResultDto> resultConsumer);
+
     /**
      *
      * @param mobileNumber - Input Mobile Number
@@ -17,6 +31,20 @@ public interface IAccountsService {
      */
     CustomerDto fetchAccount(String mobileNumber);
 
+    /**
+     *
+     * @param cursor - nextCursor of the previous page, null for the first page
+     * @param pageSize - maximum number of customers to return
+     * @return one page of Customer & Account details ordered by customer id, with the cursor of the next page
+     */
+    CustomerPageDto fetchCustomers(String cursor, int pageSize);
+
+    /**
+     *
+     * @param rowConsumer - receives every Customer & Account row one at a time, ordered by customer id
+     */
+    void exportAccounts(Consumer<CustomerAccountsView> rowConsumer);
+
     /**
      *
      * @param customerDto - CustomerDto Object
@@ -0,0 +1,13 @@
+package com.eazybytes.accounts.service.client;
+
+import com.eazybytes.accounts.dto.CardsDto;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+
+// Declarative HTTP client for the Cards microservice. The implementation is generated in DownstreamClientsConfig.
+public interface CardsClient {
+
+    @GetExchange("/api/fetch")
+    CardsDto fetchCardDetails(@RequestParam("mobileNumber") String mobileNumber);
+
+}
@@ -0,0 +1,13 @@
+package com.eazybytes.accounts.service.client;
+
+import com.eazybytes.accounts.dto.LoansDto;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+
+// Declarative HTTP client for the Loans microservice. The implementation is generated in DownstreamClientsConfig.
+public interface LoansClient {
+
+    @GetExchange("/api/fetch")
+    LoansDto fetchLoanDetails(@RequestParam("mobileNumber") String mobileNumber);
+
+}
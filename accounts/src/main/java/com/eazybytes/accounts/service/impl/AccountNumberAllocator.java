@@ -0,0 +1,108 @@
+package com.eazybytes.accounts.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    Hands out unique 10 digit account numbers without a database round trip per account.
+
+    A block of blockSize numbers is leased from the account_number_lease table in its own short transaction
+    (UPDATE ... + blockSize under the row lock, so two instances can never lease the same block). Numbers of the
+    current block are then handed out with a compare-and-set on an in-memory cursor. Only the thread that finds the
+    block exhausted takes the lease lock; all other callers stay lock free. Numbers of a block that is not used up
+    before shutdown are simply skipped, so account numbers are unique but not gap free.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    private static final long MAX_ACCOUNT_NUMBER = 9_999_999_999L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(Block.EXHAUSTED);
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    public AccountNumberAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  @Value("${accounts.account-number.block-size:1000}") int blockSize) {
+        if(blockSize < 1) {
+            throw new IllegalArgumentException("accounts.account-number.block-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW); // commit the lease even if the caller's transaction rolls back
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return an account number that has never been handed out before
+     */
+    public long nextAccountNumber() {
+        while (true) {
+            Block block = currentBlock.get();
+            long accountNumber = block.next();
+            if(accountNumber != Block.NONE) {
+                return accountNumber;
+            }
+            renew(block);
+        }
+    }
+
+    /**
+     * @param exhausted - the block the caller found empty; nothing is leased if another thread already replaced it
+     */
+    private void renew(Block exhausted) {
+        leaseLock.lock();
+        try {
+            if(currentBlock.get() == exhausted) {
+                currentBlock.set(leaseBlock());
+            }
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private Block leaseBlock() {
+        Long blockEnd = leaseTransaction.execute(status -> {
+            jdbcTemplate.update("UPDATE account_number_lease SET next_account_number = next_account_number + ? WHERE lease_id = 1", blockSize);
+            return jdbcTemplate.queryForObject("SELECT next_account_number FROM account_number_lease WHERE lease_id = 1", Long.class);
+        });
+        if(blockEnd == null || blockEnd - 1 > MAX_ACCOUNT_NUMBER) {
+            throw new IllegalStateException("No 10 digit account numbers left to lease");
+        }
+        return new Block(blockEnd - blockSize, blockEnd);
+    }
+
+    private static final class Block {
+
+        static final long NONE = -1;
+        static final Block EXHAUSTED = new Block(0, 0);
+
+        private final AtomicLong cursor;
+        private final long end; // exclusive
+
+        Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+
+        long next() {
+            long candidate;
+            do {
+                candidate = cursor.get();
+                if(candidate >= end) {
+                    return NONE;
+                }
+            } while (!cursor.compareAndSet(candidate, candidate + 1));
+            return candidate;
+        }
+    }
+}
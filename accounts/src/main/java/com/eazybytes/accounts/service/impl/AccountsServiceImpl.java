@@ -2,54 +2,194 @@ package com.eazybytes.accounts.service.impl;
 
 import com.eazybytes.accounts.constants.AccountsConstants;
 import com.eazybytes.accounts.dto.AccountsDto;
+import com.eazybytes.accounts.dto.BulkAccountResultDto;
+import com.eazybytes.accounts.dto.CustomerAccountsView;
 import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.dto.CustomerPageDto;
 import com.eazybytes.accounts.entity.Accounts;
 import com.eazybytes.accounts.entity.Customer;
 import com.eazybytes.accounts.exception.CustomerAlreadyExistsException;
+import com.eazybytes.accounts.exception.InvalidCursorException;
 import com.eazybytes.accounts.exception.ResourceNotFoundException;
 import com.eazybytes.accounts.mapper.AccountsMapper;
 import com.eazybytes.accounts.mapper.CustomerMapper;
 import com.eazybytes.accounts.repository.AccountsRepository;
 import com.eazybytes.accounts.repository.CustomerRepository;
 import com.eazybytes.accounts.service.IAccountsService;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class AccountsServiceImpl  implements IAccountsService {
 
+    private static final String CURSOR_PREFIX = "v1:";
+
     private AccountsRepository accountsRepository;
     private CustomerRepository customerRepository;
+    private CacheManager cacheManager;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private Validator validator;
+    private AccountNumberAllocator accountNumberAllocator;
 
     /**
      * @param customerDto - CustomerDto Object
      */
     @Override
     public void createAccount(CustomerDto customerDto) {
-        Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
-        Optional<Customer> optionalCustomer = customerRepository.findByMobileNumber(customerDto.getMobileNumber());
-        if(optionalCustomer.isPresent()) {
-            throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber "
-                    +customerDto.getMobileNumber());
+        // taken before the transaction: leasing a new block of numbers needs a connection of its own, and requests
+        // already holding every pooled connection would otherwise wait for each other
+        long accountNumber = accountNumberAllocator.nextAccountNumber();
+        // read-write, so the duplicate check runs on the primary even when read replicas are configured
+        transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
+            Optional<Customer> optionalCustomer = customerRepository.findByMobileNumber(customerDto.getMobileNumber());
+            if(optionalCustomer.isPresent()) {
+                throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber "
+                        +customerDto.getMobileNumber());
+            }
+            Customer savedCustomer = customerRepository.save(customer);
+            accountsRepository.save(createNewAccount(savedCustomer, accountNumber));
+        });
+    }
+
+    /**
+     * @param customerDtos - CustomerDto Objects, consumed lazily one at a time; a malformed record (next() throws RuntimeJsonMappingException) or a null one fails only itself
+     * @param chunkSize - number of records persisted per transaction and JDBC batch
+     * @param resultConsumer - receives the outcome of every record as soon as its chunk is done
+     */
+    @Override
+    public void createAccounts(Iterator<CustomerDto> customerDtos, int chunkSize, Consumer<BulkAccountResultDto> resultConsumer) {
+        List<PendingAccount> chunk = new ArrayList<>(chunkSize); // only one chunk is ever held in memory
+        long recordNumber = 0;
+        while (customerDtos.hasNext()) {
+            recordNumber++;
+            CustomerDto customerDto;
+            try {
+                customerDto = customerDtos.next();
+            } catch (RuntimeJsonMappingException exception) { // a record that could not be parsed, the iterator has moved past it
+                resultConsumer.accept(new BulkAccountResultDto(recordNumber, null, AccountsConstants.STATUS_400, exception.getMessage()));
+                continue;
+            }
+            if(customerDto == null) {
+                resultConsumer.accept(new BulkAccountResultDto(recordNumber, null, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_NULL_RECORD));
+                continue;
+            }
+            Set<ConstraintViolation<CustomerDto>> violations = validator.validate(customerDto);
+            if(!violations.isEmpty()) {
+                String validationMsg = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+                resultConsumer.accept(new BulkAccountResultDto(recordNumber, customerDto.getMobileNumber(), AccountsConstants.STATUS_400, validationMsg));
+                continue;
+            }
+            chunk.add(new PendingAccount(recordNumber, customerDto));
+            if(chunk.size() == chunkSize) {
+                createChunk(chunk, resultConsumer);
+                chunk.clear();
+            }
+        }
+        if(!chunk.isEmpty()) {
+            createChunk(chunk, resultConsumer);
+        }
+    }
+
+    /**
+     * Runs one duplicate check for the whole chunk and persists the remaining records in a single transaction.
+     * If the transaction fails (e.g. a unique email), the records are retried one by one so that only the offending ones are reported as failed.
+     *
+     * @param chunk - validated records of the current chunk
+     * @param resultConsumer - receives the outcome of every record in the chunk
+     */
+    private void createChunk(List<PendingAccount> chunk, Consumer<BulkAccountResultDto> resultConsumer) {
+        // read-write transaction, a read replica lagging behind could miss customers created moments ago
+        Set<String> existingMobileNumbers = transactionTemplate.execute(status -> customerRepository.findExistingMobileNumbers(
+                chunk.stream().map(pendingAccount -> pendingAccount.customerDto().getMobileNumber()).toList()));
+        Set<String> chunkMobileNumbers = new HashSet<>();
+        List<PendingAccount> newAccounts = new ArrayList<>(chunk.size());
+        for (PendingAccount pendingAccount : chunk) {
+            String mobileNumber = pendingAccount.customerDto().getMobileNumber();
+            if(existingMobileNumbers.contains(mobileNumber) || !chunkMobileNumbers.add(mobileNumber)) {
+                resultConsumer.accept(pendingAccount.toResult(AccountsConstants.STATUS_400,
+                        "Customer already registered with given mobileNumber " + mobileNumber));
+            } else {
+                newAccounts.add(pendingAccount);
+            }
+        }
+        if(newAccounts.isEmpty()) {
+            return;
+        }
+        // taken before the transaction for the same reason as in createAccount: leasing a block needs a second connection
+        long[] accountNumbers = new long[newAccounts.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = accountNumberAllocator.nextAccountNumber();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistChunk(newAccounts, accountNumbers));
+        } catch (RuntimeException exception) {
+            if(newAccounts.size() == 1) {
+                resultConsumer.accept(newAccounts.get(0).toResult(AccountsConstants.STATUS_500, AccountsConstants.MESSAGE_500));
+            } else {
+                newAccounts.forEach(pendingAccount -> createChunk(List.of(pendingAccount), resultConsumer));
+            }
+            return;
+        }
+        newAccounts.forEach(pendingAccount -> resultConsumer.accept(
+                pendingAccount.toResult(AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201)));
+    }
+
+    /**
+     * @param newAccounts - records to insert, must be called inside a transaction
+     * @param accountNumbers - account number of each record, in the same order
+     */
+    private void persistChunk(List<PendingAccount> newAccounts, long[] accountNumbers) {
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Customer customer = CustomerMapper.mapToCustomer(newAccounts.get(i).customerDto(), new Customer());
+            entityManager.persist(customer); // the id is taken from the sequence here, no INSERT is issued yet
+            entityManager.persist(createNewAccount(customer, accountNumbers[i]));
+        }
+        entityManager.flush(); // INSERTs go out as JDBC batches (hibernate.jdbc.batch_size, order_inserts)
+        entityManager.clear(); // detach the chunk so the persistence context does not grow with the stream
+    }
+
+    private record PendingAccount(long recordNumber, CustomerDto customerDto) {
+
+        BulkAccountResultDto toResult(String statusCode, String statusMsg) {
+            return new BulkAccountResultDto(recordNumber, customerDto.getMobileNumber(), statusCode, statusMsg);
         }
-        Customer savedCustomer = customerRepository.save(customer);
-        accountsRepository.save(createNewAccount(savedCustomer));
     }
 
     /**
      * @param customer - Customer Object
+     * @param accountNumber - number handed out by AccountNumberAllocator
      * @return the new account details
      */
-    private Accounts createNewAccount(Customer customer) {
+    private Accounts createNewAccount(Customer customer, long accountNumber) {
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(accountNumber);
         newAccount.setAccountType(AccountsConstants.SAVINGS);
         newAccount.setBranchAddress(AccountsConstants.ADDRESS);
         return newAccount;
@@ -60,16 +200,75 @@ public class AccountsServiceImpl  implements IAccountsService {
      * @return Accounts Details based on a given mobileNumber
      */
     @Override
+    @Cacheable(cacheNames = AccountsConstants.ACCOUNTS_CACHE, key = "#mobileNumber") // read-through: repositories are only hit on a cache miss
+    @Transactional(readOnly = true) // served by a read replica when accounts.datasource.replicas is configured
     public CustomerDto fetchAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)
+        CustomerAccountsView customerAccountsView = customerRepository.findCustomerAccountsByMobileNumber(mobileNumber).orElseThrow(
+                () -> resolveFetchFailure(mobileNumber)
         );
-        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow(
-                () -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString())
-        );
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
-        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
-        return customerDto;
+        return CustomerMapper.mapToCustomerDto(customerAccountsView, new CustomerDto());
+    }
+
+    /**
+     * @param cursor - nextCursor of the previous page, null for the first page
+     * @param pageSize - maximum number of customers to return
+     * @return one page of Customer & Account details ordered by customer id, with the cursor of the next page
+     */
+    @Override
+    public CustomerPageDto fetchCustomers(String cursor, int pageSize) {
+        long lastSeenCustomerId = cursor == null || cursor.isEmpty() ? 0L : decodeCursor(cursor);
+        // one extra row tells whether a next page exists without a COUNT query
+        List<CustomerAccountsView> rows = customerRepository.findCustomerAccountsAfter(lastSeenCustomerId, Limit.of(pageSize + 1));
+        boolean hasNextPage = rows.size() > pageSize;
+        List<CustomerAccountsView> page = hasNextPage ? rows.subList(0, pageSize) : rows;
+        List<CustomerDto> customers = new ArrayList<>(page.size());
+        page.forEach(row -> customers.add(CustomerMapper.mapToCustomerDto(row, new CustomerDto())));
+        String nextCursor = hasNextPage ? encodeCursor(page.get(page.size() - 1).getCustomerId()) : null;
+        return new CustomerPageDto(customers, nextCursor);
+    }
+
+    /**
+     * @param rowConsumer - receives every Customer & Account row one at a time, ordered by customer id
+     */
+    @Override
+    @Transactional(readOnly = true) // keeps the connection (and its cursor) open while the stream is consumed
+    public void exportAccounts(Consumer<CustomerAccountsView> rowConsumer) {
+        try (Stream<CustomerAccountsView> rows = customerRepository.streamAllCustomerAccounts()) {
+            rows.forEach(rowConsumer);
+        }
+    }
+
+    private static String encodeCursor(long lastSeenCustomerId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastSeenCustomerId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if(decoded.startsWith(CURSOR_PREFIX)) {
+                long lastSeenCustomerId = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+                if(lastSeenCustomerId >= 0) {
+                    return lastSeenCustomerId;
+                }
+            }
+        } catch (IllegalArgumentException exception) { // also covers NumberFormatException
+            // fall through to the invalid cursor error below
+        }
+        throw new InvalidCursorException(cursor);
+    }
+
+    /**
+     * Only runs when the customer/accounts join returned no row, to report the same error as before:
+     * either the customer does not exist or the customer has no account.
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return the exception to throw for the failed fetch
+     */
+    private ResourceNotFoundException resolveFetchFailure(String mobileNumber) {
+        return customerRepository.findByMobileNumber(mobileNumber)
+                .map(customer -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString()))
+                .orElseGet(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
     }
 
     /**
@@ -77,6 +276,7 @@ public class AccountsServiceImpl  implements IAccountsService {
      * @return boolean indicating if the update of Account details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateAccount(CustomerDto customerDto) {
         boolean isUpdated = false;
         AccountsDto accountsDto = customerDto.getAccountsDto();
@@ -91,8 +291,12 @@ public class AccountsServiceImpl  implements IAccountsService {
             Customer customer = customerRepository.findById(customerId).orElseThrow(
                     () -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString())
             );
+            String previousMobileNumber = customer.getMobileNumber();
             CustomerMapper.mapToCustomer(customerDto,customer);
             customerRepository.save(customer);
+            // the update may change the mobile number itself, so both the old and the new key are invalidated
+            evictCachedAccount(previousMobileNumber);
+            evictCachedAccount(customerDto.getMobileNumber());
             isUpdated = true;
         }
         return  isUpdated;
@@ -103,14 +307,28 @@ public class AccountsServiceImpl  implements IAccountsService {
      * @return boolean indicating if the delete of Account details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteAccount(String mobileNumber) {
         Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)
         );
         accountsRepository.deleteByCustomerId(customer.getCustomerId());
         customerRepository.deleteById(customer.getCustomerId());
+        evictCachedAccount(mobileNumber);
         return true;
     }
 
+    /**
+     * Deferred until the transaction commits, evicting earlier would let a concurrent fetch cache the old row again.
+     *
+     * @param mobileNumber - Mobile Number whose cached Account details should be dropped
+     */
+    private void evictCachedAccount(String mobileNumber) {
+        Cache cache = cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE);
+        if(cache != null && mobileNumber != null) {
+            new TransactionAwareCacheDecorator(cache).evict(mobileNumber);
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.eazybytes.accounts.service.impl;
+
+import com.eazybytes.accounts.config.DownstreamServicesProperties;
+import com.eazybytes.accounts.dto.CardsDto;
+import com.eazybytes.accounts.dto.CustomerDetailsDto;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.dto.LoansDto;
+import com.eazybytes.accounts.mapper.CustomerMapper;
+import com.eazybytes.accounts.service.IAccountsService;
+import com.eazybytes.accounts.service.ICustomersService;
+import com.eazybytes.accounts.service.client.CardsClient;
+import com.eazybytes.accounts.service.client.LoansClient;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+@AllArgsConstructor
+public class CustomersServiceImpl implements ICustomersService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomersServiceImpl.class);
+    private static final String CARDS = "cards";
+    private static final String LOANS = "loans";
+
+    private IAccountsService iAccountsService;
+    private CardsClient cardsClient;
+    private LoansClient loansClient;
+    private AsyncTaskExecutor taskExecutor; // Spring Boot's applicationTaskExecutor, sized under spring.task.execution
+    private DownstreamServicesProperties downstreamServicesProperties;
+
+    /**
+     * Cards and Loans are called concurrently while the account is read locally, so the latency is close to the slowest
+     * of the three calls instead of their sum. A downstream call that fails or exceeds its timeout only leaves its own
+     * part of the response empty and is listed in unavailableDetails.
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Cards and Loans details based on a given mobileNumber
+     */
+    @Override
+    public CustomerDetailsDto fetchCustomerDetails(String mobileNumber) {
+        CompletableFuture<CardsDto> cardsFuture = callDownstream(() -> cardsClient.fetchCardDetails(mobileNumber),
+                downstreamServicesProperties.getCards().getTimeout());
+        CompletableFuture<LoansDto> loansFuture = callDownstream(() -> loansClient.fetchLoanDetails(mobileNumber),
+                downstreamServicesProperties.getLoans().getTimeout());
+        CustomerDto customerDto;
+        try {
+            customerDto = iAccountsService.fetchAccount(mobileNumber);
+        } catch (RuntimeException exception) { // unknown customer: nothing to aggregate, the downstream answers are not needed
+            cardsFuture.cancel(true);
+            loansFuture.cancel(true);
+            throw exception;
+        }
+        CustomerDetailsDto customerDetailsDto = CustomerMapper.mapToCustomerDetailsDto(customerDto, new CustomerDetailsDto());
+        customerDetailsDto.setCardsDto(awaitDownstream(cardsFuture, CARDS, customerDetailsDto));
+        customerDetailsDto.setLoansDto(awaitDownstream(loansFuture, LOANS, customerDetailsDto));
+        return customerDetailsDto;
+    }
+
+    private <T> CompletableFuture<T> callDownstream(Supplier<T> call, Duration timeout) {
+        try {
+            return CompletableFuture.supplyAsync(call, taskExecutor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException exception) { // e.g. the executor is saturated and rejects the task
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    private <T> T awaitDownstream(CompletableFuture<T> future, String detail, CustomerDetailsDto customerDetailsDto) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException exception) {
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+            if(cause instanceof HttpClientErrorException.NotFound) {
+                return null; // the customer simply has no card / loan, the response is still complete
+            }
+            logger.warn("Fetching {} details failed, responding without them: {}", detail, cause.toString());
+            customerDetailsDto.getUnavailableDetails().add(detail);
+            return null;
+        }
+    }
+}
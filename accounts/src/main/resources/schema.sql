@@ -1,7 +1,9 @@
 --During start up of application if we want to create the table then we can create in schema.sql file. So we can store the record in this table
 
+CREATE SEQUENCE IF NOT EXISTS `customer_seq` START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS `customer` (
-  `customer_id` INT AUTO_INCREMENT PRIMARY KEY,
+  `customer_id` INT PRIMARY KEY, -- assigned from customer_seq
   `name` VARCHAR(100) NOT NULL,
   `email` VARCHAR(100) NOT NULL UNIQUE,
   `mobile_number` VARCHAR(20) NOT NULL UNIQUE,
@@ -12,7 +14,7 @@ CREATE TABLE IF NOT EXISTS `customer` (
 );
 
 CREATE TABLE IF NOT EXISTS `accounts` (
-  `account_number` INT AUTO_INCREMENT PRIMARY KEY,
+  `account_number` BIGINT PRIMARY KEY, -- assigned by AccountNumberAllocator from blocks leased out of account_number_lease
   `customer_id` INT NOT NULL, -- F.K
   `account_type` VARCHAR(100) NOT NULL,
   `branch_address` VARCHAR(200) NOT NULL,
@@ -25,3 +27,23 @@ CREATE TABLE IF NOT EXISTS `accounts` (
     ON DELETE CASCADE
     ON UPDATE CASCADE
 );
+
+-- Single row holding the next account number that has not been leased to any service instance yet.
+-- AccountNumberAllocator moves it forward by one block at a time and hands out the numbers of its block from memory.
+CREATE TABLE IF NOT EXISTS `account_number_lease` (
+  `lease_id` INT PRIMARY KEY,
+  `next_account_number` BIGINT NOT NULL
+);
+
+INSERT INTO `account_number_lease` (`lease_id`, `next_account_number`)
+  SELECT 1, 1000000000 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `account_number_lease` WHERE `lease_id` = 1);
+
+-- Single row with the time of the last replication heartbeat, written to the primary by ReplicaHealthMonitor.
+-- The value a replica returns tells how far it is behind the primary.
+CREATE TABLE IF NOT EXISTS `replication_heartbeat` (
+  `heartbeat_id` INT PRIMARY KEY,
+  `beat_at` BIGINT NOT NULL
+);
+
+INSERT INTO `replication_heartbeat` (`heartbeat_id`, `beat_at`)
+  SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `replication_heartbeat` WHERE `heartbeat_id` = 1);
@@ -0,0 +1,92 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.constants.AccountsConstants;
+import com.eazybytes.accounts.dto.BulkAccountResultDto;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.service.IAccountsService;
+import com.eazybytes.accounts.service.impl.AccountNumberAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A single pooled connection: leasing a block while a transaction holds that connection would wait for the pool and time out
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "accounts.account-number.block-size=3"
+})
+class AccountNumberAllocatorTests {
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void numbersStayUniqueAcrossBlockRenewalsAndInstances() throws Exception {
+        // two instances leasing from the same account_number_lease row, with blocks far smaller than the numbers taken
+        List<AccountNumberAllocator> instances = List.of(
+                new AccountNumberAllocator(jdbcTemplate, transactionManager, 7),
+                new AccountNumberAllocator(jdbcTemplate, transactionManager, 7));
+        Set<Long> accountNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                AccountNumberAllocator allocator = instances.get(thread % 2);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        long accountNumber = allocator.nextAccountNumber();
+                        assertTrue(accountNumbers.add(accountNumber), "handed out twice: " + accountNumber);
+                        assertEquals(10, String.valueOf(accountNumber).length());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2_000, accountNumbers.size());
+    }
+
+    @Test
+    void bulkCreateLeasesBlocksOutsideItsChunkTransaction() {
+        List<CustomerDto> customerDtos = IntStream.rangeClosed(1, 7)
+                .mapToObj(i -> customer("Leased Customer " + i, "leased" + i + "@eazybytes.com", "987655500" + i))
+                .toList();
+        List<BulkAccountResultDto> results = new ArrayList<>();
+        iAccountsService.createAccounts(customerDtos.iterator(), 5, results::add); // blocks of 3, renewed within each chunk
+
+        assertEquals(7, results.size());
+        results.forEach(result -> assertEquals(AccountsConstants.STATUS_201, result.getStatusCode(), result.toString()));
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT a.account_number) FROM accounts a " +
+                "JOIN customer c ON c.customer_id = a.customer_id WHERE c.mobile_number LIKE '98765550%'", Integer.class));
+    }
+
+    private static CustomerDto customer(String name, String email, String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(name);
+        customerDto.setEmail(email);
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
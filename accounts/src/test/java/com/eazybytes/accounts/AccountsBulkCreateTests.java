@@ -0,0 +1,106 @@
+package com.eazybytes.accounts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountsBulkCreateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyRecordGetsItsOwnResultEvenWhenMalformed() throws Exception {
+        Map<Long, JsonNode> results = bulkCreate(2,
+                record("Bulk Customer One", "bulk1@eazybytes.com", "9876522201"),
+                record("Bad", "not-an-email", "9876522202"),
+                "{\"name\": \"Broken Customer\", \"email\":",
+                "null",
+                "",
+                record("Bulk Customer One Again", "bulk1again@eazybytes.com", "9876522201"),
+                "{\"name\": {\"first\": \"Nested\"}, \"email\": \"nested@eazybytes.com\", \"mobileNumber\": \"9876522203\"}",
+                record("Bulk Customer Two", "bulk2@eazybytes.com", "9876522204"));
+
+        assertEquals(7, results.size()); // the blank line is not a record
+        assertStatus(results, 1, "201");
+        assertStatus(results, 2, "400");
+        assertTrue(results.get(2L).get("statusMsg").asText().contains("Email should be valid"));
+        assertStatus(results, 3, "400");
+        assertTrue(results.get(3L).get("statusMsg").asText().startsWith("Malformed record"));
+        assertStatus(results, 4, "400");
+        assertEquals("Record cannot be null", results.get(4L).get("statusMsg").asText());
+        assertStatus(results, 5, "400"); // mobile number taken by record 1, created in the chunk before
+        assertStatus(results, 6, "400");
+        assertTrue(results.get(6L).get("statusMsg").asText().startsWith("Malformed record"));
+        assertStatus(results, 7, "201");
+        assertEquals(2, accounts("98765222%"));
+    }
+
+    @Test
+    void recordsAreCreatedAcrossChunkBoundaries() throws Exception {
+        Map<Long, JsonNode> results = bulkCreate(2,
+                record("Chunked Customer One", "chunk1@eazybytes.com", "9876522301"),
+                record("Chunked Customer Two", "chunk2@eazybytes.com", "9876522302"),
+                record("Chunked Customer Three", "chunk3@eazybytes.com", "9876522303"),
+                record("Chunked Customer Three Again", "chunk3again@eazybytes.com", "9876522303"), // same chunk
+                record("Chunked Customer Four", "chunk4@eazybytes.com", "9876522304"));
+
+        assertEquals(5, results.size());
+        assertStatus(results, 1, "201");
+        assertStatus(results, 2, "201");
+        assertStatus(results, 3, "201");
+        assertStatus(results, 4, "400");
+        assertStatus(results, 5, "201");
+        assertEquals(4, accounts("98765223%"));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT a.account_number) FROM accounts a " +
+                "JOIN customer c ON c.customer_id = a.customer_id WHERE c.mobile_number LIKE '98765223%'", Integer.class));
+    }
+
+    private Map<Long, JsonNode> bulkCreate(int chunkSize, String... lines) throws Exception {
+        String body = mockMvc.perform(post("/api/bulk-create").param("chunkSize", String.valueOf(chunkSize))
+                        .contentType(MediaType.APPLICATION_NDJSON).accept(MediaType.APPLICATION_NDJSON)
+                        .content(String.join("\n", lines)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<Long, JsonNode> results = new TreeMap<>();
+        for (String line : body.split("\n")) {
+            JsonNode result = objectMapper.readTree(line);
+            assertNull(results.put(result.get("recordNumber").asLong(), result), "one result per record");
+        }
+        return results;
+    }
+
+    private int accounts(String mobileNumberPattern) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts a JOIN customer c ON c.customer_id = a.customer_id " +
+                "WHERE c.mobile_number LIKE ?", Integer.class, mobileNumberPattern);
+    }
+
+    private static void assertStatus(Map<Long, JsonNode> results, long recordNumber, String statusCode) {
+        assertEquals(statusCode, results.get(recordNumber).get("statusCode").asText(), results.get(recordNumber).toString());
+    }
+
+    private static String record(String name, String email, String mobileNumber) {
+        return "{\"name\": \"" + name + "\", \"email\": \"" + email + "\", \"mobileNumber\": \"" + mobileNumber + "\"}";
+    }
+}
@@ -0,0 +1,90 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.constants.AccountsConstants;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.exception.ResourceNotFoundException;
+import com.eazybytes.accounts.service.IAccountsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Rows are changed behind the service's back with JdbcTemplate: a fetch that still sees the old value was served by the cache
+@SpringBootTest
+class AccountsCacheTests {
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void secondFetchIsServedFromTheCache() {
+        iAccountsService.createAccount(customer("Cached Customer", "cached@eazybytes.com", "9876511101"));
+        assertEquals("Cached Customer", iAccountsService.fetchAccount("9876511101").getName());
+
+        jdbcTemplate.update("UPDATE customer SET name = 'Renamed Customer' WHERE mobile_number = '9876511101'");
+        assertEquals("Cached Customer", iAccountsService.fetchAccount("9876511101").getName());
+        assertNotNull(accountsCache().get("9876511101"));
+    }
+
+    @Test
+    void updateEvictsTheOldAndTheNewMobileNumberAfterCommit() {
+        iAccountsService.createAccount(customer("Moving Customer", "moving@eazybytes.com", "9876511102"));
+        CustomerDto customerDto = iAccountsService.fetchAccount("9876511102");
+        // a stale entry under the new number, e.g. cached while it still belonged to a deleted customer
+        accountsCache().put("9876511103", customerDto);
+
+        customerDto.setName("Moved Customer");
+        customerDto.setMobileNumber("9876511103");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(iAccountsService.updateAccount(customerDto));
+            // not committed yet, a concurrent fetch must not be able to cache the old row again
+            assertNotNull(accountsCache().get("9876511102"));
+        });
+
+        assertNull(accountsCache().get("9876511102"));
+        assertNull(accountsCache().get("9876511103"));
+        assertEquals("Moved Customer", iAccountsService.fetchAccount("9876511103").getName());
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount("9876511102"));
+    }
+
+    @Test
+    void deleteEvictsTheMobileNumberAfterCommit() {
+        iAccountsService.createAccount(customer("Leaving Customer", "leaving@eazybytes.com", "9876511104"));
+        iAccountsService.fetchAccount("9876511104");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(iAccountsService.deleteAccount("9876511104"));
+            assertNotNull(accountsCache().get("9876511104"));
+        });
+
+        assertNull(accountsCache().get("9876511104"));
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount("9876511104"));
+    }
+
+    private Cache accountsCache() {
+        return cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE);
+    }
+
+    private static CustomerDto customer(String name, String email, String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(name);
+        customerDto.setEmail(email);
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
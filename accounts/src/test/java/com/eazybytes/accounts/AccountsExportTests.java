@@ -0,0 +1,102 @@
+package com.eazybytes.accounts;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    Exports a few million synthetic customer + account rows through the real HTTP endpoint and checks that the heap
+    stays flat while doing so. The database is a file based H2 so the rows live on disk and not in the heap being measured.
+    The row count can be changed with -Daccounts.export.rows=...
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=WARN"})
+class AccountsExportTests {
+
+    private static final long ROWS = Long.getLong("accounts.export.rows", 2_000_000L);
+    private static final long MAX_HEAP_GROWTH = 128L * 1024 * 1024; // a List of all rows alone would be several hundred MB
+
+    @TempDir
+    static Path databaseDirectory;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + databaseDirectory.resolve("export") + ";CACHE_SIZE=8192");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void loadRows(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by) " +
+                "SELECT X, 'Customer ' || X, 'customer' || X || '@eazybytes.com', CAST(6000000000 + X AS VARCHAR), CURRENT_TIMESTAMP, 'TEST' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO accounts (account_number, customer_id, account_type, branch_address, created_at, created_by) " +
+                "SELECT 5000000000 + X, X, 'Savings', '123 Main Street, New York', CURRENT_TIMESTAMP, 'TEST' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+    }
+
+    @Test
+    void exportStreamsAllRowsWithFlatMemory() throws Exception {
+        assertFlatExport(false);
+    }
+
+    @Test
+    void gzipExportStreamsAllRowsWithFlatMemory() throws Exception {
+        assertFlatExport(true);
+    }
+
+    private void assertFlatExport(boolean gzip) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        long maxHeap = baselineHeap;
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/export?gzip=" + gzip)).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+
+        long rows = 0;
+        String lastRow = null;
+        InputStream body = gzip ? new GZIPInputStream(response.body()) : response.body();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows++;
+                lastRow = line;
+                if(rows % 250_000 == 0) {
+                    System.gc();
+                    maxHeap = Math.max(maxHeap, memory.getHeapMemoryUsage().getUsed());
+                }
+            }
+        }
+        assertEquals(ROWS, rows);
+        assertTrue(lastRow.contains("\"customerId\":" + ROWS), lastRow);
+        assertTrue(maxHeap - baselineHeap < MAX_HEAP_GROWTH,
+                "heap grew by " + (maxHeap - baselineHeap) / (1024 * 1024) + " MB while exporting " + rows + " rows");
+    }
+}
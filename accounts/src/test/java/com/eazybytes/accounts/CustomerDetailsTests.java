@@ -0,0 +1,159 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.dto.CustomerDetailsDto;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.service.IAccountsService;
+import com.eazybytes.accounts.service.ICustomersService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Runs /api/fetchCustomerDetails aggregation against local stub Cards and Loans servers whose latency and
+    status can be changed per test.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "accounts.downstream.cards.timeout=1s",
+        "accounts.downstream.loans.timeout=1s"
+})
+class CustomerDetailsTests {
+
+    private static final StubService cards = new StubService("/api/fetch",
+            "{\"mobileNumber\":\"%s\",\"cardNumber\":\"100646930341\",\"cardType\":\"Credit Card\",\"totalLimit\":100000,\"amountUsed\":0,\"availableAmount\":100000}");
+    private static final StubService loans = new StubService("/api/fetch",
+            "{\"mobileNumber\":\"%s\",\"loanNumber\":\"548732457654\",\"loanType\":\"Home Loan\",\"totalLoan\":100000,\"amountPaid\":0,\"outstandingAmount\":100000}");
+
+    @Autowired
+    private ICustomersService iCustomersService;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @DynamicPropertySource
+    static void downstreamServices(DynamicPropertyRegistry registry) {
+        registry.add("accounts.downstream.cards.base-url", cards::baseUrl);
+        registry.add("accounts.downstream.loans.base-url", loans::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        cards.server.stop(0);
+        loans.server.stop(0);
+    }
+
+    @Test
+    void downstreamCallsRunConcurrently() {
+        String mobileNumber = createCustomer("9876500001");
+        cards.respond(200, 600);
+        loans.respond(200, 600);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(mobileNumber);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(mobileNumber, customerDetailsDto.getMobileNumber());
+        assertNotNull(customerDetailsDto.getAccountsDto());
+        assertEquals(mobileNumber, customerDetailsDto.getCardsDto().getMobileNumber());
+        assertEquals(mobileNumber, customerDetailsDto.getLoansDto().getMobileNumber());
+        assertTrue(customerDetailsDto.getUnavailableDetails().isEmpty());
+        assertTrue(elapsedMillis < 1100, "two 600ms calls took " + elapsedMillis + "ms, they did not overlap");
+    }
+
+    @Test
+    void slowDownstreamOnlyDegradesItsOwnPart() {
+        String mobileNumber = createCustomer("9876500002");
+        cards.respond(200, 0);
+        loans.respond(200, 3000);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(mobileNumber);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(customerDetailsDto.getAccountsDto());
+        assertNotNull(customerDetailsDto.getCardsDto());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertEquals(List.of("loans"), customerDetailsDto.getUnavailableDetails());
+        assertTrue(elapsedMillis < 2000, "the 1s loans timeout was not applied, took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void failedDownstreamIsReportedAndMissingDetailsAreNot() {
+        String mobileNumber = createCustomer("9876500003");
+        cards.respond(500, 0);
+        loans.respond(404, 0);
+
+        CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(mobileNumber);
+
+        assertNull(customerDetailsDto.getCardsDto());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertEquals(List.of("cards"), customerDetailsDto.getUnavailableDetails()); // a 404 only means the customer has no loan
+    }
+
+    private String createCustomer(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Customer " + mobileNumber);
+        customerDto.setEmail(mobileNumber + "@eazybytes.com");
+        customerDto.setMobileNumber(mobileNumber);
+        iAccountsService.createAccount(customerDto);
+        return mobileNumber;
+    }
+
+    private static final class StubService {
+
+        private final HttpServer server;
+        private final String bodyTemplate;
+        private volatile int status = 200;
+        private volatile long delayMillis;
+
+        StubService(String path, String bodyTemplate) {
+            this.bodyTemplate = bodyTemplate;
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            server.createContext(path, this::handle);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void respond(int status, long delayMillis) {
+            this.status = status;
+            this.delayMillis = delayMillis;
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            String mobileNumber = exchange.getRequestURI().getQuery().replace("mobileNumber=", "");
+            byte[] body = (status == 200 ? String.format(bodyTemplate, mobileNumber) : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        }
+    }
+}
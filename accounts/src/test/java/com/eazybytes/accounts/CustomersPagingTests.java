@@ -0,0 +1,97 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.dto.CustomerPageDto;
+import com.eazybytes.accounts.service.IAccountsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomersPagingTests {
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void pagesCoverEveryCustomerOnceAndTheLastHasNoCursor() {
+        List<String> created = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            created.add(createCustomer("Paged Customer " + i, "paged" + i + "@eazybytes.com", "987656600" + i));
+        }
+
+        // the other test contexts share the database, so the whole listing is walked
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        CustomerPageDto page;
+        do {
+            page = iAccountsService.fetchCustomers(cursor, 3);
+            assertTrue(page.getCustomers().size() <= 3);
+            if(page.getNextCursor() != null) {
+                assertEquals(3, page.getCustomers().size(), "only the last page may be short");
+            }
+            page.getCustomers().forEach(customer -> listed.add(customer.getMobileNumber()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(listed.size(), new HashSet<>(listed).size(), "a customer was listed twice");
+        assertTrue(listed.containsAll(created));
+        // created in order, so listed in order by customer id
+        assertEquals(created, listed.stream().filter(created::contains).toList());
+    }
+
+    @Test
+    void pageEndingExactlyOnTheLastCustomerHasNoCursor() {
+        createCustomer("Last Paged Customer", "lastpaged@eazybytes.com", "9876566101");
+        createCustomer("Final Paged Customer", "finalpaged@eazybytes.com", "9876566102");
+        int customers = iAccountsService.fetchCustomers(null, 100_000).getCustomers().size();
+
+        assertNull(iAccountsService.fetchCustomers(null, customers).getNextCursor());
+        CustomerPageDto allButLast = iAccountsService.fetchCustomers(null, customers - 1);
+        assertNotNull(allButLast.getNextCursor());
+        CustomerPageDto last = iAccountsService.fetchCustomers(allButLast.getNextCursor(), customers - 1);
+        assertEquals(1, last.getCustomers().size());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void tamperedAndGarbageCursorsAreRejected() throws Exception {
+        for (String cursor : List.of("not a cursor!", encode("v1:abc"), encode("v1:-5"), encode("v2:10"), "djE6")) {
+            mockMvc.perform(get("/api/customers").param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+        }
+        mockMvc.perform(get("/api/customers").param("cursor", encode("v1:0")).param("pageSize", "1"))
+                .andExpect(status().isOk());
+    }
+
+    private String createCustomer(String name, String email, String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(name);
+        customerDto.setEmail(email);
+        customerDto.setMobileNumber(mobileNumber);
+        iAccountsService.createAccount(customerDto);
+        return mobileNumber;
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
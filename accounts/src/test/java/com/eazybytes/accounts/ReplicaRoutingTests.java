@@ -0,0 +1,96 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.datasource.ReplicaRoutingDataSource;
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.exception.ResourceNotFoundException;
+import com.eazybytes.accounts.service.IAccountsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A second in-memory H2 database plays the replica, "replication" is done by hand through replicaJdbcTemplate
+@SpringBootTest(properties = {
+        "spring.cache.type=none",
+        "accounts.datasource.replicas[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "accounts.datasource.replicas[0].username=sa",
+        "accounts.datasource.replicas[0].password=",
+        "accounts.datasource.max-replica-lag=2s",
+        "accounts.datasource.health-check-interval=50ms"
+})
+class ReplicaRoutingTests {
+
+    private final JdbcTemplate replicaJdbcTemplate =
+            new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void createReplicaSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaJdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void fetchesAreServedByTheReplicaAndWritesByThePrimary() throws InterruptedException {
+        replicateHeartbeat(System.currentTimeMillis());
+        awaitHealthyReplicas(healthy -> healthy.equals(List.of("replica-0")));
+
+        iAccountsService.createAccount(customer("Primary Customer", "primary@eazybytes.com", "9876544441"));
+        // not replicated yet, the read-only fetch does not see the new customer
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount("9876544441"));
+
+        replicateCustomer(9_000_001L, "Replica Customer", "replica@eazybytes.com", "9876544441");
+        assertEquals("Replica Customer", iAccountsService.fetchAccount("9876544441").getName());
+    }
+
+    @Test
+    void fetchesFallBackToThePrimaryWhenTheReplicaLags() throws InterruptedException {
+        iAccountsService.createAccount(customer("Lagging Customer", "lagging@eazybytes.com", "9876544442"));
+        replicateCustomer(9_000_002L, "Stale Customer", "stale@eazybytes.com", "9876544442");
+
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+        awaitHealthyReplicas(List::isEmpty);
+
+        assertEquals("Lagging Customer", iAccountsService.fetchAccount("9876544442").getName());
+    }
+
+    private void replicateHeartbeat(long beatAt) {
+        replicaJdbcTemplate.update("UPDATE replication_heartbeat SET beat_at = ? WHERE heartbeat_id = 1", beatAt);
+    }
+
+    private void replicateCustomer(long customerId, String name, String email, String mobileNumber) {
+        replicaJdbcTemplate.update("INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by) " +
+                "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, 'TEST')", customerId, name, email, mobileNumber);
+        replicaJdbcTemplate.update("INSERT INTO accounts (account_number, customer_id, account_type, branch_address, created_at, created_by) " +
+                "VALUES (?, ?, 'Savings', 'Replica Street', CURRENT_TIMESTAMP, 'TEST')", customerId, customerId);
+    }
+
+    private void awaitHealthyReplicas(Predicate<List<String>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.test(replicaRoutingDataSource.getHealthyReplicas())) {
+            assertTrue(System.currentTimeMillis() < deadline, "healthy replicas: " + replicaRoutingDataSource.getHealthyReplicas());
+            Thread.sleep(20);
+        }
+    }
+
+    private static CustomerDto customer(String name, String email, String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(name);
+        customerDto.setEmail(email);
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
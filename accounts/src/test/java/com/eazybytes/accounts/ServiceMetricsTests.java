@@ -0,0 +1,70 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.dto.CustomerDto;
+import com.eazybytes.accounts.exception.CustomerAlreadyExistsException;
+import com.eazybytes.accounts.exception.ResourceNotFoundException;
+import com.eazybytes.accounts.service.IAccountsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.eazybytes.accounts.metrics.ServiceMetricsAspect.OPERATION_TIMER;
+import static com.eazybytes.accounts.metrics.ServiceMetricsAspect.REPOSITORY_TIMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ServiceMetricsTests {
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void operationsAreTimedByOutcomeWithTheirRepositoryCalls() {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Metrics Customer");
+        customerDto.setEmail("metrics@eazybytes.com");
+        customerDto.setMobileNumber("9876511111");
+
+        iAccountsService.createAccount(customerDto);
+        assertThrows(CustomerAlreadyExistsException.class, () -> iAccountsService.createAccount(customerDto));
+        iAccountsService.fetchAccount("9876511111");
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount("9876522222"));
+
+        assertEquals(1, operationTimer("createAccount", "success").count());
+        assertEquals(1, operationTimer("createAccount", "duplicate").count());
+        assertEquals(1, operationTimer("fetchAccount", "success").count());
+        assertEquals(1, operationTimer("fetchAccount", "not-found").count());
+
+        Timer customerLookups = meterRegistry.get(REPOSITORY_TIMER)
+                .tags("operation", "createAccount", "repository", "CustomerRepository", "method", "findByMobileNumber")
+                .timer();
+        assertEquals(2, customerLookups.count());
+        assertTrue(meterRegistry.get(REPOSITORY_TIMER)
+                .tags("operation", "createAccount", "repository", "AccountsRepository", "method", "save")
+                .timer().count() >= 1);
+    }
+
+    @Test
+    void operationSloOverridesAreApplied() {
+        iAccountsService.exportAccounts(customerAccountsView -> { });
+
+        double[] buckets = Arrays.stream(operationTimer("exportAccounts", "success").takeSnapshot().histogramCounts())
+                .mapToDouble(countAtBucket -> countAtBucket.bucket(TimeUnit.MILLISECONDS)).toArray();
+        assertTrue(Arrays.stream(buckets).anyMatch(bucket -> bucket == Duration.ofSeconds(120).toMillis()),
+                "exportAccounts should publish the 120s bucket of accounts.metrics.operation-slo");
+    }
+
+    private Timer operationTimer(String operation, String outcome) {
+        return meterRegistry.get(OPERATION_TIMER)
+                .tags("service", "IAccountsService", "operation", operation, "outcome", outcome).timer();
+    }
+}
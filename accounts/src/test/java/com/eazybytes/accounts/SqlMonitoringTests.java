@@ -0,0 +1,50 @@
+package com.eazybytes.accounts;
+
+import com.eazybytes.accounts.metrics.SqlStatementRecorder;
+import com.eazybytes.accounts.metrics.SqlStatsEndpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "accounts.sql.statement-budget=2",
+        "accounts.sql.slow-query-threshold=0ms"
+})
+@AutoConfigureMockMvc
+class SqlMonitoringTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatsEndpoint sqlStatsEndpoint;
+
+    @Test
+    void statementsAreCountedPerEndpointAgainstTheBudget() throws Exception {
+        mockMvc.perform(post("/api/create").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sql Customer\",\"email\":\"sql@eazybytes.com\",\"mobileNumber\":\"9876533333\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/fetch").param("mobileNumber", "9876533333"))
+                .andExpect(status().isOk());
+
+        SqlStatementRecorder.SqlStats sqlStats = sqlStatsEndpoint.sqlStats();
+        SqlStatementRecorder.EndpointSnapshot create = sqlStats.endpoints().get("POST /api/create");
+        assertEquals(1, create.requests());
+        assertTrue(create.statements() >= 3, "lookup, customer insert and account insert, got " + create.statements());
+        assertEquals(1, create.requestsOverBudget());
+
+        SqlStatementRecorder.EndpointSnapshot fetch = sqlStats.endpoints().get("GET /api/fetch");
+        assertEquals(1, fetch.statements()); // the joined customer and account projection
+        assertEquals(0, fetch.requestsOverBudget());
+
+        assertFalse(sqlStats.slowStatements().isEmpty()); // every statement is slow with a 0ms threshold
+    }
+}
@@ -0,0 +1,98 @@
+package com.eazybytes.accounts;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Runs concurrent creates and fetches with spring.threads.virtual.enabled=true and records the JFR
+    jdk.VirtualThreadPinned event, which fires whenever a virtual thread blocks while pinned to its carrier
+    (for example inside a synchronized block). The small account number block size makes the requests contend on
+    AccountNumberAllocator renewals as well.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.jpa.show-sql=false",
+        "accounts.account-number.block-size=10"
+})
+class VirtualThreadsTests {
+
+    private static final int CUSTOMERS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void requestsDoNotPinCarrierThreads() throws Exception {
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, applicationTaskExecutor);
+
+        Queue<String> pinnedStacks = new ConcurrentLinkedQueue<>();
+        try (RecordingStream recording = new RecordingStream();
+             HttpClient httpClient = HttpClient.newHttpClient();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedStacks.add(topFrames(event)));
+            recording.startAsync();
+
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < CUSTOMERS; i++) {
+                String mobileNumber = Long.toString(9100000000L + i);
+                responses.add(clients.submit(() -> createAndFetch(httpClient, mobileNumber)));
+            }
+            for (Future<Integer> response : responses) {
+                assertEquals(200, response.get());
+            }
+            recording.stop();
+        }
+        assertTrue(pinnedStacks.isEmpty(), "virtual threads were pinned at:\n" + String.join("\n", pinnedStacks));
+    }
+
+    private int createAndFetch(HttpClient httpClient, String mobileNumber) throws Exception {
+        String customer = "{\"name\":\"Customer " + mobileNumber + "\",\"email\":\"" + mobileNumber
+                + "@eazybytes.com\",\"mobileNumber\":\"" + mobileNumber + "\"}";
+        HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(uri("/api/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(customer)).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, created.statusCode(), created.body());
+        return httpClient.send(HttpRequest.newBuilder(uri("/api/fetch?mobileNumber=" + mobileNumber)).build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream().limit(8)
+                .map(RecordedFrame::getMethod)
+                .map(method -> "    " + method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+}
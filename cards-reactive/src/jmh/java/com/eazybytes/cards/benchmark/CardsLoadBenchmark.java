@@ -0,0 +1,182 @@
+package com.eazybytes.cards.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    Side-by-side load test of the two cards builds, the servlet one (../cards, Tomcat + JPA) and this reactive one
+    (Netty + R2DBC). Each is started as a JVM of its own with `serverThreads` request threads (Tomcat workers or Netty
+    event loops) and the same 10 database connections, seeded with CARDS cards, then driven by a non-blocking client
+    with IN_FLIGHT requests outstanding at all times; far more than there are server threads.
+
+    - fetch  : GET /api/fetch of a random card
+    - update : PUT /api/update of a random card, a read and a write in one transaction
+
+    Scores are requests per second. Client and server share the machine, compare the builds with each other rather
+    than with production numbers. Server logs go to target/cards-load-<build>.log.
+    Run: mvn -f ../cards -B package -DskipTests && mvn -Pjmh package exec:exec -DskipTests -Djmh.args="CardsLoadBenchmark"
+    (-p serverThreads=8 for more server threads)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardsLoadBenchmark {
+
+    private static final int IN_FLIGHT = 512;
+    private static final int CARDS = 2_000;
+    private static final long FIRST_MOBILE_NUMBER = 9_000_000_000L;
+    private static final int PORT = 9100;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Pattern CARD_NUMBER = Pattern.compile("\"cardNumber\":\"([0-9]{12})\"");
+
+    @Param({"servlet", "reactive"})
+    private String build;
+
+    @Param({"4"})
+    private int serverThreads;
+
+    private Process server;
+    private HttpClient client;
+    private String baseUrl;
+    private String[] cardNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = startServer();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + PORT;
+        awaitHealthy();
+
+        for (int first = 0; first < CARDS; first += IN_FLIGHT) {
+            int firstCard = first;
+            wave(Math.min(IN_FLIGHT, CARDS - first), card -> HttpRequest.newBuilder(uri("/api/create?mobileNumber=" + mobileNumber(firstCard + card)))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), 201);
+        }
+        cardNumbers = new String[CARDS];
+        for (int card = 0; card < CARDS; card++) {
+            String body = client.send(fetchRequest(card), HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = CARD_NUMBER.matcher(body);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Unexpected fetch response " + body);
+            }
+            cardNumbers[card] = matcher.group(1);
+        }
+    }
+
+    private Process startServer() throws IOException {
+        Path jar = "servlet".equals(build)
+                ? Path.of("..", "cards", "target", "cards-0.0.1-SNAPSHOT.jar")
+                : Path.of("target", "cards-reactive-0.0.1-SNAPSHOT.jar");
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException(jar.toAbsolutePath().normalize() + " is not built, see the class comment");
+        }
+        List<String> command = new ArrayList<>(List.of(ProcessHandle.current().info().command().orElse("java"), "-Xmx512m"));
+        if ("reactive".equals(build)) {
+            command.add("-Dreactor.netty.ioWorkerCount=" + serverThreads);
+        }
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + PORT, "--logging.level.root=WARN"));
+        if ("servlet".equals(build)) {
+            command.addAll(List.of("--server.tomcat.threads.max=" + serverThreads,
+                    "--server.tomcat.threads.min-spare=" + serverThreads,
+                    "--cards.velocity.enabled=false"));
+        }
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "cards-load-" + build + ".log").toFile())
+                .start();
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest health = HttpRequest.newBuilder(uri("/actuator/health")).build();
+        while (true) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // retried below
+            }
+            if (!server.isAlive() || System.nanoTime() > deadline) {
+                throw new IllegalStateException("The " + build + " build did not start, see target/cards-load-" + build + ".log");
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        client.close();
+        server.destroy();
+        if (!server.waitFor(30, TimeUnit.SECONDS)) {
+            server.destroyForcibly().waitFor();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public void fetch() {
+        wave(IN_FLIGHT, request -> fetchRequest(ThreadLocalRandom.current().nextInt(CARDS)), 200);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public void update() {
+        wave(IN_FLIGHT, request -> {
+            int card = ThreadLocalRandom.current().nextInt(CARDS);
+            int amountUsed = ThreadLocalRandom.current().nextInt(100_000);
+            String body = "{\"mobileNumber\":\"" + mobileNumber(card) + "\",\"cardNumber\":\"" + cardNumbers[card] +
+                    "\",\"cardType\":\"Credit Card\",\"totalLimit\":100000,\"amountUsed\":" + amountUsed +
+                    ",\"availableAmount\":" + (100_000 - amountUsed) + "}";
+            return HttpRequest.newBuilder(uri("/api/update"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }, 200);
+    }
+
+    // Sends the requests all at once and waits for every response
+    private void wave(int requests, IntFunction<HttpRequest> request, int expectedStatus) {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            responses[i] = client.sendAsync(request.apply(i), HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != expectedStatus) {
+                            throw new IllegalStateException(response.statusCode() + " " + response.body());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+
+    private HttpRequest fetchRequest(int card) {
+        return HttpRequest.newBuilder(uri("/api/fetch?mobileNumber=" + mobileNumber(card))).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static long mobileNumber(int card) {
+        return FIRST_MOBILE_NUMBER + card;
+    }
+}
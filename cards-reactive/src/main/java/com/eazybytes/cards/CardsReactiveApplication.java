@@ -0,0 +1,45 @@
+package com.eazybytes.cards;
+
+import io.swagger.v3.oas.annotations.ExternalDocumentation;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.info.Contact;
+import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.info.License;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+
+/*
+    Reactive build of the cards microservice: the create/fetch/update/delete contract of the servlet build (../cards)
+    served by WebFlux on Netty, with R2DBC instead of JPA. Requests never wait on a thread of their own, so a few event
+    loop threads carry thousands of concurrent requests. Authorizations, holds, the ledger and bulk limit adjustments
+    are only served by the servlet build.
+ */
+@SpringBootApplication
+@EnableR2dbcAuditing(auditorAwareRef = "auditAwareImpl", modifyOnCreate = false)
+@OpenAPIDefinition(
+		info = @Info(
+				title = "Cards microservice REST API Documentation",
+				description = "EazyBank Cards microservice REST API Documentation",
+				version = "v1",
+				contact = @Contact(
+						name = "Madan Reddy",
+						email = "tutor@eazybytes.com",
+						url = "https://www.eazybytes.com"
+				),
+				license = @License(
+						name = "Apache 2.0",
+						url = "https://www.eazybytes.com"
+				)
+		),
+		externalDocs = @ExternalDocumentation(
+				description = "EazyBank Cards microservice REST API Documentation",
+				url = "https://www.eazybytes.com/swagger-ui.html"
+		)
+)
+public class CardsReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CardsReactiveApplication.class, args);
+	}
+}
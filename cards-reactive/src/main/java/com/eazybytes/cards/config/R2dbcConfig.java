@@ -0,0 +1,37 @@
+package com.eazybytes.cards.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+    The audit columns are DATE columns, as in the servlet build, while BaseEntity holds LocalDateTime. Hibernate
+    converts between the two on its own, R2DBC needs a converter to read them back.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory), List.of(LocalDateToLocalDateTimeConverter.INSTANCE));
+    }
+
+    @ReadingConverter
+    enum LocalDateToLocalDateTimeConverter implements Converter<LocalDate, LocalDateTime> {
+
+        INSTANCE;
+
+        @Override
+        public LocalDateTime convert(LocalDate source) {
+            return source.atStartOfDay();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.eazybytes.cards.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+
+import java.time.LocalDateTime;
+
+/*
+    Audit columns, filled by R2DBC auditing (see CardsReactiveApplication). updatedAt/updatedBy stay empty on insert,
+    like the insertable = false columns of the servlet build.
+ */
+@Getter @Setter @ToString
+public class BaseEntity {
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @CreatedBy
+    private String createdBy;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    @LastModifiedBy
+    private String updatedBy;
+}
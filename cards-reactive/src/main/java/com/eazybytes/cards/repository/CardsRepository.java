@@ -0,0 +1,17 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.Cards;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface CardsRepository extends ReactiveCrudRepository<Cards, Long> {
+
+    Mono<Cards> findByMobileNumber(String mobileNumber);
+
+    Mono<Cards> findByCardNumber(String cardNumber);
+
+    Mono<Boolean> existsByCardNumber(String cardNumber);
+
+}
@@ -0,0 +1,121 @@
+package com.eazybytes.cards.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Hands out unique 12 digit card numbers without a database round trip per card, the same way as the servlet build.
+
+    Every card number ever issued is kept in an IssuedNumberSet, read from the cards table on startup, before the web
+    server (a later lifecycle phase) accepts requests, so the load never blocks an event loop thread. A new number is
+    drawn at random and, when it is taken, the next free one after it is issued instead, so it never collides with a
+    card this instance knows of. Numbers issued by another instance after the startup load are caught by the
+    uk_cards_card_number unique index; CardsServiceImpl then retries with another number. Numbers of deleted cards
+    stay issued and are not handed out again.
+ */
+@Component
+public class CardNumberAllocator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardNumberAllocator.class);
+
+    private static final long FIRST_CARD_NUMBER = 100_000_000_000L;
+    private static final long CARD_NUMBERS = 900_000_000L;
+
+    private final DatabaseClient databaseClient;
+    private volatile IssuedNumberSet issued; // null until loaded
+
+    public CardNumberAllocator(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * @return a card number that has never been issued before
+     */
+    public String nextCardNumber() {
+        IssuedNumberSet issuedNumbers = issuedNumbers();
+        synchronized (issuedNumbers) {
+            long offset = issuedNumbers.nextAbsent(ThreadLocalRandom.current().nextLong(CARD_NUMBERS));
+            if (offset < 0) {
+                offset = issuedNumbers.nextAbsent(0); // wrap around
+            }
+            if (offset < 0) {
+                throw new IllegalStateException("No 12 digit card numbers left to issue");
+            }
+            issuedNumbers.add(offset);
+            return Long.toString(FIRST_CARD_NUMBER + offset);
+        }
+    }
+
+    /**
+     * @param cardNumber - Card Number to check
+     * @return true if the card number has been issued, by this instance or before it started
+     */
+    public boolean isIssued(String cardNumber) {
+        long offset = offsetOf(cardNumber);
+        IssuedNumberSet issuedNumbers = issuedNumbers();
+        synchronized (issuedNumbers) {
+            return issuedNumbers.contains(offset);
+        }
+    }
+
+    private IssuedNumberSet issuedNumbers() {
+        IssuedNumberSet issuedNumbers = issued;
+        if (issuedNumbers == null) {
+            throw new IllegalStateException("Issued card numbers are not loaded yet");
+        }
+        return issuedNumbers;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (issued != null) {
+            return;
+        }
+        IssuedNumberSet loaded = new IssuedNumberSet(CARD_NUMBERS);
+        databaseClient.sql("SELECT card_number FROM cards")
+                .map(row -> row.get(0, String.class))
+                .all()
+                .doOnNext(cardNumber -> { // signals are serial, no need to synchronize
+                    long offset = offsetOf(cardNumber);
+                    if (offset >= 0) {
+                        loaded.add(offset);
+                    }
+                })
+                .blockLast();
+        issued = loaded;
+        logger.info("Loaded {} issued card numbers ({} KB)", loaded.size(), loaded.sizeInBytes() / 1024);
+    }
+
+    @Override
+    public void stop() {
+        // nothing to release, the issued numbers are kept across a restart of the context
+    }
+
+    @Override
+    public boolean isRunning() {
+        return issued != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // -1 for anything that is not a number of the 12 digit range
+    private static long offsetOf(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != 12) {
+            return -1;
+        }
+        try {
+            long offset = Long.parseLong(cardNumber) - FIRST_CARD_NUMBER;
+            return offset >= 0 && offset < CARD_NUMBERS ? offset : -1;
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.exception.CardAlreadyExistsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.mapper.CardsMapper;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.ICardsService;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+@Service
+@AllArgsConstructor
+public class CardsServiceImpl implements ICardsService {
+
+    private static final int MAX_CARD_NUMBER_ATTEMPTS = 3;
+
+    private CardsRepository cardsRepository;
+    private CardNumberAllocator cardNumberAllocator;
+    private TransactionalOperator transactionalOperator;
+
+    /**
+     * @param mobileNumber - Mobile Number of the Customer
+     */
+    @Override
+    public Mono<Void> createCard(String mobileNumber) {
+        return Mono.defer(() -> insertCard(mobileNumber, cardNumberAllocator.nextCardNumber()))
+                // card_number is the only unique column: a number issued by another instance after this one loaded its
+                // issued numbers, the allocator now knows it too
+                .retryWhen(Retry.max(MAX_CARD_NUMBER_ATTEMPTS - 1)
+                        .filter(DataIntegrityViolationException.class::isInstance)
+                        .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure()));
+    }
+
+    private Mono<Void> insertCard(String mobileNumber, String cardNumber) {
+        return cardsRepository.findByMobileNumber(mobileNumber)
+                .flatMap(existing -> Mono.<Cards>error(
+                        new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber)))
+                .switchIfEmpty(Mono.defer(() -> cardsRepository.save(createNewCard(mobileNumber, cardNumber))))
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * @param mobileNumber - Mobile Number of the Customer
+     * @param cardNumber - Card Number issued by the CardNumberAllocator
+     * @return the new card details
+     */
+    private Cards createNewCard(String mobileNumber, String cardNumber) {
+        Cards newCard = new Cards();
+        newCard.setCardNumber(cardNumber);
+        newCard.setMobileNumber(mobileNumber);
+        newCard.setCardType(CardsConstants.CREDIT_CARD);
+        newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
+        newCard.setAmountUsed(0);
+        newCard.setAvailableAmount(CardsConstants.NEW_CARD_LIMIT);
+        return newCard;
+    }
+
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Card Details based on a given mobileNumber
+     */
+    @Override
+    public Mono<CardsDto> fetchCard(String mobileNumber) {
+        return cardsRepository.findByMobileNumber(mobileNumber)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)))
+                .map(cards -> CardsMapper.mapToCardsDto(cards, new CardsDto()));
+    }
+
+    /**
+     *
+     * @param cardsDto - CardsDto Object
+     * @return boolean indicating if the update of card details is successful or not
+     */
+    @Override
+    @Transactional
+    public Mono<Boolean> updateCard(CardsDto cardsDto) {
+        return cardsRepository.findByCardNumber(cardsDto.getCardNumber())
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber())))
+                .flatMap(cards -> cardsRepository.save(CardsMapper.mapToCards(cardsDto, cards)))
+                .thenReturn(true);
+    }
+
+    /**
+     * @param mobileNumber - Input MobileNumber
+     * @return boolean indicating if the delete of card details is successful or not
+     */
+    @Override
+    @Transactional
+    public Mono<Boolean> deleteCard(String mobileNumber) {
+        return cardsRepository.findByMobileNumber(mobileNumber)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)))
+                .flatMap(cards -> cardsRepository.deleteById(cards.getCardId()))
+                .thenReturn(true);
+    }
+}
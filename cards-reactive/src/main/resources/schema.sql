@@ -0,0 +1,20 @@
+-- The cards table of the servlet build, created here as R2DBC has no schema generation
+CREATE TABLE IF NOT EXISTS `cards` (
+  `card_id` int NOT NULL AUTO_INCREMENT,
+  `mobile_number` varchar(15) NOT NULL,
+  `card_number` varchar(100) NOT NULL,
+  `card_type` varchar(100) NOT NULL,
+  `total_limit` int NOT NULL,
+  `amount_used` int NOT NULL,
+  `available_amount` int NOT NULL,
+  `created_at` date NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` date DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL,
+  PRIMARY KEY (`card_id`)
+);
+
+-- Cards are located by their number. Unique: the backstop of CardNumberAllocator for numbers issued by other
+-- instances after it loaded the issued ones
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_cards_card_number` ON `cards` (`card_number`);
+
@@ -0,0 +1,91 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.dto.CardsDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    The statuses and bodies the servlet build answers with for the same requests.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class CardsReactiveApplicationTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void cardsAreCreatedFetchedUpdatedAndDeleted() {
+		webTestClient.post().uri("/api/create?mobileNumber=1234567890").exchange()
+				.expectStatus().isCreated()
+				.expectBody().json("{\"statusCode\":\"201\",\"statusMsg\":\"Card created successfully\"}");
+		webTestClient.post().uri("/api/create?mobileNumber=1234567890").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.apiPath").isEqualTo("uri=/api/create")
+				.jsonPath("$.errorCode").isEqualTo("BAD_REQUEST")
+				.jsonPath("$.errorMessage").isEqualTo("Card already registered with given mobileNumber 1234567890");
+
+		CardsDto card = fetch("1234567890");
+		assertTrue(card.getCardNumber().matches("[0-9]{12}"), card.getCardNumber());
+		assertEquals("Credit Card", card.getCardType());
+		assertEquals(100_000, card.getTotalLimit());
+		assertEquals(100_000, card.getAvailableAmount());
+		assertEquals(0, card.getAmountUsed());
+
+		card.setTotalLimit(150_000);
+		card.setAmountUsed(1_000);
+		card.setAvailableAmount(149_000);
+		webTestClient.put().uri("/api/update").contentType(MediaType.APPLICATION_JSON).bodyValue(card).exchange()
+				.expectStatus().isOk()
+				.expectBody().json("{\"statusCode\":\"200\",\"statusMsg\":\"Request processed successfully\"}");
+		assertEquals(card, fetch("1234567890"));
+
+		webTestClient.delete().uri("/api/delete?mobileNumber=1234567890").exchange()
+				.expectStatus().isOk();
+		webTestClient.get().uri("/api/fetch?mobileNumber=1234567890").exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.apiPath").isEqualTo("uri=/api/fetch")
+				.jsonPath("$.errorMessage").isEqualTo("Card not found with the given input data mobileNumber : '1234567890'");
+	}
+
+	@Test
+	void invalidRequestsAreRejectedLikeTheServletBuild() {
+		webTestClient.get().uri("/api/fetch?mobileNumber=abc").exchange()
+				.expectStatus().is5xxServerError()
+				.expectBody()
+				.jsonPath("$.errorCode").isEqualTo("INTERNAL_SERVER_ERROR")
+				.jsonPath("$.errorMessage").isEqualTo("fetchCardDetails.mobileNumber: Mobile number must be 10 digits");
+		webTestClient.post().uri("/api/create").exchange()
+				.expectStatus().isBadRequest();
+		webTestClient.put().uri("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"mobileNumber\":\"123\",\"cardNumber\":\"\",\"cardType\":\"x\",\"totalLimit\":0,\"amountUsed\":-1,\"availableAmount\":5}")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody().json("{\"totalLimit\":\"Total card limit should be greater than zero\"," +
+						"\"mobileNumber\":\"Mobile Number must be 10 digits\"," +
+						"\"amountUsed\":\"Total amount used should be equal or greater than zero\"," +
+						"\"cardNumber\":\"Card Number can not be a null or empty\"}", true);
+		webTestClient.put().uri("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"mobileNumber\":\"1234567890\",\"cardNumber\":\"999999999999\",\"cardType\":\"x\",\"totalLimit\":10,\"amountUsed\":1,\"availableAmount\":5}")
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectBody().jsonPath("$.errorMessage").isEqualTo("Card not found with the given input data CardNumber : '999999999999'");
+		webTestClient.delete().uri("/api/delete?mobileNumber=").exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private CardsDto fetch(String mobileNumber) {
+		return webTestClient.get().uri("/api/fetch?mobileNumber=" + mobileNumber).exchange()
+				.expectStatus().isOk()
+				.expectBody(CardsDto.class).returnResult().getResponseBody();
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.eazybytes.cards.benchmark;
+
+import com.eazybytes.cards.CardsApplication;
+import com.eazybytes.cards.dto.CardStatementSummaryDto;
+import com.eazybytes.cards.service.ICardLedgerService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Card ledger reads against an embedded H2 ledger of tens of millions of rows: `rows` transactions spread over
+    `cards` cards and the 12 months of 2024, plus a hot (business) card holding 1% of them.
+
+    - streamOneMonth / streamOneYear : ICardLedgerService.streamTransactions of a random card, range scan of
+      idx_card_transactions_card_number_txn_time
+    - hotCardSummaryFromRollups      : ICardLedgerService.fetchStatementSummary of the hot card over half a year, at
+      most 184 rollup rows
+    - hotCardSummaryFromTransactions : the same totals aggregated from the raw ledger rows, what a statement costs
+      without the daily rollups
+
+    The ledger is seeded into an H2 file database under target/, recreated by every trial.
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="CardLedgerBenchmark -prof gc"
+    (-p rows=30000000 for a larger ledger)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardLedgerBenchmark {
+
+    private static final String HOT_CARD_NUMBER = "100000000000";
+    private static final long FIRST_CARD_NUMBER = 100000000001L; // 12 digits like the hot card, so they sort as numbers
+    private static final int SEED_CHUNK = 1_000_000;
+    private static final String DATABASE = Path.of("target", "card-ledger-benchmark").toAbsolutePath().toString();
+    private static final LocalDateTime YEAR_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"100000"})
+    private int cards;
+
+    private ConfigurableApplicationContext context;
+    private ICardLedgerService ledgerService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // arguments, application.yml would override builder properties. A file database, tens of millions of rows do
+        // not fit in the heap, recreated by every trial
+        deleteDatabase();
+        context = new SpringApplicationBuilder(CardsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:file:" + DATABASE + ";DB_CLOSE_ON_EXIT=FALSE;CACHE_SIZE=524288",
+                        "--spring.sql.init.mode=always"); // schema.sql runs by default for in-memory databases only
+        ledgerService = context.getBean(ICardLedgerService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Generated by the database, in chunks so no statement holds millions of undo entries
+        int hotCardRows = rows / 100;
+        for (long first = 1; first <= rows - hotCardRows; first += SEED_CHUNK) {
+            seedTransactions("CAST(" + FIRST_CARD_NUMBER + " + MOD(X, " + cards + ") AS VARCHAR)",
+                    first, Math.min(first + SEED_CHUNK - 1, rows - hotCardRows));
+        }
+        seedTransactions("'" + HOT_CARD_NUMBER + "'", 1, hotCardRows);
+        for (long card = FIRST_CARD_NUMBER - 1; card < FIRST_CARD_NUMBER + cards; card += 10_000) { // the hot card first
+            jdbcTemplate.update("INSERT INTO card_daily_rollups (card_number, rollup_date, txn_count, total_amount) " +
+                    "SELECT card_number, CAST(txn_time AS DATE), COUNT(*), SUM(amount) FROM card_transactions " +
+                    "WHERE card_number >= ? AND card_number < ? GROUP BY card_number, CAST(txn_time AS DATE)",
+                    Long.toString(card), Long.toString(card + 10_000));
+        }
+    }
+
+    private void seedTransactions(String cardNumberExpression, long first, long last) {
+        jdbcTemplate.update("INSERT INTO card_transactions (card_number, txn_month, txn_time, txn_type, amount) " +
+                "SELECT card_number, EXTRACT(YEAR FROM txn_time) * 100 + EXTRACT(MONTH FROM txn_time), txn_time, 'SPEND', amount " +
+                "FROM (SELECT " + cardNumberExpression + " AS card_number, " +
+                "DATEADD(SECOND, MOD(X * 104729, 31536000), TIMESTAMP '2024-01-01 00:00:00') AS txn_time, " +
+                "1 + MOD(X * 7919, 5000) AS amount FROM SYSTEM_RANGE(?, ?))", first, last);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        deleteDatabase();
+    }
+
+    private static void deleteDatabase() {
+        try {
+            Files.deleteIfExists(Path.of(DATABASE + ".mv.db"));
+            Files.deleteIfExists(Path.of(DATABASE + ".trace.db"));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Benchmark
+    public long streamOneMonth(Blackhole blackhole) {
+        LocalDateTime from = YEAR_START.plusMonths(ThreadLocalRandom.current().nextInt(12));
+        return ledgerService.streamTransactions(randomCardNumber(), from, from.plusMonths(1), blackhole::consume);
+    }
+
+    @Benchmark
+    public long streamOneYear(Blackhole blackhole) {
+        return ledgerService.streamTransactions(randomCardNumber(), YEAR_START, YEAR_START.plusYears(1), blackhole::consume);
+    }
+
+    @Benchmark
+    public CardStatementSummaryDto hotCardSummaryFromRollups() {
+        LocalDate fromDate = randomHalfYearStart().toLocalDate();
+        return ledgerService.fetchStatementSummary(HOT_CARD_NUMBER, fromDate, fromDate.plusMonths(6).minusDays(1));
+    }
+
+    @Benchmark
+    public Map<String, Object> hotCardSummaryFromTransactions() {
+        LocalDateTime from = randomHalfYearStart();
+        LocalDateTime to = from.plusMonths(6);
+        return jdbcTemplate.queryForMap("SELECT COUNT(*), SUM(amount) FROM card_transactions " +
+                "WHERE card_number = ? AND txn_month BETWEEN ? AND ? AND txn_time >= ? AND txn_time < ?",
+                HOT_CARD_NUMBER, from.getYear() * 100 + from.getMonthValue(), to.getYear() * 100 + to.getMonthValue(), from, to);
+    }
+
+    // H2 reuses the result of a query run again with the same parameters, every call asks for another period
+    private static LocalDateTime randomHalfYearStart() {
+        return YEAR_START.plusDays(ThreadLocalRandom.current().nextInt(183));
+    }
+
+    private String randomCardNumber() {
+        return Long.toString(FIRST_CARD_NUMBER + ThreadLocalRandom.current().nextInt(cards));
+    }
+}
@@ -0,0 +1,77 @@
+package com.eazybytes.cards.benchmark;
+
+import com.eazybytes.cards.CardsApplication;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.service.ICardsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Authorizations per second on a single hot card, all benchmark threads spending on the same card:
+
+    - conditionalUpdate : CardsServiceImpl.authorizeSpend, one conditional UPDATE per spend, the database serializes
+      the spends on the row lock
+    - readModifyWrite   : what clients had to do before, fetchCard + updateCard with amountUsed/availableAmount
+      computed in Java, serialized on the client so no update is lost
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="CardsAuthorizationBenchmark -prof gc"
+    (-t changes the number of threads)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class CardsAuthorizationBenchmark {
+
+    private static final String HOT_CARD_MOBILE_NUMBER = "9000000000";
+
+    private ConfigurableApplicationContext context;
+    private ICardsService cardsService;
+    private String hotCardNumber;
+    private final Object clientLock = new Object();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // arguments, application.yml would override builder properties
+        context = new SpringApplicationBuilder(CardsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--cards.velocity.enabled=false"); // the same card is debited over and over
+        cardsService = context.getBean(ICardsService.class);
+
+        cardsService.createCard(HOT_CARD_MOBILE_NUMBER);
+        CardsDto hotCard = cardsService.fetchCard(HOT_CARD_MOBILE_NUMBER);
+        // large enough to never run out during the trial
+        hotCard.setTotalLimit(Integer.MAX_VALUE);
+        hotCard.setAvailableAmount(Integer.MAX_VALUE);
+        cardsService.updateCard(hotCard);
+        hotCardNumber = hotCard.getCardNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void conditionalUpdate() {
+        cardsService.authorizeSpend(hotCardNumber, 1);
+    }
+
+    @Benchmark
+    public void readModifyWrite() {
+        synchronized (clientLock) {
+            CardsDto card = cardsService.fetchCard(HOT_CARD_MOBILE_NUMBER);
+            card.setAmountUsed(card.getAmountUsed() + 1);
+            card.setAvailableAmount(card.getAvailableAmount() - 1);
+            cardsService.updateCard(card);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.eazybytes.cards.benchmark;
+
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.mapper.CardsMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Per request work outside the database : entity <-> DTO mapping, Bean Validation of the @RequestBody CardsDto
+    (including the mobile and card number @Pattern regexes, valid and invalid input) and Jackson reading of the
+    request body and writing of the response DTO, with an ObjectMapper built the way Spring Boot builds its own.
+
+    Throughput mode, the gc profiler (-prof gc, on by default in the jmh profile) reports the allocation per
+    operation as gc.alloc.rate.norm.
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="CardsDtoBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardsDtoBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ObjectMapper objectMapper;
+
+    private Cards cards;
+    private CardsDto cardsDto;
+    private CardsDto invalidCardsDto;
+    private String cardsJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        cards = new Cards();
+        cards.setCardId(1L);
+        cards.setMobileNumber("9345432123");
+        cards.setCardNumber("100646930341");
+        cards.setCardType("Credit Card");
+        cards.setTotalLimit(100000);
+        cards.setAmountUsed(1000);
+        cards.setAvailableAmount(99000);
+
+        cardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+        invalidCardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+        invalidCardsDto.setMobileNumber("93454321");
+        invalidCardsDto.setCardNumber("10064693034X");
+        invalidCardsDto.setTotalLimit(0);
+
+        cardsJson = objectMapper.writeValueAsString(cardsDto);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public CardsDto mapToCardsDto() {
+        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public Cards mapToCards() {
+        return CardsMapper.mapToCards(cardsDto, new Cards());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardsDto>> validateCards() {
+        return validator.validate(cardsDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardsDto>> validateInvalidCards() {
+        return validator.validate(invalidCardsDto);
+    }
+
+    @Benchmark
+    public CardsDto readCards() throws JsonProcessingException {
+        return objectMapper.readValue(cardsJson, CardsDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeCards() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cardsDto);
+    }
+}
@@ -0,0 +1,66 @@
+package com.eazybytes.cards.benchmark;
+
+import com.eazybytes.cards.CardsApplication;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.service.ICardsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    CardsServiceImpl.fetchCard through the Spring proxy against the embedded H2 database.
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="CardsServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardsServiceBenchmark {
+
+    @Param({"1000"})
+    private int cards;
+
+    private ConfigurableApplicationContext context;
+    private ICardsService cardsService;
+    private String[] mobileNumbers;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextMobileNumber(String[] mobileNumbers) {
+            return mobileNumbers[(next++ & Integer.MAX_VALUE) % mobileNumbers.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // arguments, application.yml would override builder properties
+        context = new SpringApplicationBuilder(CardsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        cardsService = context.getBean(ICardsService.class);
+
+        mobileNumbers = new String[cards];
+        for (int i = 0; i < cards; i++) {
+            mobileNumbers[i] = Long.toString(9000000000L + i);
+            cardsService.createCard(mobileNumbers[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CardsDto fetchCard(Cursor cursor) {
+        return cardsService.fetchCard(cursor.nextMobileNumber(mobileNumbers));
+    }
+}
@@ -0,0 +1,20 @@
+package com.eazybytes.cards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Binds the cards.holds.* properties: how long a hold reserves funds and the resolution of its expiry timer.
+@Data
+@ConfigurationProperties(prefix = "cards.holds")
+public class CardHoldsProperties {
+
+    private Duration expireAfter = Duration.ofMinutes(15); // holds neither captured nor released by then give the funds back
+
+    private Duration tick = Duration.ofSeconds(1); // expiry resolution, a hold expires at most one tick after expiresAt
+
+    private int wheelSize = 64; // slots per level of the timing wheel, a power of two
+
+    private int wheelLevels = 4; // 64 slots of 1s on 4 levels cover 194 days, later deadlines are placed again
+}
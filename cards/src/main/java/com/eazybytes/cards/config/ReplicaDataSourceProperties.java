@@ -0,0 +1,32 @@
+package com.eazybytes.cards.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binds the cards.datasource.* properties: the read replicas and how far behind the primary they may fall.
+@Data
+@ConfigurationProperties(prefix = "cards.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>(); // none configured, every statement goes to spring.datasource
+
+    private Duration maxReplicaLag = Duration.ofSeconds(5); // replicas further behind the primary serve no reads
+
+    private Duration healthCheckInterval = Duration.ofSeconds(1);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private Duration connectionTimeout = Duration.ofSeconds(1); // a replica that cannot hand out a connection in time is skipped
+    }
+}
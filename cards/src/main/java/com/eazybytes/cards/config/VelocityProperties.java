@@ -0,0 +1,55 @@
+package com.eazybytes.cards.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Binds the cards.velocity.* properties: how many authorizations, and how much, a card or a mobile number may make
+// per minute, hour and day.
+@Data
+@ConfigurationProperties(prefix = "cards.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = true;
+
+    private int maxTrackedKeys = 16384; // per card and per mobile number table, ~700 bytes each, allocated up front
+
+    private int stripes = 64; // lock stripes per table, a power of two
+
+    private int topOffenders = 10; // keys listed per table by /actuator/velocity
+
+    private WindowLimits card = new WindowLimits();
+
+    private WindowLimits mobileNumber = new WindowLimits();
+
+    @Data
+    public static class WindowLimits {
+
+        private Limit perMinute = new Limit();
+
+        private Limit perHour = new Limit();
+
+        private Limit perDay = new Limit();
+
+        public int[] maxCounts() {
+            return new int[] {perMinute.getMaxCount(), perHour.getMaxCount(), perDay.getMaxCount()};
+        }
+
+        public long[] maxAmounts() {
+            return new long[] {perMinute.getMaxAmount(), perHour.getMaxAmount(), perDay.getMaxAmount()};
+        }
+    }
+
+    // 0 is no limit
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        private int maxCount;
+
+        private long maxAmount;
+    }
+}
@@ -7,11 +7,29 @@ public final class CardsConstants {
     }
 
     public static final String  CREDIT_CARD = "Credit Card";
+    public static final String  CARDS_CACHE_REGION = "cards";
+    public static final String  CARD_NATURAL_IDS_CACHE_REGION = "cards-natural-ids";
+    public static final String  CARD_IDS_BY_MOBILE_NUMBER_CACHE = "card-ids-by-mobile-number";
     public static final int  NEW_CARD_LIMIT = 1_00_000;
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Card created successfully";
     public static final String  STATUS_200 = "200";
     public static final String  MESSAGE_200 = "Request processed successfully";
+    public static final String  MESSAGE_200_AUTHORIZED = "Spend authorized successfully";
+    public static final String  MESSAGE_201_HOLD = "Hold placed successfully";
+    public static final String  MESSAGE_200_CAPTURED = "Hold captured successfully";
+    public static final String  MESSAGE_200_RELEASED = "Hold released successfully";
+    public static final String  HOLD_HELD = "HELD";
+    public static final String  HOLD_CAPTURED = "CAPTURED";
+    public static final String  HOLD_RELEASED = "RELEASED";
+    public static final String  HOLD_EXPIRED = "EXPIRED";
+    public static final String  TXN_SPEND = "SPEND";
+    public static final String  TXN_CAPTURE = "CAPTURE";
+    public static final int  MAX_STATEMENT_DAYS = 366;
+    public static final String  LIMITS_QUEUED = "QUEUED";
+    public static final String  LIMITS_RUNNING = "RUNNING";
+    public static final String  LIMITS_COMPLETED = "COMPLETED";
+    public static final String  LIMITS_FAILED = "FAILED";
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
@@ -0,0 +1,167 @@
+package com.eazybytes.cards.controller;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.dto.CardHoldDto;
+import com.eazybytes.cards.dto.ErrorResponseDto;
+import com.eazybytes.cards.dto.ResponseDto;
+import com.eazybytes.cards.service.ICardHoldsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+        name = "Hold REST APIs for Cards in EazyBank",
+        description = "REST APIs in EazyBank to PLACE, FETCH, CAPTURE AND RELEASE pre-authorization holds on cards"
+)
+@RestController
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+@Validated
+public class CardHoldsController {
+
+    private ICardHoldsService iCardHoldsService;
+
+    @Operation(
+            summary = "Place Hold REST API",
+            description = "REST API to reserve an amount of a card. The hold is released automatically if it is " +
+                    "neither captured nor released before it expires"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status CREATED"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Insufficient available amount",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Velocity limits of the card or its mobile number reached",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/placeHold")
+    public ResponseEntity<CardHoldDto> placeHold(@Valid @RequestBody CardAuthorizationDto cardAuthorizationDto) {
+        CardHoldDto cardHoldDto = iCardHoldsService.placeHold(cardAuthorizationDto.getCardNumber(), cardAuthorizationDto.getAmount());
+        return ResponseEntity.status(HttpStatus.CREATED).body(cardHoldDto);
+    }
+
+    @Operation(
+            summary = "Fetch Hold Details REST API",
+            description = "REST API to fetch hold details based on a hold id"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/fetchHold")
+    public ResponseEntity<CardHoldDto> fetchHold(@RequestParam Long holdId) {
+        CardHoldDto cardHoldDto = iCardHoldsService.fetchHold(holdId);
+        return ResponseEntity.status(HttpStatus.OK).body(cardHoldDto);
+    }
+
+    @Operation(
+            summary = "Capture Hold REST API",
+            description = "REST API to count the reserved amount of a hold as used"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Hold already captured, released or expired",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/captureHold")
+    public ResponseEntity<ResponseDto> captureHold(@RequestParam Long holdId) {
+        iCardHoldsService.captureHold(holdId);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200_CAPTURED));
+    }
+
+    @Operation(
+            summary = "Release Hold REST API",
+            description = "REST API to give the reserved amount of a hold back to the card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Hold already captured, released or expired",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/releaseHold")
+    public ResponseEntity<ResponseDto> releaseHold(@RequestParam Long holdId) {
+        iCardHoldsService.releaseHold(holdId);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200_RELEASED));
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.eazybytes.cards.controller;
+
+import com.eazybytes.cards.dto.CardStatementSummaryDto;
+import com.eazybytes.cards.dto.ErrorResponseDto;
+import com.eazybytes.cards.service.ICardLedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Tag(
+        name = "Ledger REST APIs for Cards in EazyBank",
+        description = "REST APIs in EazyBank to FETCH the transactions and statement summaries of cards"
+)
+@RestController
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+@Validated
+public class CardLedgerController {
+
+    private ICardLedgerService iCardLedgerService;
+    private ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Fetch Transactions REST API",
+            description = "REST API to stream the transactions of a card in a time range, oldest first, one JSON " +
+                    "object per line. Ranges of any length are streamed without being held in memory"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "The range does not end after it starts",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping(path = "/fetchTransactions", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> fetchTransactions(@RequestParam
+                                                                   @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+                                                                   String cardNumber,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = outputStream -> iCardLedgerService.streamTransactions(cardNumber, from, to, transaction -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(transaction));
+                outputStream.write('\n');
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Fetch Statement Summary REST API",
+            description = "REST API to fetch the transaction totals of a card over a period of days, and of each " +
+                    "day, from the daily rollups"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "The period ends before it starts or is longer than a year",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/fetchStatementSummary")
+    public ResponseEntity<CardStatementSummaryDto> fetchStatementSummary(@RequestParam
+                                                                         @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+                                                                         String cardNumber,
+                                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+                                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        CardStatementSummaryDto cardStatementSummaryDto = iCardLedgerService.fetchStatementSummary(cardNumber, fromDate, toDate);
+        return ResponseEntity.status(HttpStatus.OK).body(cardStatementSummaryDto);
+    }
+
+}
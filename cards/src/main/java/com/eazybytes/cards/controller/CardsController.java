@@ -1,9 +1,13 @@
 package com.eazybytes.cards.controller;
 
 import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.dto.CardLimitAdjustmentDto;
+import com.eazybytes.cards.dto.CardLimitDto;
 import com.eazybytes.cards.dto.CardsDto;
 import com.eazybytes.cards.dto.ErrorResponseDto;
 import com.eazybytes.cards.dto.ResponseDto;
+import com.eazybytes.cards.service.ICardLimitsService;
 import com.eazybytes.cards.service.ICardsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,6 +16,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,6 +24,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Eazy Bytes
@@ -26,7 +39,7 @@ import org.springframework.web.bind.annotation.*;
 
 @Tag(
         name = "CRUD REST APIs for Cards in EazyBank",
-        description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE card details"
+        description = "CRUD REST APIs in EazyBank to CREATE, UPDATE, FETCH AND DELETE card details to AUTHORIZE spends and to ADJUST limits in bulk"
 )
 @RestController
 @RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -35,6 +48,7 @@ import org.springframework.web.bind.annotation.*;
 public class CardsController {
 
     private ICardsService iCardsService;
+    private ICardLimitsService iCardLimitsService;
 
     @Operation(
             summary = "Create Card REST API",
@@ -161,4 +175,157 @@ public class CardsController {
         }
     }
 
-}
\ No newline at end of file
+    @Operation(
+            summary = "Authorize Card Spend REST API",
+            description = "REST API to debit an amount from the available amount of a card, atomically and only if it suffices. " +
+                    "Safe to call concurrently for the same card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Insufficient available amount",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Velocity limits of the card or its mobile number reached",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/authorize")
+    public ResponseEntity<ResponseDto> authorizeSpend(@Valid @RequestBody CardAuthorizationDto cardAuthorizationDto) {
+        iCardsService.authorizeSpend(cardAuthorizationDto.getCardNumber(), cardAuthorizationDto.getAmount());
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200_AUTHORIZED));
+    }
+
+    @Operation(
+            summary = "Adjust Limits REST API",
+            description = "REST API to set the total limit of many cards at once, the available amount of every card " +
+                    "follows its new limit. Runs in the background, follow it with Fetch Limit Adjustment"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "HTTP Status ACCEPTED"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/adjustLimits")
+    public ResponseEntity<CardLimitAdjustmentDto> adjustLimits(@RequestBody
+                                                               @NotEmpty(message = "At least one card limit is required")
+                                                               List<CardLimitDto> cardLimits) {
+        CardLimitAdjustmentDto cardLimitAdjustmentDto = iCardLimitsService.startAdjustment(cardLimits);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(cardLimitAdjustmentDto);
+    }
+
+    @Operation(
+            summary = "Adjust Limits From File REST API",
+            description = "REST API to set the total limit of many cards at once from a CSV file, one " +
+                    "cardNumber,newLimit line per card and no header. Runs in the background, follow it with " +
+                    "Fetch Limit Adjustment"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "HTTP Status ACCEPTED"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping(path = "/adjustLimitsFile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CardLimitAdjustmentDto> adjustLimitsFromFile(@RequestParam("file") MultipartFile file) throws IOException {
+        List<CardLimitDto> cardLimits = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                cardLimits.add(parseCardLimit(line)); // one row per line, so failures point at their line
+            }
+        }
+        CardLimitAdjustmentDto cardLimitAdjustmentDto = iCardLimitsService.startAdjustment(cardLimits);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(cardLimitAdjustmentDto);
+    }
+
+    @Operation(
+            summary = "Fetch Limit Adjustment REST API",
+            description = "REST API to fetch the progress and failures of a bulk limit adjustment"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/fetchLimitAdjustment")
+    public ResponseEntity<CardLimitAdjustmentDto> fetchLimitAdjustment(@RequestParam String jobId) {
+        CardLimitAdjustmentDto cardLimitAdjustmentDto = iCardLimitsService.fetchAdjustment(jobId);
+        return ResponseEntity.status(HttpStatus.OK).body(cardLimitAdjustmentDto);
+    }
+
+    // Blank lines become empty rows and unreadable limits a limit of 0, both reported as failures of their line
+    private static CardLimitDto parseCardLimit(String line) {
+        if(line.isBlank()) {
+            return null;
+        }
+        int comma = line.indexOf(',');
+        String cardNumber = (comma < 0 ? line : line.substring(0, comma)).trim();
+        int newLimit = 0;
+        if(comma >= 0) {
+            try {
+                newLimit = Integer.parseInt(line.substring(comma + 1).trim());
+            } catch (NumberFormatException exception) {
+                // left at 0
+            }
+        }
+        return new CardLimitDto(cardNumber, newLimit);
+    }
+
+}
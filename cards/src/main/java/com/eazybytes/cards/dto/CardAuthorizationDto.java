@@ -0,0 +1,28 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Schema(name = "CardAuthorization",
+        description = "Schema to hold a spend to authorize against a card"
+)
+@Data
+public class CardAuthorizationDto {
+
+    @NotEmpty(message = "Card Number can not be a null or empty")
+    @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Positive(message = "Amount should be greater than zero")
+    @Schema(
+            description = "Amount to debit from the available amount of the card", example = "250"
+    )
+    private int amount;
+
+}
@@ -0,0 +1,29 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Schema(name = "CardDailyTotal",
+        description = "Schema to hold the transactions of a card on one day"
+)
+@Data
+public class CardDailyTotalDto {
+
+    @Schema(
+            description = "Day", example = "2024-01-01"
+    )
+    private LocalDate date;
+
+    @Schema(
+            description = "Number of transactions on the day", example = "3"
+    )
+    private int transactionCount;
+
+    @Schema(
+            description = "Total amount of the transactions on the day", example = "750"
+    )
+    private long totalAmount;
+
+}
@@ -0,0 +1,39 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "CardHold",
+        description = "Schema to hold the details of a pre-authorization hold"
+)
+@Data
+public class CardHoldDto {
+
+    @Schema(
+            description = "Id of the hold, used to capture or release it", example = "1"
+    )
+    private Long holdId;
+
+    @Schema(
+            description = "Card Number the amount is reserved on", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Amount reserved from the available amount of the card", example = "250"
+    )
+    private int amount;
+
+    @Schema(
+            description = "HELD, CAPTURED, RELEASED or EXPIRED", example = "HELD"
+    )
+    private String status;
+
+    @Schema(
+            description = "Time at which the hold is released if it has not been captured", example = "2024-01-01T10:15:00"
+    )
+    private LocalDateTime expiresAt;
+
+}
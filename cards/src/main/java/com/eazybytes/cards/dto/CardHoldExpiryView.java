@@ -0,0 +1,11 @@
+package com.eazybytes.cards.dto;
+
+import java.time.LocalDateTime;
+
+// Interface projection, all the expiry timer needs to know about an outstanding hold
+public interface CardHoldExpiryView {
+
+    Long getHoldId();
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,60 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(name = "CardLimitAdjustment",
+        description = "Schema to hold the progress of a bulk limit adjustment"
+)
+@Data
+public class CardLimitAdjustmentDto {
+
+    @Schema(
+            description = "Id of the adjustment, used to follow its progress", example = "3f1c2a9e-3b8d-4c55-9a6e-0c1d2e3f4a5b"
+    )
+    private String jobId;
+
+    @Schema(
+            description = "QUEUED, RUNNING, COMPLETED or FAILED (stopped by an error, rows processed so far are applied)",
+            example = "RUNNING"
+    )
+    private String status;
+
+    @Schema(
+            description = "Number of rows in the request", example = "250000"
+    )
+    private int totalRows;
+
+    @Schema(
+            description = "Number of rows processed so far", example = "120000"
+    )
+    private int processedRows;
+
+    @Schema(
+            description = "Number of cards whose limit has been adjusted", example = "119990"
+    )
+    private int adjustedCards;
+
+    @Schema(
+            description = "Number of rows that could not be applied", example = "10"
+    )
+    private int failedRows;
+
+    @Schema(
+            description = "The first failed rows and why"
+    )
+    private List<CardLimitFailureDto> failures;
+
+    @Schema(
+            description = "Error that stopped the adjustment, when FAILED"
+    )
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+}
@@ -0,0 +1,27 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "CardLimit",
+        description = "Schema to hold the new total limit of a card"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLimitDto {
+
+    // Not validated on the way in: a bad row is reported as a failure of the adjustment, the other rows still apply
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "New total limit of the card", example = "150000"
+    )
+    private int newLimit;
+
+}
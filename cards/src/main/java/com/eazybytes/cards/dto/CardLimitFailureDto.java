@@ -0,0 +1,31 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "CardLimitFailure",
+        description = "Schema to hold a row of a limit adjustment that could not be applied"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLimitFailureDto {
+
+    @Schema(
+            description = "Position of the row in the request (line of the file), starting at 1", example = "42"
+    )
+    private int row;
+
+    @Schema(
+            description = "Card Number of the row, as given", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Why the row was not applied", example = "Card not found"
+    )
+    private String reason;
+
+}
@@ -0,0 +1,45 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(name = "CardStatementSummary",
+        description = "Schema to hold the totals of a card's transactions over a period"
+)
+@Data
+public class CardStatementSummaryDto {
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "First day of the statement", example = "2024-01-01"
+    )
+    private LocalDate fromDate;
+
+    @Schema(
+            description = "Last day of the statement, included", example = "2024-01-31"
+    )
+    private LocalDate toDate;
+
+    @Schema(
+            description = "Number of transactions over the period", example = "42"
+    )
+    private long transactionCount;
+
+    @Schema(
+            description = "Total amount of the transactions over the period", example = "12500"
+    )
+    private long totalAmount;
+
+    @Schema(
+            description = "Totals of the days with transactions, oldest first"
+    )
+    private List<CardDailyTotalDto> dailyTotals;
+
+}
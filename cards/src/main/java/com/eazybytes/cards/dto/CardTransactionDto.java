@@ -0,0 +1,43 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "CardTransaction",
+        description = "Schema to hold a transaction of the card ledger"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor // used by the constructor expression of CardTransactionsRepository.streamTransactions
+public class CardTransactionDto {
+
+    @Schema(
+            description = "Id of the transaction", example = "1"
+    )
+    private Long txnId;
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Time of the transaction", example = "2024-01-01T10:15:00"
+    )
+    private LocalDateTime txnTime;
+
+    @Schema(
+            description = "SPEND (authorized spend) or CAPTURE (captured hold)", example = "SPEND"
+    )
+    private String txnType;
+
+    @Schema(
+            description = "Amount of the transaction", example = "250"
+    )
+    private int amount;
+
+}
@@ -0,0 +1,39 @@
+package com.eazybytes.cards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Per card and day totals of card_transactions, maintained with every ledger row (CardDailyRollupsRepository.addToRollup)
+@Entity
+@Table(name = "card_daily_rollups")
+@IdClass(CardDailyRollup.RollupId.class)
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardDailyRollup {
+
+    @Id
+    private String cardNumber;
+
+    @Id
+    private LocalDate rollupDate;
+
+    private int txnCount;
+
+    private long totalAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RollupId implements Serializable {
+
+        private String cardNumber;
+
+        private LocalDate rollupDate;
+    }
+}
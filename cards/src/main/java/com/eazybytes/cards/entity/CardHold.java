@@ -0,0 +1,29 @@
+package com.eazybytes.cards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "card_holds")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardHold extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long holdId;
+
+    private String cardNumber;
+
+    private int amount;
+
+    private String status; // CardsConstants.HOLD_*, only HELD holds have funds reserved
+
+    private LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,34 @@
+package com.eazybytes.cards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// A row of the append-only card ledger, never updated nor deleted (hence no BaseEntity audit columns)
+@Entity
+// The index is also in schema.sql, declared here so schema generation creates it where schema.sql is not run
+@Table(name = "card_transactions", indexes = @Index(name = "idx_card_transactions_card_number_txn_time",
+        columnList = "cardNumber, txnTime"))
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long txnId;
+
+    private String cardNumber;
+
+    private int txnMonth; // yyyyMM of txnTime, the partition key
+
+    private LocalDateTime txnTime;
+
+    private String txnType; // CardsConstants.TXN_*
+
+    private int amount;
+
+}
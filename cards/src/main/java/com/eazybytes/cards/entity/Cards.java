@@ -1,9 +1,22 @@
 package com.eazybytes.cards.entity;
 
+import com.eazybytes.cards.constants.CardsConstants;
 import jakarta.persistence.*;
 import lombok.*;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+/*
+    Cached in the second-level cache (see SecondLevelCacheConfig), and so is the resolution of a card number, the
+    natural id, to the card id. Spends and holds evict only the card they update (see CardAmountsRepositoryImpl), the
+    bulk limit adjustments the whole region.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CardsConstants.CARDS_CACHE_REGION)
+@NaturalIdCache(region = CardsConstants.CARD_NATURAL_IDS_CACHE_REGION)
 @Getter
 @Setter
 @ToString
@@ -17,6 +30,7 @@ public class Cards extends BaseEntity {
 
     private String mobileNumber;
 
+    @NaturalId
     private String cardNumber;
 
     private String cardType;
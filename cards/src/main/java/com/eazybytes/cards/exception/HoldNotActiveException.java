@@ -0,0 +1,12 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class HoldNotActiveException extends RuntimeException {
+
+    public HoldNotActiveException(Long holdId){
+        super(String.format("Hold '%d' has already been captured, released or has expired", holdId));
+    }
+}
@@ -0,0 +1,12 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String cardNumber, int amount){
+        super(String.format("Available amount of card '%s' does not cover the amount of %d", cardNumber, amount));
+    }
+}
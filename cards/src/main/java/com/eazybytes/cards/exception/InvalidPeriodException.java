@@ -0,0 +1,12 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidPeriodException extends RuntimeException {
+
+    public InvalidPeriodException(String from, String to, String reason){
+        super(String.format("Invalid period from %s to %s : %s", from, to, reason));
+    }
+}
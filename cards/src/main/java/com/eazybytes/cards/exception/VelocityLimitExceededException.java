@@ -0,0 +1,12 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class VelocityLimitExceededException extends RuntimeException {
+
+    public VelocityLimitExceededException(String subject, String window){
+        super(String.format("Authorization declined, the %s limits for the last %s have been reached", subject, window));
+    }
+}
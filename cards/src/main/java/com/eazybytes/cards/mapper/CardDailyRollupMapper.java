@@ -0,0 +1,15 @@
+package com.eazybytes.cards.mapper;
+
+import com.eazybytes.cards.dto.CardDailyTotalDto;
+import com.eazybytes.cards.entity.CardDailyRollup;
+
+public class CardDailyRollupMapper {
+
+    public static CardDailyTotalDto mapToCardDailyTotalDto(CardDailyRollup cardDailyRollup, CardDailyTotalDto cardDailyTotalDto) {
+        cardDailyTotalDto.setDate(cardDailyRollup.getRollupDate());
+        cardDailyTotalDto.setTransactionCount(cardDailyRollup.getTxnCount());
+        cardDailyTotalDto.setTotalAmount(cardDailyRollup.getTotalAmount());
+        return cardDailyTotalDto;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.eazybytes.cards.mapper;
+
+import com.eazybytes.cards.dto.CardHoldDto;
+import com.eazybytes.cards.entity.CardHold;
+
+public class CardHoldMapper {
+
+    public static CardHoldDto mapToCardHoldDto(CardHold cardHold, CardHoldDto cardHoldDto) {
+        cardHoldDto.setHoldId(cardHold.getHoldId());
+        cardHoldDto.setCardNumber(cardHold.getCardNumber());
+        cardHoldDto.setAmount(cardHold.getAmount());
+        cardHoldDto.setStatus(cardHold.getStatus());
+        cardHoldDto.setExpiresAt(cardHold.getExpiresAt());
+        return cardHoldDto;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.eazybytes.cards.metrics;
+
+import com.eazybytes.cards.service.impl.CardVelocityGuard;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/velocity : the cards and mobile numbers closest to their velocity limits, with masked numbers
+@Component
+@Endpoint(id = "velocity")
+@AllArgsConstructor
+public class VelocityEndpoint {
+
+    private CardVelocityGuard cardVelocityGuard;
+
+    @ReadOperation
+    public CardVelocityGuard.VelocityReport topOffenders() {
+        return cardVelocityGuard.topOffenders();
+    }
+}
@@ -0,0 +1,45 @@
+package com.eazybytes.cards.repository;
+
+import java.time.LocalDateTime;
+
+/*
+    Conditional updates of the amounts of one card, implemented by CardAmountsRepositoryImpl. Each one evicts only
+    that card from the second-level cache, the other cached cards stay cached.
+ */
+public interface CardAmountsRepository {
+
+    /**
+     * Moves amount from availableAmount to amountUsed in one statement, only if the card has that much available.
+     * The check and the update happen under the row lock, so concurrent spends on the same card serialize in the
+     * database instead of overwriting each other.
+     *
+     * @param cardNumber - Card Number to debit
+     * @param amount - Amount to debit from the available amount of the card
+     * @param updatedAt - audit timestamp, the update bypasses the auditing listener
+     * @param updatedBy - audit user
+     * @return 1 if the spend was applied, 0 if the card does not exist or lacks the funds
+     */
+    int debitAvailableAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    /**
+     * Reserves amount for a hold: taken from availableAmount (if it suffices) without counting as used yet.
+     *
+     * @return 1 if the amount was reserved, 0 if the card does not exist or lacks the funds
+     */
+    int reserveAvailableAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    /**
+     * Captures the reserved amount of a hold, it already left availableAmount when the hold was placed.
+     *
+     * @return 1 if the card was updated, 0 if it does not exist
+     */
+    int captureReservedAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+    /**
+     * Gives the reserved amount of a released or expired hold back to availableAmount.
+     *
+     * @return 1 if the card was updated, 0 if it does not exist
+     */
+    int releaseReservedAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy);
+
+}
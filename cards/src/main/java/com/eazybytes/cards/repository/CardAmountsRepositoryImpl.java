@@ -0,0 +1,85 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.Cards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/*
+    The amounts of a card are updated with plain JDBC rather than bulk JPQL: Hibernate cannot tell which rows a bulk
+    statement touched and would clear the whole cards region (and its natural ids) on every spend or hold. The card
+    updated is evicted by id instead, twice: within the transaction, so a read right after the commit finds no
+    pre-update copy, and after completion, dropping a copy a concurrent reader may have cached while the update was
+    not committed yet. The card number to card id resolution never changes and stays cached.
+ */
+@Transactional
+public class CardAmountsRepositoryImpl implements CardAmountsRepository {
+
+    private static final String DEBIT_SQL = "UPDATE cards SET available_amount = available_amount - ?, " +
+            "amount_used = amount_used + ?, updated_at = ?, updated_by = ? WHERE card_number = ? AND available_amount >= ?";
+    private static final String RESERVE_SQL = "UPDATE cards SET available_amount = available_amount - ?, " +
+            "updated_at = ?, updated_by = ? WHERE card_number = ? AND available_amount >= ?";
+    private static final String CAPTURE_SQL = "UPDATE cards SET amount_used = amount_used + ?, " +
+            "updated_at = ?, updated_by = ? WHERE card_number = ?";
+    private static final String RELEASE_SQL = "UPDATE cards SET available_amount = available_amount + ?, " +
+            "updated_at = ?, updated_by = ? WHERE card_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CardAmountsRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager,
+                                     EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public int debitAvailableAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy) {
+        return updated(cardNumber, jdbcTemplate.update(DEBIT_SQL, amount, amount, Timestamp.valueOf(updatedAt), updatedBy,
+                cardNumber, amount));
+    }
+
+    @Override
+    public int reserveAvailableAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy) {
+        return updated(cardNumber, jdbcTemplate.update(RESERVE_SQL, amount, Timestamp.valueOf(updatedAt), updatedBy,
+                cardNumber, amount));
+    }
+
+    @Override
+    public int captureReservedAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy) {
+        return updated(cardNumber, jdbcTemplate.update(CAPTURE_SQL, amount, Timestamp.valueOf(updatedAt), updatedBy,
+                cardNumber));
+    }
+
+    @Override
+    public int releaseReservedAmount(String cardNumber, int amount, LocalDateTime updatedAt, String updatedBy) {
+        return updated(cardNumber, jdbcTemplate.update(RELEASE_SQL, amount, Timestamp.valueOf(updatedAt), updatedBy,
+                cardNumber));
+    }
+
+    private int updated(String cardNumber, int updatedCards) {
+        if (updatedCards == 0) {
+            return 0;
+        }
+        // resolved from the natural-id cache, without loading the card
+        Cards card = entityManager.unwrap(Session.class).bySimpleNaturalId(Cards.class).getReference(cardNumber);
+        Object cardId = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(card);
+        entityManagerFactory.getCache().evict(Cards.class, cardId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entityManagerFactory.getCache().evict(Cards.class, cardId);
+            }
+        });
+        return updatedCards;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.CardDailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CardDailyRollupsRepository extends JpaRepository<CardDailyRollup, CardDailyRollup.RollupId> {
+
+    /*
+        Adds one transaction to the card's rollup of the day, creating it with the day's first transaction (standard
+        SQL MERGE, one statement). Callers hold the card's row lock (every ledger row follows an UPDATE of cards), so
+        two transactions never race to create the same rollup. The native statement names the only table it touches,
+        otherwise Hibernate would clear every second-level cache region after it.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "card_daily_rollups"))
+    @Query(value = "MERGE INTO card_daily_rollups r " +
+            "USING (VALUES (CAST(:cardNumber AS VARCHAR(100)), CAST(:rollupDate AS DATE), CAST(:amount AS BIGINT))) " +
+            "AS t(card_number, rollup_date, amount) " +
+            "ON r.card_number = t.card_number AND r.rollup_date = t.rollup_date " +
+            "WHEN MATCHED THEN UPDATE SET txn_count = r.txn_count + 1, total_amount = r.total_amount + t.amount " +
+            "WHEN NOT MATCHED THEN INSERT (card_number, rollup_date, txn_count, total_amount) " +
+            "VALUES (t.card_number, t.rollup_date, 1, t.amount)", nativeQuery = true)
+    int addToRollup(@Param("cardNumber") String cardNumber, @Param("rollupDate") LocalDate rollupDate,
+                    @Param("amount") long amount);
+
+    List<CardDailyRollup> findByCardNumberAndRollupDateBetweenOrderByRollupDate(String cardNumber, LocalDate fromDate,
+                                                                               LocalDate toDate);
+
+}
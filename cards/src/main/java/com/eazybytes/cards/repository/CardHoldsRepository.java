@@ -0,0 +1,35 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardHoldExpiryView;
+import com.eazybytes.cards.entity.CardHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface CardHoldsRepository extends JpaRepository<CardHold, Long> {
+
+    /*
+        Moves a HELD hold to its final status. Capture, release and expiry may race for the same hold, the conditional
+        UPDATE lets exactly one of them win.
+
+        @return 1 if the hold was HELD, 0 if it was already closed (or does not exist)
+     */
+    @Modifying
+    @Query("UPDATE CardHold h SET h.status = :status, h.updatedAt = :updatedAt, h.updatedBy = :updatedBy " +
+            "WHERE h.holdId = :holdId AND h.status = '" + CardsConstants.HOLD_HELD + "'")
+    int closeHold(@Param("holdId") Long holdId, @Param("status") String status,
+                  @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
+    // Outstanding holds, streamed to rebuild the expiry timers on startup. Must be consumed inside a transaction.
+    @Query("SELECT h.holdId AS holdId, h.expiresAt AS expiresAt FROM CardHold h " +
+            "WHERE h.status = '" + CardsConstants.HOLD_HELD + "'")
+    Stream<CardHoldExpiryView> streamHeldHolds();
+
+}
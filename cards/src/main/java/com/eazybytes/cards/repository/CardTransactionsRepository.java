@@ -0,0 +1,38 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.dto.CardTransactionDto;
+import com.eazybytes.cards.entity.CardTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface CardTransactionsRepository extends JpaRepository<CardTransaction, Long> {
+
+    /*
+        Transactions of a card in [from, to), oldest first, read through idx_card_transactions_card_number_txn_time.
+        The txnMonth bounds restrict the query to the monthly partitions covering the range.
+
+        Rows are read in batches of the fetch size and mapped straight to DTOs, nothing is kept in the persistence
+        context, so a range of any length is streamed in constant memory. Must be consumed inside a transaction.
+     */
+    @Query("SELECT new com.eazybytes.cards.dto.CardTransactionDto(t.txnId, t.cardNumber, t.txnTime, t.txnType, t.amount) " +
+            "FROM CardTransaction t WHERE t.cardNumber = :cardNumber " +
+            "AND t.txnMonth BETWEEN :fromMonth AND :toMonth AND t.txnTime >= :from AND t.txnTime < :to " +
+            "ORDER BY t.txnTime, t.txnId")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CardTransactionDto> streamTransactions(@Param("cardNumber") String cardNumber,
+                                                  @Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth,
+                                                  @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+}
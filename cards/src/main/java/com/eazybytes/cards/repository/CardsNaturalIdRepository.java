@@ -0,0 +1,24 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.Cards;
+
+import java.util.Optional;
+
+/*
+    Card lookups served from the second-level cache, implemented by CardsNaturalIdRepositoryImpl.
+ */
+public interface CardsNaturalIdRepository {
+
+    /**
+     * @param cardNumber - Card Number, the natural id of a card
+     * @return the card, from the second-level cache when it holds it
+     */
+    Optional<Cards> findByCardNumber(String cardNumber);
+
+    /**
+     * @param mobileNumber - Mobile Number of the Customer
+     * @return the card of the customer, from the second-level cache once the mobile number was seen before
+     */
+    Optional<Cards> findByMobileNumber(String mobileNumber);
+
+}
@@ -0,0 +1,60 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.entity.Cards;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    findByCardNumber resolves the natural id: the card id comes from the cards-natural-ids region and the card from the
+    cards region, the database is only read on a miss.
+
+    A mobile number is no natural id (Hibernate supports one per entity, the card number), so the card id of a mobile
+    number is cached next to the regions, in card-ids-by-mobile-number, and the card loaded by id. Cached ids are
+    checked on every read rather than evicted on writes: a card deleted or moved to another mobile number since is
+    dropped from the cache and looked up again. Only found cards are cached.
+ */
+@Transactional(readOnly = true) // like the derived queries of SimpleJpaRepository, served by a read replica when configured
+public class CardsNaturalIdRepositoryImpl implements CardsNaturalIdRepository {
+
+    private final EntityManager entityManager;
+    private final Cache<String, Long> cardIdsByMobileNumber;
+
+    @SuppressWarnings("unchecked")
+    public CardsNaturalIdRepositoryImpl(EntityManager entityManager, CacheManager jCacheManager) {
+        this.entityManager = entityManager;
+        this.cardIdsByMobileNumber = (Cache<String, Long>) (Cache<?, ?>) jCacheManager.getCache(CardsConstants.CARD_IDS_BY_MOBILE_NUMBER_CACHE);
+    }
+
+    @Override
+    public Optional<Cards> findByCardNumber(String cardNumber) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Cards.class).loadOptional(cardNumber);
+    }
+
+    @Override
+    public Optional<Cards> findByMobileNumber(String mobileNumber) {
+        Long cardId = cardIdsByMobileNumber.get(mobileNumber);
+        if (cardId != null) {
+            Cards cards = entityManager.find(Cards.class, cardId);
+            if (cards != null && mobileNumber.equals(cards.getMobileNumber())) {
+                return Optional.of(cards);
+            }
+            cardIdsByMobileNumber.remove(mobileNumber, cardId);
+        }
+        List<Cards> found = entityManager.createQuery("SELECT c FROM Cards c WHERE c.mobileNumber = :mobileNumber", Cards.class)
+                .setParameter("mobileNumber", mobileNumber)
+                .setMaxResults(1)
+                .getResultList();
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        cardIdsByMobileNumber.put(mobileNumber, found.get(0).getCardId());
+        return Optional.of(found.get(0));
+    }
+}
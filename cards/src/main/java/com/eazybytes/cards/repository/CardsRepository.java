@@ -4,13 +4,9 @@ import com.eazybytes.cards.entity.Cards;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
-public interface CardsRepository extends JpaRepository<Cards, Long> {
-
-    Optional<Cards> findByMobileNumber(String mobileNumber);
+public interface CardsRepository extends JpaRepository<Cards, Long>, CardsNaturalIdRepository, CardAmountsRepository {
 
-    Optional<Cards> findByCardNumber(String cardNumber);
+    boolean existsByCardNumber(String cardNumber);
 
-}
\ No newline at end of file
+}
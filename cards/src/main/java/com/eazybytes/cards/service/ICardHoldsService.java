@@ -0,0 +1,41 @@
+package com.eazybytes.cards.service;
+
+import com.eazybytes.cards.dto.CardHoldDto;
+
+public interface ICardHoldsService {
+
+    /**
+     *
+     * @param cardNumber - Card Number to reserve the amount on
+     * @param amount - Amount to reserve from the available amount of the card
+     * @return the new hold, HELD until it is captured, released or expires
+     */
+    CardHoldDto placeHold(String cardNumber, int amount);
+
+    /**
+     *
+     * @param holdId - Id of a HELD hold
+     * @return Hold Details based on a given holdId
+     */
+    CardHoldDto fetchHold(Long holdId);
+
+    /**
+     *
+     * @param holdId - Id of a HELD hold, its amount is counted as used
+     */
+    void captureHold(Long holdId);
+
+    /**
+     *
+     * @param holdId - Id of a HELD hold, its amount is given back to the available amount
+     */
+    void releaseHold(Long holdId);
+
+    /**
+     *
+     * @param holdId - Id of a hold whose time ran out
+     * @return boolean indicating if the hold expired, false if it had been captured or released meanwhile
+     */
+    boolean expireHold(Long holdId);
+
+}
@@ -0,0 +1,39 @@
+package com.eazybytes.cards.service;
+
+import com.eazybytes.cards.dto.CardStatementSummaryDto;
+import com.eazybytes.cards.dto.CardTransactionDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface ICardLedgerService {
+
+    /**
+     *
+     * @param cardNumber - Card Number the transaction was made with
+     * @param txnType - CardsConstants.TXN_*
+     * @param amount - Amount of the transaction
+     */
+    void recordTransaction(String cardNumber, String txnType, int amount);
+
+    /**
+     *
+     * @param cardNumber - Card Number of the customer
+     * @param from - start of the range, included
+     * @param to - end of the range, excluded
+     * @param consumer - receives the transactions of the range, oldest first
+     * @return the number of transactions streamed
+     */
+    long streamTransactions(String cardNumber, LocalDateTime from, LocalDateTime to, Consumer<CardTransactionDto> consumer);
+
+    /**
+     *
+     * @param cardNumber - Card Number of the customer
+     * @param fromDate - first day of the statement
+     * @param toDate - last day of the statement, included
+     * @return the transaction totals of the period and of each of its days
+     */
+    CardStatementSummaryDto fetchStatementSummary(String cardNumber, LocalDate fromDate, LocalDate toDate);
+
+}
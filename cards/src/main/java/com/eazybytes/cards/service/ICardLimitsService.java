@@ -0,0 +1,24 @@
+package com.eazybytes.cards.service;
+
+import com.eazybytes.cards.dto.CardLimitAdjustmentDto;
+import com.eazybytes.cards.dto.CardLimitDto;
+
+import java.util.List;
+
+public interface ICardLimitsService {
+
+    /**
+     *
+     * @param cardLimits - new total limits, applied in the background
+     * @return the adjustment as queued, its jobId is used to follow its progress
+     */
+    CardLimitAdjustmentDto startAdjustment(List<CardLimitDto> cardLimits);
+
+    /**
+     *
+     * @param jobId - Id of an adjustment
+     * @return the progress and failures of the adjustment
+     */
+    CardLimitAdjustmentDto fetchAdjustment(String jobId);
+
+}
@@ -31,4 +31,11 @@ public interface ICardsService {
      */
     boolean deleteCard(String mobileNumber);
 
+    /**
+     *
+     * @param cardNumber - Card Number to spend with
+     * @param amount - Amount to debit from the available amount of the card
+     */
+    void authorizeSpend(String cardNumber, int amount);
+
 }
\ No newline at end of file
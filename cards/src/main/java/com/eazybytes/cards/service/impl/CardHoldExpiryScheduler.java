@@ -0,0 +1,197 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.config.CardHoldsProperties;
+import com.eazybytes.cards.dto.CardHoldExpiryView;
+import com.eazybytes.cards.repository.CardHoldsRepository;
+import com.eazybytes.cards.service.ICardHoldsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+    Expires card holds that were neither captured nor released in time, without ever scanning the holds table.
+
+    Every outstanding hold has a timer in an in-memory HierarchicalTimingWheel (O(1) to add and cancel), a single
+    thread advances the wheel every tick and expires the holds that became due through ICardHoldsService.expireHold.
+    Timers are added and cancelled only once the transaction placing, capturing or releasing the hold has committed.
+    On startup the wheel is rebuilt from the HELD rows of card_holds, holds that expired while the service was down
+    expire on the first tick.
+ */
+@Component
+@EnableConfigurationProperties(CardHoldsProperties.class)
+public class CardHoldExpiryScheduler implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardHoldExpiryScheduler.class);
+
+    private static final int RETRY_AFTER_TICKS = 10; // a hold whose expiry failed (e.g. database unavailable) is retried this much later
+
+    private final CardHoldsRepository cardHoldsRepository;
+    private final ObjectProvider<ICardHoldsService> cardHoldsService; // the service schedules here, looked up lazily
+    private final TransactionTemplate transactionTemplate;
+    private final CardHoldsProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, HierarchicalTimingWheel.Timer<Long>> timers = new HashMap<>(); // guarded by lock
+    private HierarchicalTimingWheel<Long> wheel; // guarded by lock
+    private volatile ScheduledExecutorService ticker;
+
+    public CardHoldExpiryScheduler(CardHoldsRepository cardHoldsRepository, ObjectProvider<ICardHoldsService> cardHoldsService,
+                                   PlatformTransactionManager transactionManager, CardHoldsProperties properties) {
+        this.cardHoldsRepository = cardHoldsRepository;
+        this.cardHoldsService = cardHoldsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.wheel = newWheel();
+    }
+
+    /**
+     * @param holdId - Id of a HELD hold
+     * @param expiresAt - time at which the hold expires, unless cancelled before
+     */
+    public void schedule(Long holdId, LocalDateTime expiresAt) {
+        afterCommit(() -> add(holdId, toEpochMillis(expiresAt)));
+    }
+
+    /**
+     * @param holdId - Id of a hold that has been captured or released
+     */
+    public void cancel(Long holdId) {
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                HierarchicalTimingWheel.Timer<Long> timer = timers.remove(holdId);
+                if (timer != null) {
+                    wheel.cancel(timer);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    public int scheduledHolds() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            wheel = newWheel();
+            timers.clear();
+        } finally {
+            lock.unlock();
+        }
+        // read-write, so the holds are read from the primary even when read replicas are configured
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CardHoldExpiryView> heldHolds = cardHoldsRepository.streamHeldHolds()) {
+                heldHolds.forEach(heldHold -> add(heldHold.getHoldId(), toEpochMillis(heldHold.getExpiresAt())));
+            }
+        });
+        logger.info("Rebuilt the expiry timers of {} outstanding card holds", scheduledHolds());
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "card-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = properties.getTick().toMillis();
+        ticker.scheduleAtFixedRate(this::expireDueHolds, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ticker.shutdownNow();
+        ticker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    // Before the web server starts (and its requests may place holds), after everything else on shutdown
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void expireDueHolds() {
+        List<Long> dueHoldIds = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(System.currentTimeMillis(), holdId -> {
+                timers.remove(holdId);
+                dueHoldIds.add(holdId);
+            });
+        } finally {
+            lock.unlock();
+        }
+        // outside the lock, holds keep being placed and captured while the due ones expire
+        for (Long holdId : dueHoldIds) {
+            try {
+                cardHoldsService.getObject().expireHold(holdId);
+            } catch (RuntimeException exception) {
+                logger.warn("Could not expire card hold {}, retrying later: {}", holdId, exception.getMessage());
+                add(holdId, System.currentTimeMillis() + RETRY_AFTER_TICKS * properties.getTick().toMillis());
+            }
+        }
+    }
+
+    private void add(Long holdId, long expiresAtMillis) {
+        lock.lock();
+        try {
+            HierarchicalTimingWheel.Timer<Long> previous = timers.put(holdId, wheel.schedule(holdId, expiresAtMillis));
+            if (previous != null) {
+                wheel.cancel(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private HierarchicalTimingWheel<Long> newWheel() {
+        return new HierarchicalTimingWheel<>(System.currentTimeMillis(), properties.getTick().toMillis(),
+                properties.getWheelSize(), properties.getWheelLevels());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,135 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.config.CardHoldsProperties;
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardHoldDto;
+import com.eazybytes.cards.entity.CardHold;
+import com.eazybytes.cards.exception.HoldNotActiveException;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.mapper.CardHoldMapper;
+import com.eazybytes.cards.repository.CardHoldsRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.ICardHoldsService;
+import com.eazybytes.cards.service.ICardLedgerService;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@AllArgsConstructor
+public class CardHoldsServiceImpl implements ICardHoldsService {
+
+    private CardsRepository cardsRepository;
+    private CardHoldsRepository cardHoldsRepository;
+    private CardHoldExpiryScheduler cardHoldExpiryScheduler;
+    private CardHoldsProperties cardHoldsProperties;
+    private AuditorAware<String> auditorAware;
+    private CardVelocityGuard cardVelocityGuard;
+    private ICardLedgerService iCardLedgerService;
+
+    /**
+     * @param cardNumber - Card Number to reserve the amount on
+     * @param amount - Amount to reserve from the available amount of the card
+     * @return the new hold, HELD until it is captured, released or expires
+     */
+    @Override
+    @Transactional
+    public CardHoldDto placeHold(String cardNumber, int amount) {
+        cardVelocityGuard.check(cardNumber, amount);
+        LocalDateTime now = LocalDateTime.now();
+        if(cardsRepository.reserveAvailableAmount(cardNumber, amount, now, currentAuditor()) == 0) {
+            if(!cardsRepository.existsByCardNumber(cardNumber)) {
+                throw new ResourceNotFoundException("Card", "cardNumber", cardNumber);
+            }
+            throw new InsufficientFundsException(cardNumber, amount);
+        }
+        cardVelocityGuard.record(cardNumber, amount);
+        CardHold cardHold = new CardHold();
+        cardHold.setCardNumber(cardNumber);
+        cardHold.setAmount(amount);
+        cardHold.setStatus(CardsConstants.HOLD_HELD);
+        cardHold.setExpiresAt(now.plus(cardHoldsProperties.getExpireAfter()));
+        cardHold = cardHoldsRepository.save(cardHold);
+        cardHoldExpiryScheduler.schedule(cardHold.getHoldId(), cardHold.getExpiresAt());
+        return CardHoldMapper.mapToCardHoldDto(cardHold, new CardHoldDto());
+    }
+
+    /**
+     * @param holdId - Id of a hold
+     * @return Hold Details based on a given holdId
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CardHoldDto fetchHold(Long holdId) {
+        CardHold cardHold = cardHoldsRepository.findById(holdId).orElseThrow(
+                () -> new ResourceNotFoundException("Hold", "holdId", holdId.toString())
+        );
+        return CardHoldMapper.mapToCardHoldDto(cardHold, new CardHoldDto());
+    }
+
+    /**
+     * @param holdId - Id of a HELD hold, its amount is counted as used
+     */
+    @Override
+    @Transactional
+    public void captureHold(Long holdId) {
+        CardHold cardHold = closeHold(holdId, CardsConstants.HOLD_CAPTURED);
+        cardsRepository.captureReservedAmount(cardHold.getCardNumber(), cardHold.getAmount(), LocalDateTime.now(), currentAuditor());
+        iCardLedgerService.recordTransaction(cardHold.getCardNumber(), CardsConstants.TXN_CAPTURE, cardHold.getAmount());
+        cardHoldExpiryScheduler.cancel(holdId);
+    }
+
+    /**
+     * @param holdId - Id of a HELD hold, its amount is given back to the available amount
+     */
+    @Override
+    @Transactional
+    public void releaseHold(Long holdId) {
+        CardHold cardHold = closeHold(holdId, CardsConstants.HOLD_RELEASED);
+        cardsRepository.releaseReservedAmount(cardHold.getCardNumber(), cardHold.getAmount(), LocalDateTime.now(), currentAuditor());
+        cardHoldExpiryScheduler.cancel(holdId);
+    }
+
+    /**
+     * Called by CardHoldExpiryScheduler once the hold's time ran out.
+     *
+     * @param holdId - Id of a hold whose time ran out
+     * @return boolean indicating if the hold expired, false if it had been captured or released meanwhile
+     */
+    @Override
+    @Transactional
+    public boolean expireHold(Long holdId) {
+        CardHold cardHold = cardHoldsRepository.findById(holdId).orElse(null);
+        if(cardHold == null || cardHoldsRepository.closeHold(holdId, CardsConstants.HOLD_EXPIRED, LocalDateTime.now(), currentAuditor()) == 0) {
+            return false;
+        }
+        cardsRepository.releaseReservedAmount(cardHold.getCardNumber(), cardHold.getAmount(), LocalDateTime.now(), currentAuditor());
+        return true;
+    }
+
+    /**
+     * Capture, release and expiry may race for the same hold, the conditional status update lets only one of them
+     * move the reserved amount.
+     *
+     * @param holdId - Id of a HELD hold
+     * @param status - final status of the hold
+     * @return the hold, as it was before closing it
+     */
+    private CardHold closeHold(Long holdId, String status) {
+        CardHold cardHold = cardHoldsRepository.findById(holdId).orElseThrow(
+                () -> new ResourceNotFoundException("Hold", "holdId", holdId.toString())
+        );
+        if(cardHoldsRepository.closeHold(holdId, status, LocalDateTime.now(), currentAuditor()) == 0) {
+            throw new HoldNotActiveException(holdId);
+        }
+        return cardHold;
+    }
+
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+}
@@ -0,0 +1,118 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardDailyTotalDto;
+import com.eazybytes.cards.dto.CardStatementSummaryDto;
+import com.eazybytes.cards.dto.CardTransactionDto;
+import com.eazybytes.cards.entity.CardDailyRollup;
+import com.eazybytes.cards.entity.CardTransaction;
+import com.eazybytes.cards.exception.InvalidPeriodException;
+import com.eazybytes.cards.mapper.CardDailyRollupMapper;
+import com.eazybytes.cards.repository.CardDailyRollupsRepository;
+import com.eazybytes.cards.repository.CardTransactionsRepository;
+import com.eazybytes.cards.service.ICardLedgerService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+    Append-only ledger of the spends and captured holds of every card (card_transactions, partitioned by month) and
+    its daily rollups (card_daily_rollups). A rollup row is updated in the same transaction as the ledger row it
+    counts, so statement summaries read at most one row per day instead of every transaction.
+ */
+@Service
+@AllArgsConstructor
+public class CardLedgerServiceImpl implements ICardLedgerService {
+
+    private CardTransactionsRepository cardTransactionsRepository;
+    private CardDailyRollupsRepository cardDailyRollupsRepository;
+
+    /**
+     * Only ever called by the transaction that debits the card, so the ledger never disagrees with amountUsed.
+     *
+     * @param cardNumber - Card Number the transaction was made with
+     * @param txnType - CardsConstants.TXN_*
+     * @param amount - Amount of the transaction
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(String cardNumber, String txnType, int amount) {
+        LocalDateTime now = LocalDateTime.now();
+        CardTransaction cardTransaction = new CardTransaction();
+        cardTransaction.setCardNumber(cardNumber);
+        cardTransaction.setTxnMonth(txnMonth(now));
+        cardTransaction.setTxnTime(now);
+        cardTransaction.setTxnType(txnType);
+        cardTransaction.setAmount(amount);
+        cardTransactionsRepository.save(cardTransaction);
+        cardDailyRollupsRepository.addToRollup(cardNumber, now.toLocalDate(), amount);
+    }
+
+    /**
+     * @param cardNumber - Card Number of the customer
+     * @param from - start of the range, included
+     * @param to - end of the range, excluded
+     * @param consumer - receives the transactions of the range, oldest first
+     * @return the number of transactions streamed
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long streamTransactions(String cardNumber, LocalDateTime from, LocalDateTime to, Consumer<CardTransactionDto> consumer) {
+        if(!from.isBefore(to)) {
+            throw new InvalidPeriodException(from.toString(), to.toString(), "the start must be before the end");
+        }
+        long streamed = 0;
+        try (Stream<CardTransactionDto> transactions = cardTransactionsRepository.streamTransactions(cardNumber,
+                txnMonth(from), txnMonth(to), from, to)) {
+            for (CardTransactionDto transaction : (Iterable<CardTransactionDto>) transactions::iterator) {
+                consumer.accept(transaction);
+                streamed++;
+            }
+        }
+        return streamed;
+    }
+
+    /**
+     * @param cardNumber - Card Number of the customer
+     * @param fromDate - first day of the statement
+     * @param toDate - last day of the statement, included
+     * @return the transaction totals of the period and of each of its days
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CardStatementSummaryDto fetchStatementSummary(String cardNumber, LocalDate fromDate, LocalDate toDate) {
+        if(toDate.isBefore(fromDate)) {
+            throw new InvalidPeriodException(fromDate.toString(), toDate.toString(), "the first day must not be after the last one");
+        }
+        if(ChronoUnit.DAYS.between(fromDate, toDate) >= CardsConstants.MAX_STATEMENT_DAYS) {
+            throw new InvalidPeriodException(fromDate.toString(), toDate.toString(),
+                    "a statement covers at most " + CardsConstants.MAX_STATEMENT_DAYS + " days");
+        }
+        List<CardDailyRollup> rollups = cardDailyRollupsRepository
+                .findByCardNumberAndRollupDateBetweenOrderByRollupDate(cardNumber, fromDate, toDate);
+        CardStatementSummaryDto summary = new CardStatementSummaryDto();
+        summary.setCardNumber(cardNumber);
+        summary.setFromDate(fromDate);
+        summary.setToDate(toDate);
+        summary.setTransactionCount(rollups.stream().mapToLong(CardDailyRollup::getTxnCount).sum());
+        summary.setTotalAmount(rollups.stream().mapToLong(CardDailyRollup::getTotalAmount).sum());
+        summary.setDailyTotals(rollups.stream()
+                .map(rollup -> CardDailyRollupMapper.mapToCardDailyTotalDto(rollup, new CardDailyTotalDto()))
+                .toList());
+        return summary;
+    }
+
+    // yyyyMM, the monthly partition a time falls in
+    static int txnMonth(LocalDateTime time) {
+        return time.getYear() * 100 + time.getMonthValue();
+    }
+
+}
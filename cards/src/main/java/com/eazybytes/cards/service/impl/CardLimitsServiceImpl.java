@@ -0,0 +1,252 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardLimitAdjustmentDto;
+import com.eazybytes.cards.dto.CardLimitDto;
+import com.eazybytes.cards.dto.CardLimitFailureDto;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.service.ICardLimitsService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/*
+    Bulk adjustment of card limits, for risk policy changes touching hundreds of thousands of cards at once.
+
+    An adjustment runs in the background, one at a time, in chunks of batchSize rows. A chunk is a single JDBC batch of
+    UPDATE statements in its own transaction: availableAmount is recomputed by the database from the row it updates
+    (new limit minus what is used or reserved), no entity is loaded. A new limit below what the card has used and
+    reserved is refused by the same statement. The rows of a chunk that updated nothing are classified with one query
+    (unknown card, or limit too low) and reported as failures, the other rows stay applied. Spends on the cards of a
+    chunk wait for its commit, hence small chunks.
+
+    Progress is kept in memory for the last MAX_RETAINED_JOBS adjustments.
+ */
+@Service
+public class CardLimitsServiceImpl implements ICardLimitsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardLimitsServiceImpl.class);
+
+    private static final Pattern CARD_NUMBER = Pattern.compile("[0-9]{12}");
+    private static final int MAX_RETAINED_JOBS = 50;
+    private static final int MAX_REPORTED_FAILURES = 100; // per adjustment, the count covers them all
+
+    private static final String ADJUST_LIMIT_SQL = "UPDATE cards SET available_amount = available_amount + ? - total_limit, " +
+            "total_limit = ?, updated_at = ?, updated_by = ? WHERE card_number = ? AND total_limit - available_amount <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final AuditorAware<String> auditorAware;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final Map<String, Job> jobs = new LinkedHashMap<>(); // guarded by itself, oldest first
+
+    public CardLimitsServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 AuditorAware<String> auditorAware, EntityManagerFactory entityManagerFactory,
+                                 @Value("${cards.limits.batch-size:500}") int batchSize) {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("cards.limits.batch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.auditorAware = auditorAware;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "card-limit-adjustment");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param cardLimits - new total limits, applied in the background
+     * @return the adjustment as queued, its jobId is used to follow its progress
+     */
+    @Override
+    public CardLimitAdjustmentDto startAdjustment(List<CardLimitDto> cardLimits) {
+        Job job = new Job(UUID.randomUUID().toString(), new ArrayList<>(cardLimits));
+        synchronized (jobs) {
+            jobs.put(job.jobId, job);
+            if(jobs.size() > MAX_RETAINED_JOBS) {
+                jobs.entrySet().stream()
+                        .filter(entry -> entry.getValue().isFinished())
+                        .findFirst()
+                        .ifPresent(entry -> jobs.remove(entry.getKey()));
+            }
+        }
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        executor.execute(() -> run(job, updatedBy));
+        return job.snapshot();
+    }
+
+    /**
+     * @param jobId - Id of an adjustment
+     * @return the progress and failures of the adjustment
+     */
+    @Override
+    public CardLimitAdjustmentDto fetchAdjustment(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if(job == null) {
+            throw new ResourceNotFoundException("Limit adjustment", "jobId", jobId);
+        }
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, String updatedBy) {
+        job.start();
+        try {
+            for (int first = 0; first < job.cardLimits.size(); first += batchSize) {
+                List<CardLimitDto> chunk = job.cardLimits.subList(first, Math.min(first + batchSize, job.cardLimits.size()));
+                int firstRow = first + 1;
+                chunkTransaction.executeWithoutResult(status -> adjustChunk(job, chunk, firstRow, updatedBy));
+                // JDBC updates bypass Hibernate, cached cards of the chunk would keep their old limits
+                entityManagerFactory.getCache().evict(Cards.class);
+            }
+            job.finish(CardsConstants.LIMITS_COMPLETED, null);
+            CardLimitAdjustmentDto completed = job.snapshot();
+            logger.info("Limit adjustment {} completed: {} cards adjusted, {} rows failed",
+                    job.jobId, completed.getAdjustedCards(), completed.getFailedRows());
+        } catch (RuntimeException exception) {
+            job.finish(CardsConstants.LIMITS_FAILED, exception.getMessage());
+            logger.error("Limit adjustment {} stopped", job.jobId, exception);
+        }
+    }
+
+    private void adjustChunk(Job job, List<CardLimitDto> chunk, int firstRow, String updatedBy) {
+        List<Object[]> batch = new ArrayList<>(chunk.size());
+        List<Integer> batchRows = new ArrayList<>(chunk.size());
+        List<CardLimitFailureDto> failures = new ArrayList<>();
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int index = 0; index < chunk.size(); index++) {
+            CardLimitDto cardLimit = chunk.get(index);
+            int row = firstRow + index;
+            if(cardLimit == null) {
+                failures.add(new CardLimitFailureDto(row, null, "Empty row"));
+            } else if(cardLimit.getCardNumber() == null || !CARD_NUMBER.matcher(cardLimit.getCardNumber()).matches()) {
+                failures.add(new CardLimitFailureDto(row, cardLimit.getCardNumber(), "CardNumber must be 12 digits"));
+            } else if(cardLimit.getNewLimit() <= 0) {
+                failures.add(new CardLimitFailureDto(row, cardLimit.getCardNumber(), "Limit must be a number greater than zero"));
+            } else {
+                batch.add(new Object[] {cardLimit.getNewLimit(), cardLimit.getNewLimit(), updatedAt, updatedBy,
+                        cardLimit.getCardNumber(), cardLimit.getNewLimit()});
+                batchRows.add(row);
+            }
+        }
+
+        int adjusted = 0;
+        List<Integer> unchangedRows = new ArrayList<>();
+        if(!batch.isEmpty()) {
+            int[] updateCounts = jdbcTemplate.batchUpdate(ADJUST_LIMIT_SQL, batch);
+            for (int index = 0; index < updateCounts.length; index++) {
+                if(updateCounts[index] > 0) {
+                    adjusted++;
+                } else {
+                    unchangedRows.add(batchRows.get(index));
+                }
+            }
+        }
+        if(!unchangedRows.isEmpty()) {
+            List<String> cardNumbers = unchangedRows.stream().map(row -> chunk.get(row - firstRow).getCardNumber()).toList();
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT card_number FROM cards WHERE card_number IN (" +
+                            String.join(",", Collections.nCopies(cardNumbers.size(), "?")) + ")",
+                    String.class, cardNumbers.toArray()));
+            for (int index = 0; index < unchangedRows.size(); index++) {
+                String cardNumber = cardNumbers.get(index);
+                failures.add(new CardLimitFailureDto(unchangedRows.get(index), cardNumber, existing.contains(cardNumber)
+                        ? "Limit below the amount used and reserved on the card" : "Card not found"));
+            }
+            failures.sort((first, second) -> Integer.compare(first.getRow(), second.getRow()));
+        }
+        job.progress(chunk.size(), adjusted, failures);
+    }
+
+    // Progress of one adjustment, updated by the adjustment thread only, read by anyone
+    private static final class Job {
+
+        private final String jobId;
+        private final List<CardLimitDto> cardLimits;
+        private final List<CardLimitFailureDto> failures = new ArrayList<>();
+        private String status = CardsConstants.LIMITS_QUEUED;
+        private int processedRows;
+        private int adjustedCards;
+        private int failedRows;
+        private String errorMessage;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        private Job(String jobId, List<CardLimitDto> cardLimits) {
+            this.jobId = jobId;
+            this.cardLimits = cardLimits;
+        }
+
+        private synchronized void start() {
+            status = CardsConstants.LIMITS_RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+
+        private synchronized void progress(int rows, int adjusted, List<CardLimitFailureDto> chunkFailures) {
+            processedRows += rows;
+            adjustedCards += adjusted;
+            failedRows += chunkFailures.size();
+            failures.addAll(chunkFailures.subList(0, Math.min(chunkFailures.size(), MAX_REPORTED_FAILURES - failures.size())));
+        }
+
+        private synchronized void finish(String finalStatus, String error) {
+            status = finalStatus;
+            errorMessage = error;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private synchronized CardLimitAdjustmentDto snapshot() {
+            CardLimitAdjustmentDto cardLimitAdjustmentDto = new CardLimitAdjustmentDto();
+            cardLimitAdjustmentDto.setJobId(jobId);
+            cardLimitAdjustmentDto.setStatus(status);
+            cardLimitAdjustmentDto.setTotalRows(cardLimits.size());
+            cardLimitAdjustmentDto.setProcessedRows(processedRows);
+            cardLimitAdjustmentDto.setAdjustedCards(adjustedCards);
+            cardLimitAdjustmentDto.setFailedRows(failedRows);
+            cardLimitAdjustmentDto.setFailures(List.copyOf(failures));
+            cardLimitAdjustmentDto.setErrorMessage(errorMessage);
+            cardLimitAdjustmentDto.setStartedAt(startedAt);
+            cardLimitAdjustmentDto.setFinishedAt(finishedAt);
+            return cardLimitAdjustmentDto;
+        }
+    }
+}
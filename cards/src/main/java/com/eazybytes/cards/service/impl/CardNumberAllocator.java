@@ -0,0 +1,125 @@
+package com.eazybytes.cards.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Hands out unique 12 digit card numbers without a database round trip per card.
+
+    Every card number ever issued is kept in an IssuedNumberSet, read from the cards table on startup. A new number
+    is drawn at random and, when it is taken, the next free one after it is issued instead, so it never collides with
+    a card this instance knows of. Numbers issued by another instance after the startup load are caught by the
+    uk_cards_card_number unique index; CardsServiceImpl then retries with another number. Numbers of deleted cards
+    stay issued and are not handed out again.
+ */
+@Component
+public class CardNumberAllocator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardNumberAllocator.class);
+
+    private static final long FIRST_CARD_NUMBER = 100_000_000_000L;
+    private static final long CARD_NUMBERS = 900_000_000L;
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile IssuedNumberSet issued; // null until loaded
+
+    public CardNumberAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return a card number that has never been issued before
+     */
+    public String nextCardNumber() {
+        IssuedNumberSet issuedNumbers = issuedNumbers();
+        synchronized (issuedNumbers) {
+            long offset = issuedNumbers.nextAbsent(ThreadLocalRandom.current().nextLong(CARD_NUMBERS));
+            if (offset < 0) {
+                offset = issuedNumbers.nextAbsent(0); // wrap around
+            }
+            if (offset < 0) {
+                throw new IllegalStateException("No 12 digit card numbers left to issue");
+            }
+            issuedNumbers.add(offset);
+            return Long.toString(FIRST_CARD_NUMBER + offset);
+        }
+    }
+
+    /**
+     * @param cardNumber - Card Number to check
+     * @return true if the card number has been issued, by this instance or before it started
+     */
+    public boolean isIssued(String cardNumber) {
+        long offset = offsetOf(cardNumber);
+        IssuedNumberSet issuedNumbers = issuedNumbers();
+        synchronized (issuedNumbers) {
+            return issuedNumbers.contains(offset);
+        }
+    }
+
+    // Loaded on startup, before the web server takes requests: a caller arriving earlier fails rather than waiting for
+    // the full scan of the cards table
+    private IssuedNumberSet issuedNumbers() {
+        IssuedNumberSet issuedNumbers = issued;
+        if (issuedNumbers == null) {
+            throw new IllegalStateException("Issued card numbers are not loaded yet");
+        }
+        return issuedNumbers;
+    }
+
+    @Override
+    public void start() {
+        if (issued != null) {
+            return;
+        }
+        IssuedNumberSet loaded = new IssuedNumberSet(CARD_NUMBERS);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT card_number FROM cards");
+            statement.setFetchSize(LOAD_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            long offset = offsetOf(resultSet.getString(1));
+            if (offset >= 0) {
+                loaded.add(offset);
+            }
+        });
+        issued = loaded;
+        logger.info("Loaded {} issued card numbers ({} KB)", loaded.size(), loaded.sizeInBytes() / 1024);
+    }
+
+    @Override
+    public void stop() {
+        // nothing to release, the issued numbers are kept across a restart of the context
+    }
+
+    @Override
+    public boolean isRunning() {
+        return issued != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // -1 for anything that is not a number of the 12 digit range
+    private static long offsetOf(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != 12) {
+            return -1;
+        }
+        try {
+            long offset = Long.parseLong(cardNumber) - FIRST_CARD_NUMBER;
+            return offset >= 0 && offset < CARD_NUMBERS ? offset : -1;
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.config.VelocityProperties;
+import com.eazybytes.cards.exception.VelocityLimitExceededException;
+import com.eazybytes.cards.repository.CardsRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Fraud velocity guard run on every authorization (spends and holds): declines an authorization that would take
+    its card, or the mobile number owning the card, over the configured count or amount limits of the last minute,
+    hour or day (cards.velocity). Only approved authorizations are counted, declines are tallied separately.
+
+    Checking and recording are two steps around the database update: an authorization is recorded once its transaction
+    commits, so one rolled back later on (e.g. by the ledger write) is never counted, and concurrent authorizations of
+    the same card may overshoot a limit by the number of them in flight. The mobile number of a card is read from the database once
+    and then kept with the card's counters.
+ */
+@Component
+@EnableConfigurationProperties(VelocityProperties.class)
+public class CardVelocityGuard {
+
+    private final CardsRepository cardsRepository;
+    private final VelocityProperties properties;
+    private final VelocityCounters cards;
+    private final VelocityCounters mobileNumbers;
+    private final int[] cardMaxCounts;
+    private final long[] cardMaxAmounts;
+    private final int[] mobileNumberMaxCounts;
+    private final long[] mobileNumberMaxAmounts;
+
+    public CardVelocityGuard(CardsRepository cardsRepository, VelocityProperties properties) {
+        this.cardsRepository = cardsRepository;
+        this.properties = properties;
+        this.cards = new VelocityCounters(properties.getMaxTrackedKeys(), properties.getStripes());
+        this.mobileNumbers = new VelocityCounters(properties.getMaxTrackedKeys(), properties.getStripes());
+        this.cardMaxCounts = properties.getCard().maxCounts();
+        this.cardMaxAmounts = properties.getCard().maxAmounts();
+        this.mobileNumberMaxCounts = properties.getMobileNumber().maxCounts();
+        this.mobileNumberMaxAmounts = properties.getMobileNumber().maxAmounts();
+    }
+
+    /**
+     * @param cardNumber - Card Number to authorize on
+     * @param amount - Amount to authorize
+     * @throws VelocityLimitExceededException if the authorization would exceed a limit of the card or its mobile number
+     */
+    public void check(String cardNumber, int amount) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long card = Long.parseLong(cardNumber);
+        long nowSecond = System.currentTimeMillis() / 1000;
+        int window = cards.exceededWindow(card, amount, cardMaxCounts, cardMaxAmounts, nowSecond);
+        if (window >= 0) {
+            cards.recordDecline(card, nowSecond);
+            throw new VelocityLimitExceededException("card", VelocityCounters.WINDOW_NAMES[window]);
+        }
+        long mobileNumber = mobileNumberOf(card, cardNumber, nowSecond);
+        if (mobileNumber != 0) {
+            window = mobileNumbers.exceededWindow(mobileNumber, amount, mobileNumberMaxCounts, mobileNumberMaxAmounts, nowSecond);
+            if (window >= 0) {
+                mobileNumbers.recordDecline(mobileNumber, nowSecond);
+                throw new VelocityLimitExceededException("mobile number", VelocityCounters.WINDOW_NAMES[window]);
+            }
+        }
+    }
+
+    /**
+     * Counted after the current transaction commits, right away when there is none
+     *
+     * @param cardNumber - Card Number of an approved authorization, checked before
+     * @param amount - Amount authorized
+     */
+    public void record(String cardNumber, int amount) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long card = Long.parseLong(cardNumber);
+        long nowSecond = System.currentTimeMillis() / 1000;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(card, amount, nowSecond);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(card, amount, nowSecond);
+            }
+        });
+    }
+
+    private void record(long card, int amount, long nowSecond) {
+        cards.record(card, amount, nowSecond);
+        long mobileNumber = cards.linkedKey(card);
+        if (mobileNumber != 0) {
+            mobileNumbers.record(mobileNumber, amount, nowSecond);
+        }
+    }
+
+    /**
+     * @param cardNumber - Card Number whose counters (and known mobile number) are dropped, e.g. when the card changes hands
+     */
+    public void forget(String cardNumber) {
+        cards.forget(Long.parseLong(cardNumber));
+    }
+
+    /**
+     * @return the cards and mobile numbers closest to (or over) their limits, highest load first
+     */
+    public VelocityReport topOffenders() {
+        long nowSecond = System.currentTimeMillis() / 1000;
+        int limit = properties.getTopOffenders();
+        return new VelocityReport(
+                offenders(cards.mostLoaded(limit, cardMaxCounts, cardMaxAmounts, nowSecond), 12),
+                offenders(mobileNumbers.mostLoaded(limit, mobileNumberMaxCounts, mobileNumberMaxAmounts, nowSecond), 10));
+    }
+
+    private long mobileNumberOf(long card, String cardNumber, long nowSecond) {
+        long mobileNumber = cards.linkedKey(card);
+        if (mobileNumber == 0) {
+            mobileNumber = cardsRepository.findByCardNumber(cardNumber)
+                    .map(cards -> Long.parseLong(cards.getMobileNumber()))
+                    .orElse(0L);
+            if (mobileNumber != 0) {
+                cards.link(card, mobileNumber, nowSecond);
+            }
+        }
+        return mobileNumber;
+    }
+
+    private static List<Offender> offenders(List<VelocityCounters.KeyVelocity> keys, int digits) {
+        return keys.stream().map(key -> {
+            Map<String, WindowTotals> windows = new LinkedHashMap<>();
+            for (int window = 0; window < VelocityCounters.WINDOW_NAMES.length; window++) {
+                windows.put(VelocityCounters.WINDOW_NAMES[window], new WindowTotals(key.counts()[window], key.amounts()[window]));
+            }
+            return new Offender(mask(key.key(), digits), key.load(), key.declined(), windows);
+        }).toList();
+    }
+
+    // Only the last 4 digits, the report is served over actuator
+    private static String mask(long key, int digits) {
+        String number = String.format("%0" + digits + "d", key);
+        return "*".repeat(number.length() - 4) + number.substring(number.length() - 4);
+    }
+
+    public record VelocityReport(List<Offender> cards, List<Offender> mobileNumbers) {
+    }
+
+    // load: window total over limit of the most loaded window, 1.0 means a limit has been reached
+    public record Offender(String key, double load, long declined, Map<String, WindowTotals> windows) {
+    }
+
+    public record WindowTotals(long count, long amount) {
+    }
+}
@@ -4,42 +4,69 @@ import com.eazybytes.cards.constants.CardsConstants;
 import com.eazybytes.cards.dto.CardsDto;
 import com.eazybytes.cards.entity.Cards;
 import com.eazybytes.cards.exception.CardAlreadyExistsException;
+import com.eazybytes.cards.exception.InsufficientFundsException;
 import com.eazybytes.cards.exception.ResourceNotFoundException;
 import com.eazybytes.cards.mapper.CardsMapper;
 import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.ICardLedgerService;
 import com.eazybytes.cards.service.ICardsService;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
 
+    private static final int MAX_CARD_NUMBER_ATTEMPTS = 3;
+
     private CardsRepository cardsRepository;
+    private AuditorAware<String> auditorAware;
+    private CardVelocityGuard cardVelocityGuard;
+    private ICardLedgerService iCardLedgerService;
+    private CardNumberAllocator cardNumberAllocator;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
     public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards= cardsRepository.findByMobileNumber(mobileNumber);
-        if(optionalCards.isPresent()){
-            throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
+        for (int attempt = 1; ; attempt++) {
+            String cardNumber = cardNumberAllocator.nextCardNumber();
+            try {
+                // read-write, so the duplicate check runs on the primary even when read replicas are configured
+                transactionTemplate.executeWithoutResult(status -> {
+                    Optional<Cards> optionalCards= cardsRepository.findByMobileNumber(mobileNumber);
+                    if(optionalCards.isPresent()){
+                        throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
+                    }
+                    cardsRepository.save(createNewCard(mobileNumber, cardNumber));
+                });
+                return;
+            } catch (DataIntegrityViolationException exception) {
+                // issued by another instance after this one loaded its issued numbers, the allocator now knows it too
+                if(attempt == MAX_CARD_NUMBER_ATTEMPTS || !cardsRepository.existsByCardNumber(cardNumber)) {
+                    throw exception;
+                }
+            }
         }
-        cardsRepository.save(createNewCard(mobileNumber));
     }
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
+     * @param cardNumber - Card Number issued by the CardNumberAllocator
      * @return the new card details
      */
-    private Cards createNewCard(String mobileNumber) {
+    private Cards createNewCard(String mobileNumber, String cardNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(cardNumber);
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardsConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
@@ -54,6 +81,7 @@ public class CardsServiceImpl implements ICardsService {
      * @return Card Details based on a given mobileNumber
      */
     @Override
+    @Transactional(readOnly = true) // served by a read replica when cards.datasource.replicas is configured
     public CardsDto fetchCard(String mobileNumber) {
         Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
@@ -67,11 +95,13 @@ public class CardsServiceImpl implements ICardsService {
      * @return boolean indicating if the update of card details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateCard(CardsDto cardsDto) {
         Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
         CardsMapper.mapToCards(cardsDto, cards);
         cardsRepository.save(cards);
+        cardVelocityGuard.forget(cards.getCardNumber()); // the card may now belong to another mobile number
         return  true;
     }
 
@@ -80,13 +110,39 @@ public class CardsServiceImpl implements ICardsService {
      * @return boolean indicating if the delete of card details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteCard(String mobileNumber) {
         Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
         cardsRepository.deleteById(cards.getCardId());
+        cardVelocityGuard.forget(cards.getCardNumber());
         return true;
     }
 
+    /**
+     * No read-modify-write in Java: the database debits the card only if the funds suffice (see
+     * CardsRepository.debitAvailableAmount), the card is only looked up again when a spend is refused.
+     * Spends beyond the card's or mobile number's velocity limits are declined first (see CardVelocityGuard).
+     *
+     * @param cardNumber - Card Number to spend with
+     * @param amount - Amount to debit from the available amount of the card
+     */
+    @Override
+    @Transactional
+    public void authorizeSpend(String cardNumber, int amount) {
+        cardVelocityGuard.check(cardNumber, amount);
+        int updatedCards = cardsRepository.debitAvailableAmount(cardNumber, amount, LocalDateTime.now(),
+                auditorAware.getCurrentAuditor().orElse(null));
+        if(updatedCards == 0) {
+            if(!cardsRepository.existsByCardNumber(cardNumber)) {
+                throw new ResourceNotFoundException("Card", "cardNumber", cardNumber);
+            }
+            throw new InsufficientFundsException(cardNumber, amount);
+        }
+        iCardLedgerService.recordTransaction(cardNumber, CardsConstants.TXN_SPEND, amount);
+        cardVelocityGuard.record(cardNumber, amount);
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.eazybytes.cards.service.impl;
+
+import java.util.function.Consumer;
+
+/*
+    Hierarchical timing wheel: O(1) schedule and cancel, and advancing the clock only touches the slots that are due.
+
+    The clock moves in ticks of tickMillis. Level 0 has one slot per tick for the next wheelSize ticks, level 1 one
+    slot per wheelSize ticks for the next wheelSize^2 ticks, and so on. When the clock reaches the start of a slot of
+    a higher level, that slot's timers cascade down to the level below (or fire), so every timer is moved at most once
+    per level. A timer fires on the first tick at or after its deadline, never earlier, and at most one tick later
+    plus the delay of whoever calls advance. Deadlines beyond the horizon of the top level are parked in its last slot
+    and placed again when it cascades.
+
+    Not thread safe, callers synchronize.
+ */
+class HierarchicalTimingWheel<T> {
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final int bitsPerLevel;
+    private final int slotMask;
+    private final Slot<T>[][] levels;
+    private long currentTick; // ticks fully processed so far
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long startMillis, long tickMillis, int wheelSize, int levelCount) {
+        if (tickMillis < 1 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levelCount < 1) {
+            throw new IllegalArgumentException("tickMillis must be positive, wheelSize a power of two and at least one level is needed");
+        }
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.bitsPerLevel = Integer.numberOfTrailingZeros(wheelSize);
+        this.slotMask = wheelSize - 1;
+        this.levels = new Slot[levelCount][wheelSize];
+        for (Slot<T>[] level : levels) {
+            for (int i = 0; i < wheelSize; i++) {
+                level[i] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * @param task - handed to the expiry callback of advance once the deadline has passed
+     * @param deadlineMillis - epoch millis, deadlines already passed fire on the next tick
+     * @return handle to cancel the timer with
+     */
+    Timer<T> schedule(T task, long deadlineMillis) {
+        // first tick whose end is at or after the deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        Timer<T> timer = new Timer<>(task, Math.max(deadlineTick, currentTick + 1));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return true if the timer was still pending
+     */
+    boolean cancel(Timer<T> timer) {
+        if (timer.slot == null) {
+            return false;
+        }
+        timer.slot.unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the clock up to nowMillis, handing the task of every timer that became due to expired, in deadline order
+     * (tick granularity).
+     */
+    void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            // cascade the slots of the higher levels that start at this tick, a timer moved down always lands in a
+            // slot that starts at or after this tick (level 0 slot of this tick included, it fires right below)
+            for (int level = 1; level < levels.length; level++) {
+                if ((currentTick & ((1L << (level * bitsPerLevel)) - 1)) != 0) {
+                    break;
+                }
+                Slot<T> slot = levels[level][(int) (currentTick >>> (level * bitsPerLevel)) & slotMask];
+                for (Timer<T> timer = slot.drain(); timer != null; ) {
+                    Timer<T> next = timer.next;
+                    timer.next = null;
+                    place(timer);
+                    timer = next;
+                }
+            }
+            Slot<T> due = levels[0][(int) currentTick & slotMask];
+            for (Timer<T> timer = due.drain(); timer != null; ) {
+                Timer<T> next = timer.next;
+                timer.next = null;
+                size--;
+                expired.accept(timer.task);
+                timer = next;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long ticksAhead = timer.deadlineTick - currentTick; // >= 0, 0 only while cascading into the slot about to fire
+        for (int level = 0; level < levels.length; level++) {
+            if (ticksAhead < 1L << ((level + 1) * bitsPerLevel)) {
+                levels[level][(int) (timer.deadlineTick >>> (level * bitsPerLevel)) & slotMask].link(timer);
+                return;
+            }
+        }
+        // beyond the horizon: the top level slot cascading last before a full turn, placed again from there
+        int top = levels.length - 1;
+        levels[top][(int) ((currentTick >>> (top * bitsPerLevel)) - 1) & slotMask].link(timer);
+    }
+
+    static final class Timer<T> {
+
+        private final T task;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    // Doubly linked list, so a timer is unlinked in O(1) on cancel
+    private static final class Slot<T> {
+
+        private Timer<T> head;
+
+        void link(Timer<T> timer) {
+            timer.slot = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        void unlink(Timer<T> timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.slot = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        // Detaches all timers, still chained through next
+        Timer<T> drain() {
+            Timer<T> first = head;
+            head = null;
+            for (Timer<T> timer = first; timer != null; timer = timer.next) {
+                timer.slot = null;
+                timer.prev = null;
+            }
+            return first;
+        }
+    }
+}
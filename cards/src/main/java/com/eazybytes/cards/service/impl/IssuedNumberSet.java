@@ -0,0 +1,202 @@
+package com.eazybytes.cards.service.impl;
+
+import java.util.Arrays;
+
+/*
+    Compressed set of issued numbers, stored as offsets 0 .. capacity-1 from the first number of the range, laid out
+    like a Roaring bitmap: the high 16 bits of an offset select a container, the low 16 bits are kept in it. A
+    container of up to 4096 values is a sorted char[] (2 bytes per value), a fuller one a 65536 bit long[1024] (8 KB),
+    so a sparse range costs about 2 bytes per issued number and a dense one at most 1 bit per possible number.
+    A million random card numbers out of 900 million take ~2 MB, a HashSet<Long> of them ~60 MB.
+
+    Not thread safe, callers synchronize.
+ */
+final class IssuedNumberSet {
+
+    private static final int CONTAINER_BITS = 16;
+    private static final int CONTAINER_MASK = (1 << CONTAINER_BITS) - 1;
+    private static final int ARRAY_CONTAINER_MAX = 4096; // from here on the bitmap is the smaller of the two
+
+    private final long capacity;
+    private final Container[] containers;
+    private long size;
+
+    /**
+     * @param capacity - number of possible offsets, at most 2^32
+     */
+    IssuedNumberSet(long capacity) {
+        if (capacity < 1 || capacity > 1L << 32) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^32");
+        }
+        this.capacity = capacity;
+        this.containers = new Container[(int) ((capacity - 1) >>> CONTAINER_BITS) + 1];
+    }
+
+    /**
+     * @return true if the offset was not in the set yet
+     */
+    boolean add(long offset) {
+        checkRange(offset);
+        int key = (int) (offset >>> CONTAINER_BITS);
+        Container container = containers[key];
+        if (container == null) {
+            container = containers[key] = new ArrayContainer();
+        } else if (container instanceof ArrayContainer array && array.cardinality == ARRAY_CONTAINER_MAX) {
+            container = containers[key] = array.toBitmap();
+        }
+        if (!container.add((int) offset & CONTAINER_MASK)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    boolean contains(long offset) {
+        if (offset < 0 || offset >= capacity) {
+            return false;
+        }
+        Container container = containers[(int) (offset >>> CONTAINER_BITS)];
+        return container != null && container.contains((int) offset & CONTAINER_MASK);
+    }
+
+    /**
+     * @return the lowest offset at or after from that is not in the set, -1 if every one up to capacity is
+     */
+    long nextAbsent(long from) {
+        checkRange(from);
+        int low = (int) from & CONTAINER_MASK;
+        for (int key = (int) (from >>> CONTAINER_BITS); key < containers.length; key++, low = 0) {
+            Container container = containers[key];
+            int absent = container == null ? low : container.nextAbsent(low);
+            if (absent >= 0) {
+                long offset = ((long) key << CONTAINER_BITS) | absent;
+                return offset < capacity ? offset : -1;
+            }
+        }
+        return -1;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long sizeInBytes() {
+        long bytes = 16 + 8L * containers.length;
+        for (Container container : containers) {
+            if (container != null) {
+                bytes += container.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private void checkRange(long offset) {
+        if (offset < 0 || offset >= capacity) {
+            throw new IllegalArgumentException("offset " + offset + " outside 0.." + (capacity - 1));
+        }
+    }
+
+    private interface Container {
+
+        boolean add(int value);
+
+        boolean contains(int value);
+
+        // lowest absent value >= from, -1 if the container is full from there on
+        int nextAbsent(int from);
+
+        long sizeInBytes();
+    }
+
+    private static final class ArrayContainer implements Container {
+
+        private char[] values = new char[4];
+        private int cardinality;
+
+        @Override
+        public boolean add(int value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_CONTAINER_MAX));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = (char) value;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        public boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) value) >= 0;
+        }
+
+        @Override
+        public int nextAbsent(int from) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (index < 0) {
+                return from;
+            }
+            int candidate = from;
+            while (index < cardinality && values[index] == candidate) { // walk the run of consecutive values
+                index++;
+                candidate++;
+            }
+            return candidate > CONTAINER_MASK ? -1 : candidate;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 32 + 2L * values.length;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+
+        private final long[] words = new long[(CONTAINER_MASK + 1) / 64];
+
+        @Override
+        public boolean add(int value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                return false;
+            }
+            words[value >>> 6] |= bit;
+            return true;
+        }
+
+        @Override
+        public boolean contains(int value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int nextAbsent(int from) {
+            int word = from >>> 6;
+            long free = ~words[word] & (-1L << from);
+            while (free == 0) {
+                if (++word == words.length) {
+                    return -1;
+                }
+                free = ~words[word];
+            }
+            return word * 64 + Long.numberOfTrailingZeros(free);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 32 + 8L * words.length;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.eazybytes.cards.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+    Authorization counts and amounts per key (a card or a mobile number, as a long) over the 1 minute, 1 hour and
+    24 hour sliding windows.
+
+    Memory is fixed up front: a single long[] holding maxKeys slots, split in lock stripes each being a small open
+    addressing table. A key is looked up in at most MAX_PROBES slots of its stripe; when all of them are taken the
+    least recently active key there is replaced. Every window is a ring of buckets (6 x 10s, 12 x 5min, 24 x 1h), a
+    bucket stores the number of its time bucket with its count, so a stale bucket is recognised and reset on write
+    instead of by a sweeper. A window therefore slides by whole buckets and covers between n-1 and n buckets of time.
+    Nothing is allocated on the check and record paths.
+
+    Slot layout: key | last active second | linked key | declined | per bucket: (bucket number << 32 | count), amount
+ */
+class VelocityCounters {
+
+    static final String[] WINDOW_NAMES = {"1m", "1h", "24h"};
+    private static final int[] BUCKET_SECONDS = {10, 300, 3600};
+    private static final int[] BUCKETS = {6, 12, 24};
+    private static final int[] WINDOW_OFFSETS = new int[BUCKETS.length];
+
+    private static final int KEY = 0;
+    private static final int LAST_ACTIVE = 1;
+    private static final int LINKED = 2;
+    private static final int DECLINED = 3;
+    private static final int HEADER = 4;
+    private static final int STRIDE;
+    private static final int MAX_PROBES = 16;
+    private static final long RETAIN_SECONDS = 24 * 3600; // a key idle for longer has empty windows, its slot is free
+
+    static {
+        int offset = HEADER;
+        for (int window = 0; window < BUCKETS.length; window++) {
+            WINDOW_OFFSETS[window] = offset;
+            offset += 2 * BUCKETS[window];
+        }
+        STRIDE = offset;
+    }
+
+    private final long[] slots;
+    private final Object[] stripeLocks;
+    private final int slotsPerStripe;
+    private final int stripeMask;
+
+    VelocityCounters(int maxKeys, int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        this.slotsPerStripe = Math.max(MAX_PROBES, (maxKeys + stripes - 1) / stripes);
+        this.stripeMask = stripes - 1;
+        this.slots = new long[stripes * slotsPerStripe * STRIDE];
+        this.stripeLocks = new Object[stripes];
+        Arrays.setAll(stripeLocks, stripe -> new Object());
+    }
+
+    /**
+     * @return the window (index into WINDOW_NAMES) one more authorization of amount would push over its limit, -1 if none.
+     *         A limit of 0 is no limit.
+     */
+    int exceededWindow(long key, long amount, int[] maxCounts, long[] maxAmounts, long nowSecond) {
+        int stripe = stripe(key);
+        synchronized (stripeLocks[stripe]) {
+            int slot = find(stripe, key);
+            for (int window = 0; window < BUCKETS.length; window++) {
+                long windowCount = slot < 0 ? 0 : windowTotal(slot, window, nowSecond, false);
+                long windowAmount = slot < 0 ? 0 : windowTotal(slot, window, nowSecond, true);
+                if ((maxCounts[window] > 0 && windowCount + 1 > maxCounts[window])
+                        || (maxAmounts[window] > 0 && windowAmount + amount > maxAmounts[window])) {
+                    return window;
+                }
+            }
+            return -1;
+        }
+    }
+
+    void record(long key, long amount, long nowSecond) {
+        int stripe = stripe(key);
+        synchronized (stripeLocks[stripe]) {
+            int slot = findOrClaim(stripe, key, nowSecond);
+            slots[slot + LAST_ACTIVE] = nowSecond;
+            for (int window = 0; window < BUCKETS.length; window++) {
+                long bucketNumber = nowSecond / BUCKET_SECONDS[window];
+                int bucket = slot + WINDOW_OFFSETS[window] + 2 * (int) (bucketNumber % BUCKETS[window]);
+                if (slots[bucket] >>> 32 == bucketNumber) {
+                    slots[bucket]++;
+                    slots[bucket + 1] += amount;
+                } else {
+                    slots[bucket] = bucketNumber << 32 | 1;
+                    slots[bucket + 1] = amount;
+                }
+            }
+        }
+    }
+
+    void recordDecline(long key, long nowSecond) {
+        int stripe = stripe(key);
+        synchronized (stripeLocks[stripe]) {
+            int slot = findOrClaim(stripe, key, nowSecond);
+            slots[slot + LAST_ACTIVE] = nowSecond;
+            slots[slot + DECLINED]++;
+        }
+    }
+
+    /**
+     * @return the key linked to this one (the mobile number of a card), 0 if unknown
+     */
+    long linkedKey(long key) {
+        int stripe = stripe(key);
+        synchronized (stripeLocks[stripe]) {
+            int slot = find(stripe, key);
+            return slot < 0 ? 0 : slots[slot + LINKED];
+        }
+    }
+
+    void link(long key, long linkedKey, long nowSecond) {
+        int stripe = stripe(key);
+        synchronized (stripeLocks[stripe]) {
+            int slot = findOrClaim(stripe, key, nowSecond);
+            slots[slot + LINKED] = linkedKey;
+        }
+    }
+
+    void forget(long key) {
+        int stripe = stripe(key);
+        synchronized (stripeLocks[stripe]) {
+            int slot = find(stripe, key);
+            if (slot >= 0) {
+                Arrays.fill(slots, slot, slot + STRIDE, 0L);
+            }
+        }
+    }
+
+    /**
+     * Off the hot path, allocates freely.
+     *
+     * @return the limit to window total ratio of the most loaded window of every active key, highest first
+     */
+    List<KeyVelocity> mostLoaded(int limit, int[] maxCounts, long[] maxAmounts, long nowSecond) {
+        List<KeyVelocity> keys = new ArrayList<>();
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            synchronized (stripeLocks[stripe]) {
+                for (int index = 0; index < slotsPerStripe; index++) {
+                    int slot = (stripe * slotsPerStripe + index) * STRIDE;
+                    if (slots[slot + KEY] == 0 || nowSecond - slots[slot + LAST_ACTIVE] > RETAIN_SECONDS) {
+                        continue;
+                    }
+                    long[] counts = new long[BUCKETS.length];
+                    long[] amounts = new long[BUCKETS.length];
+                    double load = 0;
+                    for (int window = 0; window < BUCKETS.length; window++) {
+                        counts[window] = windowTotal(slot, window, nowSecond, false);
+                        amounts[window] = windowTotal(slot, window, nowSecond, true);
+                        load = Math.max(load, ratio(counts[window], maxCounts[window]));
+                        load = Math.max(load, ratio(amounts[window], maxAmounts[window]));
+                    }
+                    keys.add(new KeyVelocity(slots[slot + KEY], load, slots[slot + DECLINED], counts, amounts));
+                }
+            }
+        }
+        keys.sort((first, second) -> first.load() != second.load()
+                ? Double.compare(second.load(), first.load())
+                : Long.compare(second.declined(), first.declined()));
+        return keys.size() > limit ? new ArrayList<>(keys.subList(0, limit)) : keys;
+    }
+
+    private long windowTotal(int slot, int window, long nowSecond, boolean amounts) {
+        long currentBucket = nowSecond / BUCKET_SECONDS[window];
+        int offset = slot + WINDOW_OFFSETS[window];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS[window]; bucket++) {
+            long bucketNumberAndCount = slots[offset + 2 * bucket];
+            if (currentBucket - (bucketNumberAndCount >>> 32) < BUCKETS[window]) {
+                total += amounts ? slots[offset + 2 * bucket + 1] : (int) bucketNumberAndCount;
+            }
+        }
+        return total;
+    }
+
+    // Every probe is looked at, there are no tombstones to stop at
+    private int find(int stripe, long key) {
+        int first = firstProbe(key);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = slotOffset(stripe, first + probe);
+            if (slots[slot + KEY] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findOrClaim(int stripe, long key, long nowSecond) {
+        int first = firstProbe(key);
+        int candidate = -1;
+        long candidateLastActive = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = slotOffset(stripe, first + probe);
+            long slotKey = slots[slot + KEY];
+            if (slotKey == key) {
+                return slot;
+            }
+            // free slots first (as if idle since ever), then the least recently active one
+            long lastActive = slotKey == 0 || nowSecond - slots[slot + LAST_ACTIVE] > RETAIN_SECONDS
+                    ? Long.MIN_VALUE : slots[slot + LAST_ACTIVE];
+            if (lastActive < candidateLastActive) {
+                candidate = slot;
+                candidateLastActive = lastActive;
+            }
+        }
+        Arrays.fill(slots, candidate, candidate + STRIDE, 0L);
+        slots[candidate + KEY] = key;
+        slots[candidate + LAST_ACTIVE] = nowSecond;
+        return candidate;
+    }
+
+    private int stripe(long key) {
+        return (int) mix(key) & stripeMask;
+    }
+
+    private int firstProbe(long key) {
+        return (int) ((mix(key) >>> 32) % slotsPerStripe);
+    }
+
+    private int slotOffset(int stripe, int index) {
+        return (stripe * slotsPerStripe + index % slotsPerStripe) * STRIDE;
+    }
+
+    private static long mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static double ratio(long total, long limit) {
+        return limit > 0 ? (double) total / limit : 0;
+    }
+
+    record KeyVelocity(long key, double load, long declined, long[] counts, long[] amounts) {
+    }
+}
@@ -11,4 +11,60 @@ CREATE TABLE IF NOT EXISTS `cards` (
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
   PRIMARY KEY (`card_id`)
-);
\ No newline at end of file
+);
+
+-- Single row with the time of the last replication heartbeat, written to the primary by ReplicaHealthMonitor.
+-- The value a replica returns tells how far it is behind the primary.
+CREATE TABLE IF NOT EXISTS `replication_heartbeat` (
+  `heartbeat_id` INT PRIMARY KEY,
+  `beat_at` BIGINT NOT NULL
+);
+
+INSERT INTO `replication_heartbeat` (`heartbeat_id`, `beat_at`)
+  SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `replication_heartbeat` WHERE `heartbeat_id` = 1);
+
+-- The spend authorization UPDATE locates the card by its number, the hot path should not scan the table. Unique: the
+-- backstop of CardNumberAllocator for numbers issued by other instances after it loaded the issued ones
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_cards_card_number` ON `cards` (`card_number`);
+
+-- Pre-authorization holds. The amount of a HELD hold is reserved (taken from cards.available_amount), captured,
+-- released and expired holds are kept for reference. Outstanding holds are read on startup to rebuild their expiry timers.
+CREATE TABLE IF NOT EXISTS `card_holds` (
+  `hold_id` BIGINT NOT NULL AUTO_INCREMENT,
+  `card_number` varchar(100) NOT NULL,
+  `amount` int NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `expires_at` TIMESTAMP NOT NULL,
+  `created_at` TIMESTAMP NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` TIMESTAMP DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL,
+  PRIMARY KEY (`hold_id`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_card_holds_status` ON `card_holds` (`status`);
+
+-- Append-only ledger of the spends and captured holds of every card, the history behind cards.amount_used.
+-- Partitioned by month: txn_month (yyyyMM of txn_time) is the partition key and every range query bounds it. H2 has no
+-- declarative partitioning, on PostgreSQL the table is declared PARTITION BY RANGE (txn_month) with one partition per
+-- month, so a statement only reads the months it covers and old months are detached whole.
+CREATE TABLE IF NOT EXISTS `card_transactions` (
+  `txn_id` BIGINT NOT NULL AUTO_INCREMENT,
+  `card_number` varchar(100) NOT NULL,
+  `txn_month` int NOT NULL,
+  `txn_time` TIMESTAMP NOT NULL,
+  `txn_type` varchar(20) NOT NULL,
+  `amount` int NOT NULL,
+  PRIMARY KEY (`txn_id`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_card_transactions_card_number_txn_time` ON `card_transactions` (`card_number`, `txn_time`);
+
+-- Per card and day totals of card_transactions, updated with every ledger row, read by statement summaries
+CREATE TABLE IF NOT EXISTS `card_daily_rollups` (
+  `card_number` varchar(100) NOT NULL,
+  `rollup_date` DATE NOT NULL,
+  `txn_count` int NOT NULL,
+  `total_amount` BIGINT NOT NULL,
+  PRIMARY KEY (`card_number`, `rollup_date`)
+);
@@ -0,0 +1,68 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 200 spends on one card within a second, far beyond its velocity limits: this test is about the database update
+@SpringBootTest(properties = "cards.velocity.enabled=false")
+class CardAuthorizationTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Test
+    void concurrentSpendsOnOneCardNeitherLoseUpdatesNorOverdraw() throws Exception {
+        iCardsService.createCard("9876500001");
+        String cardNumber = iCardsService.fetchCard("9876500001").getCardNumber();
+        int spend = 1000;
+        int attempts = 2 * CardsConstants.NEW_CARD_LIMIT / spend;
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        iCardsService.authorizeSpend(cardNumber, spend);
+                        approved.incrementAndGet();
+                    } catch (InsufficientFundsException exception) {
+                        declined.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(CardsConstants.NEW_CARD_LIMIT / spend, approved.get());
+        assertEquals(attempts - approved.get(), declined.get());
+        CardsDto card = iCardsService.fetchCard("9876500001");
+        assertEquals(0, card.getAvailableAmount());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, card.getAmountUsed());
+    }
+
+    @Test
+    void spendOnAnUnknownCardIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.authorizeSpend("999999999999", 1));
+    }
+}
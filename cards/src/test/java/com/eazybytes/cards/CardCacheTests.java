@@ -0,0 +1,95 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.metrics.SqlStatementRecorder;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.ICardHoldsService;
+import com.eazybytes.cards.service.ICardsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "cards.velocity.enabled=false")
+class CardCacheTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardHoldsService iCardHoldsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedLookupsAreServedFromTheSecondLevelCache() {
+        iCardsService.createCard("9876500041");
+        String cardNumber = iCardsService.fetchCard("9876500041").getCardNumber();
+
+        assertEquals(0, statementsOf("cache-fetch-by-mobile-number", () -> iCardsService.fetchCard("9876500041")));
+        assertEquals(0, statementsOf("cache-find-by-card-number", () -> cardsRepository.findByCardNumber(cardNumber).orElseThrow()));
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", CardsConstants.CARDS_CACHE_REGION).tag("result", "hit")
+                .functionCounter().count() > 0);
+        assertNotNull(meterRegistry.get("cache.evictions").tag("cache", CardsConstants.CARD_IDS_BY_MOBILE_NUMBER_CACHE)
+                .functionCounter());
+    }
+
+    @Test
+    void cachedCardsFollowUpdatesSpendsAndDeletes() {
+        iCardsService.createCard("9876500042");
+        CardsDto card = iCardsService.fetchCard("9876500042");
+
+        iCardsService.authorizeSpend(card.getCardNumber(), 1_000); // evicts the cached card
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_000, iCardsService.fetchCard("9876500042").getAvailableAmount());
+
+        card = iCardsService.fetchCard("9876500042");
+        card.setMobileNumber("9876500043");
+        iCardsService.updateCard(card);
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.fetchCard("9876500042"));
+        assertEquals(card.getCardNumber(), iCardsService.fetchCard("9876500043").getCardNumber());
+
+        iCardsService.deleteCard("9876500043");
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.fetchCard("9876500043"));
+        assertTrue(cardsRepository.findByCardNumber(card.getCardNumber()).isEmpty());
+    }
+
+    @Test
+    void authorizationsEvictOnlyTheCardTheyUpdate() {
+        iCardsService.createCard("9876500044");
+        iCardsService.createCard("9876500045");
+        String cardNumber = iCardsService.fetchCard("9876500044").getCardNumber();
+        String otherCardNumber = iCardsService.fetchCard("9876500045").getCardNumber();
+        assertEquals(0, statementsOf("cache-before-authorizations", () -> cardsRepository.findByCardNumber(cardNumber).orElseThrow()));
+
+        // spends and holds on another card, each with its ledger row and daily rollup
+        iCardsService.authorizeSpend(otherCardNumber, 1_000);
+        iCardHoldsService.releaseHold(iCardHoldsService.placeHold(otherCardNumber, 2_000).getHoldId());
+
+        assertEquals(0, statementsOf("cache-after-authorizations", () -> cardsRepository.findByCardNumber(cardNumber).orElseThrow()));
+        assertEquals(0, statementsOf("cache-fetch-after-authorizations", () -> iCardsService.fetchCard("9876500044")));
+        // the card updated is read again, once
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 1_000, cardsRepository.findByCardNumber(otherCardNumber).orElseThrow().getAvailableAmount());
+        assertEquals(0, statementsOf("cache-updated-card", () -> cardsRepository.findByCardNumber(otherCardNumber).orElseThrow()));
+    }
+
+    private long statementsOf(String endpoint, Runnable lookup) {
+        sqlStatementRecorder.startRequest(endpoint);
+        try {
+            lookup.run();
+        } finally {
+            sqlStatementRecorder.finishRequest();
+        }
+        return sqlStatementRecorder.snapshot().endpoints().get(endpoint).statements();
+    }
+}
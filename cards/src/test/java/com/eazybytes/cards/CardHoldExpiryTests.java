@@ -0,0 +1,94 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardHoldDto;
+import com.eazybytes.cards.entity.CardHold;
+import com.eazybytes.cards.exception.HoldNotActiveException;
+import com.eazybytes.cards.repository.CardHoldsRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.ICardHoldsService;
+import com.eazybytes.cards.service.ICardsService;
+import com.eazybytes.cards.service.impl.CardHoldExpiryScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Holds expiring within the test, the capture and release of holds is covered by CardHoldsTests
+@SpringBootTest(properties = {
+        "cards.holds.expire-after=300ms",
+        "cards.holds.tick=20ms"
+})
+class CardHoldExpiryTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardHoldsService iCardHoldsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private CardHoldsRepository cardHoldsRepository;
+
+    @Autowired
+    private CardHoldExpiryScheduler cardHoldExpiryScheduler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void holdsThatAreNotCapturedInTimeExpire() throws InterruptedException {
+        String cardNumber = createCard("9876500012");
+        CardHoldDto hold = iCardHoldsService.placeHold(cardNumber, 40_000);
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 40_000, availableAmount(cardNumber));
+
+        await(() -> CardsConstants.HOLD_EXPIRED.equals(iCardHoldsService.fetchHold(hold.getHoldId()).getStatus()));
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, availableAmount(cardNumber));
+        assertThrows(HoldNotActiveException.class, () -> iCardHoldsService.captureHold(hold.getHoldId()));
+    }
+
+    @Test
+    void outstandingHoldsAreRescheduledOnRestart() throws InterruptedException {
+        String cardNumber = createCard("9876500013");
+        cardHoldExpiryScheduler.stop();
+        // a hold left behind by a previous run, its amount already reserved
+        transactionTemplate.executeWithoutResult(status ->
+                cardsRepository.reserveAvailableAmount(cardNumber, 10_000, LocalDateTime.now(), "TEST"));
+        CardHold leftOver = new CardHold();
+        leftOver.setCardNumber(cardNumber);
+        leftOver.setAmount(10_000);
+        leftOver.setStatus(CardsConstants.HOLD_HELD);
+        leftOver.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        Long holdId = cardHoldsRepository.save(leftOver).getHoldId();
+
+        cardHoldExpiryScheduler.start();
+
+        await(() -> CardsConstants.HOLD_EXPIRED.equals(iCardHoldsService.fetchHold(holdId).getStatus()));
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, availableAmount(cardNumber));
+    }
+
+    private String createCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    private int availableAmount(String cardNumber) {
+        return cardsRepository.findByCardNumber(cardNumber).orElseThrow().getAvailableAmount();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardHoldDto;
+import com.eazybytes.cards.exception.HoldNotActiveException;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.ICardHoldsService;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The default expiry of 15 minutes, no hold expires while the test captures or releases it
+@SpringBootTest
+class CardHoldsTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardHoldsService iCardHoldsService;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Test
+    void capturedAndReleasedHoldsMoveTheReservedAmountOnce() {
+        String cardNumber = createCard("9876500011");
+
+        CardHoldDto captured = iCardHoldsService.placeHold(cardNumber, 30_000);
+        CardHoldDto released = iCardHoldsService.placeHold(cardNumber, 50_000);
+        assertThrows(InsufficientFundsException.class, () -> iCardHoldsService.placeHold(cardNumber, 30_000));
+        assertEquals(20_000, availableAmount(cardNumber));
+
+        iCardHoldsService.captureHold(captured.getHoldId());
+        iCardHoldsService.releaseHold(released.getHoldId());
+        assertThrows(HoldNotActiveException.class, () -> iCardHoldsService.releaseHold(captured.getHoldId()));
+        assertThrows(HoldNotActiveException.class, () -> iCardHoldsService.captureHold(released.getHoldId()));
+
+        assertEquals(CardsConstants.HOLD_CAPTURED, iCardHoldsService.fetchHold(captured.getHoldId()).getStatus());
+        assertEquals(CardsConstants.HOLD_RELEASED, iCardHoldsService.fetchHold(released.getHoldId()).getStatus());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 30_000, availableAmount(cardNumber));
+        assertEquals(30_000, iCardsService.fetchCard("9876500011").getAmountUsed());
+    }
+
+    private String createCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    private int availableAmount(String cardNumber) {
+        return cardsRepository.findByCardNumber(cardNumber).orElseThrow().getAvailableAmount();
+    }
+}
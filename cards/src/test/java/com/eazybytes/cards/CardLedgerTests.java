@@ -0,0 +1,96 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardHoldDto;
+import com.eazybytes.cards.dto.CardStatementSummaryDto;
+import com.eazybytes.cards.dto.CardTransactionDto;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.service.ICardHoldsService;
+import com.eazybytes.cards.service.ICardLedgerService;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CardLedgerTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardHoldsService iCardHoldsService;
+
+    @Autowired
+    private ICardLedgerService iCardLedgerService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void spendsAndCapturedHoldsAreLedgeredAndRolledUpDaily() throws Exception {
+        iCardsService.createCard("9876500021");
+        String cardNumber = iCardsService.fetchCard("9876500021").getCardNumber();
+        iCardsService.authorizeSpend(cardNumber, 1_000);
+        iCardsService.authorizeSpend(cardNumber, 2_000);
+        assertThrows(InsufficientFundsException.class, () -> iCardsService.authorizeSpend(cardNumber, CardsConstants.NEW_CARD_LIMIT));
+        CardHoldDto captured = iCardHoldsService.placeHold(cardNumber, 5_000);
+        CardHoldDto released = iCardHoldsService.placeHold(cardNumber, 7_000);
+        iCardHoldsService.captureHold(captured.getHoldId());
+        iCardHoldsService.releaseHold(released.getHoldId());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CardTransactionDto> transactions = new ArrayList<>();
+        long streamed = iCardLedgerService.streamTransactions(cardNumber, now.minusHours(1), now.plusHours(1), transactions::add);
+        assertEquals(3, streamed); // the declined spend, the hold placements and the release are not transactions
+        assertEquals(List.of(CardsConstants.TXN_SPEND, CardsConstants.TXN_SPEND, CardsConstants.TXN_CAPTURE),
+                transactions.stream().map(CardTransactionDto::getTxnType).toList());
+        assertEquals(List.of(1_000, 2_000, 5_000), transactions.stream().map(CardTransactionDto::getAmount).toList());
+        assertEquals(0, iCardLedgerService.streamTransactions(cardNumber, now.plusHours(1), now.plusHours(2), transactions::add));
+
+        CardStatementSummaryDto summary = iCardLedgerService.fetchStatementSummary(cardNumber,
+                LocalDate.now().minusDays(30), LocalDate.now());
+        assertEquals(3, summary.getTransactionCount());
+        assertEquals(8_000, summary.getTotalAmount());
+        assertEquals(iCardsService.fetchCard("9876500021").getAmountUsed(), summary.getTotalAmount());
+        assertEquals(1, summary.getDailyTotals().size());
+        assertEquals(LocalDate.now(), summary.getDailyTotals().get(0).getDate());
+    }
+
+    @Test
+    void transactionsAreStreamedAsNdjson() throws Exception {
+        iCardsService.createCard("9876500022");
+        String cardNumber = iCardsService.fetchCard("9876500022").getCardNumber();
+        iCardsService.authorizeSpend(cardNumber, 100);
+        iCardsService.authorizeSpend(cardNumber, 200);
+
+        LocalDateTime now = LocalDateTime.now();
+        MvcResult started = mockMvc.perform(get("/api/fetchTransactions").param("cardNumber", cardNumber)
+                        .param("from", now.minusHours(1).toString()).param("to", now.plusHours(1).toString()))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"amount\":100") && lines[1].contains("\"amount\":200"), body);
+
+        mockMvc.perform(get("/api/fetchStatementSummary").param("cardNumber", cardNumber)
+                        .param("fromDate", LocalDate.now().toString()).param("toDate", LocalDate.now().minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+}
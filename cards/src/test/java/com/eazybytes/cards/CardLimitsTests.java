@@ -0,0 +1,125 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardLimitAdjustmentDto;
+import com.eazybytes.cards.dto.CardLimitDto;
+import com.eazybytes.cards.dto.CardLimitFailureDto;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.service.ICardLimitsService;
+import com.eazybytes.cards.service.ICardsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "cards.limits.batch-size=100")
+@AutoConfigureMockMvc
+class CardLimitsTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardLimitsService iCardLimitsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void limitsFromAFileAreAdjustedAndBadLinesReported() throws Exception {
+        String raised = createCard("9876500031");
+        String lowered = createCard("9876500032");
+        String tooLow = createCard("9876500033");
+        iCardsService.authorizeSpend(lowered, 10_000);
+        iCardsService.authorizeSpend(tooLow, 60_000);
+
+        String csv = String.join("\n",
+                raised + ",150000",
+                lowered + ", 50000",
+                tooLow + ",50000",
+                "999999999999,50000",
+                "12345,50000",
+                "",
+                raised + ",lots");
+        String response = mockMvc.perform(multipart("/api/adjustLimitsFile")
+                        .file(new MockMultipartFile("file", "limits.csv", "text/csv", csv.getBytes())))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readValue(response, CardLimitAdjustmentDto.class).getJobId();
+
+        CardLimitAdjustmentDto adjustment = awaitCompletion(jobId);
+        assertEquals(7, adjustment.getProcessedRows());
+        assertEquals(2, adjustment.getAdjustedCards());
+        assertEquals(5, adjustment.getFailedRows());
+        assertEquals(List.of(3, 4, 5, 6, 7), adjustment.getFailures().stream().map(CardLimitFailureDto::getRow).toList());
+        assertTrue(adjustment.getFailures().get(0).getReason().startsWith("Limit below"));
+        assertEquals("Card not found", adjustment.getFailures().get(1).getReason());
+
+        CardsDto raisedCard = iCardsService.fetchCard("9876500031");
+        assertEquals(150_000, raisedCard.getTotalLimit());
+        assertEquals(150_000, raisedCard.getAvailableAmount());
+        CardsDto loweredCard = iCardsService.fetchCard("9876500032");
+        assertEquals(50_000, loweredCard.getTotalLimit());
+        assertEquals(40_000, loweredCard.getAvailableAmount());
+        assertEquals(10_000, loweredCard.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, iCardsService.fetchCard("9876500033").getTotalLimit());
+
+        mockMvc.perform(get("/api/fetchLimitAdjustment").param("jobId", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void thousandsOfCardsAreAdjustedInBatches() throws Exception {
+        int cards = 5_000;
+        jdbcTemplate.update("INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, " +
+                "available_amount, created_at, created_by) SELECT CAST(8000000000 + X AS VARCHAR), " +
+                "CAST(200000000000 + X AS VARCHAR), 'Credit Card', 100000, 0, 100000, CURRENT_DATE, 'TEST' " +
+                "FROM SYSTEM_RANGE(1, " + cards + ")");
+        List<CardLimitDto> cardLimits = new ArrayList<>();
+        for (int i = 1; i <= cards; i++) {
+            cardLimits.add(new CardLimitDto(Long.toString(200000000000L + i), 120_000));
+        }
+
+        CardLimitAdjustmentDto adjustment = awaitCompletion(iCardLimitsService.startAdjustment(cardLimits).getJobId());
+        assertEquals(cards, adjustment.getAdjustedCards());
+        assertEquals(0, adjustment.getFailedRows());
+        assertEquals(cards, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards WHERE card_number > '200000000000' " +
+                "AND total_limit = 120000 AND available_amount = 120000", Integer.class));
+    }
+
+    private String createCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    private CardLimitAdjustmentDto awaitCompletion(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            CardLimitAdjustmentDto adjustment = iCardLimitsService.fetchAdjustment(jobId);
+            if(CardsConstants.LIMITS_COMPLETED.equals(adjustment.getStatus())) {
+                return adjustment;
+            }
+            assertNotEquals(CardsConstants.LIMITS_FAILED, adjustment.getStatus(), adjustment.getErrorMessage());
+            assertTrue(System.currentTimeMillis() < deadline, "adjustment not completed in time");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.service.ICardsService;
+import com.eazybytes.cards.service.impl.CardNumberAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class CardNumberAllocatorTests {
+
+    @MockitoSpyBean
+    private CardNumberAllocator cardNumberAllocator;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void numbersAreUniqueAndKnownAsIssued() {
+        iCardsService.createCard("9876500071");
+        assertTrue(cardNumberAllocator.isIssued(iCardsService.fetchCard("9876500071").getCardNumber()));
+
+        Set<String> cardNumbers = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String cardNumber = cardNumberAllocator.nextCardNumber();
+            assertTrue(cardNumbers.add(cardNumber), "issued twice: " + cardNumber);
+            assertEquals(12, cardNumber.length());
+            assertTrue(cardNumberAllocator.isIssued(cardNumber));
+        }
+        assertFalse(cardNumberAllocator.isIssued("not a number"));
+    }
+
+    @Test
+    void numberIssuedByAnotherInstanceIsRetriedWithTheNextOne() {
+        // issued by another instance after this one loaded the issued numbers, unknown to the allocator
+        insertCard("9876500072", "100899999901");
+        assertFalse(cardNumberAllocator.isIssued("100899999901"));
+        doReturn("100899999901").doCallRealMethod().when(cardNumberAllocator).nextCardNumber();
+
+        iCardsService.createCard("9876500073");
+
+        assertNotEquals("100899999901", iCardsService.fetchCard("9876500073").getCardNumber());
+        verify(cardNumberAllocator, times(2)).nextCardNumber();
+    }
+
+    @Test
+    void creationFailsAfterThreeNumbersIssuedElsewhere() {
+        insertCard("9876500074", "100899999911");
+        insertCard("9876500075", "100899999912");
+        insertCard("9876500076", "100899999913");
+        doReturn("100899999911", "100899999912", "100899999913").when(cardNumberAllocator).nextCardNumber();
+
+        assertThrows(DataIntegrityViolationException.class, () -> iCardsService.createCard("9876500077"));
+        verify(cardNumberAllocator, times(3)).nextCardNumber();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards WHERE mobile_number = '9876500077'", Integer.class));
+    }
+
+    private void insertCard(String mobileNumber, String cardNumber) {
+        jdbcTemplate.update("INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, " +
+                "available_amount, created_at, created_by) VALUES (?, ?, 'Credit Card', 100000, 0, 100000, CURRENT_DATE, 'TEST')",
+                mobileNumber, cardNumber);
+    }
+}
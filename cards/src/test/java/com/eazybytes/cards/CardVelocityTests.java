@@ -0,0 +1,61 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.exception.VelocityLimitExceededException;
+import com.eazybytes.cards.service.ICardHoldsService;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "cards.velocity.card.per-minute.max-count=2",
+        "cards.velocity.mobile-number.per-minute.max-count=0"
+})
+class CardVelocityTests {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardHoldsService iCardHoldsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void authorizationsRolledBackAreNotCounted() {
+        iCardsService.createCard("9876500061");
+        String cardNumber = iCardsService.fetchCard("9876500061").getCardNumber();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 3; i++) {
+            transactionTemplate.executeWithoutResult(status -> {
+                iCardsService.authorizeSpend(cardNumber, 100);
+                iCardHoldsService.placeHold(cardNumber, 100);
+                status.setRollbackOnly();
+            });
+        }
+
+        iCardsService.authorizeSpend(cardNumber, 100);
+        iCardHoldsService.placeHold(cardNumber, 100);
+        assertThrows(VelocityLimitExceededException.class, () -> iCardsService.authorizeSpend(cardNumber, 100));
+    }
+
+    @Test
+    void authorizationsAreCountedOnceCommitted() {
+        iCardsService.createCard("9876500062");
+        String cardNumber = iCardsService.fetchCard("9876500062").getCardNumber();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            iCardsService.authorizeSpend(cardNumber, 100);
+            iCardsService.authorizeSpend(cardNumber, 100);
+            iCardsService.authorizeSpend(cardNumber, 100); // in flight, the two before are not counted until the commit
+        });
+
+        assertThrows(VelocityLimitExceededException.class, () -> iCardHoldsService.placeHold(cardNumber, 100));
+    }
+}
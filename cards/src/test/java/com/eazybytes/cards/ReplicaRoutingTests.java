@@ -0,0 +1,86 @@
+package com.eazybytes.cards;
+
+import com.eazybytes.cards.datasource.ReplicaRoutingDataSource;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A second in-memory H2 database plays the replica, "replication" is done by hand through replicaJdbcTemplate
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "cards.datasource.replicas[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "cards.datasource.replicas[0].username=sa",
+        "cards.datasource.replicas[0].password=",
+        "cards.datasource.max-replica-lag=2s",
+        "cards.datasource.health-check-interval=50ms"
+})
+class ReplicaRoutingTests {
+
+    private final JdbcTemplate replicaJdbcTemplate =
+            new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void createReplicaSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaJdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void fetchesAreServedByTheReplicaAndWritesByThePrimary() throws InterruptedException {
+        replicateHeartbeat(System.currentTimeMillis());
+        awaitHealthyReplicas(healthy -> healthy.equals(List.of("replica-0")));
+
+        iCardsService.createCard("9876544441");
+        // not replicated yet, the read-only fetch does not see the new card
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.fetchCard("9876544441"));
+
+        replicateCard(9_000_001, "9876544441", "900000000001");
+        assertEquals("900000000001", iCardsService.fetchCard("9876544441").getCardNumber());
+    }
+
+    @Test
+    void fetchesFallBackToThePrimaryWhenTheReplicaLags() throws InterruptedException {
+        iCardsService.createCard("9876544442");
+        replicateCard(9_000_002, "9876544442", "900000000002");
+
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+        awaitHealthyReplicas(List::isEmpty);
+
+        assertNotEquals("900000000002", iCardsService.fetchCard("9876544442").getCardNumber());
+    }
+
+    private void replicateHeartbeat(long beatAt) {
+        replicaJdbcTemplate.update("UPDATE replication_heartbeat SET beat_at = ? WHERE heartbeat_id = 1", beatAt);
+    }
+
+    private void replicateCard(int cardId, String mobileNumber, String cardNumber) {
+        replicaJdbcTemplate.update("INSERT INTO cards (card_id, mobile_number, card_number, card_type, total_limit, amount_used, " +
+                "available_amount, created_at, created_by) VALUES (?, ?, ?, 'Credit Card', 100000, 0, 100000, CURRENT_DATE, 'TEST')",
+                cardId, mobileNumber, cardNumber);
+    }
+
+    private void awaitHealthyReplicas(Predicate<List<String>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.test(replicaRoutingDataSource.getHealthyReplicas())) {
+            assertTrue(System.currentTimeMillis() < deadline, "healthy replicas: " + replicaRoutingDataSource.getHealthyReplicas());
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.eazybytes.cards.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTests {
+
+    private static final long TICK = 10;
+
+    @Test
+    void timersFireWithinOneTickAfterTheirDeadlineOnEveryLevel() {
+        // 4 slots on 3 levels: a horizon of 64 ticks, the later deadlines are parked and placed again
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(0, TICK, 4, 3);
+        Random random = new Random(42);
+        Map<Long, Long> firedAt = new HashMap<>();
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = random.nextInt(300 * (int) TICK);
+            deadlines.add(deadline);
+            wheel.schedule((long) i, deadline);
+        }
+        assertEquals(2000, wheel.size());
+
+        for (long now = 0; now < 301 * TICK; now += 1 + random.nextInt(25)) {
+            long time = now;
+            wheel.advance(time, task -> assertNull(firedAt.put(task, time), "fired twice"));
+        }
+        wheel.advance(301 * TICK, task -> assertNull(firedAt.put(task, 301 * TICK), "fired twice"));
+
+        assertEquals(0, wheel.size());
+        for (int i = 0; i < deadlines.size(); i++) {
+            long deadline = deadlines.get(i);
+            long fired = firedAt.get((long) i);
+            assertTrue(fired >= deadline, "timer " + i + " fired early");
+            assertTrue(fired < deadline + TICK + 25, "timer " + i + " fired late"); // one tick plus one advance step
+        }
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(0, TICK, 8, 2);
+        HierarchicalTimingWheel.Timer<String> kept = wheel.schedule("kept", 5 * TICK);
+        HierarchicalTimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 5 * TICK);
+        HierarchicalTimingWheel.Timer<String> farCancelled = wheel.schedule("far", 40 * TICK);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertTrue(wheel.cancel(farCancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(100 * TICK, fired::add);
+        assertEquals(List.of("kept"), fired);
+        assertFalse(wheel.cancel(kept));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, TICK, 8, 2);
+        wheel.advance(1_000 + 3 * TICK, task -> fail("nothing scheduled"));
+        wheel.schedule("overdue", 0);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000 + 3 * TICK + TICK - 1, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(1_000 + 4 * TICK, fired::add);
+        assertEquals(List.of("overdue"), fired);
+    }
+}
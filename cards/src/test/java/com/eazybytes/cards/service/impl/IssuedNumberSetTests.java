@@ -0,0 +1,54 @@
+package com.eazybytes.cards.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssuedNumberSetTests {
+
+    @Test
+    void sparseAndDenseContainersAgreeWithAHashSet() {
+        IssuedNumberSet issued = new IssuedNumberSet(900_000_000L);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long offset = random.nextInt(900_000_000);
+            assertEquals(expected.add(offset), issued.add(offset));
+        }
+        for (long offset = 65_536; offset < 65_536 + 10_000; offset++) { // one container past the array limit
+            assertEquals(expected.add(offset), issued.add(offset));
+        }
+        assertEquals(expected.size(), issued.size());
+        for (long offset : expected) {
+            assertTrue(issued.contains(offset));
+        }
+        for (int i = 0; i < 50_000; i++) {
+            long offset = random.nextInt(900_000_000);
+            assertEquals(expected.contains(offset), issued.contains(offset));
+        }
+        assertFalse(issued.contains(-1));
+        assertFalse(issued.contains(900_000_000L));
+        assertTrue(issued.sizeInBytes() < 1_024 * 1_024, issued.sizeInBytes() + " bytes");
+    }
+
+    @Test
+    void nextAbsentSkipsRunsAcrossContainersAndStopsAtTheCapacity() {
+        IssuedNumberSet issued = new IssuedNumberSet(200_000);
+        for (long offset = 65_000; offset < 140_000; offset++) { // an array, a full bitmap and another bitmap container
+            issued.add(offset);
+        }
+        assertEquals(64_999, issued.nextAbsent(64_999));
+        assertEquals(140_000, issued.nextAbsent(65_000));
+        assertEquals(140_000, issued.nextAbsent(131_072));
+
+        for (long offset = 190_000; offset < 200_000; offset++) {
+            issued.add(offset);
+        }
+        assertEquals(-1, issued.nextAbsent(190_000));
+        assertThrows(IllegalArgumentException.class, () -> issued.add(200_000));
+    }
+}
@@ -0,0 +1,93 @@
+package com.eazybytes.cards.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityCountersTests {
+
+    private static final int[] MAX_COUNTS = {3, 5, 0};
+    private static final long[] MAX_AMOUNTS = {0, 0, 1_000};
+    private static final long CARD = 123456789012L;
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    void everyWindowEnforcesItsOwnLimitsAndSlidesByBuckets() {
+        VelocityCounters counters = new VelocityCounters(64, 4);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(-1, counters.exceededWindow(CARD, 10, MAX_COUNTS, MAX_AMOUNTS, NOW));
+            counters.record(CARD, 10, NOW);
+        }
+        assertEquals(0, counters.exceededWindow(CARD, 10, MAX_COUNTS, MAX_AMOUNTS, NOW), "4th within a minute");
+
+        // a minute later the 1m window is empty again, the 1h one still counts 3
+        long minuteLater = NOW + 60;
+        assertEquals(-1, counters.exceededWindow(CARD, 10, MAX_COUNTS, MAX_AMOUNTS, minuteLater));
+        counters.record(CARD, 10, minuteLater);
+        counters.record(CARD, 10, minuteLater + 10);
+        assertEquals(1, counters.exceededWindow(CARD, 10, MAX_COUNTS, MAX_AMOUNTS, minuteLater + 20), "6th within an hour");
+
+        // the 24h amount limit
+        long hoursLater = NOW + 2 * 3600;
+        assertEquals(2, counters.exceededWindow(CARD, 951, MAX_COUNTS, MAX_AMOUNTS, hoursLater));
+        assertEquals(-1, counters.exceededWindow(CARD, 950, MAX_COUNTS, MAX_AMOUNTS, hoursLater));
+        assertEquals(-1, counters.exceededWindow(CARD, 1_000, MAX_COUNTS, MAX_AMOUNTS, NOW + 25 * 3600));
+    }
+
+    @Test
+    void leastRecentlyActiveKeysAreEvictedOnceTheTableIsFull() {
+        VelocityCounters counters = new VelocityCounters(64, 4);
+        for (long key = 1; key <= 10_000; key++) {
+            counters.record(key, 1, NOW + key);
+            counters.link(key, key + 1, NOW + key);
+        }
+        List<VelocityCounters.KeyVelocity> tracked = counters.mostLoaded(Integer.MAX_VALUE, MAX_COUNTS, MAX_AMOUNTS, NOW + 10_000);
+        assertTrue(tracked.size() <= 64, "bounded by maxKeys");
+        assertEquals(10_001, counters.linkedKey(10_000), "the most recent key is kept");
+        assertEquals(0, counters.linkedKey(1), "the oldest key is gone");
+
+        counters.forget(10_000);
+        assertEquals(0, counters.linkedKey(10_000));
+    }
+
+    @Test
+    void mostLoadedListsTheKeysClosestToTheirLimitsFirst() {
+        VelocityCounters counters = new VelocityCounters(64, 4);
+        counters.record(1, 100, NOW);
+        counters.record(2, 900, NOW);
+        counters.record(3, 10, NOW);
+        counters.record(3, 10, NOW);
+        counters.recordDecline(3, NOW);
+
+        List<VelocityCounters.KeyVelocity> mostLoaded = counters.mostLoaded(2, MAX_COUNTS, MAX_AMOUNTS, NOW);
+        assertEquals(List.of(2L, 3L), mostLoaded.stream().map(VelocityCounters.KeyVelocity::key).toList());
+        assertEquals(0.9, mostLoaded.get(0).load(), 1e-9);
+        assertEquals(1, mostLoaded.get(1).declined());
+        assertEquals(2, mostLoaded.get(1).counts()[0]);
+    }
+
+    @Test
+    void checkingAndRecordingDoNotAllocate() {
+        VelocityCounters counters = new VelocityCounters(1024, 16);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int round = 0; round < 3; round++) { // the first rounds warm up (and get compiled)
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100_000; i++) {
+                long key = 100_000_000_000L + (i & 2047);
+                if (counters.exceededWindow(key, 5, MAX_COUNTS, MAX_AMOUNTS, NOW + i / 100) < 0) {
+                    counters.record(key, 5, NOW + i / 100);
+                } else {
+                    counters.recordDecline(key, NOW + i / 100);
+                }
+            }
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            if (round == 2) {
+                assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+            }
+        }
+    }
+}
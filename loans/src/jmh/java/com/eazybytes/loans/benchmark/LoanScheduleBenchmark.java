@@ -0,0 +1,74 @@
+package com.eazybytes.loans.benchmark;
+
+import com.eazybytes.loans.service.impl.AmortizationEngine;
+import com.eazybytes.loans.service.impl.LoanPortfolio;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+    The AmortizationEngine on its own, no database.
+
+    - singleSchedule : the installment factor and the 240 installments of one loan, what fetchSchedule computes on
+      a cache miss (without building the DTOs)
+    - portfolio      : LoanPortfolio.project of `loans` loans of random principal, rate (0 - 12%) and tenure (1 - 30
+      years) on a fork/join pool of `parallelism` threads, what recomputePortfolio costs once the loans are loaded.
+      Loans per second = loans / score
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="LoanScheduleBenchmark -prof gc"
+    (-p parallelism=1,2,4 to see the fork/join scaling)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanScheduleBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Portfolio {
+
+        @Param({"1000000"})
+        private int loans;
+
+        @Param({"1", "4"})
+        private int parallelism;
+
+        private LoanPortfolio portfolio;
+        private ForkJoinPool pool;
+        private int fromMonth;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            fromMonth = 2024 * 12;
+            portfolio = new LoanPortfolio();
+            for (int loan = 0; loan < loans; loan++) {
+                int tenureMonths = 12 * (1 + random.nextInt(30));
+                portfolio.add((10_000 + random.nextInt(10_000_000)) * 100L, random.nextInt(49) * 25, tenureMonths,
+                        fromMonth - random.nextInt(tenureMonths));
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long singleSchedule(Blackhole blackhole) {
+        return AmortizationEngine.schedule(1_00_000_00L, 850, 240,
+                (number, payment, principal, interest, balance) -> blackhole.consume(balance));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LoanPortfolio.Projection portfolio(Portfolio state) {
+        return state.portfolio.project(state.pool, state.fromMonth, 12, 4_096);
+    }
+}
@@ -0,0 +1,103 @@
+package com.eazybytes.loans.benchmark;
+
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.mapper.LoansMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Per request work outside the database : entity <-> DTO mapping, Bean Validation of the @RequestBody LoansDto
+    (including the mobile and loan number @Pattern regexes, valid and invalid input) and Jackson reading of the
+    request body and writing of the response DTO, with an ObjectMapper built the way Spring Boot builds its own.
+
+    Throughput mode, the gc profiler (-prof gc, on by default in the jmh profile) reports the allocation per
+    operation as gc.alloc.rate.norm.
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="LoansDtoBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoansDtoBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ObjectMapper objectMapper;
+
+    private Loans loans;
+    private LoansDto loansDto;
+    private LoansDto invalidLoansDto;
+    private String loansJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        loans = new Loans();
+        loans.setLoanId(1L);
+        loans.setMobileNumber("9345432123");
+        loans.setLoanNumber("548732457654");
+        loans.setLoanType("Home Loan");
+        loans.setTotalLoan(100000);
+        loans.setAmountPaid(1000);
+        loans.setOutstandingAmount(99000);
+
+        loansDto = LoansMapper.mapToLoansDto(loans, new LoansDto());
+        invalidLoansDto = LoansMapper.mapToLoansDto(loans, new LoansDto());
+        invalidLoansDto.setMobileNumber("93454321");
+        invalidLoansDto.setLoanNumber("54873245765X");
+        invalidLoansDto.setTotalLoan(0);
+
+        loansJson = objectMapper.writeValueAsString(loansDto);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public LoansDto mapToLoansDto() {
+        return LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public Loans mapToLoans() {
+        return LoansMapper.mapToLoans(loansDto, new Loans());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoansDto>> validateLoans() {
+        return validator.validate(loansDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoansDto>> validateInvalidLoans() {
+        return validator.validate(invalidLoansDto);
+    }
+
+    @Benchmark
+    public LoansDto readLoans() throws JsonProcessingException {
+        return objectMapper.readValue(loansJson, LoansDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeLoans() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loansDto);
+    }
+}
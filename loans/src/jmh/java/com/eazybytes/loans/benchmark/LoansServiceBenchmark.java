@@ -0,0 +1,66 @@
+package com.eazybytes.loans.benchmark;
+
+import com.eazybytes.loans.LoansApplication;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.service.ILoansService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    LoansServiceImpl.fetchLoan through the Spring proxy against the embedded H2 database.
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="LoansServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoansServiceBenchmark {
+
+    @Param({"1000"})
+    private int loans;
+
+    private ConfigurableApplicationContext context;
+    private ILoansService loansService;
+    private String[] mobileNumbers;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextMobileNumber(String[] mobileNumbers) {
+            return mobileNumbers[(next++ & Integer.MAX_VALUE) % mobileNumbers.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // arguments, application.yml would override builder properties
+        context = new SpringApplicationBuilder(LoansApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        loansService = context.getBean(ILoansService.class);
+
+        mobileNumbers = new String[loans];
+        for (int i = 0; i < loans; i++) {
+            mobileNumbers[i] = Long.toString(9000000000L + i);
+            loansService.createLoan(mobileNumbers[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoansDto fetchLoan(Cursor cursor) {
+        return loansService.fetchLoan(cursor.nextMobileNumber(mobileNumbers));
+    }
+}
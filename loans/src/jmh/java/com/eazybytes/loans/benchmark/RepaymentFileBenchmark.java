@@ -0,0 +1,75 @@
+package com.eazybytes.loans.benchmark;
+
+import com.eazybytes.loans.service.impl.RepaymentFileReader;
+import com.eazybytes.loans.service.impl.RepaymentsByLoan;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    The read side of a repayment file ingestion, no database: a CSV file of `payments` payments to `loans` loans
+    (~25 bytes a line) memory-mapped, parsed and summed by loan, what LoanRepaymentsServiceImpl does before the
+    updates. Payments per second = payments / score.
+
+    The file is written to the temp directory once per trial. The default is 20M payments (~500 MB), for a multi-GB
+    file: -p payments=200000000 (~5 GB, mind the disk space and the time taken to write it).
+
+    Run: mvn -Pjmh test-compile exec:exec -Djmh.args="RepaymentFileBenchmark -prof gc"
+    (-p windowMegabytes=16,256 to compare window sizes)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepaymentFileBenchmark {
+
+    @Param({"20000000"})
+    private long payments;
+
+    @Param({"1000000"})
+    private int loans;
+
+    @Param({"256"})
+    private int windowMegabytes;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("repayments", ".csv");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writer.write("loanNumber,amount,reference\n");
+            for (long payment = 0; payment < payments; payment++) {
+                writer.write(Long.toString(100_000_000_000L + random.nextInt(loans)));
+                writer.write(',');
+                writer.write(Integer.toString(1 + random.nextInt(50_000)));
+                writer.write(",R");
+                writer.write(Long.toString(payment % 1_000_000));
+                writer.write('\n');
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public RepaymentsByLoan readAndGroup() throws IOException {
+        RepaymentsByLoan repayments = new RepaymentsByLoan();
+        RepaymentFileReader.read(file, windowMegabytes << 20, repayments::add, line -> {
+            throw new IllegalStateException("line " + line + " is malformed");
+        });
+        return repayments;
+    }
+}
@@ -0,0 +1,18 @@
+package com.eazybytes.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Binds the loans.accrual.* properties: when interest is accrued and how the work is split.
+@Data
+@ConfigurationProperties(prefix = "loans.accrual")
+public class LoanAccrualProperties {
+
+    private boolean enabled = true; // the nightly run, runs left unfinished are resumed on startup either way
+
+    private String cron = "0 0 1 * * *"; // accrues the interest of the day before, in the server's time zone
+
+    private int partitionSize = 10_000; // loan ids per partition: read, updated in one JDBC batch and committed together
+
+    private int threads = 4; // partitions accrued at once, each one holds a database connection
+}
@@ -0,0 +1,18 @@
+package com.eazybytes.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Binds the loans.reminders.* properties: how far ahead of a due date repayment reminders are sent, and how often.
+@Data
+@ConfigurationProperties(prefix = "loans.reminders")
+public class LoanRemindersProperties {
+
+    private int leadDays = 3; // a reminder is sent this many days before the installment is due
+
+    private Duration tickInterval = Duration.ofMinutes(1); // the queue is checked for due loans this often
+
+    private Duration rebuildInterval = Duration.ofHours(6); // the queue is rebuilt from the loans table this often
+}
@@ -0,0 +1,17 @@
+package com.eazybytes.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+// Binds the loans.repayments.* properties: where repayment files are read from and how they are applied.
+@Data
+@ConfigurationProperties(prefix = "loans.repayments")
+public class LoanRepaymentsProperties {
+
+    private String inboxDir = "repayments"; // repayment files are ingested from this directory only
+
+    private DataSize windowSize = DataSize.ofMegabytes(256); // bytes of a file mapped at once, under 2 GB
+
+    private int batchSize = 1_000; // loans updated by one JDBC batch, in one transaction
+}
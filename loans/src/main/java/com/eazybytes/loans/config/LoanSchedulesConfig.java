@@ -0,0 +1,38 @@
+package com.eazybytes.loans.config;
+
+import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.LoanScheduleDto;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+/*
+    The loan-schedules cache, next to the second-level cache regions in the same JCache manager (see
+    SecondLevelCacheConfig) but bounded on its own by loans.schedules.cache-size, a schedule being far larger than a
+    row. Keys carry the terms a schedule was computed from, a loan whose terms change simply misses, so nothing is ever
+    evicted on writes. Publishes the same cache.* meters as the regions.
+ */
+@Configuration
+@EnableConfigurationProperties(LoanSchedulesProperties.class)
+public class LoanSchedulesConfig {
+
+    @Bean
+    public Cache<Object, LoanScheduleDto> loanSchedulesCache(CacheManager jCacheManager, LoanSchedulesProperties properties) {
+        return jCacheManager.createCache(LoansConstants.LOAN_SCHEDULES_CACHE, new CaffeineConfiguration<Object, LoanScheduleDto>()
+                .setMaximumSize(OptionalLong.of(properties.getCacheSize()))
+                .setStoreByValue(false) // schedules are never modified once cached
+                .setStatisticsEnabled(true));
+    }
+
+    @Bean
+    public MeterBinder loanSchedulesCacheMetrics(Cache<Object, LoanScheduleDto> loanSchedulesCache) {
+        return registry -> JCacheMetrics.monitor(registry, loanSchedulesCache);
+    }
+}
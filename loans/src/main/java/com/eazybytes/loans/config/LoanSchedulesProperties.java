@@ -0,0 +1,18 @@
+package com.eazybytes.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Binds the loans.schedules.* properties: caching of loan schedules and the portfolio recomputation.
+@Data
+@ConfigurationProperties(prefix = "loans.schedules")
+public class LoanSchedulesProperties {
+
+    private long cacheSize = 1_000; // schedules kept, ~25 KB each at 240 installments
+
+    private int parallelism = Runtime.getRuntime().availableProcessors(); // threads recomputing the portfolio
+
+    private int chunkSize = 4_096; // loans per fork/join task, below it a range is not split further
+
+    private int projectionMonths = 12; // months of collections projected, from the current one
+}
@@ -0,0 +1,67 @@
+package com.eazybytes.loans.config;
+
+import com.eazybytes.loans.datasource.ReplicaHealthMonitor;
+import com.eazybytes.loans.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Read/write splitting, only active once loans.datasource.replicas lists at least one replica. The primary pool is
+    then built from spring.datasource as before, and the "dataSource" used by JPA and JdbcTemplate routes read-only
+    transactions to the replicas (see ReplicaRoutingDataSource).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "loans.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaDataSourceProperties properties) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource replicaDataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            replicaDataSource.setPoolName("replica-" + replicas.size());
+            replicaDataSource.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+            replicaDataSource.setReadOnly(true);
+            replicas.put(replicaDataSource.getPoolName(), replicaDataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(HikariDataSource primaryDataSource,
+                                                     ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                     ReplicaDataSourceProperties properties) {
+        return new ReplicaHealthMonitor(primaryDataSource, replicaRoutingDataSource,
+                properties.getMaxReplicaLag(), properties.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
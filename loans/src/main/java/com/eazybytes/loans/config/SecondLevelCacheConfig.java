@@ -0,0 +1,68 @@
+package com.eazybytes.loans.config;
+
+import com.eazybytes.loans.constants.LoansConstants;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/*
+    Hibernate's second-level cache, on Caffeine's JCache provider: local, bounded caches in this JVM.
+
+    - loans                      : Loans by loan id
+    - loans-natural-ids          : loan id by loan number, the natural id
+    - loan-ids-by-mobile-number  : loan id by mobile number, read by LoansNaturalIdRepositoryImpl
+
+    The caches are created here, bounded by loans.cache, and Hibernate refuses to start on a region missing among them.
+    Each one publishes cache.gets (hit/miss), cache.puts, cache.removals and cache.evictions, tagged with its name,
+    under /actuator/metrics and /actuator/prometheus. The cache manager is private to the application context (its
+    own URI), tests running several contexts do not share cached rows.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    private static final List<String> CACHE_NAMES = List.of(LoansConstants.LOANS_CACHE_REGION,
+            LoansConstants.LOAN_NATURAL_IDS_CACHE_REGION, LoansConstants.LOAN_IDS_BY_MOBILE_NUMBER_CACHE);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:loans:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String cacheName : CACHE_NAMES) {
+            cacheManager.createCache(cacheName, new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(properties.getMaxSize()))
+                    .setExpireAfterWrite(OptionalLong.of(properties.getExpireAfterWrite().toNanos()))
+                    .setStoreByValue(false) // Hibernate caches disassembled copies already
+                    .setStatisticsEnabled(true));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager jCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, jCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager jCacheManager) {
+        return registry -> CACHE_NAMES.forEach(cacheName -> JCacheMetrics.monitor(registry, jCacheManager.getCache(cacheName)));
+    }
+}
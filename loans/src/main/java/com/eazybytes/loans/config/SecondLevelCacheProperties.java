@@ -0,0 +1,16 @@
+package com.eazybytes.loans.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Binds the loans.cache.* properties: the bounds of every second-level cache region.
+@Data
+@ConfigurationProperties(prefix = "loans.cache")
+public class SecondLevelCacheProperties {
+
+    private long maxSize = 100_000; // entries per region, least recently used ones are evicted beyond it
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10); // bounds how stale a row changed outside Hibernate can get
+}
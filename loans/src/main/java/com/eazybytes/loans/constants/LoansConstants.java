@@ -8,6 +8,8 @@ public final class LoansConstants {
 
     public static final String  HOME_LOAN = "Home Loan";
     public static final int  NEW_LOAN_LIMIT = 1_00_000;
+    public static final int  NEW_LOAN_RATE_BPS = 850; // 8.50% a year
+    public static final int  NEW_LOAN_TENURE_MONTHS = 240;
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Loan created successfully";
     public static final String  STATUS_200 = "200";
@@ -15,6 +17,10 @@ public final class LoansConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final String  LOANS_CACHE_REGION = "loans";
+    public static final String  LOAN_NATURAL_IDS_CACHE_REGION = "loans-natural-ids";
+    public static final String  LOAN_IDS_BY_MOBILE_NUMBER_CACHE = "loan-ids-by-mobile-number";
+    public static final String  LOAN_SCHEDULES_CACHE = "loan-schedules";
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
@@ -0,0 +1,78 @@
+package com.eazybytes.loans.controller;
+
+import com.eazybytes.loans.dto.ErrorResponseDto;
+import com.eazybytes.loans.dto.LoanRepaymentFileDto;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+        name = "Repayment REST APIs for Loans in EazyBank",
+        description = "REST APIs in EazyBank to apply the repayment files of the payment processor to the loans"
+)
+@RestController
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+@Validated
+public class LoanRepaymentsController {
+
+    private ILoanRepaymentsService iLoanRepaymentsService;
+
+    @Operation(
+            summary = "Ingest Repayment File REST API",
+            description = "REST API to apply the payments of a repayment file of the repayments inbox to the loans"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "The file was already ingested",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No file with the given name in the repayments inbox",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Another repayment file is being ingested",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/ingestRepayments")
+    public ResponseEntity<LoanRepaymentFileDto> ingestRepayments(@RequestParam
+                                                                 @Pattern(regexp="[A-Za-z0-9][A-Za-z0-9._-]{0,99}",message = "FileName must be a plain file name of up to 100 characters")
+                                                                 String fileName) {
+        LoanRepaymentFileDto loanRepaymentFileDto = iLoanRepaymentsService.ingestRepaymentFile(fileName);
+        return ResponseEntity.status(HttpStatus.OK).body(loanRepaymentFileDto);
+    }
+
+}
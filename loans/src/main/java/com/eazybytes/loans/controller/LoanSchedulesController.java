@@ -0,0 +1,127 @@
+package com.eazybytes.loans.controller;
+
+import com.eazybytes.loans.dto.ErrorResponseDto;
+import com.eazybytes.loans.dto.LoanPortfolioDto;
+import com.eazybytes.loans.dto.LoanScheduleDto;
+import com.eazybytes.loans.service.ILoanSchedulesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+        name = "Schedule REST APIs for Loans in EazyBank",
+        description = "REST APIs in EazyBank to FETCH the amortization schedules of loans and their projection across the portfolio"
+)
+@RestController
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+@Validated
+public class LoanSchedulesController {
+
+    private ILoanSchedulesService iLoanSchedulesService;
+
+    @Operation(
+            summary = "Fetch Loan Schedule REST API",
+            description = "REST API to fetch the monthly installments of a loan, with the principal and interest of each"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No loan with the given number",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/fetchSchedule")
+    public ResponseEntity<LoanScheduleDto> fetchSchedule(@RequestParam
+                                                         @Pattern(regexp="(^$|[0-9]{12})",message = "LoanNumber must be 12 digits")
+                                                         String loanNumber) {
+        LoanScheduleDto loanScheduleDto = iLoanSchedulesService.fetchSchedule(loanNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(loanScheduleDto);
+    }
+
+    @Operation(
+            summary = "Recompute Portfolio REST API",
+            description = "REST API to recompute the schedules of every loan and project the installments due in " +
+                    "the coming months"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A recomputation is already running",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/recomputePortfolio")
+    public ResponseEntity<LoanPortfolioDto> recomputePortfolio() {
+        LoanPortfolioDto loanPortfolioDto = iLoanSchedulesService.recomputePortfolio();
+        return ResponseEntity.status(HttpStatus.OK).body(loanPortfolioDto);
+    }
+
+    @Operation(
+            summary = "Fetch Portfolio REST API",
+            description = "REST API to fetch the latest projection of the schedules of every loan, as last computed by the " +
+                    "Recompute Portfolio REST API"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No projection computed yet",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/fetchPortfolio")
+    public ResponseEntity<LoanPortfolioDto> fetchPortfolio() {
+        LoanPortfolioDto loanPortfolioDto = iLoanSchedulesService.fetchPortfolio();
+        return ResponseEntity.status(HttpStatus.OK).body(loanPortfolioDto);
+    }
+
+}
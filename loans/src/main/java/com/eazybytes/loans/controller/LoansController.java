@@ -2,6 +2,7 @@ package com.eazybytes.loans.controller;
 
 import com.eazybytes.loans.constants.LoansConstants;
 import com.eazybytes.loans.dto.ErrorResponseDto;
+import com.eazybytes.loans.dto.LoanPortfolioTotalsDto;
 import com.eazybytes.loans.dto.LoansDto;
 import com.eazybytes.loans.dto.ResponseDto;
 import com.eazybytes.loans.service.ILoansService;
@@ -165,4 +166,29 @@ public class LoansController {
         }
     }
 
+    @Operation(
+            summary = "Fetch Portfolio Totals REST API",
+            description = "REST API to fetch the loan count, outstanding and paid amounts of every loan type, kept " +
+                    "up to date with every loan written, without reading the loans"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/fetchPortfolioTotals")
+    public ResponseEntity<LoanPortfolioTotalsDto> fetchPortfolioTotals() {
+        LoanPortfolioTotalsDto loanPortfolioTotalsDto = iLoansService.fetchPortfolioTotals();
+        return ResponseEntity.status(HttpStatus.OK).body(loanPortfolioTotalsDto);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "LoanInstallment",
+        description = "Schema to hold one monthly installment of a loan schedule"
+)
+@Data
+public class LoanInstallmentDto {
+
+    @Schema(
+            description = "Number of the installment, from 1", example = "1"
+    )
+    private int installmentNumber;
+
+    @Schema(
+            description = "Day the installment is due", example = "2024-02-15"
+    )
+    private LocalDate dueDate;
+
+    @Schema(
+            description = "Amount due, principal and interest", example = "867.83"
+    )
+    private BigDecimal payment;
+
+    @Schema(
+            description = "Principal repaid by the installment", example = "159.50"
+    )
+    private BigDecimal principal;
+
+    @Schema(
+            description = "Interest of the month", example = "708.33"
+    )
+    private BigDecimal interest;
+
+    @Schema(
+            description = "Principal left after the installment", example = "99840.50"
+    )
+    private BigDecimal balance;
+
+}
@@ -0,0 +1,27 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Schema(name = "LoanMonthlyCollection",
+        description = "Schema to hold the installments due across the portfolio in one month"
+)
+@Data
+@AllArgsConstructor
+public class LoanMonthlyCollectionDto {
+
+    @Schema(
+            description = "Month the installments are due", example = "2024-02"
+    )
+    private YearMonth month;
+
+    @Schema(
+            description = "Installments due in the month, principal and interest", example = "8678300.00"
+    )
+    private BigDecimal amount;
+
+}
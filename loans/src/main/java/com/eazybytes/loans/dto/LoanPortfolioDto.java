@@ -0,0 +1,51 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(name = "LoanPortfolio",
+        description = "Schema to hold the projection of the schedules of every loan"
+)
+@Data
+public class LoanPortfolioDto {
+
+    @Schema(
+            description = "Number of loans projected", example = "1000000"
+    )
+    private long loans;
+
+    @Schema(
+            description = "Total amount lent", example = "100000000000.00"
+    )
+    private BigDecimal totalPrincipal;
+
+    @Schema(
+            description = "Interest over the whole schedules of the loans", example = "108274900000.00"
+    )
+    private BigDecimal totalInterest;
+
+    @Schema(
+            description = "Principal of the installments due from the current month on", example = "97500000000.00"
+    )
+    private BigDecimal scheduledPrincipal;
+
+    @Schema(
+            description = "Installments due in each month from the current one on"
+    )
+    private List<LoanMonthlyCollectionDto> monthlyCollections;
+
+    @Schema(
+            description = "When the projection was computed", example = "2024-01-15T02:00:00"
+    )
+    private LocalDateTime computedAt;
+
+    @Schema(
+            description = "Time taken to load the loans and recompute their schedules, in milliseconds", example = "1850"
+    )
+    private long elapsedMillis;
+
+}
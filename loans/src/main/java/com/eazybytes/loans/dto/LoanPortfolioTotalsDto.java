@@ -0,0 +1,41 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(name = "LoanPortfolioTotals",
+        description = "Schema to hold the live totals of the loans, by loan type"
+)
+@Data
+public class LoanPortfolioTotalsDto {
+
+    @Schema(
+            description = "Number of loans", example = "150000"
+    )
+    private long loans;
+
+    @Schema(
+            description = "Total outstanding amount", example = "14000000000"
+    )
+    private long outstandingAmount;
+
+    @Schema(
+            description = "Total amount paid", example = "1000000000"
+    )
+    private long amountPaid;
+
+    @Schema(
+            description = "Totals of each loan type with loans, by name"
+    )
+    private List<LoanTypeTotalsDto> loanTypes;
+
+    @Schema(
+            description = "When the totals were last verified against the loans, they are kept up to date in between",
+            example = "2024-01-15T10:20:00"
+    )
+    private LocalDateTime reconciledAt;
+
+}
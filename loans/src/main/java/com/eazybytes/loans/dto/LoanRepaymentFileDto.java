@@ -0,0 +1,79 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "LoanRepaymentFile",
+        description = "Schema to hold the outcome of the ingestion of a repayment file"
+)
+@Data
+public class LoanRepaymentFileDto {
+
+    @Schema(
+            description = "Name of the repayment file", example = "repayments-20240115.csv"
+    )
+    private String fileName;
+
+    @Schema(
+            description = "Size of the file in bytes", example = "2400000000"
+    )
+    private long bytes;
+
+    @Schema(
+            description = "Payments read from the file", example = "100000000"
+    )
+    private long payments;
+
+    @Schema(
+            description = "Lines that are not a payment, skipped", example = "0"
+    )
+    private long malformedLines;
+
+    @Schema(
+            description = "Loans paid, each updated once with the sum of its payments", example = "1000000"
+    )
+    private long loans;
+
+    @Schema(
+            description = "Loans whose payments were applied", example = "999990"
+    )
+    private long appliedLoans;
+
+    @Schema(
+            description = "Amount applied to those loans", example = "150000000000"
+    )
+    private long appliedAmount;
+
+    @Schema(
+            description = "Loan numbers without a loan", example = "4"
+    )
+    private long unknownLoans;
+
+    @Schema(
+            description = "Loans whose payments exceed their outstanding amount, not applied", example = "6"
+    )
+    private long rejectedLoans;
+
+    @Schema(
+            description = "Loans the file had already been applied to, by an earlier interrupted ingestion", example = "0"
+    )
+    private long alreadyAppliedLoans;
+
+    @Schema(
+            description = "Time taken to read and apply the file, in milliseconds", example = "95000"
+    )
+    private long elapsedMillis;
+
+    @Schema(
+            description = "Payments read and applied per second", example = "1050000"
+    )
+    private long paymentsPerSecond;
+
+    @Schema(
+            description = "When the ingestion completed", example = "2024-01-15T03:00:00"
+    )
+    private LocalDateTime ingestedAt;
+
+}
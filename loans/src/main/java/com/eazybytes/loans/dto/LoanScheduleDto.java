@@ -0,0 +1,55 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(name = "LoanSchedule",
+        description = "Schema to hold the amortization schedule of a loan"
+)
+@Data
+public class LoanScheduleDto {
+
+    @Schema(
+            description = "Loan Number of the customer", example = "548732457654"
+    )
+    private String loanNumber;
+
+    @Schema(
+            description = "Total loan amount", example = "100000"
+    )
+    private int totalLoan;
+
+    @Schema(
+            description = "Annual interest rate in percent", example = "8.50"
+    )
+    private BigDecimal annualInterestRate;
+
+    @Schema(
+            description = "Number of monthly installments", example = "240"
+    )
+    private int tenureMonths;
+
+    @Schema(
+            description = "Equated monthly installment, the last one settles the rounding", example = "867.83"
+    )
+    private BigDecimal monthlyInstallment;
+
+    @Schema(
+            description = "Interest paid over the whole schedule", example = "108274.90"
+    )
+    private BigDecimal totalInterest;
+
+    @Schema(
+            description = "Principal and interest paid over the whole schedule", example = "208274.90"
+    )
+    private BigDecimal totalPayable;
+
+    @Schema(
+            description = "The installments, first to last"
+    )
+    private List<LoanInstallmentDto> installments;
+
+}
@@ -0,0 +1,34 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Schema(name = "LoanTypeTotals",
+        description = "Schema to hold the totals of the loans of one type"
+)
+@Data
+@AllArgsConstructor
+public class LoanTypeTotalsDto {
+
+    @Schema(
+            description = "Type of the loans", example = "Home Loan"
+    )
+    private String loanType;
+
+    @Schema(
+            description = "Number of loans", example = "120000"
+    )
+    private long loans;
+
+    @Schema(
+            description = "Total outstanding amount", example = "11500000000"
+    )
+    private long outstandingAmount;
+
+    @Schema(
+            description = "Total amount paid", example = "500000000"
+    )
+    private long amountPaid;
+
+}
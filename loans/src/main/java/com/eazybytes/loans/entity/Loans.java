@@ -1,9 +1,21 @@
 package com.eazybytes.loans.entity;
 
+import com.eazybytes.loans.constants.LoansConstants;
 import jakarta.persistence.*;
 import lombok.*;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+/*
+    Cached in the second-level cache (see SecondLevelCacheConfig), and so is the resolution of a loan number, the
+    natural id, to the loan id.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = LoansConstants.LOANS_CACHE_REGION)
+@NaturalIdCache(region = LoansConstants.LOAN_NATURAL_IDS_CACHE_REGION)
 @Getter @Setter @ToString @AllArgsConstructor @NoArgsConstructor
 public class Loans extends BaseEntity {
 
@@ -13,6 +25,7 @@ public class Loans extends BaseEntity {
 
     private String mobileNumber;
 
+    @NaturalId
     private String loanNumber;
 
     private String loanType;
@@ -23,4 +36,8 @@ public class Loans extends BaseEntity {
 
     private int outstandingAmount;
 
+    private int annualRateBps; // annual interest rate in basis points, 850 = 8.50%
+
+    private int tenureMonths; // number of monthly installments, the first one due a month after the loan is created
+
 }
\ No newline at end of file
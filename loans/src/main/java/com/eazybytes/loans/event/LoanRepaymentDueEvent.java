@@ -0,0 +1,11 @@
+package com.eazybytes.loans.event;
+
+import java.time.LocalDate;
+
+/*
+    Published by LoanRepaymentReminders, loans.reminders.lead-days ahead of the due date of an installment. Once per
+    installment across all instances of the service; listeners are called on the reminder thread.
+ */
+public record LoanRepaymentDueEvent(String loanNumber, String mobileNumber, String loanType, int installmentNumber,
+                                    LocalDate dueDate) {
+}
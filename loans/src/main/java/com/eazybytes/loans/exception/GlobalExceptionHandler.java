@@ -71,4 +71,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
     }
 
-}
\ No newline at end of file
+    @ExceptionHandler(RepaymentFileAlreadyIngestedException.class)
+    public ResponseEntity<ErrorResponseDto> handleRepaymentFileAlreadyIngestedException(
+            RepaymentFileAlreadyIngestedException exception, WebRequest webRequest){
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OperationInProgressException.class)
+    public ResponseEntity<ErrorResponseDto> handleOperationInProgressException(OperationInProgressException exception,
+                                                                               WebRequest webRequest){
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.CONFLICT,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.CONFLICT);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.eazybytes.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class OperationInProgressException extends RuntimeException {
+
+    public OperationInProgressException(String message){
+        super(message);
+    }
+
+}
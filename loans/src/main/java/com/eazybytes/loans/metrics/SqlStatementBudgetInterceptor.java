@@ -0,0 +1,31 @@
+package com.eazybytes.loans.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Brackets every controller call so SqlStatementRecorder counts its statements against the endpoint ("GET /api/fetch")
+@AllArgsConstructor
+public class SqlStatementBudgetInterceptor implements HandlerInterceptor {
+
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlStatementRecorder.startRequest(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        if (handler instanceof HandlerMethod) {
+            sqlStatementRecorder.finishRequest();
+        }
+    }
+}
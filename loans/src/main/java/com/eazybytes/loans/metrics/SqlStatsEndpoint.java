@@ -0,0 +1,20 @@
+package com.eazybytes.loans.metrics;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/sqlstats : SQL statements per endpoint against their budgets, and the slowest statements seen so far
+@Component
+@Endpoint(id = "sqlstats")
+@AllArgsConstructor
+public class SqlStatsEndpoint {
+
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @ReadOperation
+    public SqlStatementRecorder.SqlStats sqlStats() {
+        return sqlStatementRecorder.snapshot();
+    }
+}
@@ -0,0 +1,24 @@
+package com.eazybytes.loans.repository;
+
+import com.eazybytes.loans.entity.Loans;
+
+import java.util.Optional;
+
+/*
+    Loan lookups served from the second-level cache, implemented by LoansNaturalIdRepositoryImpl.
+ */
+public interface LoansNaturalIdRepository {
+
+    /**
+     * @param loanNumber - Loan Number, the natural id of a loan
+     * @return the loan, from the second-level cache when it holds it
+     */
+    Optional<Loans> findByLoanNumber(String loanNumber);
+
+    /**
+     * @param mobileNumber - Mobile Number of the Customer
+     * @return the loan of the customer, from the second-level cache once the mobile number was seen before
+     */
+    Optional<Loans> findByMobileNumber(String mobileNumber);
+
+}
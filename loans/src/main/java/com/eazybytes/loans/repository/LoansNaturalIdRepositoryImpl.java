@@ -0,0 +1,60 @@
+package com.eazybytes.loans.repository;
+
+import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.entity.Loans;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    findByLoanNumber resolves the natural id: the loan id comes from the loans-natural-ids region and the loan from the
+    loans region, the database is only read on a miss.
+
+    A mobile number is no natural id (Hibernate supports one per entity, the loan number), so the loan id of a mobile
+    number is cached next to the regions, in loan-ids-by-mobile-number, and the loan loaded by id. Cached ids are
+    checked on every read rather than evicted on writes: a loan deleted or moved to another mobile number since is
+    dropped from the cache and looked up again. Only found loans are cached.
+ */
+@Transactional(readOnly = true) // like the derived queries of SimpleJpaRepository, served by a read replica when configured
+public class LoansNaturalIdRepositoryImpl implements LoansNaturalIdRepository {
+
+    private final EntityManager entityManager;
+    private final Cache<String, Long> loanIdsByMobileNumber;
+
+    @SuppressWarnings("unchecked")
+    public LoansNaturalIdRepositoryImpl(EntityManager entityManager, CacheManager jCacheManager) {
+        this.entityManager = entityManager;
+        this.loanIdsByMobileNumber = (Cache<String, Long>) (Cache<?, ?>) jCacheManager.getCache(LoansConstants.LOAN_IDS_BY_MOBILE_NUMBER_CACHE);
+    }
+
+    @Override
+    public Optional<Loans> findByLoanNumber(String loanNumber) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Loans.class).loadOptional(loanNumber);
+    }
+
+    @Override
+    public Optional<Loans> findByMobileNumber(String mobileNumber) {
+        Long loanId = loanIdsByMobileNumber.get(mobileNumber);
+        if (loanId != null) {
+            Loans loans = entityManager.find(Loans.class, loanId);
+            if (loans != null && mobileNumber.equals(loans.getMobileNumber())) {
+                return Optional.of(loans);
+            }
+            loanIdsByMobileNumber.remove(mobileNumber, loanId);
+        }
+        List<Loans> found = entityManager.createQuery("SELECT l FROM Loans l WHERE l.mobileNumber = :mobileNumber", Loans.class)
+                .setParameter("mobileNumber", mobileNumber)
+                .setMaxResults(1)
+                .getResultList();
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        loanIdsByMobileNumber.put(mobileNumber, found.get(0).getLoanId());
+        return Optional.of(found.get(0));
+    }
+}
@@ -4,13 +4,9 @@ import com.eazybytes.loans.entity.Loans;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
-public interface LoansRepository extends JpaRepository<Loans, Long> {
-
-    Optional<Loans> findByMobileNumber(String mobileNumber);
+public interface LoansRepository extends JpaRepository<Loans, Long>, LoansNaturalIdRepository {
 
-    Optional<Loans> findByLoanNumber(String loanNumber);
+    boolean existsByLoanNumber(String loanNumber);
 
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.eazybytes.loans.service;
+
+import com.eazybytes.loans.dto.LoanRepaymentFileDto;
+
+public interface ILoanRepaymentsService {
+
+    /**
+     *
+     * @param fileName - Name of a repayment file in the repayments inbox
+     * @return the outcome of the ingestion
+     * @throws com.eazybytes.loans.exception.OperationInProgressException if another file is being ingested
+     */
+    LoanRepaymentFileDto ingestRepaymentFile(String fileName);
+
+}
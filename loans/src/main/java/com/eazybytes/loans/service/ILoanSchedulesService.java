@@ -0,0 +1,29 @@
+package com.eazybytes.loans.service;
+
+import com.eazybytes.loans.dto.LoanPortfolioDto;
+import com.eazybytes.loans.dto.LoanScheduleDto;
+
+public interface ILoanSchedulesService {
+
+    /**
+     *
+     * @param loanNumber - Loan Number of the customer
+     * @return the amortization schedule of the loan
+     */
+    LoanScheduleDto fetchSchedule(String loanNumber);
+
+    /**
+     *
+     * @return the projection of the schedules of every loan, recomputed now
+     * @throws com.eazybytes.loans.exception.OperationInProgressException if another recomputation is running
+     */
+    LoanPortfolioDto recomputePortfolio();
+
+    /**
+     *
+     * @return the latest projection of the schedules of every loan
+     * @throws com.eazybytes.loans.exception.ResourceNotFoundException if none was computed yet
+     */
+    LoanPortfolioDto fetchPortfolio();
+
+}
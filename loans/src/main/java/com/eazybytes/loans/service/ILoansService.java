@@ -1,5 +1,6 @@
 package com.eazybytes.loans.service;
 
+import com.eazybytes.loans.dto.LoanPortfolioTotalsDto;
 import com.eazybytes.loans.dto.LoansDto;
 
 public interface ILoansService {
@@ -31,4 +32,10 @@ public interface ILoansService {
      */
     boolean deleteLoan(String mobileNumber);
 
+    /**
+     *
+     * @return the live totals of the loans, by loan type
+     */
+    LoanPortfolioTotalsDto fetchPortfolioTotals();
+
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.eazybytes.loans.service.impl;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/*
+    Equated monthly installment (EMI) schedules, in fixed-point money: amounts are longs in minor units (paise), annual
+    interest rates ints in basis points (850 = 8.50%). No double is involved, a schedule is exact and the same on every
+    run and machine.
+
+    The installment is P * r * (1 + r)^n / ((1 + r)^n - 1) with r the monthly rate, computed once per rate and tenure
+    as a BigDecimal factor (34 significant digits) and rounded up to the paisa, so the loan is repaid within its tenure.
+    The interest of a month is the balance times the monthly rate, rounded half up to the paisa, in long arithmetic.
+    The last installment settles the balance left, slightly less than the others for their rounding up (4.30 of 867.83
+    on 1 lakh over 20 years at 8.50%).
+ */
+public final class AmortizationEngine {
+
+    public static final int MAX_ANNUAL_RATE_BPS = 10_000; // 100% a year
+    public static final int MAX_TENURE_MONTHS = 600;
+
+    private static final long MONTHLY_RATE_DIVISOR = 12 * 10_000; // basis points a year to a fraction a month
+    private static final MathContext FACTOR_PRECISION = MathContext.DECIMAL128;
+
+    private AmortizationEngine() {
+        // restrict instantiation
+    }
+
+    /**
+     * Receives the installments of a schedule, first to last, without allocating any object per installment
+     */
+    @FunctionalInterface
+    public interface InstallmentConsumer {
+
+        /**
+         * @param number - 1 .. tenure
+         * @param payment - principal + interest, in minor units
+         * @param principal - principal repaid by the installment, in minor units
+         * @param interest - interest of the month, in minor units
+         * @param balance - principal left after the installment, in minor units
+         */
+        void accept(int number, long payment, long principal, long interest, long balance);
+    }
+
+    /**
+     * @param annualRateBps - annual interest rate in basis points
+     * @param tenureMonths - number of monthly installments
+     * @return the installment of a loan of 1 minor unit, multiplied by the principal by monthlyInstallment
+     */
+    public static BigDecimal installmentFactor(int annualRateBps, int tenureMonths) {
+        checkTerms(annualRateBps, tenureMonths);
+        BigDecimal months = BigDecimal.valueOf(tenureMonths);
+        if (annualRateBps == 0) {
+            return BigDecimal.ONE.divide(months, FACTOR_PRECISION);
+        }
+        BigDecimal monthlyRate = BigDecimal.valueOf(annualRateBps).divide(BigDecimal.valueOf(MONTHLY_RATE_DIVISOR), FACTOR_PRECISION);
+        BigDecimal compounded = BigDecimal.ONE.add(monthlyRate).pow(tenureMonths, FACTOR_PRECISION);
+        return monthlyRate.multiply(compounded, FACTOR_PRECISION)
+                .divide(compounded.subtract(BigDecimal.ONE), FACTOR_PRECISION);
+    }
+
+    /**
+     * @param principal - amount lent, in minor units
+     * @param installmentFactor - from installmentFactor, of the rate and tenure of the loan
+     * @return the monthly installment, in minor units, rounded up
+     */
+    public static long monthlyInstallment(long principal, BigDecimal installmentFactor) {
+        if (principal < 0) {
+            throw new IllegalArgumentException("principal must not be negative");
+        }
+        return BigDecimal.valueOf(principal).multiply(installmentFactor).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    /**
+     * @param principal - amount lent, in minor units
+     * @param annualRateBps - annual interest rate in basis points
+     * @param tenureMonths - number of monthly installments
+     * @param consumer - receives the installments, first to last
+     * @return the total interest of the schedule, in minor units
+     */
+    public static long schedule(long principal, int annualRateBps, int tenureMonths, InstallmentConsumer consumer) {
+        return schedule(principal, monthlyInstallment(principal, installmentFactor(annualRateBps, tenureMonths)),
+                annualRateBps, tenureMonths, consumer);
+    }
+
+    /**
+     * @param principal - amount lent, in minor units
+     * @param installment - from monthlyInstallment, of the same principal, rate and tenure
+     * @param annualRateBps - annual interest rate in basis points
+     * @param tenureMonths - number of monthly installments
+     * @param consumer - receives the installments, first to last
+     * @return the total interest of the schedule, in minor units
+     */
+    public static long schedule(long principal, long installment, int annualRateBps, int tenureMonths,
+                                InstallmentConsumer consumer) {
+        long balance = principal;
+        long totalInterest = 0;
+        for (int number = 1; number <= tenureMonths; number++) {
+            long interest = monthlyInterest(balance, annualRateBps);
+            long repaid = number == tenureMonths ? balance : Math.min(installment - interest, balance);
+            balance -= repaid;
+            totalInterest += interest;
+            consumer.accept(number, repaid + interest, repaid, interest, balance);
+        }
+        return totalInterest;
+    }
+
+    // balance * annual rate / 12, rounded half up to the minor unit. At most 2^31 rupees of principal and 10000
+    // basis points, the product stays far below Long.MAX_VALUE
+    static long monthlyInterest(long balance, int annualRateBps) {
+        return (balance * annualRateBps + MONTHLY_RATE_DIVISOR / 2) / MONTHLY_RATE_DIVISOR;
+    }
+
+    private static void checkTerms(int annualRateBps, int tenureMonths) {
+        if (annualRateBps < 0 || annualRateBps > MAX_ANNUAL_RATE_BPS) {
+            throw new IllegalArgumentException("annual rate must be between 0 and " + MAX_ANNUAL_RATE_BPS + " basis points");
+        }
+        if (tenureMonths < 1 || tenureMonths > MAX_TENURE_MONTHS) {
+            throw new IllegalArgumentException("tenure must be between 1 and " + MAX_TENURE_MONTHS + " months");
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.eazybytes.loans.service.impl;
+
+import java.util.Arrays;
+
+/*
+    Loans waiting for the reminder of their next installment, earliest due date first: an indexed binary min-heap on
+    parallel int arrays (loan id, start day, tenure, installment, due day), no object per loan, ~50 bytes a loan with
+    its index entry.
+
+    Indexed: an open-addressing map from loan id to heap position, so a loan is rescheduled or removed in O(log n)
+    without searching the heap. A queue rebuilt from a scan of the loans table is filled with append() and ordered
+    once by heapify(), in O(n).
+
+    Days are epoch days (LocalDate.toEpochDay), loan ids the positive ints of loans.loan_id. Not thread safe.
+ */
+public final class LoanDueDateQueue {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final int FREE = 0; // index slot without a loan, loan ids start at 1
+
+    private int[] loanIds = new int[INITIAL_CAPACITY];
+    private int[] startDays = new int[INITIAL_CAPACITY];
+    private int[] tenuresMonths = new int[INITIAL_CAPACITY];
+    private int[] installments = new int[INITIAL_CAPACITY];
+    private int[] dueDays = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private int[] indexKeys = new int[INITIAL_CAPACITY * 2]; // loan id, or FREE
+    private int[] indexPositions = new int[INITIAL_CAPACITY * 2]; // heap position of the loan
+
+    /**
+     * Receives the loans taken off the queue, the queue may be changed from within
+     */
+    @FunctionalInterface
+    public interface DueConsumer {
+
+        /**
+         * @param loanId - loans.loan_id
+         * @param startDay - day the loan was created, its installments are due monthly from there
+         * @param tenureMonths - number of monthly installments
+         * @param installment - 1 .. tenureMonths, the installment due
+         * @param dueDay - day it is due
+         */
+        void accept(int loanId, int startDay, int tenureMonths, int installment, int dueDay);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int loanId) {
+        return position(loanId) >= 0;
+    }
+
+    /**
+     * @return the earliest due day queued, Integer.MAX_VALUE when empty
+     */
+    public int peekDueDay() {
+        return size == 0 ? Integer.MAX_VALUE : dueDays[0];
+    }
+
+    /**
+     * Queues the installment of a loan, or moves the loan already queued to it
+     */
+    public void schedule(int loanId, int startDay, int tenureMonths, int installment, int dueDay) {
+        int position = position(loanId);
+        if (position < 0) {
+            append(loanId, startDay, tenureMonths, installment, dueDay);
+            siftUp(size - 1);
+            return;
+        }
+        set(position, loanId, startDay, tenureMonths, installment, dueDay);
+        siftDown(siftUp(position));
+    }
+
+    /**
+     * Adds a loan not queued yet at the end of the heap, unordered until heapify()
+     */
+    public void append(int loanId, int startDay, int tenureMonths, int installment, int dueDay) {
+        if (loanId <= FREE) {
+            throw new IllegalArgumentException("loan ids must be positive");
+        }
+        if (size == loanIds.length) {
+            int capacity = size * 2;
+            loanIds = Arrays.copyOf(loanIds, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+            tenuresMonths = Arrays.copyOf(tenuresMonths, capacity);
+            installments = Arrays.copyOf(installments, capacity);
+            dueDays = Arrays.copyOf(dueDays, capacity);
+        }
+        set(size, loanId, startDay, tenureMonths, installment, dueDay);
+        size++;
+        if (size * 2 > indexKeys.length) {
+            rehash(indexKeys.length * 2);
+        }
+    }
+
+    /**
+     * Restores the heap order after append()
+     */
+    public void heapify() {
+        for (int position = size / 2 - 1; position >= 0; position--) {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * @return true if the loan was queued
+     */
+    public boolean remove(int loanId) {
+        int position = position(loanId);
+        if (position < 0) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Takes every loan due on or before throughDay off the queue, earliest first
+     *
+     * @return the number of loans taken
+     */
+    public int pollDue(int throughDay, DueConsumer consumer) {
+        int polled = 0;
+        while (size > 0 && dueDays[0] <= throughDay) {
+            int loanId = loanIds[0];
+            int startDay = startDays[0];
+            int tenureMonths = tenuresMonths[0];
+            int installment = installments[0];
+            int dueDay = dueDays[0];
+            removeAt(0);
+            consumer.accept(loanId, startDay, tenureMonths, installment, dueDay);
+            polled++;
+        }
+        return polled;
+    }
+
+    private void removeAt(int position) {
+        unindex(loanIds[position]);
+        int last = --size;
+        if (position == last) {
+            return;
+        }
+        set(position, loanIds[last], startDays[last], tenuresMonths[last], installments[last], dueDays[last]);
+        siftDown(siftUp(position));
+    }
+
+    private void set(int position, int loanId, int startDay, int tenureMonths, int installment, int dueDay) {
+        loanIds[position] = loanId;
+        startDays[position] = startDay;
+        tenuresMonths[position] = tenureMonths;
+        installments[position] = installment;
+        dueDays[position] = dueDay;
+        index(loanId, position);
+    }
+
+    private int siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!less(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+        return position;
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            if (left < size && less(left, smallest)) {
+                smallest = left;
+            }
+            if (left + 1 < size && less(left + 1, smallest)) {
+                smallest = left + 1;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    // by due day, then loan id: the order is the same on every instance
+    private boolean less(int first, int second) {
+        return dueDays[first] < dueDays[second]
+                || (dueDays[first] == dueDays[second] && loanIds[first] < loanIds[second]);
+    }
+
+    private void swap(int first, int second) {
+        int loanId = loanIds[first];
+        int startDay = startDays[first];
+        int tenureMonths = tenuresMonths[first];
+        int installment = installments[first];
+        int dueDay = dueDays[first];
+        set(first, loanIds[second], startDays[second], tenuresMonths[second], installments[second], dueDays[second]);
+        set(second, loanId, startDay, tenureMonths, installment, dueDay);
+    }
+
+    // Index: linear probing, at most half full
+
+    private int position(int loanId) {
+        int slot = slot(indexKeys, loanId);
+        return indexKeys[slot] == FREE ? -1 : indexPositions[slot];
+    }
+
+    private void index(int loanId, int position) {
+        int slot = slot(indexKeys, loanId);
+        indexKeys[slot] = loanId;
+        indexPositions[slot] = position;
+    }
+
+    private void unindex(int loanId) {
+        int mask = indexKeys.length - 1;
+        int free = slot(indexKeys, loanId);
+        indexKeys[free] = FREE;
+        // shifts back the loans probed past the slot freed, so none becomes unreachable
+        for (int slot = (free + 1) & mask; indexKeys[slot] != FREE; slot = (slot + 1) & mask) {
+            int home = hash(indexKeys[slot]) & mask;
+            boolean reachable = free <= slot ? (home > free && home <= slot) : (home > free || home <= slot);
+            if (!reachable) {
+                indexKeys[free] = indexKeys[slot];
+                indexPositions[free] = indexPositions[slot];
+                indexKeys[slot] = FREE;
+                free = slot;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] keys = indexKeys;
+        int[] positions = indexPositions;
+        indexKeys = new int[capacity];
+        indexPositions = new int[capacity];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                index(keys[slot], positions[slot]);
+            }
+        }
+    }
+
+    private static int slot(int[] keys, int loanId) {
+        int mask = keys.length - 1;
+        int slot = hash(loanId) & mask;
+        while (keys[slot] != FREE && keys[slot] != loanId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // loan ids are sequential, spread them over the table
+    private static int hash(int loanId) {
+        int hash = loanId * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,396 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.config.LoanAccrualProperties;
+import com.eazybytes.loans.entity.Loans;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Nightly interest accrual: the interest of a day is added to the outstanding amount of every open loan.
+
+    Interest is simple, actual/365, at the annual rate of the loan: outstanding * rate * days / 365, in paise. Whole
+    rupees are added to outstanding_amount, the paise left are carried in accrual_carry_paise to the next day, so no
+    interest is lost to rounding. accrued_through is the last day accrued, a loan skipped for a few days (or never
+    accrued yet, from its created_at) gets all of them at once. The update only applies while accrued_through is
+    before the day accrued: a loan is never accrued twice for a day, whatever is run again.
+
+    A run reads the range of loan ids once and splits it in partitions of loans.accrual.partition-size ids. A fixed
+    pool of loans.accrual.threads workers takes the partitions in order; a partition is read, its updates are sent in
+    one JDBC batch and committed in one transaction of its own, on the primary. The Loans second-level cache region is
+    evicted after every partition, the updates bypass Hibernate.
+
+    Progress is checkpointed in loan_accrual_runs. The loans and interest a partition accrued are added to accrued_loans
+    and accrued_interest in the partition's own transaction, so they are counted exactly once whatever happens next;
+    checkpoint_loan_id is then moved past the partitions committed without a gap before them. A run left RUNNING (crash, shutdown, failed partition) is resumed from its checkpoint on startup
+    and before the next nightly run; partitions committed after the checkpoint are read again and find nothing to do.
+
+    Metrics: loans.accrual.loans and loans.accrual.interest (throughput), loans.accrual.partition (timer), and the
+    gauges loans.accrual.partitions.remaining (of the run in progress) and loans.accrual.lag.days (days accrual is
+    behind, 0 once yesterday is accrued).
+ */
+@Component
+@EnableConfigurationProperties(LoanAccrualProperties.class)
+public class LoanInterestAccrualJob implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanInterestAccrualJob.class);
+
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String ACCRUED_BY = "LOANS_ACCRUAL";
+    private static final long DAY_COUNT_DIVISOR = 365L * 10_000; // actual/365, rates in basis points
+    private static final long MINOR_UNITS = 100; // paise per rupee, loan amounts are whole rupees
+
+    private static final String RANGE_SQL = "SELECT MIN(loan_id), MAX(loan_id) FROM loans";
+    private static final String PARTITION_SQL = "SELECT loan_id, loan_type, outstanding_amount, annual_rate_bps, " +
+            "accrual_carry_paise, COALESCE(accrued_through, created_at) FROM loans WHERE loan_id >= ? AND loan_id < ? " +
+            "AND outstanding_amount > 0 AND (accrued_through IS NULL OR accrued_through < ?)";
+    private static final String ACCRUE_SQL = "UPDATE loans SET outstanding_amount = outstanding_amount + ?, " +
+            "accrual_carry_paise = ?, accrued_through = ?, updated_at = ?, updated_by = ? " +
+            "WHERE loan_id = ? AND (accrued_through IS NULL OR accrued_through < ?)";
+    private static final String FIND_RUN_SQL = "SELECT status, first_loan_id, last_loan_id, checkpoint_loan_id " +
+            "FROM loan_accrual_runs WHERE accrual_date = ?";
+    private static final String INSERT_RUN_SQL = "INSERT INTO loan_accrual_runs (accrual_date, status, first_loan_id, " +
+            "last_loan_id, checkpoint_loan_id, accrued_loans, accrued_interest, started_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?)";
+    private static final String ACCRUED_SQL = "UPDATE loan_accrual_runs SET accrued_loans = accrued_loans + ?, " +
+            "accrued_interest = accrued_interest + ? WHERE accrual_date = ?";
+    private static final String CHECKPOINT_SQL = "UPDATE loan_accrual_runs SET checkpoint_loan_id = ?, updated_at = ? " +
+            "WHERE accrual_date = ?";
+    private static final String COMPLETE_RUN_SQL = "UPDATE loan_accrual_runs SET status = ?, updated_at = ?, " +
+            "finished_at = ? WHERE accrual_date = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LoanPortfolioTotals loanPortfolioTotals;
+    private final LoanAccrualProperties properties;
+    private final CronExpression cron;
+    private final Counter accruedLoans;
+    private final Counter accruedInterest;
+    private final Timer partitionTimer;
+    private final AtomicLong remainingPartitions = new AtomicLong();
+    private final Object accrual = new Object(); // one run at a time
+    private volatile LocalDate lastCompleted; // null until a run completed
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService workers;
+
+    public LoanInterestAccrualJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory, LoanPortfolioTotals loanPortfolioTotals,
+                                  LoanAccrualProperties properties, MeterRegistry meterRegistry) {
+        if(properties.getPartitionSize() < 1 || properties.getThreads() < 1) {
+            throw new IllegalArgumentException("loans.accrual.partition-size and threads must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager); // read-write, on the primary
+        this.entityManagerFactory = entityManagerFactory;
+        this.loanPortfolioTotals = loanPortfolioTotals;
+        this.properties = properties;
+        this.cron = CronExpression.parse(properties.getCron());
+        this.accruedLoans = meterRegistry.counter("loans.accrual.loans");
+        this.accruedInterest = meterRegistry.counter("loans.accrual.interest");
+        this.partitionTimer = Timer.builder("loans.accrual.partition")
+                .description("Time to read, accrue and commit one partition of loans")
+                .register(meterRegistry);
+        Gauge.builder("loans.accrual.partitions.remaining", remainingPartitions, AtomicLong::get)
+                .description("Partitions of the accrual run in progress not committed yet")
+                .register(meterRegistry);
+        Gauge.builder("loans.accrual.lag.days", this, LoanInterestAccrualJob::lagDays)
+                .description("Days between the last day accrued and yesterday")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accrues the interest of the day on every open loan, resuming the run of the day if one was interrupted
+     *
+     * @param accrualDate - Last day of interest accrued
+     * @return true if the run completed now, false if the day had already been accrued
+     */
+    public boolean accrue(LocalDate accrualDate) {
+        synchronized (accrual) {
+            AccrualRun run = findRun(accrualDate);
+            if(run != null && COMPLETED.equals(run.status())) {
+                return false;
+            }
+            if(run == null) {
+                long[] range = jdbcTemplate.queryForObject(RANGE_SQL,
+                        (resultSet, rowNum) -> new long[] {resultSet.getLong(1), resultSet.getLong(2)});
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.update(INSERT_RUN_SQL, Date.valueOf(accrualDate), RUNNING, range[0], range[1], range[0], now, now);
+                run = new AccrualRun(RUNNING, range[0], range[1], range[0]);
+                logger.info("Accruing the interest of {} on loans {} to {}", accrualDate, range[0], range[1]);
+            } else {
+                logger.info("Resuming the interest accrual of {} from loan {} of {} to {}", accrualDate,
+                        run.checkpointLoanId(), run.firstLoanId(), run.lastLoanId());
+            }
+            accruePartitions(accrualDate, run);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update(COMPLETE_RUN_SQL, COMPLETED, now, now, Date.valueOf(accrualDate));
+            if(lastCompleted == null || accrualDate.isAfter(lastCompleted)) {
+                lastCompleted = accrualDate;
+            }
+            return true;
+        }
+    }
+
+    private void accruePartitions(LocalDate accrualDate, AccrualRun run) {
+        long partitionSize = properties.getPartitionSize();
+        long from = run.checkpointLoanId();
+        int partitions = (int) Math.max(0, (run.lastLoanId() - from + partitionSize) / partitionSize);
+        remainingPartitions.set(partitions);
+        Checkpoint checkpoint = new Checkpoint(accrualDate, from, partitions);
+        AtomicInteger nextPartition = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        Runnable worker = () -> {
+            int partition;
+            while(!failed.get() && (partition = nextPartition.getAndIncrement()) < partitions) {
+                long fromId = from + partition * partitionSize;
+                try {
+                    long[] accrued = partitionTimer.record(() -> accruePartition(fromId, fromId + partitionSize, accrualDate, updatedAt));
+                    entityManagerFactory.getCache().evict(Loans.class);
+                    accruedLoans.increment(accrued[0]);
+                    accruedInterest.increment(accrued[1]);
+                    remainingPartitions.decrementAndGet();
+                    checkpoint.committed(partition);
+                } catch (RuntimeException exception) {
+                    failed.set(true);
+                    throw exception;
+                }
+            }
+        };
+        List<Future<?>> futures = new ArrayList<>(properties.getThreads());
+        for (int thread = 0; thread < Math.min(properties.getThreads(), partitions); thread++) {
+            futures.add(workers().submit(worker));
+        }
+        Throwable failure = null;
+        try {
+            for (Future<?> future : futures) { // every worker is waited for, none is left writing after a failure
+                try {
+                    future.get();
+                } catch (ExecutionException exception) {
+                    failure = failure == null ? exception.getCause() : failure;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interest accrual of " + accrualDate + " interrupted", exception);
+        } finally {
+            remainingPartitions.set(0);
+        }
+        if(failure != null) {
+            throw new IllegalStateException("Interest accrual of " + accrualDate + " failed, resumed from loan "
+                    + checkpoint.loanId() + " on the next run", failure);
+        }
+    }
+
+    // loans [fromId, toId), in one transaction. Returns the number of loans accrued and the interest added, in rupees
+    private long[] accruePartition(long fromId, long toId, LocalDate accrualDate, Timestamp updatedAt) {
+        return transactionTemplate.execute(status -> {
+            List<Object[]> updates = new ArrayList<>();
+            List<String> loanTypes = new ArrayList<>();
+            Date accrualDay = Date.valueOf(accrualDate);
+            jdbcTemplate.query(PARTITION_SQL, resultSet -> {
+                long days = ChronoUnit.DAYS.between(resultSet.getDate(6).toLocalDate(), accrualDate);
+                if(days <= 0) {
+                    return; // created on or after the day accrued
+                }
+                long paise = Math.multiplyExact(resultSet.getLong(3) * MINOR_UNITS * resultSet.getInt(4), days)
+                        / DAY_COUNT_DIVISOR + resultSet.getInt(5);
+                updates.add(new Object[] {paise / MINOR_UNITS, (int) (paise % MINOR_UNITS), accrualDay, updatedAt,
+                        ACCRUED_BY, resultSet.getLong(1), accrualDay});
+                loanTypes.add(resultSet.getString(2));
+            }, fromId, toId, accrualDay);
+            if(updates.isEmpty()) {
+                return new long[2];
+            }
+
+            int[] updateCounts = jdbcTemplate.batchUpdate(ACCRUE_SQL, updates);
+            Map<String, Long> interestByType = new HashMap<>();
+            long loans = 0;
+            long interest = 0;
+            for (int index = 0; index < updateCounts.length; index++) {
+                if(updateCounts[index] == 0) {
+                    continue; // accrued meanwhile
+                }
+                long rupees = (long) updates.get(index)[0];
+                interestByType.merge(loanTypes.get(index), rupees, Long::sum);
+                loans++;
+                interest += rupees;
+            }
+            interestByType.forEach(loanPortfolioTotals::recordAccrued);
+            if(loans > 0) { // last, the run's row stays locked by this partition only until it commits
+                jdbcTemplate.update(ACCRUED_SQL, loans, interest, accrualDay);
+            }
+            return new long[] {loans, interest};
+        });
+    }
+
+    private AccrualRun findRun(LocalDate accrualDate) {
+        List<AccrualRun> runs = jdbcTemplate.query(FIND_RUN_SQL, (resultSet, rowNum) -> new AccrualRun(
+                resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4)),
+                Date.valueOf(accrualDate));
+        return runs.isEmpty() ? null : runs.get(0);
+    }
+
+    private double lagDays() {
+        LocalDate completed = lastCompleted;
+        return completed == null ? Double.NaN
+                : Math.max(0, ChronoUnit.DAYS.between(completed, LocalDate.now().minusDays(1)));
+    }
+
+    @Override
+    public void start() {
+        lastCompleted = jdbcTemplate.query("SELECT MAX(accrual_date) FROM loan_accrual_runs WHERE status = ?",
+                resultSet -> resultSet.next() && resultSet.getDate(1) != null ? resultSet.getDate(1).toLocalDate() : null,
+                COMPLETED);
+        workers = Executors.newFixedThreadPool(properties.getThreads(), new AccrualThreadFactory("loan-accrual-worker-"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(new AccrualThreadFactory("loan-accrual-"));
+        scheduler.execute(this::resumeUnfinished);
+        if(properties.isEnabled()) {
+            scheduleNext();
+        }
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        workers.shutdownNow(); // partitions in flight roll back, the run is resumed from its checkpoint
+        scheduler = null;
+        workers = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private ExecutorService workers() {
+        ExecutorService executorService = workers;
+        if(executorService == null) {
+            throw new IllegalStateException("Interest accrual is not running");
+        }
+        return executorService;
+    }
+
+    private void scheduleNext() {
+        ScheduledExecutorService executorService = scheduler;
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime next = cron.next(now);
+        if(executorService == null || next == null) {
+            return;
+        }
+        executorService.schedule(this::runNightly, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runNightly() {
+        try {
+            if(resumeUnfinished()) {
+                accrue(LocalDate.now().minusDays(1));
+            }
+        } catch (RuntimeException exception) {
+            logger.error("Interest accrual failed, resumed on the next run", exception);
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    // Runs left RUNNING, oldest first. Returns false if one of them failed again
+    private boolean resumeUnfinished() {
+        try {
+            List<LocalDate> unfinished = jdbcTemplate.query(
+                    "SELECT accrual_date FROM loan_accrual_runs WHERE status = ? ORDER BY accrual_date",
+                    (resultSet, rowNum) -> resultSet.getDate(1).toLocalDate(), RUNNING);
+            for (LocalDate accrualDate : unfinished) {
+                accrue(accrualDate);
+            }
+            return true;
+        } catch (RuntimeException exception) {
+            logger.error("Could not resume the interest accrual", exception);
+            return false;
+        }
+    }
+
+    // Moves checkpoint_loan_id past the partitions committed without a gap, partitions commit out of order
+    private final class Checkpoint {
+
+        private final LocalDate accrualDate;
+        private final long fromLoanId;
+        private final boolean[] committed;
+        private int watermark; // partitions [0, watermark) committed
+
+        private Checkpoint(LocalDate accrualDate, long fromLoanId, int partitions) {
+            this.accrualDate = accrualDate;
+            this.fromLoanId = fromLoanId;
+            this.committed = new boolean[partitions];
+        }
+
+        // The partition's loans and interest were counted when it committed, only the watermark moves here
+        private synchronized void committed(int partition) {
+            committed[partition] = true;
+            while(watermark < committed.length && committed[watermark]) {
+                watermark++;
+            }
+            jdbcTemplate.update(CHECKPOINT_SQL, loanId(), Timestamp.valueOf(LocalDateTime.now()), Date.valueOf(accrualDate));
+        }
+
+        private synchronized long loanId() {
+            return fromLoanId + watermark * (long) properties.getPartitionSize();
+        }
+    }
+
+    private record AccrualRun(String status, long firstLoanId, long lastLoanId, long checkpointLoanId) {
+    }
+
+    private static final class AccrualThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger threads = new AtomicInteger();
+
+        private AccrualThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
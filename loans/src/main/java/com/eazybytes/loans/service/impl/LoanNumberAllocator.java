@@ -0,0 +1,125 @@
+package com.eazybytes.loans.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Hands out unique 12 digit loan numbers without a database round trip per loan.
+
+    Every loan number ever issued is kept in an IssuedNumberSet, read from the loans table on startup. A new number
+    is drawn at random and, when it is taken, the next free one after it is issued instead, so it never collides with
+    a loan this instance knows of. Numbers issued by another instance after the startup load are caught by the
+    uk_loans_loan_number unique index; LoansServiceImpl then retries with another number. Numbers of closed loans
+    stay issued and are not handed out again.
+ */
+@Component
+public class LoanNumberAllocator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanNumberAllocator.class);
+
+    private static final long FIRST_LOAN_NUMBER = 100_000_000_000L;
+    private static final long LOAN_NUMBERS = 900_000_000L;
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile IssuedNumberSet issued; // null until loaded
+
+    public LoanNumberAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return a loan number that has never been issued before
+     */
+    public String nextLoanNumber() {
+        IssuedNumberSet issuedNumbers = issuedNumbers();
+        synchronized (issuedNumbers) {
+            long offset = issuedNumbers.nextAbsent(ThreadLocalRandom.current().nextLong(LOAN_NUMBERS));
+            if (offset < 0) {
+                offset = issuedNumbers.nextAbsent(0); // wrap around
+            }
+            if (offset < 0) {
+                throw new IllegalStateException("No 12 digit loan numbers left to issue");
+            }
+            issuedNumbers.add(offset);
+            return Long.toString(FIRST_LOAN_NUMBER + offset);
+        }
+    }
+
+    /**
+     * @param loanNumber - Loan Number to check
+     * @return true if the loan number has been issued, by this instance or before it started
+     */
+    public boolean isIssued(String loanNumber) {
+        long offset = offsetOf(loanNumber);
+        IssuedNumberSet issuedNumbers = issuedNumbers();
+        synchronized (issuedNumbers) {
+            return issuedNumbers.contains(offset);
+        }
+    }
+
+    // Loaded on startup, before the web server takes requests: a caller arriving earlier fails rather than waiting for
+    // the full scan of the loans table
+    private IssuedNumberSet issuedNumbers() {
+        IssuedNumberSet issuedNumbers = issued;
+        if (issuedNumbers == null) {
+            throw new IllegalStateException("Issued loan numbers are not loaded yet");
+        }
+        return issuedNumbers;
+    }
+
+    @Override
+    public void start() {
+        if (issued != null) {
+            return;
+        }
+        IssuedNumberSet loaded = new IssuedNumberSet(LOAN_NUMBERS);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT loan_number FROM loans");
+            statement.setFetchSize(LOAD_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            long offset = offsetOf(resultSet.getString(1));
+            if (offset >= 0) {
+                loaded.add(offset);
+            }
+        });
+        issued = loaded;
+        logger.info("Loaded {} issued loan numbers ({} KB)", loaded.size(), loaded.sizeInBytes() / 1024);
+    }
+
+    @Override
+    public void stop() {
+        // nothing to release, the issued numbers are kept across a restart of the context
+    }
+
+    @Override
+    public boolean isRunning() {
+        return issued != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // -1 for anything that is not a number of the 12 digit range
+    private static long offsetOf(String loanNumber) {
+        if (loanNumber == null || loanNumber.length() != 12) {
+            return -1;
+        }
+        try {
+            long offset = Long.parseLong(loanNumber) - FIRST_LOAN_NUMBER;
+            return offset >= 0 && offset < LOAN_NUMBERS ? offset : -1;
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+}
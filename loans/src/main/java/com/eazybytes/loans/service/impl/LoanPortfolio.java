@@ -0,0 +1,189 @@
+package com.eazybytes.loans.service.impl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+    The terms of every loan of the portfolio, one primitive array per term (no object per loan, a million loans take
+    ~20 MB), and the projection of their schedules.
+
+    project() recomputes the schedule of every loan with the AmortizationEngine on a fork/join pool: the loans are split
+    in halves until a range holds at most chunkSize loans, each range is projected into totals of its own and the
+    totals are merged back up the tree, so no two threads ever write to the same counters. Installment factors are
+    shared by all loans of the same rate and tenure, each range computes them once.
+
+    Months are counted from year 0 (year * 12 + month - 1), see monthIndex.
+    Not thread safe while loans are added, project() may run concurrently once they are.
+ */
+public final class LoanPortfolio {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private long[] principals = new long[INITIAL_CAPACITY];
+    private int[] annualRatesBps = new int[INITIAL_CAPACITY];
+    private int[] tenuresMonths = new int[INITIAL_CAPACITY];
+    private int[] firstDueMonths = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param principal - amount lent, in minor units
+     * @param annualRateBps - annual interest rate in basis points
+     * @param tenureMonths - number of monthly installments
+     * @param firstDueMonth - monthIndex of the month the first installment is due
+     */
+    public void add(long principal, int annualRateBps, int tenureMonths, int firstDueMonth) {
+        if (size == principals.length) {
+            int capacity = size * 2;
+            principals = Arrays.copyOf(principals, capacity);
+            annualRatesBps = Arrays.copyOf(annualRatesBps, capacity);
+            tenuresMonths = Arrays.copyOf(tenuresMonths, capacity);
+            firstDueMonths = Arrays.copyOf(firstDueMonths, capacity);
+        }
+        principals[size] = principal;
+        annualRatesBps[size] = annualRateBps;
+        tenuresMonths[size] = tenureMonths;
+        firstDueMonths[size] = firstDueMonth;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param pool - runs the projection, its parallelism is the number of ranges projected at once
+     * @param fromMonth - monthIndex of the first month of the projection
+     * @param months - number of months projected
+     * @param chunkSize - loans projected by one task
+     * @return the schedule totals of every loan, and the installments due in each month of the projection
+     */
+    public Projection project(ForkJoinPool pool, int fromMonth, int months, int chunkSize) {
+        if (months < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("months and chunkSize must be positive");
+        }
+        return pool.invoke(new ProjectionTask(0, size, fromMonth, months, chunkSize));
+    }
+
+    /**
+     * @return months since year 0, the month arithmetic of the projection
+     */
+    public static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    // loans [from, to)
+    private final class ProjectionTask extends RecursiveTask<Projection> {
+
+        private final int from;
+        private final int to;
+        private final int fromMonth;
+        private final int months;
+        private final int chunkSize;
+
+        private ProjectionTask(int from, int to, int fromMonth, int months, int chunkSize) {
+            this.from = from;
+            this.to = to;
+            this.fromMonth = fromMonth;
+            this.months = months;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Projection compute() {
+            if (to - from <= chunkSize) {
+                return projectRange();
+            }
+            int middle = (from + to) >>> 1;
+            ProjectionTask first = new ProjectionTask(from, middle, fromMonth, months, chunkSize);
+            first.fork();
+            Projection second = new ProjectionTask(middle, to, fromMonth, months, chunkSize).compute();
+            return first.join().merge(second);
+        }
+
+        private Projection projectRange() {
+            Projection projection = new Projection(months);
+            Map<Long, BigDecimal> installmentFactors = new HashMap<>();
+            int toMonth = fromMonth + months;
+            for (int loan = from; loan < to; loan++) {
+                long principal = principals[loan];
+                int annualRateBps = annualRatesBps[loan];
+                int tenureMonths = tenuresMonths[loan];
+                int firstDueMonth = firstDueMonths[loan];
+                BigDecimal installmentFactor = installmentFactors.computeIfAbsent(((long) annualRateBps << 32) | tenureMonths,
+                        terms -> AmortizationEngine.installmentFactor(annualRateBps, tenureMonths));
+                long installment = AmortizationEngine.monthlyInstallment(principal, installmentFactor);
+                long[] collections = projection.collections;
+                long[] scheduledBalance = {0};
+                projection.totalInterest += AmortizationEngine.schedule(principal, installment, annualRateBps, tenureMonths,
+                        (number, payment, repaid, interest, balance) -> {
+                            int dueMonth = firstDueMonth + number - 1;
+                            if (dueMonth >= fromMonth && dueMonth < toMonth) {
+                                collections[dueMonth - fromMonth] += payment;
+                            }
+                            if (dueMonth >= fromMonth) {
+                                scheduledBalance[0] += repaid;
+                            }
+                        });
+                projection.loans++;
+                projection.totalPrincipal += principal;
+                projection.scheduledPrincipal += scheduledBalance[0];
+            }
+            return projection;
+        }
+    }
+
+    /**
+     * Totals of a projection, amounts in minor units
+     */
+    public static final class Projection {
+
+        private final long[] collections;
+        private long loans;
+        private long totalPrincipal;
+        private long totalInterest;
+        private long scheduledPrincipal;
+
+        private Projection(int months) {
+            this.collections = new long[months];
+        }
+
+        private Projection merge(Projection other) {
+            loans += other.loans;
+            totalPrincipal += other.totalPrincipal;
+            totalInterest += other.totalInterest;
+            scheduledPrincipal += other.scheduledPrincipal;
+            for (int month = 0; month < collections.length; month++) {
+                collections[month] += other.collections[month];
+            }
+            return this;
+        }
+
+        public long getLoans() {
+            return loans;
+        }
+
+        public long getTotalPrincipal() {
+            return totalPrincipal;
+        }
+
+        // interest over the whole schedules
+        public long getTotalInterest() {
+            return totalInterest;
+        }
+
+        // principal of the installments due from the first month of the projection on
+        public long getScheduledPrincipal() {
+            return scheduledPrincipal;
+        }
+
+        // installments due in each month of the projection, principal and interest
+        public long[] getCollections() {
+            return collections.clone();
+        }
+    }
+}
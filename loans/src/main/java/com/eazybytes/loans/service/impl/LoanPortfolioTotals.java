@@ -0,0 +1,317 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.dto.LoanPortfolioTotalsDto;
+import com.eazybytes.loans.dto.LoanTypeTotalsDto;
+import com.eazybytes.loans.entity.Loans;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Loan count, outstanding and paid amounts per loan type, kept in memory and served without reading the loans table.
+
+    LoansServiceImpl reports every loan it creates, updates and deletes, LoanInterestAccrualJob the interest it accrues
+    and LoanRepaymentsServiceImpl the repayment files it applies. The difference a write makes is added to the totals
+    (striped LongAdders, writers never contend on one counter) once its transaction has committed. The totals of a
+    type are read one counter after the other, a loan changing meanwhile may show in one of them only.
+
+    Only the writes of this instance are counted. Every reconcileInterval the totals are verified against a GROUP BY of
+    the loans table on the primary, differences (loans written by another instance, or by hand) are added to the
+    totals and the verified totals are stored in loan_portfolio_totals. A verification only counts when no write of
+    this instance was committing while the table was read, otherwise it cannot tell which of them the table already
+    included; it is skipped and tried again next time. Outcomes are counted by loans.totals.reconciliations.
+
+    On startup the totals are seeded from loan_portfolio_totals and verified right away in the background. Without a
+    stored snapshot they are computed from the loans table before requests are served.
+ */
+@Component
+public class LoanPortfolioTotals implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanPortfolioTotals.class);
+
+    private static final String MATCHED = "matched";
+    private static final String CORRECTED = "corrected";
+    private static final String SKIPPED = "skipped";
+
+    private static final String TOTALS_SQL = "SELECT loan_type, COUNT(*), COALESCE(SUM(outstanding_amount), 0), " +
+            "COALESCE(SUM(amount_paid), 0) FROM loans GROUP BY loan_type";
+    private static final String SNAPSHOT_SQL = "SELECT loan_type, loan_count, total_outstanding, total_paid, reconciled_at " +
+            "FROM loan_portfolio_totals";
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT INTO loan_portfolio_totals (loan_type, loan_count, " +
+            "total_outstanding, total_paid, reconciled_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration reconcileInterval;
+    private final Map<String, TypeTotals> totals = new ConcurrentHashMap<>();
+    private final AtomicLong committing = new AtomicLong(); // reported writes between beforeCommit and their totals update
+    private final AtomicLong applied = new AtomicLong(); // reported writes added to the totals so far
+    private final Object reconciliation = new Object();
+    private volatile LocalDateTime reconciledAt; // null until verified
+    private volatile ScheduledExecutorService scheduler;
+
+    public LoanPortfolioTotals(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${loans.totals.reconcile-interval:10m}") Duration reconcileInterval) {
+        if(reconcileInterval.isNegative() || reconcileInterval.isZero()) {
+            throw new IllegalArgumentException("loans.totals.reconcile-interval must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager); // read-write, the primary is verified
+        this.meterRegistry = meterRegistry;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * @param loans - Loan saved by the current transaction
+     */
+    public void recordCreated(Loans loans) {
+        record(loans.getLoanType(), 1, loans.getOutstandingAmount(), loans.getAmountPaid());
+    }
+
+    /**
+     * @param loanType - Type of the loan before the update
+     * @param outstandingAmount - Outstanding amount before the update
+     * @param amountPaid - Amount paid before the update
+     * @param loans - Loan as updated by the current transaction
+     */
+    public void recordUpdated(String loanType, int outstandingAmount, int amountPaid, Loans loans) {
+        if(loanType.equals(loans.getLoanType())) {
+            record(loanType, 0, loans.getOutstandingAmount() - (long) outstandingAmount, loans.getAmountPaid() - (long) amountPaid);
+        } else {
+            record(loanType, -1, -outstandingAmount, -amountPaid);
+            record(loans.getLoanType(), 1, loans.getOutstandingAmount(), loans.getAmountPaid());
+        }
+    }
+
+    /**
+     * @param loans - Loan deleted by the current transaction
+     */
+    public void recordDeleted(Loans loans) {
+        record(loans.getLoanType(), -1, -loans.getOutstandingAmount(), -loans.getAmountPaid());
+    }
+
+    /**
+     * @param loanType - Type of the loans interest was accrued on by the current transaction
+     * @param interest - Interest added to their outstanding amount
+     */
+    public void recordAccrued(String loanType, long interest) {
+        record(loanType, 0, interest, 0);
+    }
+
+    /**
+     * @param loanType - Type of the loans repaid by the current transaction
+     * @param amount - Amount repaid, taken off their outstanding amount
+     */
+    public void recordRepaid(String loanType, long amount) {
+        record(loanType, 0, -amount, amount);
+    }
+
+    /**
+     * @return the totals of every loan type with loans, and of all of them
+     */
+    public LoanPortfolioTotalsDto snapshot() {
+        List<LoanTypeTotalsDto> loanTypes = new ArrayList<>(totals.size());
+        long loans = 0;
+        long outstandingAmount = 0;
+        long amountPaid = 0;
+        for (Map.Entry<String, TypeTotals> entry : totals.entrySet()) {
+            LoanTypeTotalsDto loanTypeTotalsDto = entry.getValue().toDto(entry.getKey());
+            if(loanTypeTotalsDto.getLoans() == 0) {
+                continue;
+            }
+            loanTypes.add(loanTypeTotalsDto);
+            loans += loanTypeTotalsDto.getLoans();
+            outstandingAmount += loanTypeTotalsDto.getOutstandingAmount();
+            amountPaid += loanTypeTotalsDto.getAmountPaid();
+        }
+        loanTypes.sort((first, second) -> first.getLoanType().compareTo(second.getLoanType()));
+        LoanPortfolioTotalsDto loanPortfolioTotalsDto = new LoanPortfolioTotalsDto();
+        loanPortfolioTotalsDto.setLoans(loans);
+        loanPortfolioTotalsDto.setOutstandingAmount(outstandingAmount);
+        loanPortfolioTotalsDto.setAmountPaid(amountPaid);
+        loanPortfolioTotalsDto.setLoanTypes(loanTypes);
+        loanPortfolioTotalsDto.setReconciledAt(reconciledAt);
+        return loanPortfolioTotalsDto;
+    }
+
+    /**
+     * Verifies the totals against the loans table, see the class comment
+     *
+     * @return true if the totals were verified, false if writes committing meanwhile made it inconclusive
+     */
+    public boolean reconcile() {
+        synchronized (reconciliation) {
+            Map<String, long[]> observed = new HashMap<>();
+            Map<String, long[]> actual = transactionTemplate.execute(status -> {
+                long appliedBefore = applied.get();
+                long committingBefore = committing.get();
+                Map<String, long[]> table = new HashMap<>();
+                jdbcTemplate.query(TOTALS_SQL, resultSet -> {
+                    table.put(resultSet.getString(1), new long[] {resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4)});
+                });
+                totals.forEach((loanType, typeTotals) -> observed.put(loanType, typeTotals.sums()));
+                if(committingBefore != 0 || committing.get() != 0 || applied.get() != appliedBefore) {
+                    return null;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                jdbcTemplate.update("DELETE FROM loan_portfolio_totals");
+                List<Object[]> rows = new ArrayList<>(table.size());
+                table.forEach((loanType, sums) -> rows.add(new Object[] {loanType, sums[0], sums[1], sums[2], Timestamp.valueOf(now)}));
+                jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, rows);
+                reconciledAt = now;
+                return table;
+            });
+            if(actual == null) {
+                meterRegistry.counter("loans.totals.reconciliations", "outcome", SKIPPED).increment();
+                logger.debug("Loan totals not verified, loans were being written");
+                return false;
+            }
+
+            Set<String> loanTypes = new HashSet<>(actual.keySet());
+            loanTypes.addAll(observed.keySet());
+            boolean corrected = false;
+            for (String loanType : loanTypes) {
+                long[] expected = actual.getOrDefault(loanType, new long[3]);
+                long[] counted = observed.getOrDefault(loanType, new long[3]);
+                if(expected[0] != counted[0] || expected[1] != counted[1] || expected[2] != counted[2]) {
+                    logger.warn("Loan totals of {} corrected from {} loans, {} outstanding, {} paid to {} loans, {} outstanding, {} paid",
+                            loanType, counted[0], counted[1], counted[2], expected[0], expected[1], expected[2]);
+                    typeTotals(loanType).add(expected[0] - counted[0], expected[1] - counted[1], expected[2] - counted[2]);
+                    corrected = true;
+                }
+            }
+            meterRegistry.counter("loans.totals.reconciliations", "outcome", corrected ? CORRECTED : MATCHED).increment();
+            return true;
+        }
+    }
+
+    @Override
+    public void start() {
+        totals.clear();
+        List<LocalDateTime> snapshotTimes = new ArrayList<>();
+        jdbcTemplate.query(SNAPSHOT_SQL, resultSet -> {
+            typeTotals(resultSet.getString(1)).add(resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4));
+            snapshotTimes.add(resultSet.getTimestamp(5).toLocalDateTime());
+        });
+        if(snapshotTimes.isEmpty()) {
+            reconcile(); // nothing is written before the web server starts, conclusive
+        } else {
+            reconciledAt = snapshotTimes.get(0);
+        }
+        logger.info("Loan totals seeded from {}", snapshotTimes.isEmpty() ? "the loans table" : "the snapshot of " + reconciledAt);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loan-totals-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reconcileInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, snapshotTimes.isEmpty() ? intervalMillis : 0,
+                intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Before the web server starts, so requests never see unseeded totals
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException exception) {
+            logger.warn("Could not verify the loan totals, retrying later: {}", exception.getMessage());
+        }
+    }
+
+    private void record(String loanType, long loans, long outstandingAmount, long amountPaid) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            typeTotals(loanType).add(loans, outstandingAmount, amountPaid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean counted; // between beforeCommit and afterCompletion
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing.incrementAndGet();
+                counted = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_COMMITTED) {
+                    typeTotals(loanType).add(loans, outstandingAmount, amountPaid);
+                    applied.incrementAndGet();
+                }
+                if(counted) {
+                    committing.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private TypeTotals typeTotals(String loanType) {
+        return totals.computeIfAbsent(loanType, type -> new TypeTotals());
+    }
+
+    private static final class TypeTotals {
+
+        private final LongAdder loans = new LongAdder();
+        private final LongAdder outstandingAmount = new LongAdder();
+        private final LongAdder amountPaid = new LongAdder();
+
+        private void add(long loanCount, long outstanding, long paid) {
+            loans.add(loanCount);
+            outstandingAmount.add(outstanding);
+            amountPaid.add(paid);
+        }
+
+        private long[] sums() {
+            return new long[] {loans.sum(), outstandingAmount.sum(), amountPaid.sum()};
+        }
+
+        private LoanTypeTotalsDto toDto(String loanType) {
+            long[] sums = sums();
+            return new LoanTypeTotalsDto(loanType, sums[0], sums[1], sums[2]);
+        }
+    }
+}
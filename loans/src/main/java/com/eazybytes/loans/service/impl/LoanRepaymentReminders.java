@@ -0,0 +1,326 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.config.LoanRemindersProperties;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.event.LoanRepaymentDueEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Repayment-due reminders: a LoanRepaymentDueEvent is published loans.reminders.lead-days before every installment
+    of an open loan is due (monthly from the day the loan was created, see AmortizationEngine).
+
+    The loans are kept in memory in a LoanDueDateQueue, ordered by the due date of their next installment. Every
+    tickInterval the loans due within the lead days are taken off the queue and queued again for their next
+    installment; a tick with nothing due costs one comparison, the loans table is never polled. The queue is built
+    on startup from one streamed scan of the open loans (~1 s a million loans) and rebuilt every rebuildInterval, which
+    picks up the loans written by other instances. Loans this instance creates, pays off or deletes are queued or
+    removed as their transaction commits.
+
+    An installment is claimed before its reminder is sent: reminded_due_date of the loan is moved to its due date by
+    a conditional batch update, only where it was before it and the loan is still open. Whichever instance claims it
+    sends the reminder, once, a restart or a rebuild does not send it again. Installments already due when their loan
+    is taken off the queue (the service was down) are skipped.
+
+    Metrics: loans.reminders.sent, loans.reminders.queued (gauge) and loans.reminders.rebuild (timer).
+ */
+@Component
+@EnableConfigurationProperties(LoanRemindersProperties.class)
+public class LoanRepaymentReminders implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanRepaymentReminders.class);
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final int CLAIM_BATCH_SIZE = 1_000;
+
+    private static final String OPEN_LOANS_SQL = "SELECT loan_id, created_at, tenure_months FROM loans " +
+            "WHERE outstanding_amount > 0";
+    private static final String CLAIM_SQL = "UPDATE loans SET reminded_due_date = ? WHERE loan_id = ? " +
+            "AND outstanding_amount > 0 AND (reminded_due_date IS NULL OR reminded_due_date < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanRemindersProperties properties;
+    private final Counter sent;
+    private final Timer rebuildTimer;
+    private final Object lock = new Object(); // guards queue and changesDuringRebuild
+    private final Object rebuilding = new Object(); // one rebuild at a time
+    private LoanDueDateQueue queue = new LoanDueDateQueue();
+    private List<Runnable> changesDuringRebuild; // null unless a rebuild is scanning the table
+    private volatile ScheduledExecutorService scheduler;
+
+    public LoanRepaymentReminders(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher, LoanRemindersProperties properties,
+                                  MeterRegistry meterRegistry) {
+        if(properties.getLeadDays() < 0 || properties.getTickInterval().toMillis() < 1
+                || properties.getRebuildInterval().toMillis() < 1) {
+            throw new IllegalArgumentException("loans.reminders.lead-days must not be negative, tick-interval and " +
+                    "rebuild-interval must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager); // read-write, claims on the primary
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.sent = meterRegistry.counter("loans.reminders.sent");
+        this.rebuildTimer = Timer.builder("loans.reminders.rebuild")
+                .description("Time to rebuild the reminder queue from the loans table")
+                .register(meterRegistry);
+        Gauge.builder("loans.reminders.queued", this, LoanRepaymentReminders::queued)
+                .description("Open loans waiting for the reminder of their next installment")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the next installment of a loan saved by the current transaction, or removes a loan paid off
+     *
+     * @param loans - Loan created or updated by the current transaction
+     */
+    public void track(Loans loans) {
+        int loanId = Math.toIntExact(loans.getLoanId());
+        if(loans.getOutstandingAmount() <= 0) {
+            afterCommit(() -> queue.remove(loanId));
+            return;
+        }
+        LocalDate startDate = loans.getCreatedAt().toLocalDate();
+        int tenureMonths = loans.getTenureMonths();
+        afterCommit(() -> scheduleNext(queue, loanId, startDate, tenureMonths, LocalDate.now()));
+    }
+
+    /**
+     * @param loans - Loan deleted by the current transaction
+     */
+    public void untrack(Loans loans) {
+        int loanId = Math.toIntExact(loans.getLoanId());
+        afterCommit(() -> queue.remove(loanId));
+    }
+
+    /**
+     * Sends the reminders of the installments due within the lead days
+     *
+     * @param today - Day the lead days are counted from
+     * @return the number of reminders sent
+     */
+    public int sendReminders(LocalDate today) {
+        int todayDay = (int) today.toEpochDay();
+        List<long[]> due = new ArrayList<>(); // loan id, installment, due day
+        synchronized (lock) {
+            queue.pollDue(todayDay + properties.getLeadDays(), (loanId, startDay, tenureMonths, installment, dueDay) -> {
+                if(dueDay >= todayDay) {
+                    due.add(new long[] {loanId, installment, dueDay});
+                }
+                if(installment < tenureMonths) {
+                    queue.schedule(loanId, startDay, tenureMonths, installment + 1,
+                            dueDay(LocalDate.ofEpochDay(startDay), installment + 1));
+                }
+            });
+        }
+        int reminders = 0;
+        for (int from = 0; from < due.size(); from += CLAIM_BATCH_SIZE) {
+            List<LoanRepaymentDueEvent> events = claim(due.subList(from, Math.min(from + CLAIM_BATCH_SIZE, due.size())));
+            for (LoanRepaymentDueEvent event : events) {
+                try {
+                    eventPublisher.publishEvent(event);
+                } catch (RuntimeException exception) {
+                    logger.warn("Repayment reminder of loan {} failed: {}", event.loanNumber(), exception.getMessage());
+                }
+            }
+            sent.increment(events.size());
+            reminders += events.size();
+        }
+        return reminders;
+    }
+
+    // Claims the installments in one transaction and returns the events of those claimed by this instance
+    private List<LoanRepaymentDueEvent> claim(List<long[]> due) {
+        return transactionTemplate.execute(status -> {
+            List<Object[]> claims = new ArrayList<>(due.size());
+            for (long[] installment : due) {
+                Date dueDate = Date.valueOf(LocalDate.ofEpochDay(installment[2]));
+                claims.add(new Object[] {dueDate, installment[0], dueDate});
+            }
+            int[] updateCounts = jdbcTemplate.batchUpdate(CLAIM_SQL, claims);
+            Map<Long, long[]> claimed = new HashMap<>();
+            for (int index = 0; index < updateCounts.length; index++) {
+                if(updateCounts[index] != 0) {
+                    claimed.put(due.get(index)[0], due.get(index));
+                }
+            }
+            if(claimed.isEmpty()) {
+                return List.<LoanRepaymentDueEvent>of();
+            }
+            List<LoanRepaymentDueEvent> events = new ArrayList<>(claimed.size());
+            jdbcTemplate.query("SELECT loan_id, loan_number, mobile_number, loan_type FROM loans WHERE loan_id IN (" +
+                    String.join(", ", Collections.nCopies(claimed.size(), "?")) + ")", resultSet -> {
+                long[] installment = claimed.get(resultSet.getLong(1));
+                events.add(new LoanRepaymentDueEvent(resultSet.getString(2), resultSet.getString(3),
+                        resultSet.getString(4), (int) installment[1], LocalDate.ofEpochDay(installment[2])));
+            }, claimed.keySet().toArray());
+            return events;
+        });
+    }
+
+    /**
+     * Rebuilds the queue from the open loans of the loans table
+     */
+    public void rebuild() {
+        synchronized (rebuilding) {
+            synchronized (lock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            long started = System.nanoTime();
+            LoanDueDateQueue rebuilt = new LoanDueDateQueue();
+            LocalDate today = LocalDate.now();
+            try {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(OPEN_LOANS_SQL);
+                    statement.setFetchSize(LOAD_FETCH_SIZE);
+                    return statement;
+                }, (RowCallbackHandler) resultSet -> {
+                    LocalDate startDate = resultSet.getDate(2).toLocalDate();
+                    int tenureMonths = resultSet.getInt(3);
+                    int installment = nextInstallment(startDate, tenureMonths, today);
+                    if(installment > 0) {
+                        rebuilt.append(resultSet.getInt(1), (int) startDate.toEpochDay(), tenureMonths, installment,
+                                dueDay(startDate, installment));
+                    }
+                });
+                rebuilt.heapify();
+            } catch (RuntimeException exception) {
+                synchronized (lock) {
+                    changesDuringRebuild = null;
+                }
+                throw exception;
+            }
+            int queued;
+            synchronized (lock) {
+                queue = rebuilt;
+                changesDuringRebuild.forEach(Runnable::run); // committed meanwhile, maybe after the scan read the loan
+                changesDuringRebuild = null;
+                queued = queue.size();
+            }
+            long elapsed = System.nanoTime() - started;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Reminder queue rebuilt with {} loans in {} ms", queued, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    @Override
+    public void start() {
+        rebuild(); // before the web server starts, loans saved from then on are queued as they commit
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loan-repayment-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = properties.getTickInterval().toMillis();
+        long rebuildMillis = properties.getRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> quietly("send the repayment reminders", () -> sendReminders(LocalDate.now())),
+                0, tickMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> quietly("rebuild the reminder queue", this::rebuild),
+                rebuildMillis, rebuildMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Before the web server starts, so loans created by requests are queued
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private int queued() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    private void quietly(String action, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException exception) {
+            logger.warn("Could not {}, retrying later: {}", action, exception.getMessage());
+        }
+    }
+
+    // Applies the change to the queue once the transaction commits, and again to a queue being rebuilt
+    private void afterCommit(Runnable change) {
+        Runnable guarded = () -> {
+            synchronized (lock) {
+                change.run();
+                if(changesDuringRebuild != null) {
+                    changesDuringRebuild.add(change);
+                }
+            }
+        };
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guarded.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guarded.run();
+            }
+        });
+    }
+
+    private static void scheduleNext(LoanDueDateQueue queue, int loanId, LocalDate startDate, int tenureMonths,
+                                     LocalDate today) {
+        int installment = nextInstallment(startDate, tenureMonths, today);
+        if(installment > 0) {
+            queue.schedule(loanId, (int) startDate.toEpochDay(), tenureMonths, installment, dueDay(startDate, installment));
+        } else {
+            queue.remove(loanId);
+        }
+    }
+
+    // First installment due today or later, 0 if the last one is past
+    private static int nextInstallment(LocalDate startDate, int tenureMonths, LocalDate today) {
+        int installment = (int) Math.max(1, ChronoUnit.MONTHS.between(startDate, today));
+        while(installment <= tenureMonths && startDate.plusMonths(installment).isBefore(today)) {
+            installment++;
+        }
+        return installment <= tenureMonths ? installment : 0;
+    }
+
+    private static int dueDay(LocalDate startDate, int installment) {
+        return (int) startDate.plusMonths(installment).toEpochDay();
+    }
+}
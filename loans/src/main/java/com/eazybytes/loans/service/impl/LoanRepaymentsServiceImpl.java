@@ -0,0 +1,291 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.config.LoanRepaymentsProperties;
+import com.eazybytes.loans.dto.LoanRepaymentFileDto;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.exception.OperationInProgressException;
+import com.eazybytes.loans.exception.RepaymentFileAlreadyIngestedException;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    Bulk repayments: the files of the payment processor are applied to amount_paid and outstanding_amount of the loans.
+
+    A file is read by the RepaymentFileReader (memory-mapped, no object per line) into RepaymentsByLoan, the sum of
+    its payments per loan. The loans are then updated loans.repayments.batch-size at a time, each batch in one
+    transaction: the loans are read with one IN query, payments to unknown loans and payments above the outstanding
+    amount are rejected, the others are sent as one JDBC batch of conditional updates. The Loans second-level cache
+    region is evicted after every batch, the updates bypass Hibernate.
+
+    Every file is registered in loan_repayment_files and every loan it is applied to is recorded in
+    loan_repayment_applications, in the transaction of the batch that paid it; a loan with a record of the file is not
+    paid by it again, whatever other files paid it since. An ingestion
+    interrupted half way is simply run again, the loans already paid are skipped. A completed file is not ingested again.
+    One file is ingested at a time: a request arriving while another file is being ingested is rejected (409) rather
+    than waiting minutes behind it.
+
+    Files are only read from loans.repayments.inbox-dir. Metrics: loans.repayments.payments, loans.repayments.applied
+    and loans.repayments.ingestion (timer).
+ */
+@Service
+@EnableConfigurationProperties(LoanRepaymentsProperties.class)
+public class LoanRepaymentsServiceImpl implements ILoanRepaymentsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanRepaymentsServiceImpl.class);
+
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String REPAID_BY = "LOANS_REPAYMENTS";
+    private static final int MALFORMED_LINES_LOGGED = 10;
+
+    private static final String FIND_FILE_SQL = "SELECT file_id, status, finished_at FROM loan_repayment_files " +
+            "WHERE file_name = ?";
+    private static final String INSERT_FILE_SQL = "INSERT INTO loan_repayment_files (file_name, status, started_at) " +
+            "VALUES (?, ?, ?)";
+    private static final String COMPLETE_FILE_SQL = "UPDATE loan_repayment_files SET status = ?, payments = ?, " +
+            "malformed_lines = ?, applied_loans = ?, applied_amount = ?, finished_at = ? WHERE file_id = ?";
+    private static final String FIND_LOANS_SQL = "SELECT l.loan_number, l.loan_type, l.outstanding_amount, a.file_id " +
+            "FROM loans l LEFT JOIN loan_repayment_applications a ON a.file_id = ? AND a.loan_number = l.loan_number " +
+            "WHERE l.loan_number IN (";
+    private static final String REPAY_SQL = "UPDATE loans SET amount_paid = amount_paid + ?, " +
+            "outstanding_amount = outstanding_amount - ?, updated_at = ?, updated_by = ? " +
+            "WHERE loan_number = ? AND outstanding_amount >= ?";
+    // the primary key (file_id, loan_number) rolls back a batch racing another instance for the same file
+    private static final String RECORD_APPLICATION_SQL = "INSERT INTO loan_repayment_applications (file_id, loan_number, " +
+            "amount, applied_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LoanPortfolioTotals loanPortfolioTotals;
+    private final LoanRepaymentsProperties properties;
+    private final Counter payments;
+    private final Counter appliedLoans;
+    private final Timer ingestionTimer;
+    private final ReentrantLock ingestion = new ReentrantLock(); // no monitor held across the file I/O, virtual threads stay unpinned
+
+    public LoanRepaymentsServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     EntityManagerFactory entityManagerFactory, LoanPortfolioTotals loanPortfolioTotals,
+                                     LoanRepaymentsProperties properties, MeterRegistry meterRegistry) {
+        long windowBytes = properties.getWindowSize().toBytes();
+        if(windowBytes < 1 || windowBytes > Integer.MAX_VALUE || properties.getBatchSize() < 1) {
+            throw new IllegalArgumentException("loans.repayments.window-size must be between 1B and 2GB, " +
+                    "batch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager); // read-write, on the primary
+        this.entityManagerFactory = entityManagerFactory;
+        this.loanPortfolioTotals = loanPortfolioTotals;
+        this.properties = properties;
+        this.payments = meterRegistry.counter("loans.repayments.payments");
+        this.appliedLoans = meterRegistry.counter("loans.repayments.applied");
+        this.ingestionTimer = Timer.builder("loans.repayments.ingestion")
+                .description("Time to read and apply one repayment file")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param fileName - Name of a repayment file in the repayments inbox
+     * @return the outcome of the ingestion
+     */
+    @Override
+    public LoanRepaymentFileDto ingestRepaymentFile(String fileName) {
+        Path inbox = Path.of(properties.getInboxDir()).toAbsolutePath().normalize();
+        Path file = inbox.resolve(fileName).normalize();
+        if(!file.getParent().equals(inbox) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Repayment file", "fileName", fileName);
+        }
+        if(!ingestion.tryLock()) {
+            throw new OperationInProgressException("A repayment file is being ingested, try again later");
+        }
+        try {
+            long started = System.nanoTime();
+            long fileId = registerFile(fileName);
+
+            RepaymentsByLoan repayments = new RepaymentsByLoan();
+            RepaymentFileReader.Summary summary;
+            int[] malformedLogged = {0};
+            try {
+                summary = RepaymentFileReader.read(file, (int) properties.getWindowSize().toBytes(), repayments::add,
+                        lineNumber -> {
+                            if(malformedLogged[0]++ < MALFORMED_LINES_LOGGED) {
+                                logger.warn("Line {} of repayment file {} is not a payment, skipped", lineNumber, fileName);
+                            }
+                        });
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Could not read repayment file " + fileName, exception);
+            }
+            payments.increment(summary.getPayments());
+
+            Outcome outcome = new Outcome();
+            long[] loanNumbers = new long[properties.getBatchSize()];
+            long[] amounts = new long[properties.getBatchSize()];
+            int[] batched = {0};
+            Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+            repayments.forEach((loanNumber, amount, loanPayments) -> {
+                loanNumbers[batched[0]] = loanNumber;
+                amounts[batched[0]] = amount;
+                if(++batched[0] == loanNumbers.length) {
+                    applyBatch(fileId, loanNumbers, amounts, batched[0], updatedAt, outcome);
+                    batched[0] = 0;
+                }
+            });
+            if(batched[0] > 0) {
+                applyBatch(fileId, loanNumbers, amounts, batched[0], updatedAt, outcome);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update(COMPLETE_FILE_SQL, COMPLETED, summary.getPayments(), summary.getMalformed(),
+                    outcome.applied, outcome.appliedAmount, Timestamp.valueOf(now), fileId);
+            long elapsed = System.nanoTime() - started;
+            ingestionTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+            LoanRepaymentFileDto loanRepaymentFileDto = new LoanRepaymentFileDto();
+            loanRepaymentFileDto.setFileName(fileName);
+            loanRepaymentFileDto.setBytes(summary.getBytes());
+            loanRepaymentFileDto.setPayments(summary.getPayments());
+            loanRepaymentFileDto.setMalformedLines(summary.getMalformed());
+            loanRepaymentFileDto.setLoans(repayments.size());
+            loanRepaymentFileDto.setAppliedLoans(outcome.applied);
+            loanRepaymentFileDto.setAppliedAmount(outcome.appliedAmount);
+            loanRepaymentFileDto.setUnknownLoans(outcome.unknown);
+            loanRepaymentFileDto.setRejectedLoans(outcome.rejected);
+            loanRepaymentFileDto.setAlreadyAppliedLoans(outcome.alreadyApplied);
+            loanRepaymentFileDto.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+            loanRepaymentFileDto.setPaymentsPerSecond(summary.getPayments() * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed));
+            loanRepaymentFileDto.setIngestedAt(now);
+            logger.info("Repayment file {} ingested: {} payments to {} loans, {} applied, {} unknown, {} rejected in {} ms",
+                    fileName, summary.getPayments(), repayments.size(), outcome.applied, outcome.unknown,
+                    outcome.rejected, loanRepaymentFileDto.getElapsedMillis());
+            return loanRepaymentFileDto;
+        } finally {
+            ingestion.unlock();
+        }
+    }
+
+    // Returns the file_id of the file, registered now or by an ingestion that did not complete
+    private long registerFile(String fileName) {
+        List<Object[]> files = findFile(fileName);
+        if(files.isEmpty()) {
+            try {
+                jdbcTemplate.update(INSERT_FILE_SQL, fileName, RUNNING, Timestamp.valueOf(LocalDateTime.now()));
+            } catch (DuplicateKeyException exception) {
+                // registered by another instance meanwhile
+            }
+            files = findFile(fileName);
+        }
+        Object[] registered = files.get(0);
+        if(COMPLETED.equals(registered[1])) {
+            throw new RepaymentFileAlreadyIngestedException("Repayment file " + fileName + " was already ingested at "
+                    + registered[2]);
+        }
+        return (long) registered[0];
+    }
+
+    private List<Object[]> findFile(String fileName) {
+        return jdbcTemplate.query(FIND_FILE_SQL, (resultSet, rowNum) -> new Object[] {resultSet.getLong(1),
+                resultSet.getString(2), resultSet.getTimestamp(3) == null ? null : resultSet.getTimestamp(3).toLocalDateTime()},
+                fileName);
+    }
+
+    // loans [0, count) of the arrays, in one transaction
+    private void applyBatch(long fileId, long[] loanNumbers, long[] amounts, int count, Timestamp updatedAt,
+                            Outcome outcome) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Object[] parameters = new Object[count + 1];
+            parameters[0] = fileId;
+            for (int index = 0; index < count; index++) {
+                parameters[index + 1] = Long.toString(loanNumbers[index]);
+            }
+            Map<String, Object[]> loans = new HashMap<>(); // loan number -> loan type, outstanding amount, applied already
+            jdbcTemplate.query(FIND_LOANS_SQL + String.join(", ", Collections.nCopies(count, "?")) + ")", resultSet -> {
+                loans.put(resultSet.getString(1), new Object[] {resultSet.getString(2), resultSet.getLong(3),
+                        resultSet.getObject(4) != null});
+            }, parameters);
+
+            List<Object[]> updates = new ArrayList<>(count);
+            List<String> updateNumbers = new ArrayList<>(count);
+            List<String> loanTypes = new ArrayList<>(count);
+            List<Long> updateAmounts = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                String loanNumber = (String) parameters[index + 1];
+                Object[] loan = loans.get(loanNumber);
+                long amount = amounts[index];
+                if(loan == null) {
+                    outcome.unknown++;
+                } else if((boolean) loan[2]) {
+                    outcome.alreadyApplied++;
+                } else if(amount > (long) loan[1]) {
+                    outcome.rejected++;
+                    logger.debug("Payments of {} to loan {} exceed its outstanding amount of {}, not applied",
+                            amount, loanNumber, loan[1]);
+                } else {
+                    updates.add(new Object[] {amount, amount, updatedAt, REPAID_BY, loanNumber, amount});
+                    updateNumbers.add(loanNumber);
+                    loanTypes.add((String) loan[0]);
+                    updateAmounts.add(amount);
+                }
+            }
+            if(updates.isEmpty()) {
+                return;
+            }
+
+            int[] updateCounts = jdbcTemplate.batchUpdate(REPAY_SQL, updates);
+            Map<String, Long> repaidByType = new HashMap<>();
+            List<Object[]> applications = new ArrayList<>(updateCounts.length);
+            long applied = 0;
+            for (int index = 0; index < updateCounts.length; index++) {
+                if(updateCounts[index] == 0) {
+                    outcome.rejected++; // paid or repaid meanwhile
+                    continue;
+                }
+                applications.add(new Object[] {fileId, updateNumbers.get(index), updateAmounts.get(index), updatedAt});
+                repaidByType.merge(loanTypes.get(index), updateAmounts.get(index), Long::sum);
+                applied++;
+                outcome.appliedAmount += updateAmounts.get(index);
+            }
+            jdbcTemplate.batchUpdate(RECORD_APPLICATION_SQL, applications);
+            repaidByType.forEach(loanPortfolioTotals::recordRepaid);
+            outcome.applied += applied;
+            appliedLoans.increment(applied);
+        });
+        entityManagerFactory.getCache().evict(Loans.class);
+    }
+
+    // Loans of a file by what became of their payments
+    private static final class Outcome {
+
+        private long applied;
+        private long appliedAmount;
+        private long unknown;
+        private long rejected;
+        private long alreadyApplied;
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.config.LoanSchedulesProperties;
+import com.eazybytes.loans.dto.LoanInstallmentDto;
+import com.eazybytes.loans.dto.LoanMonthlyCollectionDto;
+import com.eazybytes.loans.dto.LoanPortfolioDto;
+import com.eazybytes.loans.dto.LoanScheduleDto;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.exception.OperationInProgressException;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.repository.LoansRepository;
+import com.eazybytes.loans.service.ILoanSchedulesService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.Cache;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    Amortization schedules of loans, computed by the AmortizationEngine from the terms stored with each loan.
+
+    A schedule is computed on its first request and cached in loan-schedules (see LoanSchedulesConfig) under the terms
+    it was computed from; the loan itself comes from the second-level cache, so a repeated request costs no SQL.
+
+    The portfolio projection loads the terms of every loan in one streamed query into a LoanPortfolio and recomputes
+    all schedules on a fork/join pool of its own (loans.schedules.parallelism), one recomputation at a time: a request
+    arriving while one runs is turned away rather than queued behind it. The latest projection is kept in memory and
+    served as is, a request never triggers the full scan by fetching it.
+ */
+@Service
+public class LoanSchedulesServiceImpl implements ILoanSchedulesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanSchedulesServiceImpl.class);
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final int MINOR_UNITS = 100; // paise per rupee, loan amounts are whole rupees
+
+    private final LoansRepository loansRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Object, LoanScheduleDto> loanSchedulesCache;
+    private final LoanSchedulesProperties properties;
+    private final ForkJoinPool pool;
+    private final ReentrantLock recomputation = new ReentrantLock(); // no monitor held across the scan, virtual threads stay unpinned
+    private volatile LoanPortfolioDto latestPortfolio; // null until computed
+
+    public LoanSchedulesServiceImpl(LoansRepository loansRepository, JdbcTemplate jdbcTemplate,
+                                    Cache<Object, LoanScheduleDto> loanSchedulesCache, LoanSchedulesProperties properties) {
+        if(properties.getParallelism() < 1 || properties.getChunkSize() < 1 || properties.getProjectionMonths() < 1) {
+            throw new IllegalArgumentException("loans.schedules.parallelism, chunk-size and projection-months must be positive");
+        }
+        this.loansRepository = loansRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loanSchedulesCache = loanSchedulesCache;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+    }
+
+    /**
+     * @param loanNumber - Loan Number of the customer
+     * @return the amortization schedule of the loan
+     */
+    @Override
+    @Transactional(readOnly = true) // served by a read replica when loans.datasource.replicas is configured
+    public LoanScheduleDto fetchSchedule(String loanNumber) {
+        Loans loans = loansRepository.findByLoanNumber(loanNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "loanNumber", loanNumber));
+        ScheduleKey key = new ScheduleKey(loans.getLoanNumber(), loans.getTotalLoan(), loans.getAnnualRateBps(),
+                loans.getTenureMonths(), loans.getCreatedAt().toLocalDate());
+        LoanScheduleDto schedule = loanSchedulesCache.get(key);
+        if(schedule == null) {
+            schedule = computeSchedule(key);
+            loanSchedulesCache.put(key, schedule);
+        }
+        return schedule;
+    }
+
+    private static LoanScheduleDto computeSchedule(ScheduleKey key) {
+        long principal = (long) key.totalLoan() * MINOR_UNITS;
+        long installment = AmortizationEngine.monthlyInstallment(principal,
+                AmortizationEngine.installmentFactor(key.annualRateBps(), key.tenureMonths()));
+        List<LoanInstallmentDto> installments = new ArrayList<>(key.tenureMonths());
+        long totalInterest = AmortizationEngine.schedule(principal, installment, key.annualRateBps(), key.tenureMonths(),
+                (number, payment, repaid, interest, balance) -> {
+                    LoanInstallmentDto loanInstallmentDto = new LoanInstallmentDto();
+                    loanInstallmentDto.setInstallmentNumber(number);
+                    loanInstallmentDto.setDueDate(key.startDate().plusMonths(number));
+                    loanInstallmentDto.setPayment(money(payment));
+                    loanInstallmentDto.setPrincipal(money(repaid));
+                    loanInstallmentDto.setInterest(money(interest));
+                    loanInstallmentDto.setBalance(money(balance));
+                    installments.add(loanInstallmentDto);
+                });
+        LoanScheduleDto loanScheduleDto = new LoanScheduleDto();
+        loanScheduleDto.setLoanNumber(key.loanNumber());
+        loanScheduleDto.setTotalLoan(key.totalLoan());
+        loanScheduleDto.setAnnualInterestRate(BigDecimal.valueOf(key.annualRateBps(), 2));
+        loanScheduleDto.setTenureMonths(key.tenureMonths());
+        loanScheduleDto.setMonthlyInstallment(money(installment));
+        loanScheduleDto.setTotalInterest(money(totalInterest));
+        loanScheduleDto.setTotalPayable(money(principal + totalInterest));
+        loanScheduleDto.setInstallments(List.copyOf(installments));
+        return loanScheduleDto;
+    }
+
+    /**
+     * @return the projection of the schedules of every loan, recomputed now
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LoanPortfolioDto recomputePortfolio() {
+        if(!recomputation.tryLock()) {
+            throw new OperationInProgressException("The portfolio projection is being recomputed, try again later");
+        }
+        try {
+            long started = System.nanoTime();
+            LoanPortfolio portfolio = new LoanPortfolio();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT total_loan, annual_rate_bps, tenure_months, created_at FROM loans");
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> portfolio.add((long) resultSet.getInt(1) * MINOR_UNITS,
+                    resultSet.getInt(2), resultSet.getInt(3),
+                    LoanPortfolio.monthIndex(YearMonth.from(resultSet.getDate(4).toLocalDate())) + 1));
+
+            YearMonth fromMonth = YearMonth.now();
+            LoanPortfolio.Projection projection = portfolio.project(pool, LoanPortfolio.monthIndex(fromMonth),
+                    properties.getProjectionMonths(), properties.getChunkSize());
+
+            LoanPortfolioDto loanPortfolioDto = new LoanPortfolioDto();
+            loanPortfolioDto.setLoans(projection.getLoans());
+            loanPortfolioDto.setTotalPrincipal(money(projection.getTotalPrincipal()));
+            loanPortfolioDto.setTotalInterest(money(projection.getTotalInterest()));
+            loanPortfolioDto.setScheduledPrincipal(money(projection.getScheduledPrincipal()));
+            long[] collections = projection.getCollections();
+            List<LoanMonthlyCollectionDto> monthlyCollections = new ArrayList<>(collections.length);
+            for (int month = 0; month < collections.length; month++) {
+                monthlyCollections.add(new LoanMonthlyCollectionDto(fromMonth.plusMonths(month), money(collections[month])));
+            }
+            loanPortfolioDto.setMonthlyCollections(monthlyCollections);
+            loanPortfolioDto.setComputedAt(LocalDateTime.now());
+            loanPortfolioDto.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            latestPortfolio = loanPortfolioDto;
+            logger.info("Recomputed the schedules of {} loans in {} ms", projection.getLoans(), loanPortfolioDto.getElapsedMillis());
+            return loanPortfolioDto;
+        } finally {
+            recomputation.unlock();
+        }
+    }
+
+    /**
+     * @return the latest projection of the schedules of every loan
+     */
+    @Override
+    public LoanPortfolioDto fetchPortfolio() {
+        LoanPortfolioDto loanPortfolioDto = latestPortfolio;
+        if(loanPortfolioDto == null) {
+            throw new ResourceNotFoundException("Portfolio projection", "computedAt", "none yet");
+        }
+        return loanPortfolioDto;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static BigDecimal money(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    // Everything a schedule is computed from, a loan whose terms change gets a new key
+    private record ScheduleKey(String loanNumber, int totalLoan, int annualRateBps, int tenureMonths, LocalDate startDate) {
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.eazybytes.loans.service.impl;
 
 import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.LoanPortfolioTotalsDto;
 import com.eazybytes.loans.dto.LoansDto;
 import com.eazybytes.loans.entity.Loans;
 import com.eazybytes.loans.exception.LoanAlreadyExistsException;
@@ -9,42 +10,68 @@ import com.eazybytes.loans.mapper.LoansMapper;
 import com.eazybytes.loans.repository.LoansRepository;
 import com.eazybytes.loans.service.ILoansService;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 @AllArgsConstructor
 public class LoansServiceImpl implements ILoansService {
 
+    private static final int MAX_LOAN_NUMBER_ATTEMPTS = 3;
+
     private LoansRepository loansRepository;
+    private LoanNumberAllocator loanNumberAllocator;
+    private LoanPortfolioTotals loanPortfolioTotals;
+    private LoanRepaymentReminders loanRepaymentReminders;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
     public void createLoan(String mobileNumber) {
-        Optional<Loans> optionalLoans= loansRepository.findByMobileNumber(mobileNumber);
-        if(optionalLoans.isPresent()){
-            throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
+        for (int attempt = 1; ; attempt++) {
+            String loanNumber = loanNumberAllocator.nextLoanNumber();
+            try {
+                // read-write, so the duplicate check runs on the primary even when read replicas are configured
+                transactionTemplate.executeWithoutResult(status -> {
+                    Optional<Loans> optionalLoans= loansRepository.findByMobileNumber(mobileNumber);
+                    if(optionalLoans.isPresent()){
+                        throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
+                    }
+                    Loans newLoan = loansRepository.save(createNewLoan(mobileNumber, loanNumber));
+                    loanPortfolioTotals.recordCreated(newLoan);
+                    loanRepaymentReminders.track(newLoan);
+                });
+                return;
+            } catch (DataIntegrityViolationException exception) {
+                // issued by another instance after this one loaded its issued numbers, the allocator now knows it too
+                if(attempt == MAX_LOAN_NUMBER_ATTEMPTS || !loansRepository.existsByLoanNumber(loanNumber)) {
+                    throw exception;
+                }
+            }
         }
-        loansRepository.save(createNewLoan(mobileNumber));
     }
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
+     * @param loanNumber - Loan Number issued by the LoanNumberAllocator
      * @return the new loan details
      */
-    private Loans createNewLoan(String mobileNumber) {
+    private Loans createNewLoan(String mobileNumber, String loanNumber) {
         Loans newLoan = new Loans();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(loanNumber);
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(LoansConstants.HOME_LOAN);
         newLoan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
         newLoan.setAmountPaid(0);
         newLoan.setOutstandingAmount(LoansConstants.NEW_LOAN_LIMIT);
+        newLoan.setAnnualRateBps(LoansConstants.NEW_LOAN_RATE_BPS);
+        newLoan.setTenureMonths(LoansConstants.NEW_LOAN_TENURE_MONTHS);
         return newLoan;
     }
 
@@ -54,6 +81,7 @@ public class LoansServiceImpl implements ILoansService {
      * @return Loan Details based on a given mobileNumber
      */
     @Override
+    @Transactional(readOnly = true) // served by a read replica when loans.datasource.replicas is configured
     public LoansDto fetchLoan(String mobileNumber) {
         Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
@@ -67,11 +95,19 @@ public class LoansServiceImpl implements ILoansService {
      * @return boolean indicating if the update of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        String loanType = loans.getLoanType();
+        int outstandingAmount = loans.getOutstandingAmount();
+        int amountPaid = loans.getAmountPaid();
         LoansMapper.mapToLoans(loansDto, loans);
         loansRepository.save(loans);
+        loanPortfolioTotals.recordUpdated(loanType, outstandingAmount, amountPaid, loans);
+        if((outstandingAmount > 0) != (loans.getOutstandingAmount() > 0)) {
+            loanRepaymentReminders.track(loans); // paid off, or reopened
+        }
         return  true;
     }
 
@@ -80,13 +116,24 @@ public class LoansServiceImpl implements ILoansService {
      * @return boolean indicating if the delete of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteLoan(String mobileNumber) {
         Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
         loansRepository.deleteById(loans.getLoanId());
+        loanPortfolioTotals.recordDeleted(loans);
+        loanRepaymentReminders.untrack(loans);
         return true;
     }
 
+    /**
+     * @return the live totals of the loans, by loan type
+     */
+    @Override
+    public LoanPortfolioTotalsDto fetchPortfolioTotals() {
+        return loanPortfolioTotals.snapshot();
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.eazybytes.loans.service.impl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/*
+    Reads the repayment files of the payment processor, one payment per line: the 12 digit loan number, then the
+    amount in whole rupees (".00" allowed), separated by commas, spaces, tabs or quotes. The same parser reads CSV
+    ("100000000042,1500") and fixed-width records ("100000000042      1500.00"); fields after the amount (reference,
+    date) are ignored, and so is a first line that does not start with a digit (a CSV header).
+
+    The file is memory-mapped in windows of windowBytes (a mapping is limited to 2 GB, files are not) and parsed
+    straight from the mapped bytes: no String, no byte[] and no object per line, the loan number and the amount are
+    accumulated as longs. A window ends at its last complete line, the next one is mapped from there.
+ */
+public final class RepaymentFileReader {
+
+    private static final int LOAN_NUMBER_DIGITS = 12;
+    private static final int MAX_AMOUNT_DIGITS = 10; // sums of many payments to a loan stay far below Long.MAX_VALUE
+
+    private RepaymentFileReader() {
+        // restrict instantiation
+    }
+
+    /**
+     * Receives the payments of a file, in file order
+     */
+    @FunctionalInterface
+    public interface RepaymentConsumer {
+
+        /**
+         * @param loanNumber - the 12 digit loan number
+         * @param amount - amount paid, in whole rupees, positive
+         */
+        void accept(long loanNumber, long amount);
+    }
+
+    /**
+     * @param file - repayment file
+     * @param windowBytes - bytes mapped at once, at least the length of the longest line
+     * @param consumer - receives the payments
+     * @param malformed - receives the line numbers (from 1) of the lines that are not a payment
+     * @return the number of lines, payments and malformed lines read
+     */
+    public static Summary read(Path file, int windowBytes, RepaymentConsumer consumer, LongConsumer malformed)
+            throws IOException {
+        if (windowBytes < 1) {
+            throw new IllegalArgumentException("windowBytes must be positive");
+        }
+        Summary summary = new Summary();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowBytes, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int lineStart = 0;
+                for (int index = 0; index < length; index++) {
+                    if (window.get(index) == '\n') {
+                        parseLine(window, lineStart, index, summary, consumer, malformed);
+                        lineStart = index + 1;
+                    }
+                }
+                if (last && lineStart < length) {
+                    parseLine(window, lineStart, length, summary, consumer, malformed); // no newline at the end
+                    lineStart = length;
+                }
+                if (lineStart == 0) {
+                    throw new IOException("Line " + (summary.lines + 1) + " of " + file + " is longer than "
+                            + windowBytes + " bytes");
+                }
+                position += lineStart;
+            }
+            summary.bytes = size;
+        }
+        return summary;
+    }
+
+    // bytes [from, to) of one line, without its '\n'
+    private static void parseLine(MappedByteBuffer window, int from, int to, Summary summary, RepaymentConsumer consumer,
+                                  LongConsumer malformed) {
+        long lineNumber = ++summary.lines;
+        int index = skipSeparators(window, from, to);
+        if (index == to) {
+            return; // blank line
+        }
+        long loanNumber = 0;
+        int digitsStart = index;
+        for (; index < to && isDigit(window.get(index)); index++) {
+            loanNumber = loanNumber * 10 + (window.get(index) - '0');
+        }
+        if (index - digitsStart != LOAN_NUMBER_DIGITS || index == to || !isSeparator(window.get(index))) {
+            if (lineNumber > 1 || digitsStart < index) {
+                summary.malformed++;
+                malformed.accept(lineNumber);
+            }
+            return; // header
+        }
+
+        index = skipSeparators(window, index, to);
+        long amount = 0;
+        digitsStart = index;
+        for (; index < to && isDigit(window.get(index)); index++) {
+            amount = amount * 10 + (window.get(index) - '0');
+        }
+        boolean valid = index > digitsStart && index - digitsStart <= MAX_AMOUNT_DIGITS && amount > 0;
+        if (valid && index < to && window.get(index) == '.') {
+            for (index++; index < to && window.get(index) == '0'; index++) {
+                // whole rupees only, paise must be zero
+            }
+        }
+        if (!valid || (index < to && !isSeparator(window.get(index)))) {
+            summary.malformed++;
+            malformed.accept(lineNumber);
+            return;
+        }
+        summary.payments++;
+        consumer.accept(loanNumber, amount);
+    }
+
+    private static int skipSeparators(MappedByteBuffer window, int from, int to) {
+        int index = from;
+        while (index < to && isSeparator(window.get(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(byte character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean isSeparator(byte character) {
+        return character == ',' || character == ' ' || character == '\t' || character == '"' || character == ';'
+                || character == '\r';
+    }
+
+    /**
+     * Counts of a file read
+     */
+    public static final class Summary {
+
+        private long bytes;
+        private long lines;
+        private long payments;
+        private long malformed;
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getPayments() {
+            return payments;
+        }
+
+        public long getMalformed() {
+            return malformed;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.eazybytes.loans.service.impl;
+
+/*
+    The payments of a repayment file summed by loan number, so each loan is updated once however many payments it
+    has in the file. Open addressing on primitive arrays (linear probing, at most half full): no object per loan
+    or per payment.
+
+    Loan numbers are the 12 digit numbers of LoanNumberAllocator, never 0. Not thread safe.
+ */
+public final class RepaymentsByLoan {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final long FREE = 0; // slot without a loan
+
+    private long[] loanNumbers = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] payments = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Receives the loans, in no particular order
+     */
+    @FunctionalInterface
+    public interface LoanRepaymentConsumer {
+
+        /**
+         * @param loanNumber - the 12 digit loan number
+         * @param amount - sum of the payments to the loan, in whole rupees
+         * @param payments - number of payments to the loan
+         */
+        void accept(long loanNumber, long amount, int payments);
+    }
+
+    /**
+     * @param loanNumber - the 12 digit loan number
+     * @param amount - amount paid, in whole rupees
+     */
+    public void add(long loanNumber, long amount) {
+        if (loanNumber == FREE) {
+            throw new IllegalArgumentException("loan number must not be 0");
+        }
+        int slot = slot(loanNumbers, loanNumber);
+        if (loanNumbers[slot] == FREE) {
+            loanNumbers[slot] = loanNumber;
+            if (++size * 2 > loanNumbers.length) {
+                rehash(loanNumbers.length * 2);
+                slot = slot(loanNumbers, loanNumber);
+            }
+        }
+        amounts[slot] = Math.addExact(amounts[slot], amount);
+        payments[slot]++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(LoanRepaymentConsumer consumer) {
+        for (int slot = 0; slot < loanNumbers.length; slot++) {
+            if (loanNumbers[slot] != FREE) {
+                consumer.accept(loanNumbers[slot], amounts[slot], payments[slot]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldLoanNumbers = loanNumbers;
+        long[] oldAmounts = amounts;
+        int[] oldPayments = payments;
+        loanNumbers = new long[capacity];
+        amounts = new long[capacity];
+        payments = new int[capacity];
+        for (int oldSlot = 0; oldSlot < oldLoanNumbers.length; oldSlot++) {
+            if (oldLoanNumbers[oldSlot] != FREE) {
+                int slot = slot(loanNumbers, oldLoanNumbers[oldSlot]);
+                loanNumbers[slot] = oldLoanNumbers[oldSlot];
+                amounts[slot] = oldAmounts[oldSlot];
+                payments[slot] = oldPayments[oldSlot];
+            }
+        }
+    }
+
+    private static int slot(long[] keys, long loanNumber) {
+        int mask = keys.length - 1;
+        long hash = loanNumber * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[slot] != FREE && keys[slot] != loanNumber) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -6,9 +6,82 @@ CREATE TABLE IF NOT EXISTS `loans` (
   `total_loan` int NOT NULL,
   `amount_paid` int NOT NULL,
   `outstanding_amount` int NOT NULL,
+  `annual_rate_bps` int NOT NULL DEFAULT 850, -- the terms of new loans, see LoansConstants
+  `tenure_months` int NOT NULL DEFAULT 240,
+  `accrued_through` date DEFAULT NULL, -- interest accrual, see LoanInterestAccrualJob. From created_at while NULL
+  `accrual_carry_paise` int NOT NULL DEFAULT 0,
+  `reminded_due_date` date DEFAULT NULL, -- due date of the last installment reminded, see LoanRepaymentReminders
   `created_at` date NOT NULL,
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
   PRIMARY KEY (`loan_id`)
-);
\ No newline at end of file
+);
+
+-- Loans are looked up by their number. Unique: the backstop of LoanNumberAllocator for numbers issued by other
+-- instances after it loaded the issued ones
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_loans_loan_number` ON `loans` (`loan_number`);
+
+-- Single row with the time of the last replication heartbeat, written to the primary by ReplicaHealthMonitor.
+-- The value a replica returns tells how far it is behind the primary.
+CREATE TABLE IF NOT EXISTS `replication_heartbeat` (
+  `heartbeat_id` INT PRIMARY KEY,
+  `beat_at` BIGINT NOT NULL
+);
+
+INSERT INTO `replication_heartbeat` (`heartbeat_id`, `beat_at`)
+  SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `replication_heartbeat` WHERE `heartbeat_id` = 1);
+
+-- Totals of the loans of each type as last verified against the loans table by LoanPortfolioTotals, which keeps them
+-- up to date in memory in between. Seeds the in-memory totals on startup
+CREATE TABLE IF NOT EXISTS `loan_portfolio_totals` (
+  `loan_type` varchar(100) NOT NULL,
+  `loan_count` BIGINT NOT NULL,
+  `total_outstanding` BIGINT NOT NULL,
+  `total_paid` BIGINT NOT NULL,
+  `reconciled_at` TIMESTAMP NOT NULL,
+  PRIMARY KEY (`loan_type`)
+);
+
+-- One row per day interest was accrued for by LoanInterestAccrualJob. While RUNNING, checkpoint_loan_id is the first
+-- loan id not known to be accrued: a run interrupted by a crash or a shutdown resumes from there
+CREATE TABLE IF NOT EXISTS `loan_accrual_runs` (
+  `accrual_date` date NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `first_loan_id` BIGINT NOT NULL,
+  `last_loan_id` BIGINT NOT NULL,
+  `checkpoint_loan_id` BIGINT NOT NULL,
+  `accrued_loans` BIGINT NOT NULL,
+  `accrued_interest` BIGINT NOT NULL,
+  `started_at` TIMESTAMP NOT NULL,
+  `updated_at` TIMESTAMP NOT NULL,
+  `finished_at` TIMESTAMP DEFAULT NULL,
+  PRIMARY KEY (`accrual_date`)
+);
+
+-- Repayment files ingested by LoanRepaymentsServiceImpl. A file still RUNNING was interrupted, ingesting it again
+-- applies it to the loans it was not applied to yet
+CREATE TABLE IF NOT EXISTS `loan_repayment_files` (
+  `file_id` int NOT NULL AUTO_INCREMENT,
+  `file_name` varchar(100) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `payments` BIGINT DEFAULT NULL,
+  `malformed_lines` BIGINT DEFAULT NULL,
+  `applied_loans` BIGINT DEFAULT NULL,
+  `applied_amount` BIGINT DEFAULT NULL,
+  `started_at` TIMESTAMP NOT NULL,
+  `finished_at` TIMESTAMP DEFAULT NULL,
+  PRIMARY KEY (`file_id`)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS `uk_loan_repayment_files_file_name` ON `loan_repayment_files` (`file_name`);
+
+-- The loans each repayment file was applied to, written in the transaction that paid them: ingesting a file again
+-- never pays a loan it already paid, whatever other files paid the loan in between
+CREATE TABLE IF NOT EXISTS `loan_repayment_applications` (
+  `file_id` int NOT NULL,
+  `loan_number` varchar(100) NOT NULL,
+  `amount` BIGINT NOT NULL,
+  `applied_at` TIMESTAMP NOT NULL,
+  PRIMARY KEY (`file_id`, `loan_number`)
+);
@@ -0,0 +1,102 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.dto.LoanTypeTotalsDto;
+import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.loans.service.impl.LoanInterestAccrualJob;
+import com.eazybytes.loans.service.impl.LoanPortfolioTotals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+class LoanAccrualTests {
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private LoanInterestAccrualJob loanInterestAccrualJob;
+
+    @Autowired
+    private LoanPortfolioTotals loanPortfolioTotals;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    // One test: runs accrue every loan of the database, their order matters
+    @Test
+    void accrualResumesFromItsCheckpointAndNeverAccruesADayTwice() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        loanPortfolioTotals.reconcile(); // takes in the loans of the other test contexts, they share the database
+        iLoansService.createLoan("9876500051");
+        iLoansService.createLoan("9876500052");
+        jdbcTemplate.update("UPDATE loans SET created_at = ? WHERE mobile_number IN ('9876500051', '9876500052')",
+                Date.valueOf(today.minusDays(11)));
+        long first = loanId("9876500051");
+        long second = loanId("9876500052");
+
+        // a run interrupted after the partitions before the second loan
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO loan_accrual_runs (accrual_date, status, first_loan_id, last_loan_id, " +
+                "checkpoint_loan_id, accrued_loans, accrued_interest, started_at, updated_at) " +
+                "VALUES (?, 'RUNNING', ?, ?, ?, 0, 0, ?, ?)", Date.valueOf(yesterday), first, second, second, now, now);
+        assertTrue(loanInterestAccrualJob.accrue(yesterday));
+        assertEquals(100_000, iLoansService.fetchLoan("9876500051").getOutstandingAmount());
+        // 100000 * 8.50% * 10 / 365 = 232.87
+        assertEquals(100_232, iLoansService.fetchLoan("9876500052").getOutstandingAmount());
+        assertEquals(87, carry("9876500052"));
+        assertEquals("COMPLETED", jdbcTemplate.queryForObject(
+                "SELECT status FROM loan_accrual_runs WHERE accrual_date = ?", String.class, Date.valueOf(yesterday)));
+        assertEquals(1, accruedLoans(yesterday));
+
+        assertFalse(loanInterestAccrualJob.accrue(yesterday));
+        assertEquals(100_232, iLoansService.fetchLoan("9876500052").getOutstandingAmount());
+
+        // a crash after the first partition committed, before its checkpoint: resumed, every loan is counted once
+        doThrow(new DataAccessResourceFailureException("crashed before the checkpoint")).doCallRealMethod()
+                .when(jdbcTemplate).update(startsWith("UPDATE loan_accrual_runs SET checkpoint_loan_id"), any(Object[].class));
+        assertThrows(IllegalStateException.class, () -> loanInterestAccrualJob.accrue(today));
+        assertTrue(loanInterestAccrualJob.accrue(today));
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE accrued_through = ?", Long.class,
+                Date.valueOf(today)), accruedLoans(today));
+        // 11 days caught up: 256.16; 100232 * 8.50% / 365 = 23.34, plus the 0.87 carried
+        assertEquals(100_256, iLoansService.fetchLoan("9876500051").getOutstandingAmount());
+        assertEquals(16, carry("9876500051"));
+        assertEquals(100_256, iLoansService.fetchLoan("9876500052").getOutstandingAmount());
+        assertEquals(21, carry("9876500052"));
+
+        long outstanding = jdbcTemplate.queryForObject(
+                "SELECT SUM(outstanding_amount) FROM loans WHERE loan_type = 'Home Loan'", Long.class);
+        assertEquals(outstanding, iLoansService.fetchPortfolioTotals().getLoanTypes().stream()
+                .filter(loanType -> loanType.getLoanType().equals("Home Loan"))
+                .mapToLong(LoanTypeTotalsDto::getOutstandingAmount).sum());
+    }
+
+    private long loanId(String mobileNumber) {
+        return jdbcTemplate.queryForObject("SELECT loan_id FROM loans WHERE mobile_number = ?", Long.class, mobileNumber);
+    }
+
+    private long accruedLoans(LocalDate accrualDate) {
+        return jdbcTemplate.queryForObject("SELECT accrued_loans FROM loan_accrual_runs WHERE accrual_date = ?",
+                Long.class, Date.valueOf(accrualDate));
+    }
+
+    private int carry(String mobileNumber) {
+        return jdbcTemplate.queryForObject("SELECT accrual_carry_paise FROM loans WHERE mobile_number = ?",
+                Integer.class, mobileNumber);
+    }
+}
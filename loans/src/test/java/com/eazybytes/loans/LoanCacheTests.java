@@ -0,0 +1,101 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.metrics.SqlStatementRecorder;
+import com.eazybytes.loans.repository.LoansRepository;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
+import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.loans.service.impl.LoanInterestAccrualJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "loans.repayments.inbox-dir=target/loan-cache-inbox")
+class LoanCacheTests {
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private ILoanRepaymentsService iLoanRepaymentsService;
+
+    @Autowired
+    private LoanInterestAccrualJob loanInterestAccrualJob;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repeatedLookupsAreServedFromTheSecondLevelCache() {
+        iLoansService.createLoan("9876500081");
+        String loanNumber = iLoansService.fetchLoan("9876500081").getLoanNumber();
+
+        assertEquals(0, statementsOf("cache-fetch-by-mobile-number", () -> iLoansService.fetchLoan("9876500081")));
+        assertEquals(0, statementsOf("cache-find-by-loan-number", () -> loansRepository.findByLoanNumber(loanNumber).orElseThrow()));
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", LoansConstants.LOANS_CACHE_REGION).tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void accrualUpdatesEvictTheCachedLoans() {
+        iLoansService.createLoan("9876500082");
+        String loanNumber = iLoansService.fetchLoan("9876500082").getLoanNumber();
+        assertEquals(0, statementsOf("cache-before-accrual", () -> loansRepository.findByLoanNumber(loanNumber).orElseThrow()));
+
+        // an accrual date of its own, far enough back that only this loan has days to accrue on it
+        LocalDate accrualDate = LocalDate.now().minusDays(200);
+        jdbcTemplate.update("UPDATE loans SET created_at = ? WHERE mobile_number = '9876500082'",
+                Date.valueOf(accrualDate.minusDays(10)));
+        assertTrue(loanInterestAccrualJob.accrue(accrualDate));
+        // back to today, so its installments are not due in the reminder tests sharing the database
+        jdbcTemplate.update("UPDATE loans SET created_at = CURRENT_DATE WHERE mobile_number = '9876500082'");
+
+        // 100000 * 8.50% * 10 / 365 = 232.87
+        assertEquals(100_232, loansRepository.findByLoanNumber(loanNumber).orElseThrow().getOutstandingAmount());
+        assertEquals(100_232, iLoansService.fetchLoan("9876500082").getOutstandingAmount());
+        assertEquals(0, statementsOf("cache-after-accrual", () -> loansRepository.findByLoanNumber(loanNumber).orElseThrow()));
+    }
+
+    @Test
+    void repaymentUpdatesEvictTheCachedLoans() throws IOException {
+        iLoansService.createLoan("9876500083");
+        String loanNumber = iLoansService.fetchLoan("9876500083").getLoanNumber();
+        assertEquals(0, statementsOf("cache-before-repayment", () -> loansRepository.findByLoanNumber(loanNumber).orElseThrow()));
+
+        Path inbox = Files.createDirectories(Path.of("target/loan-cache-inbox"));
+        Files.writeString(inbox.resolve("cache-repayments.csv"), loanNumber + ",2500,REF1\n");
+        iLoanRepaymentsService.ingestRepaymentFile("cache-repayments.csv");
+
+        assertEquals(97_500, loansRepository.findByLoanNumber(loanNumber).orElseThrow().getOutstandingAmount());
+        assertEquals(2_500, iLoansService.fetchLoan("9876500083").getAmountPaid());
+    }
+
+    private long statementsOf(String endpoint, Runnable lookup) {
+        sqlStatementRecorder.startRequest(endpoint);
+        try {
+            lookup.run();
+        } finally {
+            sqlStatementRecorder.finishRequest();
+        }
+        return sqlStatementRecorder.snapshot().endpoints().get(endpoint).statements();
+    }
+}
@@ -0,0 +1,75 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.loans.service.impl.LoanNumberAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class LoanNumberAllocatorTests {
+
+    @MockitoSpyBean
+    private LoanNumberAllocator loanNumberAllocator;
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void numbersAreUniqueAndKnownAsIssued() {
+        iLoansService.createLoan("9876500091");
+        assertTrue(loanNumberAllocator.isIssued(iLoansService.fetchLoan("9876500091").getLoanNumber()));
+
+        Set<String> loanNumbers = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String loanNumber = loanNumberAllocator.nextLoanNumber();
+            assertTrue(loanNumbers.add(loanNumber), "issued twice: " + loanNumber);
+            assertEquals(12, loanNumber.length());
+            assertTrue(loanNumberAllocator.isIssued(loanNumber));
+        }
+        assertFalse(loanNumberAllocator.isIssued("not a number"));
+    }
+
+    @Test
+    void numberIssuedByAnotherInstanceIsRetriedWithTheNextOne() {
+        // issued by another instance after this one loaded the issued numbers, unknown to the allocator
+        insertLoan("9876500092", "100899999901");
+        assertFalse(loanNumberAllocator.isIssued("100899999901"));
+        doReturn("100899999901").doCallRealMethod().when(loanNumberAllocator).nextLoanNumber();
+
+        iLoansService.createLoan("9876500093");
+
+        assertNotEquals("100899999901", iLoansService.fetchLoan("9876500093").getLoanNumber());
+        verify(loanNumberAllocator, times(2)).nextLoanNumber();
+    }
+
+    @Test
+    void creationFailsAfterThreeNumbersIssuedElsewhere() {
+        insertLoan("9876500094", "100899999911");
+        insertLoan("9876500095", "100899999912");
+        insertLoan("9876500096", "100899999913");
+        doReturn("100899999911", "100899999912", "100899999913").when(loanNumberAllocator).nextLoanNumber();
+
+        assertThrows(DataIntegrityViolationException.class, () -> iLoansService.createLoan("9876500097"));
+        verify(loanNumberAllocator, times(3)).nextLoanNumber();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE mobile_number = '9876500097'", Integer.class));
+    }
+
+    private void insertLoan(String mobileNumber, String loanNumber) {
+        jdbcTemplate.update("INSERT INTO loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, " +
+                "outstanding_amount, created_at, created_by) VALUES (?, ?, 'Home Loan', 100000, 0, 100000, CURRENT_DATE, 'TEST')",
+                mobileNumber, loanNumber);
+    }
+}
@@ -0,0 +1,62 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.config.LoanSchedulesProperties;
+import com.eazybytes.loans.dto.LoanPortfolioDto;
+import com.eazybytes.loans.service.ILoanSchedulesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoanPortfolioRecomputationTests {
+
+    @Autowired
+    private ILoanSchedulesService iLoanSchedulesService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private LoanSchedulesProperties loanSchedulesProperties;
+
+    @Test
+    void recomputationWhileOneIsRunningIsRejected() throws Exception {
+        CountDownLatch projecting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // read by the running recomputation once it has loaded the loans, while it holds the recomputation lock
+        doAnswer(invocation -> {
+            projecting.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(loanSchedulesProperties).getProjectionMonths();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LoanPortfolioDto> running = executor.submit(() -> iLoanSchedulesService.recomputePortfolio());
+            assertTrue(projecting.await(10, TimeUnit.SECONDS));
+            mockMvc.perform(post("/api/recomputePortfolio"))
+                    .andExpect(status().isConflict());
+            release.countDown();
+            assertNotNull(running.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertNotNull(iLoanSchedulesService.recomputePortfolio()); // the lock was released
+    }
+}
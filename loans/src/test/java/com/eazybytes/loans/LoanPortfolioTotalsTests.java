@@ -0,0 +1,95 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.dto.LoanPortfolioTotalsDto;
+import com.eazybytes.loans.dto.LoanTypeTotalsDto;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.loans.service.impl.LoanPortfolioTotals;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LoanPortfolioTotalsTests {
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private LoanPortfolioTotals loanPortfolioTotals;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void totalsFollowCreatesUpdatesAndDeletes() {
+        loanPortfolioTotals.reconcile(); // takes in the loans of the other test contexts, they share the database
+        iLoansService.createLoan("9876500041");
+        iLoansService.createLoan("9876500042");
+        LoansDto loansDto = iLoansService.fetchLoan("9876500041");
+        loansDto.setAmountPaid(10_000);
+        loansDto.setOutstandingAmount(90_000);
+        iLoansService.updateLoan(loansDto);
+        LoansDto carLoan = iLoansService.fetchLoan("9876500042");
+        carLoan.setLoanType("Car Loan");
+        carLoan.setTotalLoan(40_000);
+        carLoan.setOutstandingAmount(40_000);
+        iLoansService.updateLoan(carLoan);
+        iLoansService.createLoan("9876500043");
+        iLoansService.deleteLoan("9876500043");
+
+        LoanPortfolioTotalsDto totals = iLoansService.fetchPortfolioTotals();
+        assertEquals(totalsOfTable(), totalsByType(totals));
+        assertEquals(40_000L, totalsByType(totals).get("Car Loan").get(1));
+        assertEquals(totals.getLoans(), totals.getLoanTypes().stream().mapToLong(LoanTypeTotalsDto::getLoans).sum());
+        double corrected = meterRegistry.counter("loans.totals.reconciliations", "outcome", "corrected").count();
+        assertTrue(loanPortfolioTotals.reconcile()); // nothing is being written, conclusive
+        assertEquals(corrected, meterRegistry.counter("loans.totals.reconciliations", "outcome", "corrected").count());
+    }
+
+    @Test
+    void reconciliationCorrectsLoansWrittenAroundTheService() {
+        loanPortfolioTotals.reconcile();
+        jdbcTemplate.update("INSERT INTO loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, " +
+                "outstanding_amount, created_at, created_by) VALUES ('9876500044', '999900000044', 'Gold Loan', 5000, 0, 5000, CURRENT_DATE, 'TEST')");
+        assertNull(totalsByType(iLoansService.fetchPortfolioTotals()).get("Gold Loan"));
+
+        double corrected = meterRegistry.counter("loans.totals.reconciliations", "outcome", "corrected").count();
+        assertTrue(loanPortfolioTotals.reconcile());
+        LoanPortfolioTotalsDto totals = iLoansService.fetchPortfolioTotals();
+        assertEquals(List.of(1L, 5_000L, 0L), totalsByType(totals).get("Gold Loan"));
+        assertEquals(totalsOfTable(), totalsByType(totals));
+        assertNotNull(totals.getReconciledAt());
+        assertEquals(corrected + 1, meterRegistry.counter("loans.totals.reconciliations", "outcome", "corrected").count());
+        assertEquals(5_000L, jdbcTemplate.queryForObject(
+                "SELECT total_outstanding FROM loan_portfolio_totals WHERE loan_type = 'Gold Loan'", Long.class));
+    }
+
+    // loan type -> loans, outstanding amount, amount paid
+    private Map<String, List<Long>> totalsOfTable() {
+        Map<String, List<Long>> table = new HashMap<>();
+        jdbcTemplate.query("SELECT loan_type, COUNT(*), SUM(outstanding_amount), SUM(amount_paid) FROM loans GROUP BY loan_type",
+                resultSet -> {
+                    table.put(resultSet.getString(1), List.of(resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4)));
+                });
+        return table;
+    }
+
+    private static Map<String, List<Long>> totalsByType(LoanPortfolioTotalsDto totals) {
+        Map<String, List<Long>> byType = new HashMap<>();
+        totals.getLoanTypes().forEach(loanType -> byType.put(loanType.getLoanType(),
+                List.of(loanType.getLoans(), loanType.getOutstandingAmount(), loanType.getAmountPaid())));
+        return byType;
+    }
+}
@@ -0,0 +1,72 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.event.LoanRepaymentDueEvent;
+import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.loans.service.impl.LoanRepaymentReminders;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The reminders are sent by the test only, not by the scheduler: events published on other threads are not recorded
+@SpringBootTest(properties = "loans.reminders.tick-interval=1h")
+@RecordApplicationEvents
+class LoanRemindersTests {
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private LoanRepaymentReminders loanRepaymentReminders;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void remindersAreSentOncePerInstallment() {
+        LocalDate today = LocalDate.now();
+        iLoansService.createLoan("9876500061");
+        iLoansService.createLoan("9876500062");
+        LocalDate startDate = today.minusMonths(1).plusDays(2); // first installment due in 2 days
+        jdbcTemplate.update("UPDATE loans SET created_at = ? WHERE mobile_number IN ('9876500061', '9876500062')",
+                Date.valueOf(startDate));
+        LoansDto paidOff = iLoansService.fetchLoan("9876500062");
+        paidOff.setAmountPaid(paidOff.getTotalLoan());
+        paidOff.setOutstandingAmount(0);
+        iLoansService.updateLoan(paidOff);
+        loanRepaymentReminders.rebuild(); // picks up the new start date
+
+        assertEquals(1, loanRepaymentReminders.sendReminders(today));
+        List<LoanRepaymentDueEvent> events = reminders();
+        assertEquals(1, events.size());
+        String loanNumber = iLoansService.fetchLoan("9876500061").getLoanNumber();
+        assertEquals(new LoanRepaymentDueEvent(loanNumber, "9876500061", "Home Loan", 1, startDate.plusMonths(1)), events.get(0));
+
+        assertEquals(0, loanRepaymentReminders.sendReminders(today)); // queued for the second installment
+        loanRepaymentReminders.rebuild(); // a restart queues the first installment again, it was claimed
+        assertEquals(0, loanRepaymentReminders.sendReminders(today));
+
+        // the second installment, a month later. Loans of the other tests may be due then too
+        loanRepaymentReminders.sendReminders(startDate.plusMonths(2).minusDays(1));
+        assertEquals(2, reminders().size());
+        assertEquals(2, reminders().get(1).installmentNumber());
+    }
+
+    private List<LoanRepaymentDueEvent> reminders() {
+        return applicationEvents.stream(LoanRepaymentDueEvent.class)
+                .filter(event -> event.mobileNumber().equals("9876500061") || event.mobileNumber().equals("9876500062"))
+                .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.config.LoanRepaymentsProperties;
+import com.eazybytes.loans.dto.LoanRepaymentFileDto;
+import com.eazybytes.loans.dto.LoanTypeTotalsDto;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.exception.OperationInProgressException;
+import com.eazybytes.loans.exception.RepaymentFileAlreadyIngestedException;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
+import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.loans.service.impl.LoanPortfolioTotals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+// Small windows and batches, so the file spans several of each
+@SpringBootTest(properties = {"loans.repayments.inbox-dir=target/repayments-inbox", "loans.repayments.window-size=64B",
+        "loans.repayments.batch-size=2"})
+class LoanRepaymentsTests {
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private ILoanRepaymentsService iLoanRepaymentsService;
+
+    @Autowired
+    private LoanPortfolioTotals loanPortfolioTotals;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private LoanRepaymentsProperties loanRepaymentsProperties;
+
+    @Test
+    void repaymentFileIsAppliedOnceToEveryLoan() throws IOException {
+        loanPortfolioTotals.reconcile(); // takes in the loans of the other test contexts, they share the database
+        iLoansService.createLoan("9876500071");
+        iLoansService.createLoan("9876500072");
+        iLoansService.createLoan("9876500073");
+        String first = iLoansService.fetchLoan("9876500071").getLoanNumber();
+        String second = iLoansService.fetchLoan("9876500072").getLoanNumber();
+        String third = iLoansService.fetchLoan("9876500073").getLoanNumber();
+        Path inbox = Files.createDirectories(Path.of("target/repayments-inbox"));
+        Files.writeString(inbox.resolve("repayments-1.csv"), String.join("\n",
+                "loanNumber,amount,reference",
+                first + ",1500,REF1",
+                second + ",\"2000.00\",REF2",
+                first + ",500,REF3",
+                "999999999999,100,REF4", // no such loan
+                third + ",200000,REF5", // more than outstanding
+                "garbage",
+                second + ",12.50,REF6") + "\n");
+
+        LoanRepaymentFileDto ingested = iLoanRepaymentsService.ingestRepaymentFile("repayments-1.csv");
+        assertEquals(5, ingested.getPayments());
+        assertEquals(2, ingested.getMalformedLines());
+        assertEquals(4, ingested.getLoans());
+        assertEquals(2, ingested.getAppliedLoans());
+        assertEquals(4_000, ingested.getAppliedAmount());
+        assertEquals(1, ingested.getUnknownLoans());
+        assertEquals(1, ingested.getRejectedLoans());
+        assertLoan("9876500071", 2_000, 98_000);
+        assertLoan("9876500072", 2_000, 98_000);
+        assertLoan("9876500073", 0, 100_000);
+
+        assertThrows(RepaymentFileAlreadyIngestedException.class,
+                () -> iLoanRepaymentsService.ingestRepaymentFile("repayments-1.csv"));
+        assertThrows(ResourceNotFoundException.class,
+                () -> iLoanRepaymentsService.ingestRepaymentFile("../repayments-1.csv"));
+
+        // an ingestion interrupted after the loans were paid is run again
+        jdbcTemplate.update("UPDATE loan_repayment_files SET status = 'RUNNING', finished_at = NULL " +
+                "WHERE file_name = 'repayments-1.csv'");
+        LoanRepaymentFileDto resumed = iLoanRepaymentsService.ingestRepaymentFile("repayments-1.csv");
+        assertEquals(0, resumed.getAppliedLoans());
+        assertEquals(2, resumed.getAlreadyAppliedLoans());
+        assertLoan("9876500071", 2_000, 98_000);
+
+        long outstanding = jdbcTemplate.queryForObject(
+                "SELECT SUM(outstanding_amount) FROM loans WHERE loan_type = 'Home Loan'", Long.class);
+        assertEquals(outstanding, iLoansService.fetchPortfolioTotals().getLoanTypes().stream()
+                .filter(loanType -> loanType.getLoanType().equals("Home Loan"))
+                .mapToLong(LoanTypeTotalsDto::getOutstandingAmount).sum());
+    }
+
+    @Test
+    void fileRunAgainAfterAnotherPaidTheSameLoanIsNotAppliedTwice() throws IOException {
+        iLoansService.createLoan("9876500074");
+        String loanNumber = iLoansService.fetchLoan("9876500074").getLoanNumber();
+        Path inbox = Files.createDirectories(Path.of("target/repayments-inbox"));
+        Files.writeString(inbox.resolve("repayments-a.csv"), loanNumber + ",1000,REFA\n");
+        Files.writeString(inbox.resolve("repayments-b.csv"), loanNumber + ",3000,REFB\n");
+
+        // file A interrupted after its batch committed, then file B pays the same loan
+        assertEquals(1, iLoanRepaymentsService.ingestRepaymentFile("repayments-a.csv").getAppliedLoans());
+        jdbcTemplate.update("UPDATE loan_repayment_files SET status = 'RUNNING', finished_at = NULL " +
+                "WHERE file_name = 'repayments-a.csv'");
+        assertEquals(1, iLoanRepaymentsService.ingestRepaymentFile("repayments-b.csv").getAppliedLoans());
+
+        LoanRepaymentFileDto resumed = iLoanRepaymentsService.ingestRepaymentFile("repayments-a.csv");
+        assertEquals(0, resumed.getAppliedLoans());
+        assertEquals(1, resumed.getAlreadyAppliedLoans());
+        assertLoan("9876500074", 4_000, 96_000);
+    }
+
+    @Test
+    void ingestionWhileAnotherFileIsIngestedIsRejected() throws Exception {
+        Path inbox = Files.createDirectories(Path.of("target/repayments-inbox"));
+        Files.writeString(inbox.resolve("repayments-slow.csv"), "loanNumber,amount,reference\n");
+        Files.writeString(inbox.resolve("repayments-waiting.csv"), "loanNumber,amount,reference\n");
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // read by the running ingestion just before it maps the file, while it holds the ingestion lock
+        doAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(loanRepaymentsProperties).getWindowSize();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LoanRepaymentFileDto> running = executor.submit(
+                    () -> iLoanRepaymentsService.ingestRepaymentFile("repayments-slow.csv"));
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+            assertThrows(OperationInProgressException.class,
+                    () -> iLoanRepaymentsService.ingestRepaymentFile("repayments-waiting.csv"));
+            release.countDown();
+            assertEquals(0, running.get(10, TimeUnit.SECONDS).getPayments());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertEquals(0, iLoanRepaymentsService.ingestRepaymentFile("repayments-waiting.csv").getPayments()); // the lock was released
+    }
+
+    private void assertLoan(String mobileNumber, int amountPaid, int outstandingAmount) {
+        LoansDto loansDto = iLoansService.fetchLoan(mobileNumber);
+        assertEquals(amountPaid, loansDto.getAmountPaid());
+        assertEquals(outstandingAmount, loansDto.getOutstandingAmount());
+    }
+}
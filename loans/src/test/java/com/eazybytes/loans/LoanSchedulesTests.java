@@ -0,0 +1,94 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.LoanInstallmentDto;
+import com.eazybytes.loans.dto.LoanPortfolioDto;
+import com.eazybytes.loans.dto.LoanScheduleDto;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.service.ILoanSchedulesService;
+import com.eazybytes.loans.service.ILoansService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoanSchedulesTests {
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private ILoanSchedulesService iLoanSchedulesService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scheduleFollowsTheTermsOfTheLoanAndIsCached() throws Exception {
+        iLoansService.createLoan("9876500031");
+        LoansDto loansDto = iLoansService.fetchLoan("9876500031");
+
+        LoanScheduleDto schedule = iLoanSchedulesService.fetchSchedule(loansDto.getLoanNumber());
+        assertEquals(LoansConstants.NEW_LOAN_TENURE_MONTHS, schedule.getInstallments().size());
+        assertEquals(new BigDecimal("8.50"), schedule.getAnnualInterestRate());
+        assertEquals(new BigDecimal("867.83"), schedule.getMonthlyInstallment());
+        LoanInstallmentDto first = schedule.getInstallments().get(0);
+        assertEquals(LocalDate.now().plusMonths(1), first.getDueDate());
+        assertEquals(new BigDecimal("708.33"), first.getInterest());
+        assertEquals(new BigDecimal("0.00"), schedule.getInstallments().get(239).getBalance());
+        assertEquals(schedule.getTotalPayable(), schedule.getTotalInterest().add(new BigDecimal("100000.00")));
+        assertSame(schedule, iLoanSchedulesService.fetchSchedule(loansDto.getLoanNumber()));
+
+        loansDto.setTotalLoan(50_000);
+        iLoansService.updateLoan(loansDto);
+        LoanScheduleDto updated = iLoanSchedulesService.fetchSchedule(loansDto.getLoanNumber());
+        assertEquals(50_000, updated.getTotalLoan());
+        assertEquals(new BigDecimal("433.92"), updated.getMonthlyInstallment());
+
+        mockMvc.perform(get("/api/fetchSchedule").param("loanNumber", loansDto.getLoanNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyInstallment").value(433.92))
+                .andExpect(jsonPath("$.installments.length()").value(240));
+        mockMvc.perform(get("/api/fetchSchedule").param("loanNumber", "999999999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void portfolioProjectsTheSchedulesOfEveryLoan() throws Exception {
+        iLoansService.createLoan("9876500032");
+        iLoansService.createLoan("9876500033");
+        // fetching never starts the full scan, there is nothing to fetch until a projection is recomputed
+        mockMvc.perform(get("/api/fetchPortfolio"))
+                .andExpect(status().isNotFound());
+
+        LoanPortfolioDto portfolio = iLoanSchedulesService.recomputePortfolio();
+        Long loans = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans", Long.class);
+        Long totalLoan = jdbcTemplate.queryForObject("SELECT SUM(total_loan) FROM loans", Long.class);
+        assertEquals(loans, portfolio.getLoans());
+        assertEquals(0, BigDecimal.valueOf(totalLoan).compareTo(portfolio.getTotalPrincipal()));
+        assertEquals(12, portfolio.getMonthlyCollections().size());
+        assertEquals(YearMonth.now(), portfolio.getMonthlyCollections().get(0).getMonth());
+        // loans created today pay their first installment next month
+        assertTrue(portfolio.getMonthlyCollections().get(1).getAmount().compareTo(new BigDecimal("1735.66")) >= 0);
+        assertSame(portfolio, iLoanSchedulesService.fetchPortfolio());
+        mockMvc.perform(get("/api/fetchPortfolio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loans").value(loans));
+    }
+}
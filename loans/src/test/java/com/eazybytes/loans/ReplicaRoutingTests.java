@@ -0,0 +1,86 @@
+package com.eazybytes.loans;
+
+import com.eazybytes.loans.datasource.ReplicaRoutingDataSource;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.service.ILoansService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A second in-memory H2 database plays the replica, "replication" is done by hand through replicaJdbcTemplate
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "loans.datasource.replicas[0].url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "loans.datasource.replicas[0].username=sa",
+        "loans.datasource.replicas[0].password=",
+        "loans.datasource.max-replica-lag=2s",
+        "loans.datasource.health-check-interval=50ms"
+})
+class ReplicaRoutingTests {
+
+    private final JdbcTemplate replicaJdbcTemplate =
+            new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void createReplicaSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaJdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void fetchesAreServedByTheReplicaAndWritesByThePrimary() throws InterruptedException {
+        replicateHeartbeat(System.currentTimeMillis());
+        awaitHealthyReplicas(healthy -> healthy.equals(List.of("replica-0")));
+
+        iLoansService.createLoan("9876544441");
+        // not replicated yet, the read-only fetch does not see the new loan
+        assertThrows(ResourceNotFoundException.class, () -> iLoansService.fetchLoan("9876544441"));
+
+        replicateLoan(9_000_001, "9876544441", "900000000001");
+        assertEquals("900000000001", iLoansService.fetchLoan("9876544441").getLoanNumber());
+    }
+
+    @Test
+    void fetchesFallBackToThePrimaryWhenTheReplicaLags() throws InterruptedException {
+        iLoansService.createLoan("9876544442");
+        replicateLoan(9_000_002, "9876544442", "900000000002");
+
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+        awaitHealthyReplicas(List::isEmpty);
+
+        assertNotEquals("900000000002", iLoansService.fetchLoan("9876544442").getLoanNumber());
+    }
+
+    private void replicateHeartbeat(long beatAt) {
+        replicaJdbcTemplate.update("UPDATE replication_heartbeat SET beat_at = ? WHERE heartbeat_id = 1", beatAt);
+    }
+
+    private void replicateLoan(int loanId, String mobileNumber, String loanNumber) {
+        replicaJdbcTemplate.update("INSERT INTO loans (loan_id, mobile_number, loan_number, loan_type, total_loan, amount_paid, " +
+                "outstanding_amount, created_at, created_by) VALUES (?, ?, ?, 'Home Loan', 100000, 0, 100000, CURRENT_DATE, 'TEST')",
+                loanId, mobileNumber, loanNumber);
+    }
+
+    private void awaitHealthyReplicas(Predicate<List<String>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.test(replicaRoutingDataSource.getHealthyReplicas())) {
+            assertTrue(System.currentTimeMillis() < deadline, "healthy replicas: " + replicaRoutingDataSource.getHealthyReplicas());
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.eazybytes.loans.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationEngineTests {
+
+    @Test
+    void scheduleRepaysThePrincipalWithEqualInstallments() {
+        long principal = 1_00_000_00L; // 1 lakh in paise
+        long installment = AmortizationEngine.monthlyInstallment(principal, AmortizationEngine.installmentFactor(850, 240));
+        assertEquals(86_783, installment); // 867.8227.. rounded up to the paisa
+
+        List<long[]> rows = new ArrayList<>();
+        long totalInterest = AmortizationEngine.schedule(principal, 850, 240,
+                (number, payment, repaid, interest, balance) -> rows.add(new long[] {number, payment, repaid, interest, balance}));
+        assertEquals(240, rows.size());
+        assertArrayEquals(new long[] {1, 86_783, 15_950, 70_833, 1_00_000_00L - 15_950}, rows.get(0));
+        assertEquals(principal, rows.stream().mapToLong(row -> row[2]).sum());
+        assertEquals(totalInterest, rows.stream().mapToLong(row -> row[3]).sum());
+        assertEquals(0, rows.get(239)[4]);
+        for (long[] row : rows.subList(0, 239)) {
+            assertEquals(installment, row[1]);
+        }
+        long last = rows.get(239)[1]; // less, the installments before it were rounded up
+        assertTrue(last <= installment && last > installment * 99 / 100, "last installment " + last);
+    }
+
+    @Test
+    void interestFreeLoansAreSplitEvenly() {
+        List<Long> payments = new ArrayList<>();
+        long totalInterest = AmortizationEngine.schedule(1_000, 0, 3,
+                (number, payment, repaid, interest, balance) -> payments.add(payment));
+        assertEquals(0, totalInterest);
+        assertEquals(List.of(334L, 334L, 332L), payments);
+        assertThrows(IllegalArgumentException.class, () -> AmortizationEngine.installmentFactor(-1, 12));
+        assertThrows(IllegalArgumentException.class, () -> AmortizationEngine.installmentFactor(850, 0));
+    }
+
+    @Test
+    void parallelPortfolioProjectionMatchesTheSchedulesOneByOne() {
+        Random random = new Random(42);
+        LoanPortfolio portfolio = new LoanPortfolio();
+        int fromMonth = 2024 * 12;
+        long totalPrincipal = 0;
+        long totalInterest = 0;
+        long[] collections = new long[12];
+        for (int loan = 0; loan < 5_000; loan++) {
+            long principal = (1 + random.nextInt(1_000_000)) * 100L;
+            int annualRateBps = random.nextInt(4) * 250;
+            int tenureMonths = 6 + random.nextInt(60);
+            int firstDueMonth = fromMonth - 24 + random.nextInt(36);
+            portfolio.add(principal, annualRateBps, tenureMonths, firstDueMonth);
+            totalPrincipal += principal;
+            totalInterest += AmortizationEngine.schedule(principal, annualRateBps, tenureMonths,
+                    (number, payment, repaid, interest, balance) -> {
+                        int month = firstDueMonth + number - 1 - fromMonth;
+                        if (month >= 0 && month < collections.length) {
+                            collections[month] += payment;
+                        }
+                    });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LoanPortfolio.Projection projection = portfolio.project(pool, fromMonth, 12, 100);
+            assertEquals(5_000, projection.getLoans());
+            assertEquals(totalPrincipal, projection.getTotalPrincipal());
+            assertEquals(totalInterest, projection.getTotalInterest());
+            assertArrayEquals(collections, projection.getCollections());
+            assertEquals(0, BigDecimal.valueOf(projection.getTotalInterest())
+                    .compareTo(BigDecimal.valueOf(portfolio.project(pool, fromMonth, 12, 5_000).getTotalInterest())));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
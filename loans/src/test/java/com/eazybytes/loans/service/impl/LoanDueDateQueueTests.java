@@ -0,0 +1,80 @@
+package com.eazybytes.loans.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanDueDateQueueTests {
+
+    @Test
+    void pollsLoansByDueDayAndReschedulesThemFromWithin() {
+        LoanDueDateQueue queue = new LoanDueDateQueue();
+        queue.schedule(3, 0, 12, 1, 30);
+        queue.schedule(1, 0, 12, 1, 10);
+        queue.schedule(2, 0, 12, 1, 10);
+        queue.schedule(3, 0, 12, 2, 5); // moved ahead
+        assertEquals(5, queue.peekDueDay());
+
+        List<int[]> polled = new ArrayList<>();
+        assertEquals(3, queue.pollDue(10, (loanId, startDay, tenureMonths, installment, dueDay) -> {
+            polled.add(new int[] {loanId, installment, dueDay});
+            queue.schedule(loanId, startDay, tenureMonths, installment + 1, dueDay + 30);
+        }));
+        assertArrayEquals(new int[] {3, 2, 5}, polled.get(0));
+        assertArrayEquals(new int[] {1, 1, 10}, polled.get(1));
+        assertArrayEquals(new int[] {2, 1, 10}, polled.get(2));
+        assertEquals(3, queue.size());
+        assertEquals(35, queue.peekDueDay());
+        assertEquals(0, queue.pollDue(34, (loanId, startDay, tenureMonths, installment, dueDay) -> fail()));
+    }
+
+    @Test
+    void matchesASortedListUnderRandomOperations() {
+        Random random = new Random(24);
+        LoanDueDateQueue queue = new LoanDueDateQueue();
+        Map<Integer, Integer> expected = new HashMap<>(); // loan id -> due day
+        for (int loanId = 1; loanId <= 5_000; loanId++) {
+            int dueDay = random.nextInt(1_000);
+            queue.append(loanId, 0, 240, 1, dueDay);
+            expected.put(loanId, dueDay);
+        }
+        queue.heapify();
+
+        for (int round = 0; round < 50; round++) {
+            for (int operation = 0; operation < 2_000; operation++) {
+                int loanId = 1 + random.nextInt(10_000);
+                if(random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(loanId) != null, queue.remove(loanId));
+                } else {
+                    int dueDay = random.nextInt(1_000) + round * 20;
+                    queue.schedule(loanId, 0, 240, 1, dueDay);
+                    expected.put(loanId, dueDay);
+                }
+            }
+            int throughDay = round * 20 + 10;
+            List<int[]> polled = new ArrayList<>();
+            queue.pollDue(throughDay, (loanId, startDay, tenureMonths, installment, dueDay) -> polled.add(new int[] {dueDay, loanId}));
+            List<int[]> due = new ArrayList<>();
+            expected.forEach((loanId, dueDay) -> {
+                if(dueDay <= throughDay) {
+                    due.add(new int[] {dueDay, loanId});
+                }
+            });
+            due.sort(Comparator.<int[]>comparingInt(entry -> entry[0]).thenComparingInt(entry -> entry[1]));
+            assertEquals(due.size(), polled.size());
+            for (int index = 0; index < due.size(); index++) {
+                assertArrayEquals(due.get(index), polled.get(index));
+                expected.remove(due.get(index)[1]);
+            }
+            assertEquals(expected.size(), queue.size());
+            expected.keySet().forEach(loanId -> assertTrue(queue.contains(loanId)));
+        }
+    }
+}
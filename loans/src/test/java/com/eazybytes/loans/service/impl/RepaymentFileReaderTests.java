@@ -0,0 +1,79 @@
+package com.eazybytes.loans.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepaymentFileReaderTests {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readsCsvAndFixedWidthRecords() throws IOException {
+        Path file = write("payments.csv", """
+                loanNumber,amount,reference
+                100000000042,1500,REF1
+                "100000000043","2000.00","REF2"
+                100000000042      500.00 20240115\r
+                
+                not a payment
+                100000000043,12.50,REF3
+                10000000004,100,REF4
+                100000000044,0
+                100000000045,100""");
+        List<long[]> payments = new ArrayList<>();
+        List<Long> malformed = new ArrayList<>();
+        RepaymentFileReader.Summary summary = RepaymentFileReader.read(file, 1 << 20,
+                (loanNumber, amount) -> payments.add(new long[] {loanNumber, amount}), malformed::add);
+
+        assertEquals(10, summary.getLines());
+        assertEquals(4, summary.getPayments());
+        assertEquals(4, summary.getMalformed());
+        assertEquals(List.of(6L, 7L, 8L, 9L), malformed);
+        assertArrayEquals(new long[] {100000000042L, 1500}, payments.get(0));
+        assertArrayEquals(new long[] {100000000043L, 2000}, payments.get(1));
+        assertArrayEquals(new long[] {100000000042L, 500}, payments.get(2));
+        assertArrayEquals(new long[] {100000000045L, 100}, payments.get(3));
+        assertEquals(Files.size(file), summary.getBytes());
+    }
+
+    @Test
+    void windowsEndAtCompleteLines() throws IOException {
+        Random random = new Random(25);
+        StringBuilder content = new StringBuilder();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int line = 0; line < 2_000; line++) {
+            long loanNumber = 100_000_000_000L + random.nextInt(300);
+            long amount = 1 + random.nextInt(100_000);
+            content.append(loanNumber).append(random.nextBoolean() ? "," : "    ").append(amount).append('\n');
+            expected.merge(loanNumber, amount, Long::sum);
+        }
+        Path file = write("windows.csv", content.toString());
+
+        for (int windowBytes : new int[] {24, 25, 64, 1_000, 1 << 20}) {
+            RepaymentsByLoan repayments = new RepaymentsByLoan();
+            RepaymentFileReader.Summary summary = RepaymentFileReader.read(file, windowBytes, repayments::add, line -> fail());
+            assertEquals(2_000, summary.getPayments());
+            Map<Long, Long> grouped = new HashMap<>();
+            repayments.forEach((loanNumber, amount, payments) -> grouped.put(loanNumber, amount));
+            assertEquals(expected, grouped);
+        }
+        assertThrows(IOException.class, () -> RepaymentFileReader.read(file, 10, (loanNumber, amount) -> { }, line -> { }));
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.writeString(directory.resolve(fileName), content, StandardCharsets.US_ASCII);
+    }
+}